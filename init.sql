@@ -1,10 +1,55 @@
+-- ids are Snowflake ids assigned by the application (see ShardRouter); the same schema runs on every shard
 CREATE TABLE IF NOT EXISTS notifications (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     type VARCHAR(10) NOT NULL,
     recipient VARCHAR(255) NOT NULL,
     subject VARCHAR(255),
     content TEXT NOT NULL,
+    -- Idempotency-Key of the create (batch items carry key:index); NULLs do not collide
+    idempotency_key VARCHAR(80) NULL,
     created_at TIMESTAMP NULL,
     updated_at TIMESTAMP NULL,
-    INDEX idx_created_desc (created_at DESC)
-);
\ No newline at end of file
+    INDEX idx_created_desc (created_at DESC),
+    -- keyset inbox pagination; also covers the summary projection so list views never read the row
+    INDEX idx_recipient_inbox (recipient, created_at DESC, id DESC, type, subject)
+)
+-- monthly ranges of the id, whose high bits are the creation time (see MonthlyPartitions), so lookups by id
+-- prune to one partition and a month is archived or dropped as a whole. NotificationArchiveService splits
+-- p_future into months ahead of time. An existing table converts with
+-- ALTER TABLE notifications DROP INDEX uk_idempotency_key, PARTITION BY RANGE (id) (PARTITION p_future VALUES LESS THAN MAXVALUE)
+PARTITION BY RANGE (id) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+-- a unique key on a partitioned table must contain the partitioning column, so Idempotency-Keys are claimed
+-- here, in the create transaction; rows are purged after notification.partitioning.idempotency-key-retention
+CREATE TABLE IF NOT EXISTS notification_idempotency_keys (
+    idempotency_key VARCHAR(80) PRIMARY KEY,
+    notification_id BIGINT NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL,
+    INDEX idx_idempotency_created (created_at)
+);
+
+-- months past notification.partitioning.hot-months; only looked up by id, so no secondary indexes
+CREATE TABLE IF NOT EXISTS notifications_archive (
+    id BIGINT PRIMARY KEY,
+    type VARCHAR(10) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255),
+    content TEXT NOT NULL,
+    idempotency_key VARCHAR(80) NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL
+) ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8
+PARTITION BY RANGE (id) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    notification_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL,
+    sent_at TIMESTAMP(3) NULL,
+    INDEX idx_outbox_pending (sent_at, id)
+);
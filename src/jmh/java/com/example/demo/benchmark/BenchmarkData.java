@@ -0,0 +1,37 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+
+import java.time.LocalDateTime;
+
+final class BenchmarkData {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 7, 15, 12, 1, 2);
+
+    private BenchmarkData() {
+    }
+
+    static NotificationResponse notification(long id) {
+        return NotificationResponse.builder()
+                .id(id)
+                .type(NotificationType.EMAIL)
+                .recipient("bench@example.com")
+                .subject("Benchmark subject " + id)
+                .content("Benchmark content ".repeat(20))
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT)
+                .build();
+    }
+
+    static RecentNotificationResponse recent(long id) {
+        return RecentNotificationResponse.builder()
+                .id(id)
+                .type(NotificationType.EMAIL)
+                .recipient("bench@example.com")
+                .subject("Benchmark subject " + id)
+                .createdAt(CREATED_AT)
+                .build();
+    }
+}
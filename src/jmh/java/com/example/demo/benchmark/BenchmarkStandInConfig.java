@@ -0,0 +1,169 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.RecentFeedProperties;
+import com.example.demo.config.RedisConfig;
+import com.example.demo.dto.InboxPageResponse;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.mq.RocketMQService;
+import com.example.demo.service.InboxService;
+import com.example.demo.service.RecentSnapshot;
+import com.example.demo.service.RedisService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-ins for Redis and RocketMQ so the end-to-end benchmark measures the service,
+ * JPA and cache layers without network dependencies.
+ */
+@Configuration
+@Profile("benchmark")
+public class BenchmarkStandInConfig {
+
+    @Bean
+    @Primary
+    public CacheManager benchmarkCacheManager() {
+        return new ConcurrentMapCacheManager();
+    }
+
+    @Bean
+    @Primary
+    public RedisService benchmarkRedisService(RecentFeedProperties properties) {
+        return new InMemoryRedisService(properties);
+    }
+
+    @Bean
+    @Primary
+    public RocketMQService benchmarkRocketMQService(@Value("${benchmark.mq.latency-ms:0}") long latencyMillis) {
+        return new NoopRocketMQService(latencyMillis);
+    }
+
+    @Bean
+    @Primary
+    public InboxService benchmarkInboxService() {
+        return new NoopInboxService();
+    }
+
+    static class InMemoryRedisService extends RedisService {
+
+        private final ConcurrentSkipListMap<Long, RecentNotificationResponse> recent = new ConcurrentSkipListMap<>();
+        private final AtomicLong version = new AtomicLong();
+        private final int maxSize;
+        // rendered on the first poll after a change, like the Redis scripts do on the change itself
+        private volatile RecentSnapshot snapshot;
+
+        InMemoryRedisService(RecentFeedProperties properties) {
+            super(null, new RedisConfig().objectMapper(), properties, new SimpleMeterRegistry());
+            this.maxSize = properties.getMaxSize();
+        }
+
+        @Override
+        public void addAll(List<RecentNotificationResponse> items) {
+            items.forEach(n -> recent.put(n.getId(), n));
+            while (recent.size() > maxSize) {
+                recent.pollFirstEntry();
+            }
+            snapshot = null;
+        }
+
+        @Override
+        public void update(RecentNotificationResponse n) {
+            recent.computeIfPresent(n.getId(), (id, old) -> n);
+            snapshot = null;
+        }
+
+        @Override
+        public List<RecentNotificationResponse> get() {
+            return new ArrayList<>(recent.descendingMap().values());
+        }
+
+        @Override
+        public RecentSnapshot getSnapshot() {
+            RecentSnapshot current = snapshot;
+            if (current == null && !recent.isEmpty()) {
+                current = new RecentSnapshot(0, version.incrementAndGet(), render(get()).json());
+                snapshot = current;
+            }
+            return current;
+        }
+
+        @Override
+        public void remove(Long id) {
+            recent.remove(id);
+            snapshot = null;
+        }
+    }
+
+    // blocks for a fixed latency to simulate a slow broker; tracks how many sends are in flight at once
+    static class NoopRocketMQService extends RocketMQService {
+
+        private final long latencyMillis;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+
+        NoopRocketMQService(long latencyMillis) {
+            super(null, null, null, null, null, null, new SimpleMeterRegistry());
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public void send(NotificationResponse notification) {
+            if (latencyMillis <= 0) {
+                return;
+            }
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void sendBatch(List<NotificationResponse> notifications) {
+        }
+
+        @Override
+        public void replayJournal() {
+        }
+
+        int peakInFlight() {
+            return peakInFlight.get();
+        }
+    }
+
+    static class NoopInboxService extends InboxService {
+
+        NoopInboxService() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public InboxPageResponse getPage(String recipient, String after, Integer limit) {
+            return InboxPageResponse.builder().items(List.of()).build();
+        }
+
+        @Override
+        public void evict(String recipient) {
+        }
+
+        @Override
+        public void evictAll(Collection<String> recipients) {
+        }
+    }
+}
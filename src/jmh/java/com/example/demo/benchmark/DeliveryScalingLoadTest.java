@@ -0,0 +1,99 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.DeliveryProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.mq.NotificationDispatcher;
+import com.example.demo.mq.NotificationSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives {@link NotificationDispatcher} directly with N consumer threads against senders that block for a
+ * fixed provider latency, and reports deliveries per second for each N. Throughput should grow linearly
+ * with threads until the channel's max-concurrency is reached, then flatten.
+ */
+public class DeliveryScalingLoadTest {
+
+    private static final long PROVIDER_LATENCY_MS = 2;
+    private static final Duration RUN = Duration.ofSeconds(2);
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/delivery-scaling-result.json");
+
+        List<String> results = new ArrayList<>();
+        for (int maxConcurrency : new int[]{1024, 16}) {
+            double single = 0;
+            for (int threads : THREADS) {
+                double throughput = run(threads, maxConcurrency);
+                if (threads == 1) {
+                    single = throughput;
+                }
+                String result = String.format(Locale.ROOT,
+                        "{\"maxConcurrency\":%d,\"threads\":%d,\"throughput\":%.0f,\"efficiency\":%.2f}",
+                        maxConcurrency, threads, throughput, throughput / (single * threads));
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, "[\n  " + String.join(",\n  ", results) + "\n]\n");
+    }
+
+    private static double run(int threads, int maxConcurrency) throws InterruptedException {
+        DeliveryProperties properties = new DeliveryProperties();
+        for (NotificationType type : NotificationType.values()) {
+            DeliveryProperties.Channel channel = new DeliveryProperties.Channel();
+            channel.setMaxConcurrency(maxConcurrency);
+            properties.getChannels().put(type, channel);
+        }
+        NotificationDispatcher dispatcher = new NotificationDispatcher(
+                List.of(new SleepingSender(NotificationType.EMAIL), new SleepingSender(NotificationType.SMS)),
+                null, properties, new SimpleMeterRegistry());
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong delivered = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread consumer = new Thread(() -> {
+                long id = 0;
+                try {
+                    while (running.get()) {
+                        NotificationType type = (id & 1) == 0 ? NotificationType.EMAIL : NotificationType.SMS;
+                        dispatcher.dispatch(NotificationResponse.builder().id(id++).type(type).build());
+                        delivered.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "consumer-" + t);
+            consumer.start();
+        }
+        TimeUnit.MILLISECONDS.sleep(RUN.toMillis());
+        running.set(false);
+        done.await();
+        return delivered.get() / (RUN.toMillis() / 1000.0);
+    }
+
+    private record SleepingSender(NotificationType channel) implements NotificationSender {
+
+        @Override
+        public void send(NotificationResponse notification) throws InterruptedException {
+            TimeUnit.MILLISECONDS.sleep(PROVIDER_LATENCY_MS);
+        }
+    }
+}
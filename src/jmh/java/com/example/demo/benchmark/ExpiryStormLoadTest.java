@@ -0,0 +1,135 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.cache.JitteredTtl;
+import com.example.demo.cache.SingleFlightCacheManager;
+import com.example.demo.config.CacheLockProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Synthetic expiry storm against the notification cache read path. Hundreds of callers hammer a few hot
+ * keys while the whole cache is dropped at a fixed interval, and the database (a 5ms loader) counts its
+ * queries per 100ms window. Compares the plain check-then-load path with {@code SingleFlightCache}, then
+ * shows how TTL jitter spreads the expiry of entries written in the same second.
+ */
+public class ExpiryStormLoadTest {
+
+    private static final int CALLERS = 400;
+    private static final int HOT_KEYS = 20;
+    private static final long DB_LATENCY_MS = 5;
+    private static final Duration RUN = Duration.ofSeconds(3);
+    private static final Duration EXPIRE_EVERY = Duration.ofMillis(500);
+    private static final long WINDOW_MS = 100;
+
+    private static final AtomicLong dbQueries = new AtomicLong();
+    private static volatile AtomicLongArray dbQueriesPerWindow;
+    private static volatile long stormStart;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/expiry-storm-result.json");
+
+        List<String> results = new ArrayList<>();
+        results.add(storm("unprotected", (cache, key) -> {
+            Cache.ValueWrapper cached = cache.get(key);
+            if (cached != null) {
+                return cached.get();
+            }
+            Object value = queryDatabase(key);
+            cache.put(key, value);
+            return value;
+        }, new ConcurrentMapCacheManager("notification").getCache("notification")));
+        results.add(storm("single-flight", (cache, key) -> cache.get(key, () -> queryDatabase(key)),
+                new SingleFlightCacheManager(new ConcurrentMapCacheManager("notification"), null, new CacheLockProperties())
+                        .getCache("notification")));
+        results.add(expirySpread(0));
+        results.add(expirySpread(0.1));
+
+        results.forEach(System.out::println);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, "[\n  " + String.join(",\n  ", results) + "\n]\n");
+    }
+
+    private static Object queryDatabase(Object key) throws InterruptedException {
+        dbQueries.incrementAndGet();
+        int window = (int) ((System.nanoTime() - stormStart) / TimeUnit.MILLISECONDS.toNanos(WINDOW_MS));
+        if (window < dbQueriesPerWindow.length()) {
+            dbQueriesPerWindow.incrementAndGet(window);
+        }
+        TimeUnit.MILLISECONDS.sleep(DB_LATENCY_MS);
+        return "notification-" + key;
+    }
+
+    private interface Reader {
+        Object read(Cache cache, Object key) throws Exception;
+    }
+
+    private static String storm(String name, Reader reader, Cache cache) throws InterruptedException {
+        dbQueries.set(0);
+        dbQueriesPerWindow = new AtomicLongArray((int) (RUN.toMillis() / WINDOW_MS) + 1);
+        AtomicLong reads = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        stormStart = System.nanoTime();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                callers.submit(() -> {
+                    while (running.get()) {
+                        reader.read(cache, (long) ThreadLocalRandom.current().nextInt(HOT_KEYS));
+                        reads.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            long deadline = System.nanoTime() + RUN.toNanos();
+            while (System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(EXPIRE_EVERY.toMillis());
+                cache.clear();
+            }
+            running.set(false);
+        }
+
+        long peak = 0;
+        for (int i = 0; i < dbQueriesPerWindow.length(); i++) {
+            peak = Math.max(peak, dbQueriesPerWindow.get(i));
+        }
+        double seconds = RUN.toMillis() / 1000.0;
+        return String.format(Locale.ROOT,
+                "{\"scenario\":\"%s\",\"callers\":%d,\"hotKeys\":%d,\"reads\":%d,\"dbQueries\":%d,"
+                        + "\"dbQps\":%.0f,\"peakDbQps\":%d}",
+                name, CALLERS, HOT_KEYS, reads.get(), dbQueries.get(), dbQueries.get() / seconds,
+                peak * (1000 / WINDOW_MS));
+    }
+
+    // 10k entries cached within one second; how many expire in the busiest second afterwards
+    private static String expirySpread(double jitter) {
+        JitteredTtl ttl = new JitteredTtl(Duration.ofMinutes(10), jitter);
+        int entries = 10_000;
+        Map<Long, Integer> perSecond = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            long writtenAtMs = ThreadLocalRandom.current().nextLong(1000);
+            long expiresAtSecond = (writtenAtMs + ttl.getTimeToLive(i, null).toMillis()) / 1000;
+            perSecond.merge(expiresAtSecond, 1, Integer::sum);
+        }
+        int peak = perSecond.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        return String.format(Locale.ROOT,
+                "{\"scenario\":\"ttl-jitter-%s\",\"entries\":%d,\"expirySeconds\":%d,\"peakExpiriesPerSecond\":%d}",
+                jitter, entries, perSecond.size(), peak);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.mq.NotificationTopicQueues;
+
+// a fixed write queue count in place of the name server lookup; 0 means unknown
+class FixedTopicQueues extends NotificationTopicQueues {
+
+    private final int count;
+
+    FixedTopicQueues(int count) {
+        super(null);
+        this.count = count;
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.cache.HotKeyTracker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost HotKeyTracker.record adds to every read of the "notification" cache, over a skewed id stream where
+ * a few ids are hot (sketch plus top-K counter) and most are read rarely (sketch only), single-threaded
+ * and with readers contending on the same counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotKeyTrackerBenchmark {
+
+    private static final int IDS = 1 << 16;
+
+    private HotKeyTracker tracker;
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        tracker = new HotKeyTracker("notification", 10_000, 8, 256);
+        ids = new long[IDS];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < IDS; i++) {
+            // one read in five goes to one of 100 hot ids
+            ids[i] = random.nextInt(5) == 0 ? random.nextInt(100) : 1_000 + random.nextInt(1_000_000);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = ThreadLocalRandom.current().nextInt(IDS);
+    }
+
+    @Benchmark
+    public void record(Cursor cursor) {
+        tracker.record(ids[cursor.next++ & (IDS - 1)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended(Cursor cursor) {
+        tracker.record(ids[cursor.next++ & (IDS - 1)]);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.RedisConfig;
+import com.example.demo.journal.FsyncPolicy;
+import com.example.demo.journal.Journal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append throughput of the publish journal per fsync policy, one serialized NotificationResponse per record.
+ * The consumer side commits every 64k records so consumed segments are deleted as the run goes. Writes to
+ * a temp directory, so the numbers are those of the disk under java.io.tmpdir.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+
+    @Param({"EVERY_RECORD", "INTERVAL"})
+    public FsyncPolicy fsync;
+
+    private Path directory;
+    private Journal journal;
+    private byte[] payload;
+    private long appended;
+
+    @Setup
+    public void setUp() throws IOException, JsonProcessingException {
+        directory = Files.createTempDirectory("journal-bench");
+        journal = new Journal(directory, 64 * 1024 * 1024, fsync, Duration.ofMillis(10));
+        payload = new RedisConfig().objectMapper().writeValueAsBytes(BenchmarkData.notification(1L));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long append() {
+        long end = journal.append(payload);
+        if ((++appended & 0xFFFF) == 0) {
+            journal.commit(end);
+        }
+        return end;
+    }
+}
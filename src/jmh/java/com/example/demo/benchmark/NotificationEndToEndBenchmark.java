@@ -0,0 +1,60 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.CreateNotificationRequest;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.service.NotificationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Create and get through NotificationService against embedded H2, with Redis and RocketMQ replaced by
+ * the in-process stand-ins from {@link BenchmarkStandInConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationEndToEndBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private NotificationService notificationService;
+    private CreateNotificationRequest request;
+    private Long existingId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("benchmark")
+                .run();
+        notificationService = context.getBean(NotificationService.class);
+        request = CreateNotificationRequest.builder()
+                .type(NotificationType.EMAIL)
+                .recipient("bench@example.com")
+                .subject("Benchmark subject")
+                .content("Benchmark content ".repeat(20))
+                .build();
+        existingId = notificationService.createNotification(request).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public NotificationResponse create() {
+        return notificationService.createNotification(request);
+    }
+
+    @Benchmark
+    public NotificationResponse getCached() {
+        return notificationService.getNotificationById(existingId);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.DeliveryProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.mq.NotificationDispatcher;
+import com.example.demo.mq.NotificationSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Models the consumer side of orderly vs unordered publishing. Messages for many recipients are hashed onto
+ * Q queues the way syncSendOrderly selects them. ORDERLY gives each queue to one consumer thread at a time,
+ * like the orderly push consumer; UNORDERED lets every thread take any message. Each delivery goes through
+ * {@link NotificationDispatcher} to a sender whose provider latency varies between 0 and 4ms. Reports throughput and how many
+ * deliveries overtook an earlier event of the same recipient.
+ */
+public class OrderedDeliveryLoadTest {
+
+    private static final int THREADS = 64;
+    private static final int RECIPIENTS = 50;
+    private static final int MESSAGES = 20_000;
+    private static final long MAX_PROVIDER_LATENCY_MS = 4;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/ordered-delivery-result.json");
+
+        List<String> results = new ArrayList<>();
+        results.add(run("unordered", THREADS));
+        for (int queues : new int[]{4, 16, 64, 128}) {
+            results.add(run("orderly", queues));
+        }
+        results.forEach(System.out::println);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, "[\n  " + String.join(",\n  ", results) + "\n]\n");
+    }
+
+    private static String run(String mode, int queueCount) throws InterruptedException {
+        boolean orderly = mode.equals("orderly");
+        OrderCheckingSender sender = new OrderCheckingSender();
+        DeliveryProperties properties = new DeliveryProperties();
+        DeliveryProperties.Channel channel = new DeliveryProperties.Channel();
+        channel.setMaxConcurrency(THREADS);
+        properties.getChannels().put(NotificationType.EMAIL, channel);
+        NotificationDispatcher dispatcher = new NotificationDispatcher(List.of(sender), null, properties, new SimpleMeterRegistry());
+
+        // orderly: one FIFO per broker queue; unordered: one shared FIFO any thread can take from
+        List<Queue<NotificationResponse>> queues = new ArrayList<>();
+        for (int q = 0; q < (orderly ? queueCount : 1); q++) {
+            queues.add(new ConcurrentLinkedQueue<>());
+        }
+        for (long id = 0; id < MESSAGES; id++) {
+            String recipient = "user" + (id % RECIPIENTS) + "@example.com";
+            NotificationResponse notification = NotificationResponse.builder()
+                    .id(id).type(NotificationType.EMAIL).recipient(recipient).build();
+            queues.get(orderly ? Math.abs(recipient.hashCode() % queueCount) : 0).add(notification);
+        }
+
+        // orderly: queues are dealt out to threads and each queue is drained by its owner alone
+        int workers = orderly ? Math.min(THREADS, queueCount) : THREADS;
+        CountDownLatch done = new CountDownLatch(workers);
+        long start = System.nanoTime();
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            Thread.ofPlatform().name("consumer-" + w).start(() -> {
+                try {
+                    for (int q = orderly ? worker : 0; q < queues.size(); q += orderly ? workers : queues.size()) {
+                        NotificationResponse next;
+                        while ((next = queues.get(q).poll()) != null) {
+                            dispatcher.dispatch(next);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return String.format(Locale.ROOT,
+                "{\"mode\":\"%s\",\"queues\":%d,\"threads\":%d,\"messages\":%d,\"throughput\":%.0f,\"outOfOrder\":%d}",
+                mode, orderly ? queueCount : 1, workers, MESSAGES, MESSAGES / seconds, sender.outOfOrder.get());
+    }
+
+    // ids of one recipient are assigned in publish order, so a smaller id arriving later is a reordering
+    private static class OrderCheckingSender implements NotificationSender {
+
+        private final Map<String, Long> lastId = new ConcurrentHashMap<>();
+        private final AtomicLong outOfOrder = new AtomicLong();
+
+        @Override
+        public NotificationType channel() {
+            return NotificationType.EMAIL;
+        }
+
+        @Override
+        public void send(NotificationResponse notification) throws InterruptedException {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(MAX_PROVIDER_LATENCY_MS + 1));
+            lastId.merge(notification.getRecipient(), notification.getId(), (previous, current) -> {
+                if (current < previous) {
+                    outOfOrder.incrementAndGet();
+                    return previous;
+                }
+                return current;
+            });
+        }
+    }
+}
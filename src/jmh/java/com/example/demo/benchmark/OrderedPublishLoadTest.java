@@ -0,0 +1,88 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.JournalProperties;
+import com.example.demo.config.RocketMQPublisherProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.mq.MessageOrdering;
+import com.example.demo.mq.PublishJournal;
+import com.example.demo.mq.RocketMQService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Models the producer side of orderly vs unordered publishing. {@link RocketMQService#sendBatch} gets
+ * BATCHES batches of BATCH_SIZE events for distinct recipients and sends them to a {@link StandInBroker}
+ * that takes BROKER_RTT_MICROS per send call. Compares UNORDERED, ORDERLY grouped per recipient (queue
+ * count unknown) and ORDERLY grouped per target queue at several topic queue counts. Reports send calls
+ * per batch, time per batch and events/s.
+ */
+public class OrderedPublishLoadTest {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int BATCHES = 20;
+    private static final long BROKER_RTT_MICROS = 1_000;
+    private static final int[] QUEUE_COUNTS = {0, 4, 8, 16};
+
+    public static void main(String[] args) throws IOException {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/ordered-publish-result.json");
+
+        List<String> results = new ArrayList<>();
+        results.add(run(MessageOrdering.UNORDERED, 0));
+        for (int queues : QUEUE_COUNTS) {
+            results.add(run(MessageOrdering.ORDERLY, queues));
+        }
+        results.forEach(System.out::println);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, "[\n  " + String.join(",\n  ", results) + "\n]\n");
+    }
+
+    private static String run(MessageOrdering ordering, int queues) {
+        RocketMQPublisherProperties properties = new RocketMQPublisherProperties();
+        properties.setOrdering(ordering);
+        StandInBroker broker = new StandInBroker(BROKER_RTT_MICROS);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // never opened, so it has no backlog and every batch goes straight to the broker
+        PublishJournal journal = new PublishJournal(new JournalProperties(), new ObjectMapper(), meterRegistry);
+        RocketMQService service = new RocketMQService(broker, properties, null, null, journal,
+                new FixedTopicQueues(queues), meterRegistry);
+
+        long start = System.nanoTime();
+        for (int b = 0; b < BATCHES; b++) {
+            service.sendBatch(batch(b));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        return String.format(Locale.ROOT,
+                "{\"ordering\":\"%s\",\"queues\":%d,\"batchSize\":%d,\"sendCallsPerBatch\":%.1f,\"msPerBatch\":%.1f,"
+                        + "\"eventsPerSecond\":%.0f,\"sent\":%d}",
+                ordering, queues, BATCH_SIZE, broker.sendCalls.get() / (double) BATCHES, seconds * 1000 / BATCHES,
+                broker.relayed.get() / seconds, broker.relayed.get());
+    }
+
+    private static List<NotificationResponse> batch(int b) {
+        List<NotificationResponse> batch = new ArrayList<>(BATCH_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long id = (long) b * BATCH_SIZE + i;
+            batch.add(NotificationResponse.builder()
+                    .id(id)
+                    .type(NotificationType.EMAIL)
+                    .recipient("user" + i + "@example.com")
+                    .subject("Subject " + id)
+                    .content("Ordered publish " + id)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return batch;
+    }
+}
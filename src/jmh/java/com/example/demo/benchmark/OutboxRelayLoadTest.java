@@ -0,0 +1,160 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.config.OutboxProperties;
+import com.example.demo.config.RocketMQPublisherProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.mq.MessageOrdering;
+import com.example.demo.mq.NotificationTopicQueues;
+import com.example.demo.mq.OutboxRelay;
+import com.example.demo.repository.NotificationOutboxRepository;
+import com.example.demo.service.OutboxService;
+import com.example.demo.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offers outbox rows at a fixed rate (1k, 10k, 50k events/s) to RELAYS {@link OutboxRelay} instances that
+ * poll the H2 benchmark database with FOR UPDATE SKIP LOCKED, each on its own thread like separate nodes,
+ * for both publisher orderings. The broker is a {@link StandInBroker} that takes BROKER_RTT_MICROS per
+ * send call, with TOPIC_QUEUES write queues. Reports rows inserted and relayed per second, the relay lag from
+ * commit to broker ack (p50/p99), and the backlog left when the producer stops.
+ */
+public class OutboxRelayLoadTest {
+
+    private static final int[] RATES = {1_000, 10_000, 50_000};
+    private static final int RELAYS = 2;
+    private static final int RECIPIENTS = 10_000;
+    private static final long PRODUCE_SECONDS = 5;
+    private static final long DRAIN_SECONDS = 10;
+    private static final long TICK_MILLIS = 10;
+    private static final long POLL_INTERVAL_MILLIS = 200;
+    private static final long BROKER_RTT_MICROS = 1_000;
+    private static final int TOPIC_QUEUES = 16;
+
+    public static void main(String[] args) throws IOException {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/relay-load-result.json");
+
+        List<String> results = new ArrayList<>();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("benchmark")
+                .run()) {
+            for (MessageOrdering ordering : MessageOrdering.values()) {
+                for (int rate : RATES) {
+                    String result = run(context, ordering, rate);
+                    System.out.println(result);
+                    results.add(result);
+                }
+            }
+        }
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, "[\n  " + String.join(",\n  ", results) + "\n]\n");
+    }
+
+    private static String run(ConfigurableApplicationContext context, MessageOrdering ordering, int rate) {
+        NotificationOutboxRepository outboxRepository = context.getBean(NotificationOutboxRepository.class);
+        OutboxService outboxService = context.getBean(OutboxService.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        outboxRepository.deleteAllInBatch();
+
+        RocketMQPublisherProperties publisherProperties = new RocketMQPublisherProperties();
+        publisherProperties.setOrdering(ordering);
+        StandInBroker broker = new StandInBroker(BROKER_RTT_MICROS);
+        NotificationTopicQueues topicQueues = new FixedTopicQueues(TOPIC_QUEUES);
+        List<OutboxRelay> relays = new ArrayList<>();
+        for (int i = 0; i < RELAYS; i++) {
+            relays.add(new OutboxRelay(outboxRepository, outboxService, broker, transactionTemplate, new OutboxProperties(),
+                    publisherProperties, context.getBean(ShardRouter.class), topicQueues, new SimpleMeterRegistry()));
+        }
+
+        AtomicBoolean polling = new AtomicBoolean(true);
+        List<Thread> relayThreads = new ArrayList<>();
+        for (int i = 0; i < RELAYS; i++) {
+            OutboxRelay relay = relays.get(i);
+            // poll() then the fixed delay, as @Scheduled(fixedDelay) runs it
+            relayThreads.add(Thread.ofPlatform().name("relay-" + i).start(() -> {
+                while (polling.get()) {
+                    relay.poll();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MILLIS));
+                }
+            }));
+        }
+
+        long inserted = produce(outboxService, transactionTemplate, rate);
+        long backlog = inserted - broker.relayed.get();
+        long stop = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_SECONDS);
+        while (broker.relayed.get() < inserted && System.nanoTime() < stop) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        double seconds = Math.max(1, broker.lastSend.get() - broker.firstSend.get()) / 1e9;
+        polling.set(false);
+        relayThreads.forEach(OutboxRelayLoadTest::join);
+
+        long[] lags = broker.lags.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(lags);
+        return String.format(Locale.ROOT,
+                "{\"ordering\":\"%s\",\"offeredRate\":%d,\"insertedRate\":%.0f,\"relayedRate\":%.0f,\"sendCalls\":%d,"
+                        + "\"backlogAtStop\":%d,\"undrained\":%d,\"p50LagMs\":%.1f,\"p99LagMs\":%.1f}",
+                ordering, rate, inserted / (double) PRODUCE_SECONDS, broker.relayed.get() / seconds, broker.sendCalls.get(),
+                backlog, inserted - broker.relayed.get(), percentile(lags, 0.50), percentile(lags, 0.99));
+    }
+
+    // commits one small batch every tick, so rows become visible to the relays at an even rate
+    private static long produce(OutboxService outboxService, TransactionTemplate transactionTemplate, int rate) {
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(PRODUCE_SECONDS);
+        long inserted = 0;
+        long nextId = 0;
+        while (System.nanoTime() < end) {
+            long due = (System.nanoTime() - start) * rate / TimeUnit.SECONDS.toNanos(1);
+            if (due > inserted) {
+                List<NotificationResponse> batch = new ArrayList<>((int) (due - inserted));
+                LocalDateTime now = LocalDateTime.now();
+                for (long i = inserted; i < due; i++) {
+                    long id = nextId++;
+                    batch.add(NotificationResponse.builder()
+                            .id(id)
+                            .type(NotificationType.EMAIL)
+                            .recipient("user" + (id % RECIPIENTS) + "@example.com")
+                            .subject("Subject " + id)
+                            .content("Relay load " + id)
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .build());
+                }
+                transactionTemplate.executeWithoutResult(status -> outboxService.appendAll(batch));
+                inserted = due;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS));
+        }
+        return inserted;
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+}
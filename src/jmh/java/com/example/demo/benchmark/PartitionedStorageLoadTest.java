@@ -0,0 +1,184 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.repository.MonthlyPartitions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares the unpartitioned notifications table (unique idempotency_key index) with the monthly
+ * partitioned one (keys claimed in notification_idempotency_keys) on a live MySQL: batch insert throughput,
+ * data and index size after ANALYZE, and the cost of removing the oldest month, DELETE vs DROP PARTITION.
+ * Rows span MONTHS months of Snowflake-style ids; every fifth carries an Idempotency-Key. Creates and drops
+ * bench_* tables only.
+ */
+public class PartitionedStorageLoadTest {
+
+    private static final int MONTHS = 6;
+    private static final int ROWS_PER_MONTH = 50_000;
+    private static final int BATCH_SIZE = 500;
+    private static final YearMonth FIRST_MONTH = YearMonth.of(2026, 1);
+
+    private static final String COLUMNS = """
+            id BIGINT PRIMARY KEY,
+            type VARCHAR(10) NOT NULL,
+            recipient VARCHAR(255) NOT NULL,
+            subject VARCHAR(255),
+            content TEXT NOT NULL,
+            idempotency_key VARCHAR(80) NULL,
+            created_at TIMESTAMP NULL,
+            updated_at TIMESTAMP NULL,
+            INDEX idx_created_desc (created_at DESC),
+            INDEX idx_recipient_inbox (recipient, created_at DESC, id DESC, type, subject)""";
+
+    public static void main(String[] args) throws IOException, SQLException {
+        String url = args.length > 0 ? args[0] : "jdbc:mysql://localhost:3306/taskdb?rewriteBatchedStatements=true";
+        String user = args.length > 1 ? args[1] : "taskuser";
+        String password = args.length > 2 ? args[2] : "taskpass";
+        Path output = Path.of(args.length > 3 ? args[3] : "target/partition-storage-result.json");
+
+        List<String> results = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            results.add(run(connection, false));
+            results.add(run(connection, true));
+        }
+        results.forEach(System.out::println);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, "[\n  " + String.join(",\n  ", results) + "\n]\n");
+    }
+
+    private static String run(Connection connection, boolean partitioned) throws SQLException {
+        String table = partitioned ? "bench_notifications_partitioned" : "bench_notifications_plain";
+        createTables(connection, table, partitioned);
+        try {
+            long start = System.nanoTime();
+            insert(connection, table, partitioned);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            int rows = MONTHS * ROWS_PER_MONTH;
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE TABLE " + table + (partitioned ? ", bench_idempotency_keys" : ""));
+            }
+            long[] size = size(connection, table);
+            if (partitioned) {
+                long[] keys = size(connection, "bench_idempotency_keys");
+                size[0] += keys[0];
+                size[1] += keys[1];
+            }
+
+            start = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                if (partitioned) {
+                    statement.execute("ALTER TABLE " + table + " DROP PARTITION " + MonthlyPartitions.name(FIRST_MONTH));
+                } else {
+                    statement.executeUpdate("DELETE FROM " + table + " WHERE id < " + MonthlyPartitions.upperBound(FIRST_MONTH));
+                }
+            }
+            double purgeMs = (System.nanoTime() - start) / 1e6;
+
+            return String.format(Locale.ROOT,
+                    "{\"table\":\"%s\",\"rows\":%d,\"insertThroughput\":%.0f,\"dataBytes\":%d,\"indexBytes\":%d,\"purgeOldestMonthMs\":%.1f}",
+                    partitioned ? "partitioned" : "plain", rows, rows / seconds, size[0], size[1], purgeMs);
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + table + ", bench_idempotency_keys");
+            }
+        }
+    }
+
+    private static void createTables(Connection connection, String table, boolean partitioned) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table + ", bench_idempotency_keys");
+            if (!partitioned) {
+                statement.execute("CREATE TABLE " + table + " (" + COLUMNS + ", UNIQUE KEY uk_idempotency_key (idempotency_key))");
+                return;
+            }
+            List<String> partitions = new ArrayList<>();
+            for (int m = 0; m < MONTHS; m++) {
+                YearMonth month = FIRST_MONTH.plusMonths(m);
+                partitions.add("PARTITION " + MonthlyPartitions.name(month) + " VALUES LESS THAN (" + MonthlyPartitions.upperBound(month) + ")");
+            }
+            partitions.add("PARTITION " + MonthlyPartitions.FUTURE + " VALUES LESS THAN MAXVALUE");
+            statement.execute("CREATE TABLE " + table + " (" + COLUMNS + ") PARTITION BY RANGE (id) ("
+                    + String.join(", ", partitions) + ")");
+            statement.execute("CREATE TABLE bench_idempotency_keys (idempotency_key VARCHAR(80) PRIMARY KEY, "
+                    + "notification_id BIGINT NOT NULL, created_at TIMESTAMP(3) NOT NULL, INDEX idx_idempotency_created (created_at))");
+        }
+    }
+
+    // one transaction per batch, as NotificationService.createNotifications commits it
+    private static void insert(Connection connection, String table, boolean partitioned) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement rows = connection.prepareStatement("INSERT INTO " + table
+                + " (id, type, recipient, subject, content, idempotency_key, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement keys = connection.prepareStatement(
+                     "INSERT INTO bench_idempotency_keys (idempotency_key, notification_id, created_at) VALUES (?, ?, ?)")) {
+            int pending = 0;
+            for (int m = 0; m < MONTHS; m++) {
+                YearMonth month = FIRST_MONTH.plusMonths(m);
+                long firstId = MonthlyPartitions.lowerBound(month);
+                long idStep = (MonthlyPartitions.upperBound(month) - firstId) / ROWS_PER_MONTH;
+                LocalDateTime monthStart = month.atDay(1).atStartOfDay();
+                for (int i = 0; i < ROWS_PER_MONTH; i++) {
+                    long id = firstId + i * idStep;
+                    Timestamp createdAt = Timestamp.valueOf(monthStart.plusSeconds(i * 50L));
+                    String key = i % 5 == 0 ? "key-" + id : null;
+                    rows.setLong(1, id);
+                    rows.setString(2, "EMAIL");
+                    rows.setString(3, "user" + (i % 10_000) + "@example.com");
+                    rows.setString(4, "Subject " + i);
+                    rows.setString(5, "Content of notification " + id);
+                    rows.setString(6, key);
+                    rows.setTimestamp(7, createdAt);
+                    rows.setTimestamp(8, createdAt);
+                    rows.addBatch();
+                    if (partitioned && key != null) {
+                        keys.setString(1, key);
+                        keys.setLong(2, id);
+                        keys.setTimestamp(3, createdAt);
+                        keys.addBatch();
+                    }
+                    if (++pending == BATCH_SIZE) {
+                        flush(connection, rows, keys, partitioned);
+                        pending = 0;
+                    }
+                }
+            }
+            flush(connection, rows, keys, partitioned);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement rows, PreparedStatement keys, boolean partitioned) throws SQLException {
+        if (partitioned) {
+            keys.executeBatch();
+        }
+        rows.executeBatch();
+        connection.commit();
+    }
+
+    // {data bytes, index bytes} as InnoDB reports them after ANALYZE TABLE
+    private static long[] size(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT DATA_LENGTH, INDEX_LENGTH FROM information_schema.TABLES "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+            statement.setString(1, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? new long[]{rs.getLong(1), rs.getLong(2)} : new long[]{0, 0};
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the servlet application (platform and virtual threads) with the WebFlux variant at a fixed CPU
+ * budget: each server runs in its own JVM limited to N processors (and pinned to N cores with taskset
+ * when available), over the same in-memory stand-ins and a broker answering after 50ms. The client keeps
+ * a fixed number of POST /notifications in flight and reports throughput and latency percentiles.
+ *
+ * <p>Needs the reactive classes on the classpath: run with -Pbenchmarks,reactive.
+ */
+public class ReactiveLoadTest {
+
+    private static final long BROKER_LATENCY_MS = 50;
+    private static final int CONCURRENCY = 1000;
+    private static final int WARM_UP_REQUESTS = 2000;
+    // the servlet variant publishes inside the create transaction, so each in-flight request holds a connection
+    private static final int SERVLET_POOL_SIZE = CONCURRENCY + 50;
+    private static final String REACTIVE_MAIN = "com.example.demo.reactive.ReactiveNotificationApplication";
+    private static final String BODY =
+            "{\"type\":\"EMAIL\",\"recipient\":\"load@example.com\",\"subject\":\"load\",\"content\":\"load test\"}";
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int cpus = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        Path output = Path.of(args.length > 2 ? args[2] : "target/reactive-load-result.json");
+        Files.createDirectories(output.toAbsolutePath().getParent());
+
+        // the client gets the cores the servers do not, so it does not eat into their budget
+        int available = Runtime.getRuntime().availableProcessors();
+        boolean pinned = available > cpus && taskset("-a", "-p", "-c", cpus + "-" + (available - 1), String.valueOf(ProcessHandle.current().pid()));
+
+        List<String> results = new ArrayList<>();
+        for (String variant : new String[]{"servlet-platform", "servlet-virtual", "reactive"}) {
+            String result = run(variant, requests, cpus, pinned, output.toAbsolutePath().getParent());
+            System.out.println(result);
+            results.add(result);
+        }
+        Files.writeString(output, "[\n  " + String.join(",\n  ", results) + "\n]\n");
+    }
+
+    private static String run(String variant, int requests, int cpus, boolean pinned, Path logDirectory) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        if (pinned) {
+            command.addAll(List.of("taskset", "-c", "0-" + (cpus - 1)));
+        }
+        command.addAll(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-XX:ActiveProcessorCount=" + cpus,
+                "-cp", System.getProperty("java.class.path")));
+        if (variant.equals("reactive")) {
+            command.addAll(List.of(REACTIVE_MAIN,
+                    "--spring.main.web-application-type=reactive",
+                    "--spring.r2dbc.url=r2dbc:h2:mem:///benchmark?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+                    "--spring.r2dbc.username=sa",
+                    "--spring.r2dbc.password=",
+                    // Hikari's default connection timeout, so both servers queue for a connection equally long
+                    "--spring.r2dbc.pool.max-acquire-time=30s",
+                    // r2dbc-h2 warns on every transaction that it ignores the read-only flag
+                    "--logging.level.io.r2dbc.h2=ERROR",
+                    "--spring.sql.init.mode=always",
+                    "--spring.sql.init.schema-locations=classpath:reactive-benchmark-schema.sql"));
+        } else {
+            command.addAll(List.of("com.example.demo.DemoApplication",
+                    "--spring.main.web-application-type=servlet",
+                    "--spring.threads.virtual.enabled=" + variant.equals("servlet-virtual"),
+                    "--spring.datasource.hikari.maximum-pool-size=" + SERVLET_POOL_SIZE,
+                    "--spring.datasource.hikari.minimum-idle=10"));
+        }
+        command.addAll(List.of("--spring.profiles.active=benchmark",
+                "--server.port=" + port,
+                "--benchmark.mq.latency-ms=" + BROKER_LATENCY_MS));
+
+        Path log = logDirectory.resolve("reactive-load-" + variant + ".log");
+        Process server = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            URI base = URI.create("http://localhost:" + port + "/notifications");
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            awaitReady(client, base, server, log);
+
+            fire(client, base, WARM_UP_REQUESTS);
+            long[] latencies = new long[requests];
+            long start = System.nanoTime();
+            int ok = fire(client, base, latencies);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            return String.format(Locale.ROOT,
+                    "{\"server\":\"%s\",\"cpus\":%d,\"pinned\":%b,\"concurrency\":%d,\"requests\":%d,\"ok\":%d,\"failed\":%d,"
+                            + "\"seconds\":%.2f,\"throughput\":%.1f,\"p50Ms\":%.1f,\"p99Ms\":%.1f}",
+                    variant, cpus, pinned, CONCURRENCY, requests, ok, requests - ok, seconds,
+                    requests / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99));
+        } finally {
+            server.destroy();
+            if (!server.waitFor(30, TimeUnit.SECONDS)) {
+                server.destroyForcibly();
+            }
+        }
+    }
+
+    private static int fire(HttpClient client, URI uri, int requests) throws InterruptedException {
+        return fire(client, uri, new long[requests]);
+    }
+
+    // keeps CONCURRENCY requests in flight; returns how many were answered 201
+    private static int fire(HttpClient client, URI uri, long[] latencies) throws InterruptedException {
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        AtomicInteger ok = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(latencies.length);
+        for (int i = 0; i < latencies.length; i++) {
+            permits.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofMinutes(2))
+                    .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                    .build();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (error == null && response.statusCode() == 201) {
+                            ok.incrementAndGet();
+                        }
+                        permits.release();
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return ok.get();
+    }
+
+    private static void awaitReady(HttpClient client, URI base, Process server, Path log) throws InterruptedException {
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(base + "/recent")).timeout(Duration.ofSeconds(5)).build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Server exited with " + server.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("Server did not start within 2 minutes, see " + log);
+    }
+
+    private static boolean taskset(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("taskset");
+        command.addAll(List.of(args));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+}
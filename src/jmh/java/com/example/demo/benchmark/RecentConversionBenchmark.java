@@ -0,0 +1,135 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.RecentFeedProperties;
+import com.example.demo.config.RedisConfig;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.service.RedisService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-item decode cost of the recent feed: convertValue from the LinkedHashMap that the untyped JSON
+ * serializer hands back versus readValue from the raw JSON that RedisService now reads, plus a whole
+ * RedisService.get over a canned Redis reply. The last two compare a poll that decodes the feed and
+ * renders it again for the response with one served from the pre-rendered snapshot when unchanged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecentConversionBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Object> decodedMaps;
+    private List<String> jsonItems;
+    private RedisService redisService;
+    private RedisService snapshotRedisService;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new RedisConfig().objectMapper();
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+        ObjectMapper untyped = new ObjectMapper();
+        decodedMaps = new ArrayList<>(size);
+        jsonItems = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            RecentNotificationResponse item = BenchmarkData.recent(i);
+            // GenericJackson2JsonRedisSerializer without default typing hands back a LinkedHashMap like this
+            decodedMaps.add(untyped.readValue(serializer.serialize(item), Object.class));
+            jsonItems.add(objectMapper.writeValueAsString(item));
+        }
+
+        RecentFeedProperties properties = new RecentFeedProperties();
+        properties.setMaxSize(size);
+        redisService = new RedisService(new CannedRedisTemplate(jsonItems), objectMapper, properties, new SimpleMeterRegistry());
+        byte[] rendered = ("[" + String.join(",", jsonItems) + "]").getBytes(StandardCharsets.UTF_8);
+        snapshotRedisService = new RedisService(new CannedSnapshotTemplate(rendered), objectMapper, properties, new SimpleMeterRegistry());
+        // the first poll fetches the rendered feed; the measured ones find it unchanged
+        snapshotRedisService.getSnapshot();
+    }
+
+    @Benchmark
+    public List<RecentNotificationResponse> convertValueFromMaps() {
+        List<RecentNotificationResponse> result = new ArrayList<>(size);
+        for (Object item : decodedMaps) {
+            result.add(objectMapper.convertValue(item, RecentNotificationResponse.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<RecentNotificationResponse> readValueFromJson() throws JsonProcessingException {
+        List<RecentNotificationResponse> result = new ArrayList<>(size);
+        for (String item : jsonItems) {
+            result.add(objectMapper.readValue(item, RecentNotificationResponse.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<RecentNotificationResponse> redisServiceGet() {
+        return redisService.get();
+    }
+
+    @Benchmark
+    public byte[] decodeAndRender() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(redisService.get());
+    }
+
+    @Benchmark
+    public byte[] unchangedSnapshot() {
+        return snapshotRedisService.getSnapshot().json();
+    }
+
+    static class CannedRedisTemplate extends RedisTemplate<String, Object> {
+
+        private final List<String> reply;
+
+        CannedRedisTemplate(List<String> reply) {
+            this.reply = reply;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, RedisSerializer<?> argsSerializer, RedisSerializer<T> resultSerializer,
+                             List<String> keys, Object... args) {
+            return (T) reply;
+        }
+    }
+
+    // answers as recent-snapshot.lua does for a feed at version 1
+    static class CannedSnapshotTemplate extends RedisTemplate<String, Object> {
+
+        private static final byte[] VERSION = "1".getBytes(StandardCharsets.US_ASCII);
+
+        private final byte[] json;
+
+        CannedSnapshotTemplate(byte[] json) {
+            this.json = json;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, RedisSerializer<?> argsSerializer, RedisSerializer<T> resultSerializer,
+                             List<String> keys, Object... args) {
+            return (T) ("1".equals(args[0]) ? List.of(VERSION) : List.of(VERSION, json));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.cache.CacheValueFormat;
+import com.example.demo.cache.CompactRedisSerializer;
+import com.example.demo.config.RedisConfig;
+import com.example.demo.dto.NotificationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache value codecs for NotificationResponse: type-tagged JSON, typed JSON without the @class header,
+ * and the compact binary codec. Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    private NotificationResponse notification;
+    private GenericJackson2JsonRedisSerializer genericJson;
+    private Jackson2JsonRedisSerializer<NotificationResponse> typedJson;
+    private byte[] genericJsonBytes;
+    private byte[] typedJsonBytes;
+    private CompactRedisSerializer compact;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new RedisConfig().objectMapper();
+        notification = BenchmarkData.notification(1L);
+        genericJson = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(objectMapper.copy())
+                .defaultTyping(true)
+                .build();
+        typedJson = new Jackson2JsonRedisSerializer<>(objectMapper, NotificationResponse.class);
+        genericJsonBytes = genericJson.serialize(notification);
+        typedJsonBytes = typedJson.serialize(notification);
+        compact = new CompactRedisSerializer(genericJson, CacheValueFormat.COMPACT);
+        compactBytes = compact.serialize(notification);
+        System.out.printf("payload bytes: genericJson=%d typedJson=%d compact=%d%n",
+                genericJsonBytes.length, typedJsonBytes.length, compactBytes.length);
+    }
+
+    @Benchmark
+    public byte[] genericJsonSerialize() {
+        return genericJson.serialize(notification);
+    }
+
+    @Benchmark
+    public Object genericJsonDeserialize() {
+        return genericJson.deserialize(genericJsonBytes);
+    }
+
+    @Benchmark
+    public byte[] typedJsonSerialize() {
+        return typedJson.serialize(notification);
+    }
+
+    @Benchmark
+    public NotificationResponse typedJsonDeserialize() {
+        return typedJson.deserialize(typedJsonBytes);
+    }
+
+    @Benchmark
+    public byte[] compactSerialize() {
+        return compact.serialize(notification);
+    }
+
+    @Benchmark
+    public Object compactDeserialize() {
+        return compact.deserialize(compactBytes);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.NotificationResponse;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.messaging.Message;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Batch-send stand-in for the broker: one fixed round trip per send call, whatever the number of messages
+ * in it. Records the lag from each event's creation to the ack.
+ */
+class StandInBroker extends RocketMQTemplate {
+
+    final AtomicLong relayed = new AtomicLong();
+    final AtomicLong sendCalls = new AtomicLong();
+    final AtomicLong firstSend = new AtomicLong(Long.MAX_VALUE);
+    final AtomicLong lastSend = new AtomicLong();
+    final Collection<Long> lags = new ConcurrentLinkedQueue<>();
+
+    private final long rttNanos;
+
+    StandInBroker(long rttMicros) {
+        this.rttNanos = TimeUnit.MICROSECONDS.toNanos(rttMicros);
+    }
+
+    @Override
+    public <T extends Message> SendResult syncSend(String destination, Collection<T> messages) {
+        return send(messages);
+    }
+
+    @Override
+    public <T extends Message> SendResult syncSend(String destination, Collection<T> messages, long timeout) {
+        return send(messages);
+    }
+
+    @Override
+    public <T extends Message> SendResult syncSendOrderly(String destination, Collection<T> messages, String hashKey) {
+        return send(messages);
+    }
+
+    @Override
+    public <T extends Message> SendResult syncSendOrderly(String destination, Collection<T> messages, String hashKey, long timeout) {
+        return send(messages);
+    }
+
+    private <T extends Message> SendResult send(Collection<T> messages) {
+        firstSend.accumulateAndGet(System.nanoTime(), Math::min);
+        LockSupport.parkNanos(rttNanos);
+        LocalDateTime now = LocalDateTime.now();
+        for (T message : messages) {
+            NotificationResponse notification = (NotificationResponse) message.getPayload();
+            lags.add(Duration.between(notification.getCreatedAt(), now).toNanos());
+        }
+        sendCalls.incrementAndGet();
+        lastSend.accumulateAndGet(System.nanoTime(), Math::max);
+        relayed.addAndGet(messages.size());
+
+        SendResult result = new SendResult();
+        result.setSendStatus(SendStatus.SEND_OK);
+        return result;
+    }
+}
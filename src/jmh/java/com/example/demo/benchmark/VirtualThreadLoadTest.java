@@ -0,0 +1,111 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.mq.RocketMQService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires N concurrent POST /notifications against the app with a broker that blocks for 200ms per send,
+ * once on platform threads and once on virtual threads, and reports how many requests the server held
+ * in flight, throughput and latency percentiles.
+ *
+ * <p>Client and server share this JVM, so every request costs two file descriptors; raise
+ * {@code ulimit -n} above 2 * N before running with N = 10000.
+ */
+public class VirtualThreadLoadTest {
+
+    private static final long BROKER_LATENCY_MS = 200;
+    // SYNC mode calls the broker inside the create transaction, so each in-flight request also holds a
+    // pooled connection; size the pool past Tomcat's 200 workers so the thread model is what is measured
+    private static final int POOL_SIZE = 2000;
+    private static final String BODY =
+            "{\"type\":\"EMAIL\",\"recipient\":\"load@example.com\",\"subject\":\"load\",\"content\":\"load test\"}";
+
+    public static void main(String[] args) throws IOException {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Path output = Path.of(args.length > 1 ? args[1] : "target/load-test-result.json");
+
+        List<String> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            String result = run(virtual, requests);
+            System.out.println(result);
+            results.add(result);
+        }
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, "[\n  " + String.join(",\n  ", results) + "\n]\n");
+    }
+
+    private static String run(boolean virtual, int requests) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("benchmark")
+                .run("--spring.main.web-application-type=servlet",
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--benchmark.mq.latency-ms=" + BROKER_LATENCY_MS,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.minimum-idle=10")) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            URI uri = URI.create("http://localhost:" + port + "/notifications");
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            long[] latencies = new long[requests];
+            AtomicInteger ok = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            List<CompletableFuture<Void>> futures = new ArrayList<>(requests);
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                long sent = System.nanoTime();
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/json")
+                        .timeout(Duration.ofMinutes(5))
+                        .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                        .build();
+                futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .handle((response, error) -> {
+                            latencies[index] = System.nanoTime() - sent;
+                            if (error == null && response.statusCode() == 201) {
+                                ok.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            int peak = ((BenchmarkStandInConfig.NoopRocketMQService) context.getBean(RocketMQService.class)).peakInFlight();
+            return String.format(Locale.ROOT,
+                    "{\"threads\":\"%s\",\"requests\":%d,\"ok\":%d,\"failed\":%d,\"peakInFlight\":%d,"
+                            + "\"seconds\":%.2f,\"throughput\":%.1f,\"p50Ms\":%.1f,\"p99Ms\":%.1f}",
+                    virtual ? "virtual" : "platform", requests, ok.get(), failed.get(), peak, seconds,
+                    requests / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99));
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+}
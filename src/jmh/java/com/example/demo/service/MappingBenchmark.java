@@ -0,0 +1,45 @@
+package com.example.demo.service;
+
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.model.Notification;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private Notification notification;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        notification = Notification.builder()
+                .id(1L)
+                .type(NotificationType.EMAIL)
+                .recipient("bench@example.com")
+                .subject("Benchmark subject")
+                .content("Benchmark content ".repeat(20))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @Benchmark
+    public NotificationResponse mapToResponse() {
+        return NotificationService.mapToResponse(notification);
+    }
+
+    @Benchmark
+    public RecentNotificationResponse mapToRecentResponse() {
+        return NotificationService.mapToRecentResponse(notification);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+
+/**
+ * Picks an entry's Redis TTL by how often its key has been read lately: a key read once (its load) gets the
+ * short cold TTL, so one-hit wonders leave Redis quickly, a hot key the long one, anything else the base
+ * TTL. Each is jittered like {@link JitteredTtl}.
+ */
+public class AdaptiveTtl implements RedisCacheWriter.TtlFunction {
+
+    private final HotKeyTracker tracker;
+    private final JitteredTtl cold;
+    private final JitteredTtl base;
+    private final JitteredTtl hot;
+
+    public AdaptiveTtl(HotKeyTracker tracker, JitteredTtl cold, JitteredTtl base, JitteredTtl hot) {
+        this.tracker = tracker;
+        this.cold = cold;
+        this.base = base;
+        this.hot = hot;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        if (tracker.isHot(key)) {
+            return hot.getTimeToLive(key, value);
+        }
+        return tracker.frequency(key) <= 1 ? cold.getTimeToLive(key, value) : base.getTimeToLive(key, value);
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.demo.cache;
+
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Schema-aware binary codec for the notification DTOs, with every other value delegated to JSON.
+ * Binary payloads start with a version byte below 0x20, which JSON text never does, so values written
+ * in either format stay readable while nodes are switched over one at a time.
+ *
+ * <p>Layout (v1): version, type tag, presence bitmask, then each present field in declaration order.
+ * Longs and lengths are unsigned varints, strings are UTF-8, timestamps are UTC epoch seconds plus
+ * nanos, and {@link NotificationType} is its ordinal, so new constants must only be appended.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte VERSION_1 = 0x01;
+    static final byte TAG_NOTIFICATION = 0x01;
+    static final byte TAG_RECENT = 0x02;
+    private static final NotificationType[] TYPES = NotificationType.values();
+
+    private final RedisSerializer<Object> fallback;
+    private final CacheValueFormat writeFormat;
+
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, CacheValueFormat writeFormat) {
+        this.fallback = fallback;
+        this.writeFormat = writeFormat;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (writeFormat == CacheValueFormat.COMPACT) {
+            if (value instanceof NotificationResponse n) {
+                return encode(n);
+            }
+            if (value instanceof RecentNotificationResponse n) {
+                return encode(n);
+            }
+        }
+        return fallback.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if ((bytes[0] & 0xFF) >= 0x20) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes[0] != VERSION_1 || bytes.length < 3) {
+            throw new SerializationException("Unsupported compact cache value version: " + bytes[0]);
+        }
+        try {
+            Reader in = new Reader(bytes, 2);
+            return switch (bytes[1]) {
+                case TAG_NOTIFICATION -> decodeNotification(in);
+                case TAG_RECENT -> decodeRecent(in);
+                default -> throw new SerializationException("Unknown compact cache value tag: " + bytes[1]);
+            };
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated compact cache value", e);
+        }
+    }
+
+    static byte[] encode(NotificationResponse n) {
+        Writer out = new Writer(64 + (n.getContent() == null ? 0 : n.getContent().length()));
+        out.header(TAG_NOTIFICATION, presence(n.getId(), n.getType(), n.getRecipient(), n.getSubject(),
+                n.getContent(), n.getCreatedAt(), n.getUpdatedAt()));
+        out.long_(n.getId());
+        out.type(n.getType());
+        out.string(n.getRecipient());
+        out.string(n.getSubject());
+        out.string(n.getContent());
+        out.time(n.getCreatedAt());
+        out.time(n.getUpdatedAt());
+        return out.toByteArray();
+    }
+
+    static byte[] encode(RecentNotificationResponse n) {
+        Writer out = new Writer(64);
+        out.header(TAG_RECENT, presence(n.getId(), n.getType(), n.getRecipient(), n.getSubject(), n.getCreatedAt()));
+        out.long_(n.getId());
+        out.type(n.getType());
+        out.string(n.getRecipient());
+        out.string(n.getSubject());
+        out.time(n.getCreatedAt());
+        return out.toByteArray();
+    }
+
+    private static NotificationResponse decodeNotification(Reader in) {
+        int present = in.bytes[in.pos++];
+        return NotificationResponse.builder()
+                .id((present & 1) != 0 ? in.varLong() : null)
+                .type((present & 1 << 1) != 0 ? TYPES[in.bytes[in.pos++]] : null)
+                .recipient((present & 1 << 2) != 0 ? in.string() : null)
+                .subject((present & 1 << 3) != 0 ? in.string() : null)
+                .content((present & 1 << 4) != 0 ? in.string() : null)
+                .createdAt((present & 1 << 5) != 0 ? in.time() : null)
+                .updatedAt((present & 1 << 6) != 0 ? in.time() : null)
+                .build();
+    }
+
+    private static RecentNotificationResponse decodeRecent(Reader in) {
+        int present = in.bytes[in.pos++];
+        return RecentNotificationResponse.builder()
+                .id((present & 1) != 0 ? in.varLong() : null)
+                .type((present & 1 << 1) != 0 ? TYPES[in.bytes[in.pos++]] : null)
+                .recipient((present & 1 << 2) != 0 ? in.string() : null)
+                .subject((present & 1 << 3) != 0 ? in.string() : null)
+                .createdAt((present & 1 << 4) != 0 ? in.time() : null)
+                .build();
+    }
+
+    private static int presence(Object... fields) {
+        int mask = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    private static final class Writer {
+
+        private byte[] buf;
+        private int pos;
+
+        Writer(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void header(byte tag, int presence) {
+            ensure(3);
+            buf[pos++] = VERSION_1;
+            buf[pos++] = tag;
+            buf[pos++] = (byte) presence;
+        }
+
+        void long_(Long value) {
+            if (value != null) {
+                varLong(value);
+            }
+        }
+
+        void type(NotificationType type) {
+            if (type != null) {
+                ensure(1);
+                buf[pos++] = (byte) type.ordinal();
+            }
+        }
+
+        void string(String value) {
+            if (value == null) {
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varLong(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, buf, pos, utf8.length);
+            pos += utf8.length;
+        }
+
+        void time(LocalDateTime value) {
+            if (value != null) {
+                varLong(value.toEpochSecond(ZoneOffset.UTC));
+                varLong(value.getNano());
+            }
+        }
+
+        void varLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int pos;
+
+        Reader(byte[] bytes, int pos) {
+            this.bytes = bytes;
+            this.pos = pos;
+        }
+
+        long varLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        String string() {
+            int length = (int) varLong();
+            String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        LocalDateTime time() {
+            long seconds = varLong();
+            int nanos = (int) varLong();
+            return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch of 4-bit counters, TinyLFU style: each id increments one counter in each of four rows,
+ * and its frequency is the smallest of the four, so collisions only ever overestimate. Counters saturate
+ * at 15 and are all halved once {@code 10 * expectedEntries} increments have been recorded, so the
+ * estimate follows recent popularity rather than all-time totals. Counters are updated with CAS on the
+ * word that holds them; no lock is taken.
+ */
+public class FrequencySketch {
+
+    public static final int MAX_FREQUENCY = 15;
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long[] SEEDS = {0x97cb3127L, 0xab7d6c35L, 0x4fd32e51L, 0x1b873593L};
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final long sampleSize;
+    private final AtomicLong additions = new AtomicLong();
+
+    public FrequencySketch(long expectedEntries) {
+        int length = (int) Math.min(1 << 30, Long.highestOneBit(Math.max(16, expectedEntries - 1)) << 1);
+        this.table = new AtomicLongArray(length);
+        this.tableMask = length - 1;
+        this.sampleSize = 10L * Math.max(16, expectedEntries);
+    }
+
+    // returns the id's frequency after this access
+    public int increment(long id) {
+        long hash = mix(id);
+        int frequency = MAX_FREQUENCY;
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long rowHash = (hash + SEEDS[row]) * SEEDS[row];
+            int index = (int) (rowHash >>> 32) & tableMask;
+            int shift = (int) (rowHash & 15) << 2;
+            int count = incrementAt(index, shift);
+            added |= count >= 0;
+            frequency = Math.min(frequency, count >= 0 ? count : MAX_FREQUENCY);
+        }
+        // exactly one increment sees the sample boundary, so exactly one thread ages the table
+        if (added && additions.incrementAndGet() % sampleSize == 0) {
+            reset();
+        }
+        return frequency;
+    }
+
+    public int frequency(long id) {
+        long hash = mix(id);
+        int frequency = MAX_FREQUENCY;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long rowHash = (hash + SEEDS[row]) * SEEDS[row];
+            int index = (int) (rowHash >>> 32) & tableMask;
+            int shift = (int) (rowHash & 15) << 2;
+            frequency = Math.min(frequency, (int) ((table.get(index) >>> shift) & 15));
+        }
+        return frequency;
+    }
+
+    // how many times the table has been aged; a consumer keeping its own counts halves them to match
+    public long resets() {
+        return additions.get() / sampleSize;
+    }
+
+    // the new counter value, or -1 when it was already saturated
+    private int incrementAt(int index, int shift) {
+        while (true) {
+            long word = table.get(index);
+            int count = (int) ((word >>> shift) & 15);
+            if (count == MAX_FREQUENCY) {
+                return -1;
+            }
+            if (table.compareAndSet(index, word, word + (1L << shift))) {
+                return count + 1;
+            }
+        }
+    }
+
+    // increments racing with the halving may land before or after it; either is a valid estimate
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            long word;
+            do {
+                word = table.get(i);
+            } while (!table.compareAndSet(i, word, (word >>> 1) & RESET_MASK));
+        }
+    }
+
+    // MurmurHash3 finalizer, as in LongBloomFilter: sequential ids must not land on neighbouring counters
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
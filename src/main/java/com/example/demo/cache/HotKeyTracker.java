@@ -0,0 +1,95 @@
+package com.example.demo.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Access frequency of one cache's Long keys: a {@link FrequencySketch} estimates every key, and keys whose
+ * estimate reaches the hot threshold are also counted individually in a bounded candidate map, which
+ * ranks the top-K. Counts are halved whenever the sketch ages, so both follow recent traffic. Recording
+ * takes no lock; trimming the candidates is done by whichever reader finds the map over capacity first.
+ */
+public class HotKeyTracker {
+
+    private final String cacheName;
+    private final FrequencySketch sketch;
+    private final int hotThreshold;
+    private final int capacity;
+    private final Map<Long, AtomicLong> candidates = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final AtomicLong agedResets = new AtomicLong();
+
+    public HotKeyTracker(String cacheName, long expectedEntries, int hotThreshold, int capacity) {
+        this.cacheName = cacheName;
+        this.sketch = new FrequencySketch(expectedEntries);
+        this.hotThreshold = hotThreshold;
+        this.capacity = capacity;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void record(Object key) {
+        if (!(key instanceof Long id)) return;
+
+        int frequency = sketch.increment(id);
+        if (frequency < hotThreshold) return;
+
+        AtomicLong count = candidates.get(id);
+        if (count == null) {
+            count = candidates.computeIfAbsent(id, k -> new AtomicLong());
+        }
+        count.incrementAndGet();
+        if (candidates.size() > capacity || sketch.resets() != agedResets.get()) {
+            maintain();
+        }
+    }
+
+    public int frequency(Object key) {
+        return key instanceof Long id ? sketch.frequency(id) : 0;
+    }
+
+    public boolean isHot(Object key) {
+        return frequency(key) >= hotThreshold;
+    }
+
+    // most accessed first; hits are counted since the key turned hot and halved with the sketch
+    public List<HotKey> top(int limit) {
+        List<HotKey> keys = new ArrayList<>(candidates.size());
+        candidates.forEach((id, count) -> keys.add(new HotKey(id, count.get(), sketch.frequency(id))));
+        keys.sort(Comparator.comparingLong(HotKey::hits).reversed().thenComparing(HotKey::id));
+        return keys.size() > limit ? keys.subList(0, limit) : keys;
+    }
+
+    private void maintain() {
+        if (!trimming.compareAndSet(false, true)) return;
+
+        try {
+            long resets = sketch.resets();
+            long missed = resets - agedResets.getAndSet(resets);
+            if (missed > 0) {
+                int shift = (int) Math.min(63, missed);
+                candidates.values().forEach(count -> count.updateAndGet(c -> c >>> shift));
+                candidates.values().removeIf(count -> count.get() == 0);
+            }
+            if (candidates.size() > capacity) {
+                // keeps the busier half, leaving room for newcomers; ranks a copy, as counts keep moving
+                List<HotKey> coldest = top(Integer.MAX_VALUE).reversed();
+                for (int i = 0; i < coldest.size() - capacity / 2; i++) {
+                    candidates.remove(coldest.get(i).id());
+                }
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    public record HotKey(long id, long hits, int frequency) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every read of the delegate and tags it hit or miss, and records the key with the hot-key tracker
+ * when there is one. Timers are resolved once per cache so the hot path only pays for the clock reads.
+ */
+public class InstrumentedCache implements Cache {
+
+    private final Cache delegate;
+    private final Timer hits;
+    private final Timer misses;
+    private final HotKeyTracker hotKeyTracker;
+
+    InstrumentedCache(Cache delegate, MeterRegistry meterRegistry, HotKeyTracker hotKeyTracker) {
+        this.delegate = delegate;
+        this.hotKeyTracker = hotKeyTracker;
+        this.hits = timer(meterRegistry, delegate.getName(), "hit");
+        this.misses = timer(meterRegistry, delegate.getName(), "miss");
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        track(key);
+        long start = System.nanoTime();
+        ValueWrapper wrapper = delegate.get(key);
+        record(wrapper != null, start);
+        return wrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        track(key);
+        long start = System.nanoTime();
+        T value = delegate.get(key, type);
+        record(value != null, start);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // before the read, so a load on miss is stored with a TTL that counts this access
+        track(key);
+        boolean[] loaded = new boolean[1];
+        long start = System.nanoTime();
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        record(!loaded[0], start);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private void track(Object key) {
+        if (hotKeyTracker != null) {
+            hotKeyTracker.record(key);
+        }
+    }
+
+    private void record(boolean hit, long start) {
+        (hit ? hits : misses).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String cacheName, String result) {
+        return Timer.builder("notification.cache.get")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps each cache of the delegate manager in an {@link InstrumentedCache}, so hit/miss and read latency
+ * are reported the same way whether or not the local tier is enabled. Reads of the tracker's cache, hits
+ * included, are also recorded in the {@link HotKeyTracker}.
+ */
+public class InstrumentedCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final MeterRegistry meterRegistry;
+    private final HotKeyTracker hotKeyTracker;
+    private final ConcurrentMap<String, InstrumentedCache> caches = new ConcurrentHashMap<>();
+
+    public InstrumentedCacheManager(CacheManager delegate, MeterRegistry meterRegistry) {
+        this(delegate, meterRegistry, null);
+    }
+
+    public InstrumentedCacheManager(CacheManager delegate, MeterRegistry meterRegistry, HotKeyTracker hotKeyTracker) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> {
+            Cache cache = delegate.getCache(n);
+            if (cache == null) {
+                return null;
+            }
+            boolean tracked = hotKeyTracker != null && hotKeyTracker.getCacheName().equals(n);
+            return new InstrumentedCache(cache, meterRegistry, tracked ? hotKeyTracker : null);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+}
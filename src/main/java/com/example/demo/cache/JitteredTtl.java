@@ -0,0 +1,32 @@
+package com.example.demo.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Spreads entry lifetimes uniformly over {@code ttl * (1 ± jitter)}, so a burst of entries cached in the
+ * same second (a deploy, a traffic spike) does not expire, and reload, in the same second.
+ */
+public class JitteredTtl implements RedisCacheWriter.TtlFunction {
+
+    private final long ttlMillis;
+    private final long spreadMillis;
+
+    public JitteredTtl(Duration ttl, double jitter) {
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("jitter must be in [0, 1): " + jitter);
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.spreadMillis = (long) (ttlMillis * jitter);
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        if (spreadMillis == 0) {
+            return Duration.ofMillis(ttlMillis);
+        }
+        return Duration.ofMillis(ttlMillis + ThreadLocalRandom.current().nextLong(-spreadMillis, spreadMillis + 1));
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.demo.cache;
+
+import com.example.demo.config.CacheLockProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces concurrent misses for the same key: the first caller loads, later callers wait on its future,
+ * so a node runs at most one load per key at a time. With the Redis lease enabled the loader is also
+ * elected across nodes; losers poll the cache until the winner's value lands or the wait runs out.
+ * Unlike the remote cache's own get(key, loader), callers missing on different keys never block each other.
+ */
+@Slf4j
+public class SingleFlightCache implements Cache {
+
+    static final String LOCK_PREFIX = "cache:lock:";
+    private static final long POLL_INTERVAL_MILLIS = 20;
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(new ClassPathResource("redis/lock-release.lua"), Long.class);
+
+    private final Cache delegate;
+    private final StringRedisTemplate redis;
+    private final CacheLockProperties lockProperties;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    SingleFlightCache(Cache delegate, StringRedisTemplate redis, CacheLockProperties lockProperties) {
+        this.delegate = delegate;
+        this.redis = redis;
+        this.lockProperties = lockProperties;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, future);
+        if (leader != null) {
+            return (T) await(leader);
+        }
+        try {
+            Object value = load(key, valueLoader);
+            future.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        if (!lockProperties.isEnabled()) {
+            return loadAndStore(key, valueLoader);
+        }
+        String lockKey = LOCK_PREFIX + getName() + ":" + key;
+        String token = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = redis.opsForValue().setIfAbsent(lockKey, token, lockProperties.getLease());
+        } catch (Exception e) {
+            log.error("Cache lock acquire Error: {}", e.getMessage());
+            return loadAndStore(key, valueLoader);
+        }
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                // another node may have stored the value between our miss and the lease
+                ValueWrapper cached = delegate.get(key);
+                return cached != null ? cached.get() : loadAndStore(key, valueLoader);
+            } finally {
+                release(lockKey, token);
+            }
+        }
+        long deadline = System.nanoTime() + lockProperties.getWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            ValueWrapper cached = delegate.get(key);
+            if (cached != null) {
+                return cached.get();
+            }
+        }
+        // the holder is slow or gone; answer from the database rather than fail the request
+        return loadAndStore(key, valueLoader);
+    }
+
+    private Object loadAndStore(Object key, Callable<?> valueLoader) {
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        // a load is not a change: putIfAbsent keeps a concurrent writer's value and, for the two-level
+        // cache, does not invalidate other nodes
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        return existing == null ? value : existing.get();
+    }
+
+    private void release(String lockKey, String token) {
+        try {
+            redis.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+        } catch (Exception e) {
+            log.error("Cache lock release Error: {}", e.getMessage());
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
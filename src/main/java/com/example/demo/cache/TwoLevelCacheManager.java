@@ -0,0 +1,84 @@
+package com.example.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every cache of the remote manager in a {@link TwoLevelCache} and keeps the local tiers of all
+ * nodes coherent over Redis pub/sub. The local TTL bounds staleness if an invalidation message is lost.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+    private static final String SEPARATOR = "|";
+
+    private final CacheManager remote;
+    private final RedisTemplate<String, Object> redis;
+    private final long maximumSize;
+    private final Duration localTtl;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remote, RedisTemplate<String, Object> redis, long maximumSize, Duration localTtl) {
+        this.remote = remote;
+        this.redis = redis;
+        this.maximumSize = maximumSize;
+        this.localTtl = localTtl;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> {
+            Cache remoteCache = remote.getCache(n);
+            if (remoteCache == null) {
+                return null;
+            }
+            return new TwoLevelCache(n, Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(localTtl)
+                    .build(), remoteCache, this);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    void publishInvalidation(String cacheName, String key) {
+        String message = nodeId + SEPARATOR + cacheName + SEPARATOR + (key == null ? "" : key);
+        try {
+            redis.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            log.error("Cache invalidation publish Error: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redis.getValueSerializer().deserialize(message.getBody());
+        if (!(body instanceof String text)) {
+            return;
+        }
+        String[] parts = text.split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(parts[2].isEmpty() ? null : parts[2]);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.cache.expiry")
+public class CacheExpiryProperties {
+
+    private Duration ttl = Duration.ofMinutes(10);
+
+    // each entry lives ttl * (1 ± jitter) so entries written together do not expire together
+    private double jitter = 0.1;
+}
@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.cache.frequency")
+public class CacheFrequencyProperties {
+
+    // count reads of the "notification" cache and pick each entry's Redis TTL by how often its key is read
+    private boolean enabled = true;
+
+    // distinct ids read within one aging period; sizes the sketch (half a byte per counter, four per id)
+    private long expectedEntries = 10_000;
+
+    // sketch estimate, out of 15, from which a key is hot: it gets the hot TTL and is ranked in the top-K
+    private int hotThreshold = 8;
+
+    // hot keys counted individually for the top-K; the least read half is dropped when it fills up
+    private int topKCapacity = 256;
+
+    // TTL of an entry whose key was read only once lately, so one-hit wonders leave Redis quickly
+    private Duration coldTtl = Duration.ofMinutes(1);
+
+    // TTL of a hot key's entry; cold, hot and base (notification.cache.expiry.ttl) share the expiry jitter
+    private Duration hotTtl = Duration.ofHours(1);
+}
@@ -0,0 +1,20 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.cache.lock")
+public class CacheLockProperties {
+
+    // a Redis lease per missing key so only one node loads it; in-process coalescing is always on
+    private boolean enabled = false;
+
+    // how long a lease outlives a crashed holder
+    private Duration lease = Duration.ofSeconds(5);
+
+    // how long other nodes poll the cache before giving up and loading themselves
+    private Duration wait = Duration.ofSeconds(2);
+}
@@ -0,0 +1,13 @@
+package com.example.demo.config;
+
+import com.example.demo.cache.CacheValueFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "notification.cache.serialization")
+public class CacheSerializationProperties {
+
+    // format used for writes; both formats are always readable so nodes can be switched one at a time
+    private CacheValueFormat valueFormat = CacheValueFormat.JSON;
+}
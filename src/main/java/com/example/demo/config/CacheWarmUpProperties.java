@@ -0,0 +1,32 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.cache.warm-up")
+public class CacheWarmUpProperties {
+
+    // preload the recent feed and the newest rows into the Redis "notification" cache when Redis is empty
+    private boolean enabled = true;
+
+    // newest rows cached per shard
+    private int maxEntries = 10_000;
+
+    // ids per keyset page; each page is one id scan plus one findAllById
+    private int pageSize = 500;
+
+    // pages read per second, so a warm-up never competes with live traffic for the database
+    private double pagesPerSecond = 10;
+
+    // how often each node checks whether Redis lost its data (restart, failover to an empty node)
+    private long checkIntervalMs = 10_000;
+
+    // how long one node's claim on a warm-up lasts; a node that dies mid warm-up is replaced after this
+    private Duration lease = Duration.ofMinutes(5);
+
+    // readiness stops waiting for the startup warm-up after this, so a stuck warm-up cannot keep a node out
+    private Duration readinessTimeout = Duration.ofMinutes(2);
+}
@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import com.example.demo.constants.NotificationType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "notification.delivery")
+public class DeliveryProperties {
+
+    // off until provider senders are deployed; the consumer refuses to start with a channel left without one
+    private boolean enabled = false;
+
+    private String consumerGroup = "notification-delivery-group";
+
+    // registers the logging EMAIL/SMS senders, which acknowledge without delivering; tests and local runs only
+    private boolean stubSenders = false;
+
+    private int consumerThreads = 64;
+
+    private int maxAttempts = 3;
+
+    private Duration initialBackoff = Duration.ofMillis(200);
+
+    private Duration maxBackoff = Duration.ofSeconds(5);
+
+    private Map<NotificationType, Channel> channels = new EnumMap<>(NotificationType.class);
+
+    public Channel channel(NotificationType type) {
+        return channels.getOrDefault(type, new Channel());
+    }
+
+    @Data
+    public static class Channel {
+
+        // sends in flight to this channel's provider at once, across all consumer threads
+        private int maxConcurrency = 32;
+
+        // provider quota; 0 disables rate limiting
+        private double ratePerSecond = 0;
+    }
+}
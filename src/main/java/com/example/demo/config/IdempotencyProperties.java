@@ -0,0 +1,27 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.idempotency")
+public class IdempotencyProperties {
+
+    // when off, Idempotency-Key is ignored apart from the unique column it is written to
+    private boolean enabled = true;
+
+    // how long a completed response is replayed for a retried key
+    private Duration ttl = Duration.ofHours(24);
+
+    // how long a reservation outlives a crashed holder before the key can be executed again
+    private Duration lease = Duration.ofSeconds(30);
+
+    // how long a duplicate waits for the original request to finish before answering 409
+    private Duration wait = Duration.ofSeconds(5);
+
+    private Duration pollInterval = Duration.ofMillis(50);
+
+    private int maxKeyLength = 64;
+}
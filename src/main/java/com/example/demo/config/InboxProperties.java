@@ -0,0 +1,17 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.inbox")
+public class InboxProperties {
+
+    private int defaultLimit = 20;
+
+    private int maxLimit = 100;
+
+    private Duration firstPageTtl = Duration.ofMinutes(5);
+}
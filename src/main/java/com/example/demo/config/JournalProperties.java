@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import com.example.demo.journal.FsyncPolicy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.mq.journal")
+public class JournalProperties {
+
+    // SYNC-mode events the broker rejects are appended to a local journal and replayed in order, instead of dropped
+    private boolean enabled = false;
+
+    // local disk, one directory per running instance
+    private String directory = "data/mq-journal";
+
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    private FsyncPolicy fsync = FsyncPolicy.INTERVAL;
+
+    // only used by INTERVAL
+    private Duration fsyncInterval = Duration.ofMillis(10);
+}
@@ -0,0 +1,18 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.cache.local")
+public class LocalCacheProperties {
+
+    private boolean enabled = true;
+
+    private long maximumSize = 10_000;
+
+    // upper bound on how long a node can serve a stale entry if an invalidation message is lost
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.cache.negative")
+public class NegativeCacheProperties {
+
+    private boolean enabled = true;
+
+    // how long an id that missed in MySQL is answered with 404 straight from Redis
+    private Duration ttl = Duration.ofSeconds(60);
+
+    private double falsePositiveRate = 0.01;
+
+    // cap on ids held in the in-process Bloom filter: about 1.2 bytes each at a 1% false positive rate,
+    // so the default is about 57 MiB of heap per instance, twice that while a full rebuild builds a new
+    // one; past the cap only the newest ids are held and older ones go to the database
+    private long maxEntries = 50_000_000;
+
+    // the filter only vouches for ids of rows older than this, so an insert that commits after a
+    // higher id is never rejected before the next rebuild picks it up
+    private Duration watermarkGrace = Duration.ofMinutes(1);
+
+    // ids are generated when a request arrives, so a row can commit well after newer ones (a write-behind
+    // flush, a slow transaction): each incremental rebuild rescans the ids generated this long before the
+    // last watermark, and a full rebuild every full-rebuild-interval picks up anything later still
+    private Duration lateCommitWindow = Duration.ofMinutes(15);
+
+    private Duration fullRebuildInterval = Duration.ofHours(24);
+
+    private long rebuildIntervalMs = 600_000;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.mq.outbox")
+public class OutboxProperties {
+
+    private int batchSize = 500;
+
+    // upper bound on consecutive full batches per poll so one instance cannot hog the scheduler thread
+    private int maxBatchesPerPoll = 20;
+
+    private Duration sendTimeout = Duration.ofSeconds(3);
+
+    private Duration retention = Duration.ofDays(1);
+}
@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.partitioning")
+public class PartitioningProperties {
+
+    // maintains the monthly partitions created by init.sql; off for schemas without them, e.g. H2
+    private boolean enabled = true;
+
+    // months kept in notifications, the current one included; older months move to notifications_archive
+    private int hotMonths = 3;
+
+    // months kept in notifications_archive, the current one included; older archive partitions are dropped
+    private int archiveMonths = 24;
+
+    // empty partitions created ahead of time, so inserts never land in p_future
+    private int premakeMonths = 2;
+
+    private int batchSize = 5000;
+
+    // read by NotificationArchiveService's @Scheduled, evaluated in UTC like the partition bounds
+    private String cron = "0 30 3 * * *";
+
+    // must outlive notification.idempotency.ttl, or a late retry with Redis down could insert twice
+    private Duration idempotencyKeyRetention = Duration.ofDays(7);
+}
@@ -0,0 +1,41 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.ReplicaSelection;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "notification.read-replicas")
+public class ReadReplicaProperties {
+
+    // route @Transactional(readOnly = true) work (including Spring Data finders) to the nodes below
+    private boolean enabled = false;
+
+    private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    private long healthCheckIntervalMs = 5_000;
+
+    // a replica that cannot hand out a connection within this is marked down until the next health check passes
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+
+    // after a write the same client reads from the primary for this long, covering replication lag
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    @Data
+    public static class Node {
+
+        private String url;
+
+        // default to spring.datasource credentials
+        private String username;
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
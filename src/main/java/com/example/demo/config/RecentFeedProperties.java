@@ -0,0 +1,15 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.recent")
+public class RecentFeedProperties {
+
+    private int maxSize = 10;
+
+    private Duration ttl = Duration.ofMinutes(10);
+}
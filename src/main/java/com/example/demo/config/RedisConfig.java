@@ -1,20 +1,33 @@
 package com.example.demo.config;
 
+import com.example.demo.cache.AdaptiveTtl;
+import com.example.demo.cache.CompactRedisSerializer;
+import com.example.demo.cache.HotKeyTracker;
+import com.example.demo.cache.InstrumentedCacheManager;
+import com.example.demo.cache.JitteredTtl;
+import com.example.demo.cache.SingleFlightCacheManager;
+import com.example.demo.cache.TwoLevelCacheManager;
+import com.example.demo.stream.NotificationEventPublisher;
+import com.example.demo.stream.NotificationStreamBroadcaster;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
-import java.time.Duration;
 
 @Configuration
 @EnableCaching
@@ -28,22 +41,72 @@ public class RedisConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+    public RedisSerializer<Object> redisValueSerializer(ObjectMapper objectMapper, CacheSerializationProperties properties) {
+        // default typing adds the @class hint so cached DTOs decode to their own type rather than a LinkedHashMap
+        GenericJackson2JsonRedisSerializer json = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(objectMapper.copy())
+                .defaultTyping(true)
+                .build();
+        return new CompactRedisSerializer(json, properties.getValueFormat());
+    }
+
+    @Bean
+    public HotKeyTracker hotKeyTracker(CacheFrequencyProperties properties) {
+        return new HotKeyTracker("notification", properties.getExpectedEntries(), properties.getHotThreshold(),
+                properties.getTopKCapacity());
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, RedisSerializer<Object> redisValueSerializer,
+                                     RedisTemplate<String, Object> redisTemplate, StringRedisTemplate stringRedisTemplate,
+                                     LocalCacheProperties localCacheProperties, CacheExpiryProperties expiryProperties,
+                                     CacheLockProperties lockProperties, CacheFrequencyProperties frequencyProperties,
+                                     HotKeyTracker hotKeyTracker, MeterRegistry meterRegistry) {
+        JitteredTtl ttl = new JitteredTtl(expiryProperties.getTtl(), expiryProperties.getJitter());
+        RedisCacheWriter.TtlFunction entryTtl = ttl;
+        if (frequencyProperties.isEnabled()) {
+            entryTtl = new AdaptiveTtl(hotKeyTracker,
+                    new JitteredTtl(frequencyProperties.getColdTtl(), expiryProperties.getJitter()), ttl,
+                    new JitteredTtl(frequencyProperties.getHotTtl(), expiryProperties.getJitter()));
+        }
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10))
+                .entryTtl(entryTtl)
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer(objectMapper)));
-        return RedisCacheManager.builder(connectionFactory)
+                        .fromSerializer(redisValueSerializer));
+        CacheManager storage = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
                 .build();
+        if (localCacheProperties.isEnabled()) {
+            storage = new TwoLevelCacheManager(storage, redisTemplate,
+                    localCacheProperties.getMaximumSize(), localCacheProperties.getTtl());
+        }
+        return new InstrumentedCacheManager(new SingleFlightCacheManager(storage, stringRedisTemplate, lockProperties), meterRegistry,
+                frequencyProperties.isEnabled() ? hotKeyTracker : null);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory, CacheManager cacheManager,
+                                                                       NotificationStreamBroadcaster broadcaster,
+                                                                       StreamProperties streamProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (cacheManager instanceof InstrumentedCacheManager instrumented
+                && instrumented.getDelegate() instanceof SingleFlightCacheManager singleFlight
+                && singleFlight.getDelegate() instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            container.addMessageListener(twoLevelCacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        }
+        if (streamProperties.isEnabled()) {
+            container.addMessageListener(broadcaster, new ChannelTopic(NotificationEventPublisher.CHANNEL));
+        }
+        return container;
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, RedisSerializer<Object> redisValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(RedisSerializer.string());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer(objectMapper));
+        template.setValueSerializer(redisValueSerializer);
         template.afterPropertiesSet();
         return template;
     }
@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import com.example.demo.mq.BackpressurePolicy;
+import com.example.demo.mq.MessageOrdering;
+import com.example.demo.mq.PublishMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.mq.publisher")
+public class RocketMQPublisherProperties {
+
+    private PublishMode mode = PublishMode.SYNC;
+
+    private MessageOrdering ordering = MessageOrdering.ORDERLY;
+
+    private int queueCapacity = 10_000;
+
+    private int batchSize = 128;
+
+    private BackpressurePolicy backpressure = BackpressurePolicy.BLOCK;
+
+    // only used by BLOCK: how long a caller may wait for free space before the event is rejected
+    private Duration blockTimeout = Duration.ofMillis(200);
+
+    private Duration sendTimeout = Duration.ofSeconds(3);
+
+    private Duration retryBackoff = Duration.ofMillis(500);
+}
@@ -4,4 +4,7 @@ public class RocketMQTopicConfig {
 
     public static final String NOTIFICATION_TOPIC = "notification-topic";
 
-}
\ No newline at end of file
+    // notifications whose delivery failed permanently or ran out of attempts
+    public static final String NOTIFICATION_DEAD_LETTER_TOPIC = "notification-dlq-topic";
+
+}
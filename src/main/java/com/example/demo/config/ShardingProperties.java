@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "notification.sharding")
+public class ShardingProperties {
+
+    // spread notifications over spring.datasource (shard 0) plus the shards below, by recipient hash
+    private boolean enabled = false;
+
+    // 0-63 and unique per running instance; part of every generated id, two instances on the same worker id
+    // generate the same ids. Unset, a free one is leased from Redis at startup
+    private Integer workerId;
+
+    // how long a leased worker id outlives this instance's last renewal; ids stop being generated once it runs out
+    private Duration workerLease = Duration.ofSeconds(30);
+
+    // when sharding was first enabled, required with enabled; every id from before it, AUTO_INCREMENT or
+    // generated, lives on shard 0. Must not be later than the real cut-over, and never changes afterwards
+    private Instant shardedSince;
+
+    // shards 1..n; the count must not change once data is written, recipients would hash elsewhere
+    private List<Shard> shards = new ArrayList<>();
+
+    public int shardCount() {
+        return enabled ? 1 + shards.size() : 1;
+    }
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        // default to spring.datasource credentials
+        private String username;
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.stream")
+public class StreamProperties {
+
+    // publish change events to Redis and serve GET /notifications/stream
+    private boolean enabled = true;
+
+    // events queued per subscriber; a subscriber that falls this far behind is disconnected
+    private int bufferSize = 64;
+
+    // connected subscribers per node; further requests are answered 503
+    private int maxSubscribers = 10_000;
+
+    // a comment frame keeps idle streams open through proxies and detects clients that went away
+    private long heartbeatIntervalMs = 15_000;
+
+    // how long one stream stays open; EventSource clients reconnect on their own
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,24 @@
+package com.example.demo.config;
+
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// spring.threads.virtual.enabled already moves Tomcat and the @Async/@Scheduled executors; this covers
+// the RocketMQ async send callbacks, which otherwise run on the client's own platform thread pool
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService rocketMQAsyncSenderExecutor(RocketMQTemplate rocketMQTemplate) {
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rocketmq-async-", 0).factory());
+        rocketMQTemplate.setAsyncSenderExecutor(executor);
+        return executor;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "notification.write-behind")
+public class WriteBehindProperties {
+
+    // POST /notifications appends to a Redis stream and answers 201; WriteBehindWriter inserts the rows later.
+    // Only as durable as Redis persistence: run it with appendonly yes
+    private boolean enabled = false;
+
+    private int batchSize = 1000;
+
+    // upper bound on consecutive full batches per poll so one instance cannot hog the scheduler thread
+    private int maxBatchesPerPoll = 10;
+
+    // entries delivered to a writer that has not acknowledged them for this long are claimed by another instance
+    private Duration claimIdle = Duration.ofMinutes(1);
+}
@@ -0,0 +1,7 @@
+package com.example.demo.constants;
+
+public enum NotificationChange {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,36 @@
+package com.example.demo.controller;
+
+import com.example.demo.cache.HotKeyTracker;
+import com.example.demo.dto.HotKeyResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/cache")
+public class CacheAdminController {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final HotKeyTracker hotKeyTracker;
+
+
+    // most read "notification" ids lately; empty when frequency tracking is disabled
+    @GetMapping("/hot-keys")
+    public ResponseEntity<List<HotKeyResponse>> getHotKeys(@RequestParam(defaultValue = "20") int limit) {
+        List<HotKeyResponse> response = hotKeyTracker.top(Math.max(1, Math.min(limit, MAX_LIMIT))).stream()
+                .map(key -> HotKeyResponse.builder()
+                        .id(key.id())
+                        .hits(key.hits())
+                        .frequency(key.frequency())
+                        .build())
+                .toList();
+        return ResponseEntity.ok(response);
+    }
+}
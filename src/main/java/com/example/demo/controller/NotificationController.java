@@ -1,12 +1,20 @@
 package com.example.demo.controller;
 
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.BatchCreateNotificationResponse;
 import com.example.demo.dto.CreateNotificationRequest;
+import com.example.demo.dto.InboxPageResponse;
 import com.example.demo.dto.NotificationResponse;
-import com.example.demo.dto.RecentNotificationResponse;
 import com.example.demo.dto.UpdateNotificationRequest;
+import com.example.demo.service.IdempotencyService;
 import com.example.demo.service.NotificationService;
+import com.example.demo.service.RecentSnapshot;
+import com.example.demo.stream.NotificationStreamBroadcaster;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,8 +22,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -24,13 +35,44 @@ import java.util.List;
 @RequestMapping("/notifications")
 public class NotificationController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final NotificationService notificationService;
+    private final IdempotencyService idempotencyService;
+    private final NotificationStreamBroadcaster streamBroadcaster;
 
 
     @PostMapping
-    public ResponseEntity<NotificationResponse> create(@Valid @RequestBody CreateNotificationRequest request) {
-        NotificationResponse response = notificationService.createNotification(request);
-        return ResponseEntity.status(201).body(response);
+    public ResponseEntity<NotificationResponse> create(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                       @Valid @RequestBody CreateNotificationRequest request) {
+        if (idempotencyKey == null) {
+            NotificationResponse response = notificationService.createNotification(request);
+            return ResponseEntity.status(201).body(response);
+        }
+        IdempotencyService.Result<NotificationResponse> result = idempotencyService.execute(
+                "create", idempotencyKey, request, NotificationResponse.class,
+                () -> notificationService.createNotification(request, idempotencyKey),
+                () -> notificationService.findByIdempotencyKey(idempotencyKey));
+        return ResponseEntity.status(201)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.value());
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateNotificationResponse> createBatch(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                                       @RequestBody List<CreateNotificationRequest> requests) {
+        if (idempotencyKey == null) {
+            BatchCreateNotificationResponse response = notificationService.createNotifications(requests);
+            return ResponseEntity.status(batchStatus(response)).body(response);
+        }
+        IdempotencyService.Result<BatchCreateNotificationResponse> result = idempotencyService.execute(
+                "batch", idempotencyKey, requests, BatchCreateNotificationResponse.class,
+                () -> notificationService.createNotifications(requests, idempotencyKey),
+                () -> notificationService.findBatchByIdempotencyKey(requests, idempotencyKey));
+        return ResponseEntity.status(batchStatus(result.value()))
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.value());
     }
 
     @GetMapping("/{id}")
@@ -39,12 +81,31 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/recent")
-    public ResponseEntity<List<RecentNotificationResponse>> getRecent() {
-        List<RecentNotificationResponse> response = notificationService.getRecentNotifications();
+    @GetMapping
+    public ResponseEntity<InboxPageResponse> getInbox(@RequestParam String recipient,
+                                                      @RequestParam(required = false) String after,
+                                                      @RequestParam(required = false) Integer limit) {
+        InboxPageResponse response = notificationService.getInbox(recipient, after, limit);
         return ResponseEntity.ok(response);
     }
 
+    // the pre-rendered feed goes out as is; a matching If-None-Match gets 304 without a body
+    @GetMapping(path = "/recent", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getRecent() {
+        RecentSnapshot response = notificationService.getRecentNotifications();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (response.etag() != null) {
+            builder.eTag(response.etag());
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(response.json());
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) NotificationType type,
+                             @RequestParam(required = false) String recipient) {
+        return streamBroadcaster.subscribe(type, recipient);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<NotificationResponse> update(@PathVariable Long id, @Valid @RequestBody UpdateNotificationRequest request) {
         NotificationResponse response = notificationService.updateNotification(id, request);
@@ -57,5 +118,8 @@ public class NotificationController {
         return ResponseEntity.noContent().build();
     }
 
+    private static HttpStatus batchStatus(BatchCreateNotificationResponse response) {
+        return response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+    }
 
 }
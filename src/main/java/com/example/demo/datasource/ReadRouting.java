@@ -0,0 +1,55 @@
+package com.example.demo.datasource;
+
+import com.example.demo.config.ReadReplicaProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins read-only work on the current thread to the primary. Used for the read-your-writes window and
+ * for re-checking a replica miss that may only be replication lag.
+ */
+@Component
+public class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final ReadReplicaProperties properties;
+
+    public ReadRouting(ReadReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    // true when a read-only transaction started now would be served by a replica
+    public boolean isReplicaRead() {
+        return properties.isEnabled() && !isPrimaryRequired();
+    }
+
+    // the action must open its own transaction; one already bound to the thread keeps its connection
+    public <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = pinToPrimary();
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static Boolean pinToPrimary() {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            PRIMARY_REQUIRED.remove();
+        } else {
+            PRIMARY_REQUIRED.set(previous);
+        }
+    }
+}
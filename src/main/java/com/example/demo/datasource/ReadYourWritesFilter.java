@@ -0,0 +1,77 @@
+package com.example.demo.datasource;
+
+import com.example.demo.config.ReadReplicaProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Gives a client its own writes back while replicas catch up. A write request stamps a cookie with the
+ * end of the read-your-writes window; until then that client's requests read from the primary. The
+ * window travels with the client, so it holds across nodes without shared state.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification.read-replicas", name = "enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "read-primary-until";
+
+    private final ReadReplicaProperties properties;
+
+    public ReadYourWritesFilter(ReadReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (isWrite(request)) {
+            // set before the chain runs: the response may already be committed afterwards
+            long window = properties.getReadYourWritesWindow().toMillis();
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + window));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window / 1000));
+            response.addCookie(cookie);
+        }
+        if (!isWrite(request) && primaryUntil(request) <= now) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Boolean previous = ReadRouting.pinToPrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.restore(previous);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return 0;
+
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
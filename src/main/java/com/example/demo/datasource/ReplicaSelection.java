@@ -0,0 +1,8 @@
+package com.example.demo.datasource;
+
+public enum ReplicaSelection {
+    // rotate over healthy replicas
+    ROUND_ROBIN,
+    // pick the healthy replica whose pool has the fewest connections in use
+    LEAST_LOADED
+}
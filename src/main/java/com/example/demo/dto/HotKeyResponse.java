@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotKeyResponse {
+
+    private Long id;
+
+    // reads since the key turned hot, halved as the sketch ages
+    private Long hits;
+
+    // current sketch estimate, 0..15
+    private Integer frequency;
+}
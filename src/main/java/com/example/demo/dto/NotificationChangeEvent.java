@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import com.example.demo.constants.NotificationChange;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationChangeEvent {
+
+    private NotificationChange change;
+
+    // the summary /notifications/recent serves; a deletion carries the row as it was
+    private RecentNotificationResponse notification;
+}
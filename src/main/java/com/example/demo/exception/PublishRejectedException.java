@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class PublishRejectedException extends RuntimeException {
+    public PublishRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class StreamCapacityException extends RuntimeException {
+    public StreamCapacityException(String message) {
+        super(message);
+    }
+}
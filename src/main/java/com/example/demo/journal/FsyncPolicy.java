@@ -0,0 +1,8 @@
+package com.example.demo.journal;
+
+public enum FsyncPolicy {
+    // msync after each append returns: nothing acknowledged is lost, at the price of one disk flush per record
+    EVERY_RECORD,
+    // a background thread msyncs the active segment every fsync-interval; a power loss can cost that window
+    INTERVAL
+}
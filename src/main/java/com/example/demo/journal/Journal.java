@@ -0,0 +1,334 @@
+package com.example.demo.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of opaque records in memory-mapped segment files, for buffering work at disk speed while
+ * a downstream dependency is unavailable. A record is its length, the CRC32C of its payload and the payload;
+ * positions are logical byte offsets that keep growing across segments, and a segment file is named after
+ * the position of its first byte. On open every segment is scanned and a torn or corrupt tail is cut off.
+ * The consumer commits the position it has handled; the checkpoint survives restarts and fully consumed
+ * segments are deleted. One consumer per journal; all methods are thread-safe.
+ */
+@Slf4j
+public class Journal implements AutoCloseable {
+
+    static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final ScheduledExecutorService flusher;
+    private volatile Segment active;
+    private long committed;
+    private boolean closed;
+
+    public Journal(Path directory, int segmentBytes, FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must exceed the " + HEADER_BYTES + "-byte record header: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        try {
+            Files.createDirectories(directory);
+            long checkpoint = readCheckpoint();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                    String name = file.getFileName().toString();
+                    long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(base, Segment.open(file, base, segmentBytes));
+                }
+            }
+            for (Segment segment : segments.values()) {
+                segment.recover(segment == segments.lastEntry().getValue());
+            }
+            active = segments.isEmpty() ? createSegment(Math.max(checkpoint, 0)) : segments.lastEntry().getValue();
+            // a checkpoint outside the data on disk (segments removed or restored by hand) is clamped to it
+            committed = skipGap(Math.min(Math.max(checkpoint, segments.firstKey()), active.end()));
+        } catch (IOException e) {
+            segments.values().forEach(Segment::close);
+            throw new UncheckedIOException("Failed to open journal " + directory, e);
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            long intervalNanos = fsyncInterval.toNanos();
+            flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("journal-fsync").factory());
+            flusher.scheduleWithFixedDelay(this::forceActive, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    // returns the position just past the record; durable on return with EVERY_RECORD
+    public synchronized long append(byte[] payload) {
+        ensureOpen();
+        int size = HEADER_BYTES + payload.length;
+        if (size > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit a " + segmentBytes + "-byte segment");
+        }
+        Segment segment = active;
+        if (segment.limit + size > segment.capacity()) {
+            segment = roll();
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        int offset = segment.limit;
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.put(offset + HEADER_BYTES, payload);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        // the length goes last, so a reader of the mapping never sees a header without its payload
+        buffer.putInt(offset, payload.length);
+        segment.limit = offset + size;
+        if (fsyncPolicy == FsyncPolicy.EVERY_RECORD) {
+            buffer.force(offset, size);
+        }
+        return segment.end();
+    }
+
+    // from must be a position this journal handed out: readPosition() or a record's next
+    public synchronized List<JournalRecord> read(long from, int max) {
+        ensureOpen();
+        List<JournalRecord> records = new ArrayList<>(Math.min(max, 1024));
+        long position = Math.max(from, segments.firstKey());
+        while (records.size() < max) {
+            Segment segment = segments.floorEntry(position).getValue();
+            int offset = (int) (position - segment.base);
+            if (offset >= segment.limit) {
+                // past this segment's data: continue at the next segment, which may start later after a cut tail
+                Long next = segments.higherKey(segment.base);
+                if (next == null) {
+                    break;
+                }
+                position = next;
+                continue;
+            }
+            int length = segment.buffer.getInt(offset);
+            byte[] payload = new byte[length];
+            segment.buffer.get(offset + HEADER_BYTES, payload);
+            long next = position + HEADER_BYTES + length;
+            records.add(new JournalRecord(position, next, payload));
+            position = next;
+        }
+        return records;
+    }
+
+    public synchronized long readPosition() {
+        return committed;
+    }
+
+    public synchronized long writePosition() {
+        return active.end();
+    }
+
+    public synchronized boolean hasBacklog() {
+        return committed < active.end();
+    }
+
+    // counts record headers too
+    public synchronized long backlogBytes() {
+        return active.end() - committed;
+    }
+
+    // marks everything before position as handled and deletes segments that hold nothing after it
+    public synchronized void commit(long position) {
+        ensureOpen();
+        if (position <= committed) {
+            return;
+        }
+        if (position > active.end()) {
+            throw new IllegalArgumentException("Cannot commit " + position + " past the end of the journal " + active.end());
+        }
+        try {
+            writeCheckpoint(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write journal checkpoint " + directory, e);
+        }
+        committed = skipGap(position);
+        while (segments.size() > 1 && segments.firstEntry().getValue().end() <= position) {
+            Segment consumed = segments.pollFirstEntry().getValue();
+            consumed.close();
+            try {
+                Files.deleteIfExists(consumed.file);
+            } catch (IOException e) {
+                log.error("Journal delete segment Error: {}", e.getMessage());
+            }
+        }
+    }
+
+    public void force() {
+        active.buffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        active.buffer.force();
+        segments.values().forEach(Segment::close);
+    }
+
+    // a position at the end of a segment's data stands for the start of the next segment, so that
+    // hasBacklog stays exact when a cut tail left a gap before it
+    private long skipGap(long position) {
+        Segment segment = segments.floorEntry(position).getValue();
+        Long next = segments.higherKey(segment.base);
+        while (next != null && position >= segment.end()) {
+            position = next;
+            segment = segments.get(next);
+            next = segments.higherKey(next);
+        }
+        return position;
+    }
+
+    private Segment roll() {
+        Segment previous = active;
+        // a full segment is flushed whatever the policy, so only the active one can lose an interval
+        previous.buffer.force();
+        try {
+            active = createSegment(previous.end());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create journal segment in " + directory, e);
+        }
+        return active;
+    }
+
+    private Segment createSegment(long base) throws IOException {
+        Segment segment = Segment.open(directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX)), base, segmentBytes);
+        segments.put(base, segment);
+        return segment;
+    }
+
+    private void forceActive() {
+        try {
+            active.buffer.force();
+        } catch (Exception e) {
+            log.error("Journal fsync Error: {}", e.getMessage());
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : -1;
+    }
+
+    // written aside, synced, then renamed over the old one, so a crash leaves either checkpoint intact
+    private void writeCheckpoint(long position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, position));
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Journal " + directory + " is closed");
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final long base;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int limit;
+
+        private Segment(Path file, long base, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.base = base;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        // a segment written with a larger segment size keeps its own size
+        private static Segment open(Path file, long base, int segmentBytes) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                long size = Math.max(channel.size(), segmentBytes);
+                return new Segment(file, base, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private int capacity() {
+            return buffer.capacity();
+        }
+
+        private long end() {
+            return base + limit;
+        }
+
+        // finds the end of the valid records; in the last segment whatever follows is zeroed so appends start clean
+        private void recover(boolean last) {
+            int offset = 0;
+            CRC32C crc = new CRC32C();
+            while (offset + HEADER_BYTES <= capacity()) {
+                int length = buffer.getInt(offset);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || offset + HEADER_BYTES + length > capacity() || !matches(crc, offset, length)) {
+                    log.warn("Journal record corrupt or torn, segment cut - Segment: {}, Offset: {}", file.getFileName(), offset);
+                    if (last) {
+                        for (int i = offset; i < capacity(); i++) {
+                            buffer.put(i, (byte) 0);
+                        }
+                    }
+                    break;
+                }
+                offset += HEADER_BYTES + length;
+            }
+            limit = offset;
+        }
+
+        private boolean matches(CRC32C crc, int offset, int length) {
+            crc.reset();
+            crc.update(buffer.slice(offset + HEADER_BYTES, length));
+            return (int) crc.getValue() == buffer.getInt(offset + 4);
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.error("Journal close segment Error: {}", e.getMessage());
+            }
+        }
+    }
+}
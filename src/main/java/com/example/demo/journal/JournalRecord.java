@@ -0,0 +1,5 @@
+package com.example.demo.journal;
+
+// next is the position just past this record, i.e. what to commit once it has been handled
+public record JournalRecord(long position, long next, byte[] payload) {
+}
@@ -5,9 +5,12 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
@@ -19,10 +22,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "notifications")
 @EntityListeners(AuditingEntityListener.class)
-public class Notification {
+public class Notification implements Persistable<Long> {
     
+    // Snowflake id assigned by ShardRouter before insert; it encodes the shard the row lives on
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
     @Enumerated(EnumType.STRING)
@@ -36,6 +39,11 @@ public class Notification {
     
     @Column(columnDefinition = "TEXT")
     private String content;
+
+    // client-supplied Idempotency-Key (batch items carry key:index); uniqueness is enforced by the
+    // notification_idempotency_keys row written in the same transaction
+    @Column(name = "idempotency_key", length = 80)
+    private String idempotencyKey;
     
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -44,4 +52,17 @@ public class Notification {
     @LastModifiedDate
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // with assigned ids Spring Data cannot tell a new row by a null id; without this save() would merge
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    public void markNotNew() {
+        this.isNew = false;
+    }
 }
@@ -0,0 +1,314 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.RocketMQPublisherProperties;
+import com.example.demo.config.RocketMQTopicConfig;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.exception.PublishRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory buffer between request threads and the broker. Callers only enqueue; a single
+ * sender thread drains the queue in batches and publishes them with asyncSend. In orderly mode each
+ * recipient gets a lane with at most one send in flight, so its events reach the broker in publish order.
+ */
+@Slf4j
+@Component
+public class AsyncRocketMQPublisher {
+
+    private final RocketMQTemplate rocketMQTemplate;
+    private final RocketMQPublisherProperties properties;
+    private final BlockingQueue<NotificationResponse> queue;
+    private final Timer sendLatency;
+    private final Counter sent;
+    private final Counter sendFailures;
+    private final Counter dropped;
+    private final Counter rejected;
+
+    // orderly mode only: per hash key with a send in flight, the events drained behind it; laned counts both
+    private final Map<String, Deque<NotificationResponse>> lanes = new HashMap<>();
+    private int laned;
+
+    private volatile boolean running;
+    private volatile long pausedUntilNanos;
+    private Thread sender;
+
+    public AsyncRocketMQPublisher(RocketMQTemplate rocketMQTemplate, RocketMQPublisherProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("notification.mq.publisher.queue.depth", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        this.sendLatency = Timer.builder("notification.mq.publisher.send.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.sent = Counter.builder("notification.mq.publisher.sent").register(meterRegistry);
+        this.sendFailures = Counter.builder("notification.mq.publisher.failures").tag("reason", "send_error").register(meterRegistry);
+        this.dropped = Counter.builder("notification.mq.publisher.failures").tag("reason", "dropped").register(meterRegistry);
+        this.rejected = Counter.builder("notification.mq.publisher.failures").tag("reason", "rejected").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.getMode() != PublishMode.ASYNC) {
+            return;
+        }
+        running = true;
+        sender = new Thread(this::drainLoop, "rocketmq-publisher");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (sender == null) {
+            return;
+        }
+        sender.interrupt();
+        try {
+            sender.join(properties.getSendTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushRemaining();
+    }
+
+    public void publish(NotificationResponse notification) {
+        switch (properties.getBackpressure()) {
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(notification, properties.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                        rejected.increment();
+                        throw new PublishRejectedException("Publish queue is full");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejected.increment();
+                    throw new PublishRejectedException("Interrupted while waiting for publish queue");
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(notification)) {
+                    NotificationResponse evicted = queue.poll();
+                    if (evicted != null) {
+                        dropped.increment();
+                        log.warn("Publish queue full, dropped event - ID: {}", evicted.getId());
+                    }
+                }
+            }
+            case FAIL_FAST -> {
+                if (!queue.offer(notification)) {
+                    rejected.increment();
+                    throw new PublishRejectedException("Publish queue is full");
+                }
+            }
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<NotificationResponse> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                long pause = pausedUntilNanos - System.nanoTime();
+                if (pause > 0) {
+                    TimeUnit.NANOSECONDS.sleep(pause);
+                }
+                // lanes count against the queue capacity, so a slow broker still pushes back on publishers
+                if (lanesFull()) {
+                    TimeUnit.MILLISECONDS.sleep(10);
+                    continue;
+                }
+                NotificationResponse first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                sendAsync(List.copyOf(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Publisher drain Error: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // orderly mode gives up batching: the template has no async orderly batch send, and a batch could only
+    // hold one recipient anyway
+    private void sendAsync(List<NotificationResponse> batch) {
+        if (properties.getOrdering() == MessageOrdering.ORDERLY) {
+            batch.forEach(this::enqueueOrderly);
+            return;
+        }
+        long start = System.nanoTime();
+        rocketMQTemplate.asyncSend(RocketMQTopicConfig.NOTIFICATION_TOPIC, NotificationMessages.toMessages(batch),
+                callback(batch, start), properties.getSendTimeout().toMillis());
+    }
+
+    // the producer's async executor gives no order between sends in flight, so a recipient's next event
+    // is only sent once the previous one is acked. A lane exists while its hash key has a send in flight
+    private void enqueueOrderly(NotificationResponse notification) {
+        String hashKey = NotificationMessages.hashKey(notification);
+        synchronized (lanes) {
+            laned++;
+            Deque<NotificationResponse> waiting = lanes.get(hashKey);
+            if (waiting != null) {
+                waiting.add(notification);
+                return;
+            }
+            lanes.put(hashKey, new ArrayDeque<>());
+        }
+        sendOrderly(hashKey, notification);
+    }
+
+    private void sendOrderly(String hashKey, NotificationResponse notification) {
+        long start = System.nanoTime();
+        SendCallback callback = new SendCallback() {
+            @Override
+            public void onSuccess(SendResult sendResult) {
+                sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                sent.increment();
+                sendNext(hashKey);
+            }
+
+            // retried in place rather than requeued at the tail, which would let the recipient's later events pass it
+            @Override
+            public void onException(Throwable e) {
+                sendFailures.increment();
+                log.error("Fail to send message - ID: {}, 錯誤: {}", notification.getId(), e.getMessage());
+                if (!running) {
+                    dropped.increment();
+                    sendNext(hashKey);
+                    return;
+                }
+                pausedUntilNanos = System.nanoTime() + properties.getRetryBackoff().toNanos();
+                CompletableFuture.runAsync(() -> sendOrderly(hashKey, notification),
+                        CompletableFuture.delayedExecutor(properties.getRetryBackoff().toMillis(), TimeUnit.MILLISECONDS));
+            }
+        };
+        try {
+            rocketMQTemplate.asyncSendOrderly(RocketMQTopicConfig.NOTIFICATION_TOPIC, NotificationMessages.toMessage(notification),
+                    hashKey, callback, properties.getSendTimeout().toMillis());
+        } catch (Exception e) {
+            callback.onException(e);
+        }
+    }
+
+    // once stopped, waiting events are left to flushRemaining instead
+    private void sendNext(String hashKey) {
+        NotificationResponse next;
+        synchronized (lanes) {
+            laned--;
+            Deque<NotificationResponse> waiting = lanes.get(hashKey);
+            next = running ? waiting.poll() : null;
+            if (next == null && waiting.isEmpty()) {
+                lanes.remove(hashKey);
+            }
+        }
+        if (next != null) {
+            sendOrderly(hashKey, next);
+        }
+    }
+
+    private boolean lanesFull() {
+        synchronized (lanes) {
+            return laned >= properties.getQueueCapacity();
+        }
+    }
+
+    private SendCallback callback(List<NotificationResponse> batch, long start) {
+        return new SendCallback() {
+            @Override
+            public void onSuccess(SendResult sendResult) {
+                sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                sent.increment(batch.size());
+            }
+
+            @Override
+            public void onException(Throwable e) {
+                sendFailures.increment(batch.size());
+                log.error("Fail to send batch - Size: {}, 錯誤: {}", batch.size(), e.getMessage());
+                pausedUntilNanos = System.nanoTime() + properties.getRetryBackoff().toNanos();
+                requeue(batch);
+            }
+        };
+    }
+
+    private void requeue(List<NotificationResponse> batch) {
+        for (NotificationResponse notification : batch) {
+            if (!queue.offer(notification)) {
+                dropped.increment();
+                log.warn("Publish queue full, dropped event after send failure - ID: {}", notification.getId());
+            }
+        }
+    }
+
+    // sends still in flight are left to their callbacks; the events waiting behind them go before the
+    // queue, which only holds later ones
+    private void flushRemaining() {
+        List<NotificationResponse> remaining = new ArrayList<>();
+        synchronized (lanes) {
+            for (Deque<NotificationResponse> waiting : lanes.values()) {
+                laned -= waiting.size();
+                remaining.addAll(waiting);
+                waiting.clear();
+            }
+        }
+        queue.drainTo(remaining);
+        if (properties.getOrdering() == MessageOrdering.ORDERLY) {
+            NotificationMessages.byRecipient(remaining).forEach(group -> flush(group, NotificationMessages.hashKey(group.get(0))));
+        } else {
+            flush(remaining, null);
+        }
+    }
+
+    private void flush(List<NotificationResponse> notifications, String hashKey) {
+        for (int from = 0; from < notifications.size(); from += properties.getBatchSize()) {
+            List<NotificationResponse> chunk = notifications.subList(from, Math.min(from + properties.getBatchSize(), notifications.size()));
+            List<Message<NotificationResponse>> messages = NotificationMessages.toMessages(chunk);
+            long timeout = properties.getSendTimeout().toMillis();
+            try {
+                if (hashKey != null) {
+                    rocketMQTemplate.syncSendOrderly(RocketMQTopicConfig.NOTIFICATION_TOPIC, messages, hashKey, timeout);
+                } else {
+                    rocketMQTemplate.syncSend(RocketMQTopicConfig.NOTIFICATION_TOPIC, messages, timeout);
+                }
+                sent.increment(chunk.size());
+            } catch (Exception e) {
+                sendFailures.increment(chunk.size());
+                log.error("Fail to flush batch on shutdown - Size: {}, 錯誤: {}", chunk.size(), e.getMessage());
+            }
+        }
+    }
+}
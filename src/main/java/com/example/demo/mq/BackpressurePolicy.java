@@ -0,0 +1,7 @@
+package com.example.demo.mq;
+
+public enum BackpressurePolicy {
+    BLOCK,
+    DROP_OLDEST,
+    FAIL_FAST
+}
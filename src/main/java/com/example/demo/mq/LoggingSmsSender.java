@@ -0,0 +1,28 @@
+package com.example.demo.mq;
+
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs SMS deliveries instead of sending them. Opt-in through notification.delivery.stub-senders, for tests
+ * and local runs only: with it on, every consumed SMS notification is acknowledged without being delivered.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.delivery", name = "stub-senders", havingValue = "true")
+public class LoggingSmsSender implements NotificationSender {
+
+    @Override
+    public NotificationType channel() {
+        return NotificationType.SMS;
+    }
+
+    @Override
+    public void send(NotificationResponse notification) {
+        log.info("SMS delivered - ID: {}, Recipient: {}",
+                notification.getId(), notification.getRecipient());
+    }
+}
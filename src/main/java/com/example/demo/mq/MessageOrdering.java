@@ -0,0 +1,8 @@
+package com.example.demo.mq;
+
+public enum MessageOrdering {
+    // events of one recipient go to one queue, selected by hashing the recipient
+    ORDERLY,
+    // any queue; highest producer throughput, no per-recipient order
+    UNORDERED
+}
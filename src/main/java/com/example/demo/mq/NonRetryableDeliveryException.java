@@ -0,0 +1,8 @@
+package com.example.demo.mq;
+
+public class NonRetryableDeliveryException extends RuntimeException {
+
+    public NonRetryableDeliveryException(String message) {
+        super(message);
+    }
+}
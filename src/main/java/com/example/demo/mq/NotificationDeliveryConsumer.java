@@ -0,0 +1,66 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.DeliveryProperties;
+import com.example.demo.config.RocketMQTopicConfig;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.apache.rocketmq.spring.core.RocketMQPushConsumerLifecycleListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Consumes notification-topic and hands every message to the dispatcher on the consumer thread. Delivery is
+ * at least once: a message whose dead-letter publish fails is redelivered by the broker.
+ *
+ * <p>Orderly consumption processes each queue on one thread at a time, so one recipient's events (all
+ * hashed to one queue) are delivered in publish order while different queues run in parallel. Parallelism
+ * is therefore capped by the topic's queue count; create notification-topic with at least
+ * consumer-threads read/write queues.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "notification.delivery", name = "enabled", havingValue = "true")
+@RocketMQMessageListener(topic = RocketMQTopicConfig.NOTIFICATION_TOPIC,
+        consumerGroup = "${notification.delivery.consumer-group:notification-delivery-group}",
+        consumeMode = ConsumeMode.ORDERLY)
+public class NotificationDeliveryConsumer implements RocketMQListener<NotificationResponse>, RocketMQPushConsumerLifecycleListener {
+
+    private final NotificationDispatcher dispatcher;
+    private final DeliveryProperties properties;
+
+    // a channel without a sender would dead-letter every message of it; refuse to consume at all instead
+    @PostConstruct
+    void requireSenders() {
+        Set<NotificationType> missing = dispatcher.missingChannels();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("No NotificationSender for channel(s) " + missing
+                    + "; deploy provider senders, or leave notification.delivery.enabled off"
+                    + " (notification.delivery.stub-senders=true only logs, for tests and local runs)");
+        }
+    }
+
+    @Override
+    public void onMessage(NotificationResponse notification) {
+        try {
+            dispatcher.dispatch(notification);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while delivering notification " + notification.getId(), e);
+        }
+    }
+
+    // the push consumer's pool has an unbounded queue, so only the core size matters
+    @Override
+    public void prepareStart(DefaultMQPushConsumer consumer) {
+        consumer.setConsumeThreadMin(properties.getConsumerThreads());
+        consumer.setConsumeThreadMax(properties.getConsumerThreads());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.DeliveryProperties;
+import com.example.demo.config.RocketMQTopicConfig;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.apache.rocketmq.spring.support.RocketMQHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes each notification to the sender of its channel. Every channel has its own concurrency cap and
+ * provider rate limit, so a slow or throttled SMS provider never holds back e-mail. Failed sends are
+ * retried in place with exponential backoff; permanent failures and exhausted retries go to the
+ * dead-letter topic. The calling thread does the work, so throughput grows with consumer threads until
+ * a channel's cap or rate limit binds.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    static final String ERROR_HEADER = "DELIVERY_ERROR";
+
+    private final RocketMQTemplate rocketMQTemplate;
+    private final DeliveryProperties properties;
+    private final Map<NotificationType, Channel> channels = new EnumMap<>(NotificationType.class);
+    private final Counter deadLettered;
+
+    public NotificationDispatcher(List<NotificationSender> senders, RocketMQTemplate rocketMQTemplate,
+                                  DeliveryProperties properties, MeterRegistry meterRegistry) {
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.properties = properties;
+        for (NotificationSender sender : senders) {
+            if (channels.containsKey(sender.channel())) {
+                throw new IllegalStateException("More than one sender for channel " + sender.channel());
+            }
+            channels.put(sender.channel(), new Channel(sender, properties.channel(sender.channel()), meterRegistry));
+        }
+        this.deadLettered = Counter.builder("notification.delivery.dead.lettered").register(meterRegistry);
+    }
+
+    public Set<NotificationType> missingChannels() {
+        Set<NotificationType> missing = EnumSet.allOf(NotificationType.class);
+        missing.removeAll(channels.keySet());
+        return missing;
+    }
+
+    /**
+     * Returns once the notification is delivered or parked on the dead-letter topic. Throws only when the
+     * dead-letter publish itself fails, so the broker redelivers the message later.
+     */
+    public void dispatch(NotificationResponse notification) throws InterruptedException {
+        Channel channel = notification.getType() == null ? null : channels.get(notification.getType());
+        if (channel == null) {
+            deadLetter(notification, "No sender for channel " + notification.getType());
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                channel.send(notification);
+                return;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (NonRetryableDeliveryException e) {
+                deadLetter(notification, e.getMessage());
+                return;
+            } catch (Exception e) {
+                channel.failures.increment();
+                if (attempt >= properties.getMaxAttempts()) {
+                    deadLetter(notification, e.getMessage());
+                    return;
+                }
+                log.warn("Delivery attempt {} failed - ID: {}, Channel: {}, 錯誤: {}",
+                        attempt, notification.getId(), notification.getType(), e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(backoffMillis(attempt));
+            }
+        }
+    }
+
+    long backoffMillis(int attempt) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long backoff = initial << Math.min(attempt - 1, 20);
+        return Math.min(backoff, properties.getMaxBackoff().toMillis());
+    }
+
+    private void deadLetter(NotificationResponse notification, String error) {
+        rocketMQTemplate.syncSend(RocketMQTopicConfig.NOTIFICATION_DEAD_LETTER_TOPIC,
+                MessageBuilder.withPayload(notification)
+                        .setHeader(RocketMQHeaders.KEYS, String.valueOf(notification.getId()))
+                        .setHeader(ERROR_HEADER, String.valueOf(error))
+                        .build());
+        deadLettered.increment();
+        log.error("Delivery dead-lettered - ID: {}, Channel: {}, 錯誤: {}",
+                notification.getId(), notification.getType(), error);
+    }
+
+    private static class Channel {
+
+        private final NotificationSender sender;
+        private final Semaphore permits;
+        private final RateLimiter rateLimiter;
+        private final Timer latency;
+        private final Counter failures;
+
+        Channel(NotificationSender sender, DeliveryProperties.Channel config, MeterRegistry meterRegistry) {
+            this.sender = sender;
+            this.permits = new Semaphore(config.getMaxConcurrency());
+            this.rateLimiter = config.getRatePerSecond() > 0 ? new RateLimiter(config.getRatePerSecond()) : null;
+            String channel = sender.channel().name();
+            this.latency = Timer.builder("notification.delivery.latency").tag("channel", channel).register(meterRegistry);
+            this.failures = Counter.builder("notification.delivery.failures").tag("channel", channel).register(meterRegistry);
+        }
+
+        // the permit is held only for the send itself, not across a retry's backoff
+        void send(NotificationResponse notification) throws Exception {
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+            permits.acquire();
+            long start = System.nanoTime();
+            try {
+                sender.send(notification);
+                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
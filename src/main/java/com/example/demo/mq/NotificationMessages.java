@@ -0,0 +1,62 @@
+package com.example.demo.mq;
+
+import com.example.demo.dto.NotificationResponse;
+import org.apache.rocketmq.spring.support.RocketMQHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Message conventions shared by every publish path: the notification id is the message key (broker-side
+ * lookup and consumer dedupe) and the recipient is the sharding key for orderly sends.
+ */
+public final class NotificationMessages {
+
+    private NotificationMessages() {
+    }
+
+    public static Message<NotificationResponse> toMessage(NotificationResponse notification) {
+        return MessageBuilder.withPayload(notification)
+                .setHeader(RocketMQHeaders.KEYS, String.valueOf(notification.getId()))
+                .build();
+    }
+
+    public static List<Message<NotificationResponse>> toMessages(List<NotificationResponse> notifications) {
+        return notifications.stream().map(NotificationMessages::toMessage).toList();
+    }
+
+    public static String hashKey(NotificationResponse notification) {
+        return notification.getRecipient() == null ? "" : notification.getRecipient();
+    }
+
+    // keeps each recipient's events in their original order; groups appear in first-seen order
+    public static Collection<List<NotificationResponse>> byRecipient(List<NotificationResponse> notifications) {
+        Map<String, List<NotificationResponse>> groups = notifications.stream()
+                .collect(Collectors.groupingBy(NotificationMessages::hashKey, LinkedHashMap::new, Collectors.toList()));
+        return groups.values();
+    }
+
+    /**
+     * One group per queue that syncSendOrderly would pick for the recipients, so sending each group with the
+     * hash key of its first event puts every event on its recipient's queue, in original order, with one call
+     * per queue. Falls back to {@link #byRecipient} when the queue count is unknown (0).
+     */
+    public static Collection<List<NotificationResponse>> byQueue(List<NotificationResponse> notifications, int queueCount) {
+        if (queueCount <= 0) {
+            return byRecipient(notifications);
+        }
+        Map<Integer, List<NotificationResponse>> groups = notifications.stream()
+                .collect(Collectors.groupingBy(n -> queueOf(hashKey(n), queueCount), LinkedHashMap::new, Collectors.toList()));
+        return groups.values();
+    }
+
+    // the queue index SelectMessageQueueByHash, RocketMQTemplate's default selector, picks for a hash key
+    static int queueOf(String hashKey, int queueCount) {
+        return Math.abs(hashKey.hashCode() % queueCount);
+    }
+}
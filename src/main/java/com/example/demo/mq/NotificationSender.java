@@ -0,0 +1,16 @@
+package com.example.demo.mq;
+
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+
+/**
+ * Delivers notifications of one channel to its provider. Implementations may be called from many consumer
+ * threads at once, up to the channel's configured concurrency. Throwing retries the send with backoff;
+ * throw {@link NonRetryableDeliveryException} for failures another attempt cannot fix.
+ */
+public interface NotificationSender {
+
+    NotificationType channel();
+
+    void send(NotificationResponse notification) throws Exception;
+}
@@ -0,0 +1,50 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.RocketMQTopicConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write queue count of notification-topic, fetched from the name server and cached. Orderly publishers
+ * use it to group a batch by the queue syncSendOrderly will pick for each recipient and send each queue's
+ * share in one call. 0 while unknown (never fetched, or the fetch failed), in which case they group by
+ * recipient, which lands on the same queues with more calls.
+ */
+@Slf4j
+@Component
+public class NotificationTopicQueues {
+
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final RocketMQTemplate rocketMQTemplate;
+    private volatile int count;
+    private volatile long fetchedAt;
+    private volatile boolean fetched;
+
+    public NotificationTopicQueues(RocketMQTemplate rocketMQTemplate) {
+        this.rocketMQTemplate = rocketMQTemplate;
+    }
+
+    public int count() {
+        if (!fetched || System.nanoTime() - fetchedAt > REFRESH_NANOS) {
+            refresh();
+        }
+        return count;
+    }
+
+    private synchronized void refresh() {
+        long now = System.nanoTime();
+        if (fetched && now - fetchedAt <= REFRESH_NANOS) return;
+
+        try {
+            count = rocketMQTemplate.getProducer().fetchPublishMessageQueues(RocketMQTopicConfig.NOTIFICATION_TOPIC).size();
+        } catch (Exception e) {
+            log.warn("NotificationTopicQueues fetch Error: {}", e.getMessage());
+        }
+        fetchedAt = now;
+        fetched = true;
+    }
+}
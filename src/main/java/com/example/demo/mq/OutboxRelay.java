@@ -0,0 +1,145 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.OutboxProperties;
+import com.example.demo.config.RocketMQPublisherProperties;
+import com.example.demo.config.RocketMQTopicConfig;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.model.NotificationOutbox;
+import com.example.demo.repository.NotificationOutboxRepository;
+import com.example.demo.service.OutboxService;
+import com.example.demo.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publishes committed outbox rows in id order. Rows are claimed with FOR UPDATE SKIP LOCKED and marked
+ * sent in the same transaction, so parallel instances never publish the same row. A crash between the
+ * broker ack and the commit re-publishes that batch; consumers dedupe on the message key (the notification id).
+ * Outbox rows live on their notification's shard, so each poll drains every shard in turn.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.mq.publisher", name = "mode", havingValue = "OUTBOX")
+public class OutboxRelay {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final OutboxService outboxService;
+    private final RocketMQTemplate rocketMQTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final RocketMQPublisherProperties publisherProperties;
+    private final ShardRouter shardRouter;
+    private final NotificationTopicQueues topicQueues;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer batchLatency;
+
+    public OutboxRelay(NotificationOutboxRepository outboxRepository, OutboxService outboxService,
+                       RocketMQTemplate rocketMQTemplate, TransactionTemplate transactionTemplate,
+                       OutboxProperties properties, RocketMQPublisherProperties publisherProperties,
+                       ShardRouter shardRouter, NotificationTopicQueues topicQueues, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.outboxService = outboxService;
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.publisherProperties = publisherProperties;
+        this.shardRouter = shardRouter;
+        this.topicQueues = topicQueues;
+        this.relayed = Counter.builder("notification.outbox.relayed").register(meterRegistry);
+        this.failures = Counter.builder("notification.outbox.failures").register(meterRegistry);
+        this.batchLatency = Timer.builder("notification.outbox.batch.latency").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.mq.outbox.poll-interval-ms:200}")
+    public void poll() {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            try {
+                shardRouter.onShard(shard, this::drain);
+            } catch (Exception e) {
+                failures.increment();
+                log.error("Outbox relay Error: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Void drain() {
+        for (int i = 0; i < properties.getMaxBatchesPerPoll(); i++) {
+            if (relayBatch() < properties.getBatchSize()) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    // relays from the shard the calling thread is routed to
+    public int relayBatch() {
+        Integer count = batchLatency.record(() -> transactionTemplate.execute(status -> {
+            List<NotificationOutbox> batch = outboxRepository.lockPendingBatch(properties.getBatchSize());
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            publish(batch);
+            outboxRepository.markSent(batch.stream().map(NotificationOutbox::getId).toList(), LocalDateTime.now());
+            return batch.size();
+        }));
+        int relayedCount = count == null ? 0 : count;
+        relayed.increment(relayedCount);
+        return relayedCount;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.mq.outbox.cleanup-interval-ms:60000}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            try {
+                shardRouter.onShard(shard, () -> {
+                    int deleted;
+                    do {
+                        deleted = transactionTemplate.execute(status ->
+                                outboxRepository.deleteSentBefore(before, properties.getBatchSize()));
+                    } while (deleted >= properties.getBatchSize());
+                    return null;
+                });
+            } catch (Exception e) {
+                log.error("Outbox purge Error: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void publish(List<NotificationOutbox> batch) {
+        List<NotificationResponse> notifications = batch.stream().map(outboxService::readPayload).toList();
+        if (publisherProperties.getOrdering() != MessageOrdering.ORDERLY) {
+            publish(notifications, null);
+            return;
+        }
+        // rows come out in id order, so each queue's group is already in commit order
+        for (List<NotificationResponse> group : NotificationMessages.byQueue(notifications, topicQueues.count())) {
+            publish(group, NotificationMessages.hashKey(group.get(0)));
+        }
+    }
+
+    private void publish(List<NotificationResponse> notifications, String hashKey) {
+        long timeout = properties.getSendTimeout().toMillis();
+        for (int from = 0; from < notifications.size(); from += RocketMQService.MAX_BATCH_SIZE) {
+            List<Message<NotificationResponse>> messages = NotificationMessages.toMessages(
+                    notifications.subList(from, Math.min(from + RocketMQService.MAX_BATCH_SIZE, notifications.size())));
+            if (hashKey != null) {
+                rocketMQTemplate.syncSendOrderly(RocketMQTopicConfig.NOTIFICATION_TOPIC, messages, hashKey, timeout);
+            } else {
+                rocketMQTemplate.syncSend(RocketMQTopicConfig.NOTIFICATION_TOPIC, messages, timeout);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.JournalProperties;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.journal.Journal;
+import com.example.demo.journal.JournalRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local disk buffer for SYNC-mode events the broker did not take. RocketMQService appends here instead of
+ * dropping them, and keeps appending while a backlog exists so per-recipient order survives the outage;
+ * its replay job sends the backlog oldest first and commits what the broker accepted.
+ */
+@Slf4j
+@Component
+public class PublishJournal {
+
+    private final JournalProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Counter appended;
+    private final Counter replayed;
+    private final Counter failures;
+    private volatile Journal journal;
+
+    public PublishJournal(JournalProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.appended = Counter.builder("notification.mq.journal.appended").register(meterRegistry);
+        this.replayed = Counter.builder("notification.mq.journal.replayed").register(meterRegistry);
+        this.failures = Counter.builder("notification.mq.journal.failures").register(meterRegistry);
+        Gauge.builder("notification.mq.journal.backlog.bytes", this, PublishJournal::backlogBytes)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        journal = new Journal(Path.of(properties.getDirectory()), Math.toIntExact(properties.getSegmentSize().toBytes()),
+                properties.getFsync(), properties.getFsyncInterval());
+        if (journal.hasBacklog()) {
+            log.warn("Publish journal has events from a previous run, replaying - Bytes: {}", journal.backlogBytes());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public boolean hasBacklog() {
+        Journal current = journal;
+        return current != null && current.hasBacklog();
+    }
+
+    // false when disabled or the disk write failed; the caller then drops the events as before
+    public boolean append(List<NotificationResponse> notifications) {
+        Journal current = journal;
+        if (current == null) return false;
+
+        try {
+            for (NotificationResponse notification : notifications) {
+                current.append(objectMapper.writeValueAsBytes(notification));
+            }
+            appended.increment(notifications.size());
+            return true;
+        } catch (Exception e) {
+            failures.increment();
+            log.error("PublishJournal append Error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // oldest first; an entry whose payload no longer parses has a null notification and is skipped by the caller
+    public List<Entry> read(int max) {
+        Journal current = journal;
+        if (current == null) return List.of();
+
+        List<JournalRecord> records = current.read(current.readPosition(), max);
+        List<Entry> entries = new ArrayList<>(records.size());
+        for (JournalRecord record : records) {
+            entries.add(new Entry(parse(record), record.next()));
+        }
+        return entries;
+    }
+
+    public void commit(Entry last, int sent) {
+        journal.commit(last.next());
+        replayed.increment(sent);
+    }
+
+    double backlogBytes() {
+        Journal current = journal;
+        return current == null ? 0 : current.backlogBytes();
+    }
+
+    private NotificationResponse parse(JournalRecord record) {
+        try {
+            return objectMapper.readValue(record.payload(), NotificationResponse.class);
+        } catch (Exception e) {
+            failures.increment();
+            log.error("PublishJournal parse Error: {}, position: {}", e.getMessage(), record.position());
+            return null;
+        }
+    }
+
+    public record Entry(NotificationResponse notification, long next) {
+    }
+}
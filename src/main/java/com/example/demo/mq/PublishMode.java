@@ -0,0 +1,7 @@
+package com.example.demo.mq;
+
+public enum PublishMode {
+    SYNC,
+    ASYNC,
+    OUTBOX
+}
@@ -1,30 +1,216 @@
 package com.example.demo.mq;
 
+import com.example.demo.config.RocketMQPublisherProperties;
 import com.example.demo.config.RocketMQTopicConfig;
 import com.example.demo.dto.NotificationResponse;
-import lombok.RequiredArgsConstructor;
+import com.example.demo.service.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class RocketMQService {
 
+    // keeps each batch comfortably below the broker's 4MB message size limit
+    static final int MAX_BATCH_SIZE = 256;
+
     private final RocketMQTemplate rocketMQTemplate;
+    private final RocketMQPublisherProperties publisherProperties;
+    private final AsyncRocketMQPublisher asyncPublisher;
+    private final OutboxService outboxService;
+    private final PublishJournal publishJournal;
+    private final NotificationTopicQueues topicQueues;
+    private final Map<SendStatus, Timer> sendLatency = new EnumMap<>(SendStatus.class);
+    private final Map<SendStatus, Counter> sendFailures = new EnumMap<>(SendStatus.class);
+    private final Counter sendErrors;
+
+    public RocketMQService(RocketMQTemplate rocketMQTemplate, RocketMQPublisherProperties publisherProperties,
+                           AsyncRocketMQPublisher asyncPublisher, OutboxService outboxService, PublishJournal publishJournal,
+                           NotificationTopicQueues topicQueues, MeterRegistry meterRegistry) {
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.publisherProperties = publisherProperties;
+        this.asyncPublisher = asyncPublisher;
+        this.outboxService = outboxService;
+        this.publishJournal = publishJournal;
+        this.topicQueues = topicQueues;
+        // SendStatus is a closed enum, so the status tag stays at five values at most
+        for (SendStatus status : SendStatus.values()) {
+            sendLatency.put(status, Timer.builder("notification.mq.send.latency")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+            if (status != SendStatus.SEND_OK) {
+                sendFailures.put(status, Counter.builder("notification.mq.send.failures")
+                        .tag("status", status.name())
+                        .register(meterRegistry));
+            }
+        }
+        this.sendErrors = Counter.builder("notification.mq.send.failures")
+                .tag("status", "EXCEPTION")
+                .register(meterRegistry);
+    }
 
     public void send(NotificationResponse notification) {
+        if (publisherProperties.getMode() == PublishMode.ASYNC) {
+            asyncPublisher.publish(notification);
+            return;
+        }
+        if (publisherProperties.getMode() == PublishMode.OUTBOX) {
+            outboxService.append(notification);
+            return;
+        }
+        if (journaled(List.of(notification))) {
+            return;
+        }
+        long start = System.nanoTime();
         try {
-            SendResult sendResult = rocketMQTemplate.syncSend(RocketMQTopicConfig.NOTIFICATION_TOPIC, notification);
+            Message<NotificationResponse> message = NotificationMessages.toMessage(notification);
+            SendResult sendResult = ordered()
+                    ? rocketMQTemplate.syncSendOrderly(RocketMQTopicConfig.NOTIFICATION_TOPIC, message, NotificationMessages.hashKey(notification))
+                    : rocketMQTemplate.syncSend(RocketMQTopicConfig.NOTIFICATION_TOPIC, message);
+            record(sendResult, start, 1);
 
             log.info("success to send message - ID: {}, MessageId: {}, Status: {}, Queue: {}",
                     notification.getId(), sendResult.getMsgId(), sendResult.getSendStatus(), sendResult.getMessageQueue());
 
         } catch (Exception e) {
+            sendErrors.increment();
             log.error("Fail to send message - ID: {}, 錯誤: {}",
                     notification.getId(), e.getMessage());
+            publishJournal.append(List.of(notification));
+        }
+    }
+
+    public void sendBatch(List<NotificationResponse> notifications) {
+        if (publisherProperties.getMode() == PublishMode.ASYNC) {
+            notifications.forEach(asyncPublisher::publish);
+            return;
+        }
+        if (publisherProperties.getMode() == PublishMode.OUTBOX) {
+            outboxService.appendAll(notifications);
+            return;
+        }
+        if (journaled(notifications)) {
+            return;
+        }
+        if (!ordered()) {
+            sendChunks(notifications, null);
+            return;
+        }
+        // an orderly batch lands on a single queue, so it holds the events of the recipients hashed to it
+        for (List<NotificationResponse> group : NotificationMessages.byQueue(notifications, topicQueues.count())) {
+            // once an earlier group went to the journal, the rest follow it there
+            if (!journaled(group)) {
+                sendChunks(group, NotificationMessages.hashKey(group.get(0)));
+            }
+        }
+    }
+
+    // sends the journal backlog oldest first, committing each accepted read; stops at the first failure
+    @Scheduled(fixedDelayString = "${notification.mq.journal.replay-interval-ms:1000}")
+    public void replayJournal() {
+        try {
+            while (publishJournal.hasBacklog()) {
+                List<PublishJournal.Entry> entries = publishJournal.read(MAX_BATCH_SIZE);
+                if (entries.isEmpty() || !replay(entries)) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Journal replay Error: {}", e.getMessage());
+        }
+    }
+
+    // while a backlog exists new events queue behind it, or they would overtake older events of the same recipient
+    private boolean journaled(List<NotificationResponse> notifications) {
+        return publishJournal.hasBacklog() && publishJournal.append(notifications);
+    }
+
+    // the read goes out grouped like sendBatch and is committed once every group is accepted; after a failure
+    // the next replay sends it again from the start, and consumers dedupe the groups that got through
+    private boolean replay(List<PublishJournal.Entry> entries) {
+        // an entry that no longer parses has nothing left to deliver
+        List<NotificationResponse> readable = entries.stream()
+                .map(PublishJournal.Entry::notification)
+                .filter(Objects::nonNull)
+                .toList();
+        Collection<List<NotificationResponse>> groups = !ordered() || readable.isEmpty()
+                ? List.of(readable)
+                : NotificationMessages.byQueue(readable, topicQueues.count());
+        for (List<NotificationResponse> group : groups) {
+            if (group.isEmpty()) continue;
+
+            String hashKey = ordered() ? NotificationMessages.hashKey(group.get(0)) : null;
+            long start = System.nanoTime();
+            try {
+                record(send(group, hashKey), start, group.size());
+            } catch (Exception e) {
+                sendErrors.increment(group.size());
+                log.error("Fail to replay journal - Size: {}, 錯誤: {}", group.size(), e.getMessage());
+                return false;
+            }
+        }
+        publishJournal.commit(entries.get(entries.size() - 1), readable.size());
+        return true;
+    }
+
+    private boolean ordered() {
+        return publisherProperties.getOrdering() == MessageOrdering.ORDERLY;
+    }
+
+    private void sendChunks(List<NotificationResponse> notifications, String hashKey) {
+        for (int from = 0; from < notifications.size(); from += MAX_BATCH_SIZE) {
+            List<NotificationResponse> chunk = notifications.subList(from, Math.min(from + MAX_BATCH_SIZE, notifications.size()));
+            long start = System.nanoTime();
+            try {
+                SendResult sendResult = send(chunk, hashKey);
+                record(sendResult, start, chunk.size());
+
+                log.info("success to send batch - Size: {}, MessageId: {}, Status: {}, Queue: {}",
+                        chunk.size(), sendResult.getMsgId(), sendResult.getSendStatus(), sendResult.getMessageQueue());
+
+            } catch (Exception e) {
+                sendErrors.increment(chunk.size());
+                log.error("Fail to send batch - Size: {}, 錯誤: {}",
+                        chunk.size(), e.getMessage());
+                // the later chunks go behind it, or they would overtake it on the broker
+                publishJournal.append(notifications.subList(from, notifications.size()));
+                return;
+            }
+        }
+    }
+
+    private SendResult send(List<NotificationResponse> chunk, String hashKey) {
+        List<Message<NotificationResponse>> messages = NotificationMessages.toMessages(chunk);
+        return hashKey != null
+                ? rocketMQTemplate.syncSendOrderly(RocketMQTopicConfig.NOTIFICATION_TOPIC, messages, hashKey)
+                : rocketMQTemplate.syncSend(RocketMQTopicConfig.NOTIFICATION_TOPIC, messages);
+    }
+
+    // failures count messages rather than send calls so single and batch sends add up the same way
+    private void record(SendResult sendResult, long start, int messages) {
+        SendStatus status = sendResult.getSendStatus();
+        if (status == null) {
+            return;
+        }
+        sendLatency.get(status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Counter failures = sendFailures.get(status);
+        if (failures != null) {
+            failures.increment(messages);
         }
     }
-}
\ No newline at end of file
+}
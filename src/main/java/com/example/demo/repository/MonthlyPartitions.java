@@ -0,0 +1,47 @@
+package com.example.demo.repository;
+
+import com.example.demo.sharding.SnowflakeIdGenerator;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Naming and bounds of the monthly RANGE partitions on notifications and notifications_archive. The range
+ * column is the Snowflake id, whose high bits are the creation time, so a month maps to an id range without
+ * adding created_at to the primary key. pYYYYMM holds ids generated before the first instant (UTC) of the
+ * following month; the oldest partition also keeps everything older, legacy AUTO_INCREMENT ids included.
+ */
+public final class MonthlyPartitions {
+
+    public static final String FUTURE = "p_future";
+
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private MonthlyPartitions() {
+    }
+
+    public static String name(YearMonth month) {
+        return NAME.format(month);
+    }
+
+    // empty for p_future and anything not created by this class
+    public static Optional<YearMonth> monthOf(String partition) {
+        try {
+            return Optional.of(YearMonth.parse(partition, NAME));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static long upperBound(YearMonth month) {
+        long millis = month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        return SnowflakeIdGenerator.firstIdAt(millis);
+    }
+
+    public static long lowerBound(YearMonth month) {
+        return upperBound(month.minusMonths(1));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.repository;
+
+import com.example.demo.constants.NotificationType;
+import com.example.demo.model.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// partition DDL and the archive table; plain JDBC because neither fits an entity, and DDL commits implicitly anyway
+@Repository
+@RequiredArgsConstructor
+public class NotificationArchiveRepository {
+
+    public static final String NOTIFICATIONS = "notifications";
+    public static final String ARCHIVE = "notifications_archive";
+
+    private static final String COLUMNS = "id, type, recipient, subject, content, idempotency_key, created_at, updated_at";
+    private static final String LOCK_NAME = "notification-partition-maintenance";
+
+    private static final RowMapper<Notification> ROW_MAPPER = (rs, rowNum) -> {
+        Notification notification = Notification.builder()
+                .id(rs.getLong("id"))
+                .type(NotificationType.valueOf(rs.getString("type")))
+                .recipient(rs.getString("recipient"))
+                .subject(rs.getString("subject"))
+                .content(rs.getString("content"))
+                .idempotencyKey(rs.getString("idempotency_key"))
+                .createdAt(toLocalDateTime(rs, "created_at"))
+                .updatedAt(toLocalDateTime(rs, "updated_at"))
+                .build();
+        notification.markNotNew();
+        return notification;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Notification> findById(long id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + ARCHIVE + " WHERE id = ?", ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    // ordinal order, i.e. oldest month first with p_future last
+    public List<String> findPartitions(String table) {
+        return jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                + "ORDER BY PARTITION_ORDINAL_POSITION", String.class, table);
+    }
+
+    // p_future should be empty when this runs, so the reorganize only rewrites metadata
+    public void splitFuture(String table, List<YearMonth> months) {
+        String partitions = months.stream()
+                .map(month -> "PARTITION " + MonthlyPartitions.name(month) + " VALUES LESS THAN (" + MonthlyPartitions.upperBound(month) + ")")
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + MonthlyPartitions.FUTURE + " INTO ("
+                + partitions + ", PARTITION " + MonthlyPartitions.FUTURE + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    // drops the rows with the partition's files, no per-row delete or undo log
+    public void dropPartitions(String table, List<String> partitions) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", partitions));
+    }
+
+    // copies the next batchSize ids after `after`; INSERT IGNORE makes a rerun after a crash a no-op. Empty once done
+    public Optional<CopiedBatch> copyToArchive(String partition, long after, int batchSize) {
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(id) FROM (SELECT id FROM " + NOTIFICATIONS + " PARTITION (" + partition
+                + ") WHERE id > ? ORDER BY id LIMIT ?) batch", Long.class, after, batchSize);
+        if (last == null) {
+            return Optional.empty();
+        }
+        int rows = jdbcTemplate.update("INSERT IGNORE INTO " + ARCHIVE + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM " + NOTIFICATIONS
+                + " PARTITION (" + partition + ") WHERE id > ? AND id <= ?", after, last);
+        return Optional.of(new CopiedBatch(last, rows));
+    }
+
+    // rows of the partition that have no archive copy; the partition is only dropped at zero
+    public long countUnarchived(String partition) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + NOTIFICATIONS + " PARTITION (" + partition + ") n "
+                + "WHERE NOT EXISTS (SELECT 1 FROM " + ARCHIVE + " a WHERE a.id = n.id)", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    public int deleteIdempotencyKeysBefore(LocalDateTime before, int limit) {
+        return jdbcTemplate.update("DELETE FROM notification_idempotency_keys WHERE created_at < ? LIMIT ?",
+                Timestamp.valueOf(before), limit);
+    }
+
+    // GET_LOCK is held by the connection that took it, so the work runs while that connection stays open;
+    // empty when another instance holds the lock on this database
+    public <T> Optional<T> withMaintenanceLock(Supplier<T> work) {
+        return jdbcTemplate.execute((ConnectionCallback<Optional<T>>) connection -> {
+            try (PreparedStatement lock = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                lock.setString(1, LOCK_NAME);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        return Optional.empty();
+                    }
+                }
+            }
+            try {
+                return Optional.ofNullable(work.get());
+            } finally {
+                try (PreparedStatement release = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    release.setString(1, LOCK_NAME);
+                    release.execute();
+                }
+            }
+        });
+    }
+
+    public record CopiedBatch(long lastId, int rows) {
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
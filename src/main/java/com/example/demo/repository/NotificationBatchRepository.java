@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Notification;
+
+import java.util.List;
+
+public interface NotificationBatchRepository {
+
+    List<Notification> insertAll(List<Notification> notifications);
+
+    // rows with an Idempotency-Key claim it in notification_idempotency_keys; a duplicate throws DuplicateKeyException
+    void insertIdempotencyKeys(List<Notification> notifications);
+}
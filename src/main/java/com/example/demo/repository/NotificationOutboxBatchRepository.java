@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.NotificationOutbox;
+
+import java.util.List;
+
+public interface NotificationOutboxBatchRepository {
+
+    void insertAll(List<NotificationOutbox> events);
+}
@@ -0,0 +1,27 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.NotificationOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class NotificationOutboxBatchRepositoryImpl implements NotificationOutboxBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification_outbox (notification_id, payload, created_at) VALUES (?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<NotificationOutbox> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, BATCH_SIZE, (ps, event) -> {
+            ps.setLong(1, event.getNotificationId());
+            ps.setString(2, event.getPayload());
+            ps.setTimestamp(3, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+}
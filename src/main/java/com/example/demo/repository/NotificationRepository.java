@@ -1,13 +1,56 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.RecentNotificationResponse;
 import com.example.demo.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationBatchRepository {
 
-    List<Notification> findTop10ByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+    List<Notification> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    // keys are unique in notification_idempotency_keys only: the partitioned table cannot hold a unique key without id
+    @Query(value = "SELECT n.* FROM notification_idempotency_keys k JOIN notifications n ON n.id = k.notification_id " +
+            "WHERE k.idempotency_key = :key", nativeQuery = true)
+    Optional<Notification> findByIdempotencyKey(@Param("key") String idempotencyKey);
+
+    @Query(value = "SELECT n.* FROM notification_idempotency_keys k JOIN notifications n ON n.id = k.notification_id " +
+            "WHERE k.idempotency_key IN (:keys)", nativeQuery = true)
+    List<Notification> findByIdempotencyKeyIn(@Param("keys") Collection<String> idempotencyKeys);
+
+    // inbox queries select summary columns only (no content TEXT) and seek on (recipient, created_at, id)
+    @Query("SELECT new com.example.demo.dto.RecentNotificationResponse(n.id, n.type, n.recipient, n.subject, n.createdAt) " +
+            "FROM Notification n WHERE n.recipient = :recipient " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<RecentNotificationResponse> findInboxFirstPage(@Param("recipient") String recipient, Pageable pageable);
+
+    @Query("SELECT new com.example.demo.dto.RecentNotificationResponse(n.id, n.type, n.recipient, n.subject, n.createdAt) " +
+            "FROM Notification n WHERE n.recipient = :recipient " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<RecentNotificationResponse> findInboxPageAfter(@Param("recipient") String recipient,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Pageable pageable);
+
+    // id-ordered keyset scan over the primary key, used to rebuild the id filter in bounded batches
+    @Query("SELECT n.id FROM Notification n WHERE n.id > :after ORDER BY n.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
+
+    // id-ordered keyset scan down from the newest row, used to warm the caches newest first
+    @Query("SELECT n.id FROM Notification n WHERE n.id < :before ORDER BY n.id DESC")
+    List<Long> findIdsBefore(@Param("before") Long before, Pageable pageable);
+
+    // walks the primary key down from the newest row, so it only touches rows younger than :before
+    @Query("SELECT n.id FROM Notification n WHERE n.createdAt < :before ORDER BY n.id DESC")
+    List<Long> findIdsCreatedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+}
@@ -0,0 +1,27 @@
+package com.example.demo.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * "cacheWarmUp" health: OUT_OF_SERVICE until the startup warm-up is over, so the readiness group keeps a
+ * fresh node out of rotation while Redis fills. Later warm-ups, after a Redis failover, only show in the
+ * details: taking every node out at once would turn a cold cache into an outage.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheWarmUpHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmer cacheWarmer;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = cacheWarmer.isReady() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("phase", cacheWarmer.getPhase())
+                .withDetail("loaded", cacheWarmer.getLoaded())
+                .build();
+    }
+}
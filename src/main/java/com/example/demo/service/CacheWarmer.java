@@ -0,0 +1,206 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.JitteredTtl;
+import com.example.demo.config.CacheExpiryProperties;
+import com.example.demo.config.CacheWarmUpProperties;
+import com.example.demo.model.Notification;
+import com.example.demo.mq.RateLimiter;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Refills Redis when it comes back empty: the recent feed, and the newest rows of every shard in the
+ * "notification" cache. A marker key without TTL records that Redis is warm, so each node only has to check
+ * for it; when it is gone (first start, restart, failover to a node without the data) one node claims the
+ * warm-up with a lease and the others wait for it. Rows are read in rate-limited keyset pages and written
+ * with one pipelined SET NX per page, so an entry a live request cached meanwhile is never overwritten.
+ */
+@Slf4j
+@Service
+public class CacheWarmer {
+
+    static final String MARKER_KEY = "notifications:warm-up";
+    static final String WARMING = "WARMING";
+    static final String WARM = "WARM";
+    private static final String CACHE_KEY_PREFIX = CacheKeyPrefix.simple().compute("notification");
+
+    public enum Phase { PENDING, WARMING, WARM, FAILED, DISABLED }
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final ShardRouter shardRouter;
+    private final StringRedisTemplate redis;
+    private final RedisSerializer<Object> valueSerializer;
+    private final JitteredTtl ttl;
+    private final CacheWarmUpProperties properties;
+    private final RateLimiter rateLimiter;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter entries;
+    private final Counter failures;
+    private final Timer duration;
+
+    private volatile Phase phase;
+    private volatile long loaded;
+    // set once this node has seen Redis warm, warmed it itself, or given up; readiness waits for it
+    private volatile boolean ready;
+    private volatile long readyDeadlineNanos = Long.MAX_VALUE;
+
+    public CacheWarmer(NotificationRepository notificationRepository, NotificationService notificationService,
+                       ShardRouter shardRouter, StringRedisTemplate redis, RedisSerializer<Object> redisValueSerializer,
+                       CacheExpiryProperties expiryProperties, CacheWarmUpProperties properties, MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.notificationService = notificationService;
+        this.shardRouter = shardRouter;
+        this.redis = redis;
+        this.valueSerializer = redisValueSerializer;
+        this.ttl = new JitteredTtl(expiryProperties.getTtl(), expiryProperties.getJitter());
+        this.properties = properties;
+        this.rateLimiter = new RateLimiter(properties.getPagesPerSecond());
+        this.entries = Counter.builder("notification.cache.warm-up.entries").register(meterRegistry);
+        this.failures = Counter.builder("notification.cache.warm-up.failures").register(meterRegistry);
+        this.duration = Timer.builder("notification.cache.warm-up.duration").register(meterRegistry);
+        this.phase = properties.isEnabled() ? Phase.PENDING : Phase.DISABLED;
+        this.ready = !properties.isEnabled();
+    }
+
+    // off the startup thread, so the application starts serving from the database while Redis fills
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) return;
+
+        readyDeadlineNanos = System.nanoTime() + properties.getReadinessTimeout().toNanos();
+        Thread.ofVirtual().name("cache-warm-up").start(this::check);
+    }
+
+    @Scheduled(initialDelayString = "${notification.cache.warm-up.check-interval-ms:10000}",
+            fixedDelayString = "${notification.cache.warm-up.check-interval-ms:10000}")
+    public void check() {
+        if (!properties.isEnabled() || !running.compareAndSet(false, true)) return;
+
+        boolean claimed = false;
+        try {
+            claimed = Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(MARKER_KEY, WARMING, properties.getLease()));
+            if (claimed) {
+                warmUp();
+                redis.opsForValue().set(MARKER_KEY, WARM);
+                ready = true;
+            } else if (WARM.equals(redis.opsForValue().get(MARKER_KEY))) {
+                phase = Phase.WARM;
+                ready = true;
+            }
+        } catch (Exception e) {
+            failures.increment();
+            phase = Phase.FAILED;
+            // the caches are an optimisation: a failed warm-up must not keep the node out of rotation
+            ready = true;
+            log.error("CacheWarmer check Error: {}", e.getMessage());
+            if (claimed) {
+                releaseClaim();
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return ready || System.nanoTime() > readyDeadlineNanos;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public long getLoaded() {
+        return loaded;
+    }
+
+    void warmUp() {
+        phase = Phase.WARMING;
+        loaded = 0;
+        long start = System.nanoTime();
+        // a miss refills the feed from every shard and renders it
+        notificationService.getRecentNotifications();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            warmShard(shard);
+        }
+        duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        phase = Phase.WARM;
+        log.info("Caches warmed - Entries: {}, Millis: {}", loaded, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void warmShard(int shard) {
+        long before = Long.MAX_VALUE;
+        int warmed = 0;
+        while (warmed < properties.getMaxEntries()) {
+            int size = Math.min(properties.getPageSize(), properties.getMaxEntries() - warmed);
+            acquirePage();
+            long from = before;
+            List<Long> ids = shardRouter.onShard(shard, () -> notificationRepository.findIdsBefore(from, PageRequest.of(0, size)));
+            if (ids.isEmpty()) {
+                return;
+            }
+            List<Notification> rows = shardRouter.onShard(shard, () -> notificationRepository.findAllById(ids));
+            cache(rows);
+            warmed += ids.size();
+            before = ids.get(ids.size() - 1);
+            if (ids.size() < size) {
+                return;
+            }
+        }
+    }
+
+    private void cache(List<Notification> rows) {
+        if (rows.isEmpty()) return;
+
+        redis.executePipelined((RedisCallback<Object>) connection -> {
+            for (Notification row : rows) {
+                Object value = NotificationService.mapToResponse(row);
+                Duration entryTtl = ttl.getTimeToLive(row.getId(), value);
+                connection.stringCommands().set((CACHE_KEY_PREFIX + row.getId()).getBytes(StandardCharsets.UTF_8),
+                        valueSerializer.serialize(value), Expiration.from(entryTtl), SetOption.ifAbsent());
+            }
+            return null;
+        });
+        loaded += rows.size();
+        entries.increment(rows.size());
+    }
+
+    private void acquirePage() {
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cache warm-up interrupted", e);
+        }
+    }
+
+    // lets the next check, on any node, try again instead of waiting out the lease
+    private void releaseClaim() {
+        try {
+            redis.delete(MARKER_KEY);
+        } catch (Exception e) {
+            log.error("CacheWarmer release Error: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.demo.service;
+
+import com.example.demo.config.IdempotencyProperties;
+import com.example.demo.exception.IdempotencyKeyConflictException;
+import com.example.demo.exception.IdempotencyKeyMismatchException;
+import com.example.demo.exception.InvalidIdempotencyKeyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Runs a write at most once per client-supplied Idempotency-Key. The first request reserves the key with
+ * SET NX and, once the write commits, replaces the reservation with its response for the configured TTL.
+ * Duplicates arriving meanwhile poll the key and get that response back instead of executing again. A
+ * failed write releases its reservation so the client's retry can run. If Redis is unavailable, or a
+ * reservation expired mid-flight, the unique idempotency_key column rejects the second insert and the
+ * original row is returned instead.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    static final String KEY_PREFIX = "idempotency:";
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(new ClassPathResource("redis/lock-release.lua"), Long.class);
+    private static final Pattern KEY_PATTERN = Pattern.compile("[\\x21-\\x7E]+");
+    private static final String PENDING = "PENDING";
+    private static final String DONE = "DONE";
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter conflicts;
+
+    public IdempotencyService(StringRedisTemplate redis, ObjectMapper objectMapper, IdempotencyProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.replayed = requestCounter(meterRegistry, "replayed");
+        this.conflicts = requestCounter(meterRegistry, "conflict");
+    }
+
+    /**
+     * @param scope    separates endpoints so the same key on two paths never shares a response
+     * @param request  fingerprinted so a key reused with a different body is rejected rather than replayed
+     * @param action   the write; it must store the key in the unique column
+     * @param existing looks the original result up by key once the unique column rejected a duplicate
+     */
+    public <T> Result<T> execute(String scope, String key, Object request, Class<T> type,
+                                 Supplier<T> action, Supplier<Optional<T>> existing) {
+        validateKey(key, properties.getMaxKeyLength());
+        if (!properties.isEnabled()) {
+            return executeOnce(action, existing);
+        }
+
+        String redisKey = KEY_PREFIX + scope + ":" + key;
+        String fingerprint = fingerprint(request);
+        long deadline = System.nanoTime() + properties.getWait().toNanos();
+        while (true) {
+            String reservation = write(new Entry(PENDING, fingerprint, UUID.randomUUID().toString(), null));
+            boolean reserved;
+            Entry current = null;
+            try {
+                reserved = Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(redisKey, reservation, properties.getLease()));
+                if (!reserved) {
+                    current = read(redis.opsForValue().get(redisKey));
+                }
+            } catch (Exception e) {
+                log.error("IdempotencyService reserve Error: {}", e.getMessage());
+                return executeOnce(action, existing);
+            }
+            if (reserved) {
+                return executeReserved(redisKey, reservation, fingerprint, action, existing);
+            }
+
+            // null when the holder failed and released the key between our SET NX and GET: try to reserve again
+            if (current != null) {
+                if (!current.fingerprint().equals(fingerprint)) {
+                    conflicts.increment();
+                    throw new IdempotencyKeyMismatchException("Idempotency-Key " + key + " was already used with a different request");
+                }
+                if (DONE.equals(current.state())) {
+                    replayed.increment();
+                    return new Result<>(objectMapper.convertValue(current.response(), type), true);
+                }
+                if (System.nanoTime() > deadline) {
+                    conflicts.increment();
+                    throw new IdempotencyKeyConflictException("A request with Idempotency-Key " + key + " is still in progress");
+                }
+                sleep(key);
+            }
+        }
+    }
+
+    private <T> Result<T> executeReserved(String redisKey, String reservation, String fingerprint,
+                                          Supplier<T> action, Supplier<Optional<T>> existing) {
+        Result<T> result;
+        try {
+            result = executeOnce(action, existing);
+        } catch (RuntimeException e) {
+            release(redisKey, reservation);
+            throw e;
+        }
+        try {
+            String done = write(new Entry(DONE, fingerprint, null, objectMapper.valueToTree(result.value())));
+            redis.opsForValue().set(redisKey, done, properties.getTtl());
+        } catch (Exception e) {
+            // the row is committed; a retry is still answered from it through the unique column
+            log.error("IdempotencyService complete Error: {}", e.getMessage());
+        }
+        return result;
+    }
+
+    private <T> Result<T> executeOnce(Supplier<T> action, Supplier<Optional<T>> existing) {
+        try {
+            T value = action.get();
+            executed.increment();
+            return new Result<>(value, false);
+        } catch (DataIntegrityViolationException e) {
+            Optional<T> original = existing.get();
+            if (original.isEmpty()) {
+                throw e;
+            }
+            replayed.increment();
+            return new Result<>(original.get(), true);
+        }
+    }
+
+    public static void validateKey(String key, int maxKeyLength) {
+        if (key == null || key.length() > maxKeyLength || !KEY_PATTERN.matcher(key).matches()) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must be 1-" + maxKeyLength
+                    + " printable ASCII characters without spaces");
+        }
+    }
+
+    private void release(String redisKey, String reservation) {
+        try {
+            redis.execute(RELEASE_SCRIPT, List.of(redisKey), reservation);
+        } catch (Exception e) {
+            log.error("IdempotencyService release Error: {}", e.getMessage());
+        }
+    }
+
+    private void sleep(String key) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(properties.getPollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException("A request with Idempotency-Key " + key + " is still in progress");
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private String write(Entry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize idempotency entry", e);
+        }
+    }
+
+    private Entry read(String value) throws JsonProcessingException {
+        return value == null ? null : objectMapper.readValue(value, Entry.class);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notification.idempotency.requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    // token makes each reservation unique so only its holder can release it
+    record Entry(String state, String fingerprint, String token, JsonNode response) {
+    }
+}
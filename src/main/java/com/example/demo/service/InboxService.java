@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import com.example.demo.config.InboxProperties;
+import com.example.demo.dto.InboxPageResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.repository.NotificationRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InboxService {
+
+    // a HASH per recipient: the cached page plus a version every eviction bumps; a fill only lands if the
+    // version is still the one read before its query, so a read that raced a commit cannot put back the old page
+    public static final String KEY_PREFIX = "notifications:first-page:";
+    public static final List<Object> FIELDS = List.of("version", "page");
+    public static final RedisScript<Long> FILL_SCRIPT = RedisScript.of(new ClassPathResource("redis/inbox-fill.lua"), Long.class);
+    public static final RedisScript<Long> EVICT_SCRIPT = RedisScript.of(new ClassPathResource("redis/inbox-evict.lua"), Long.class);
+    private static final TypeReference<List<RecentNotificationResponse>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    private final NotificationRepository notificationRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final InboxProperties properties;
+
+    public InboxPageResponse getPage(String recipient, String after, Integer limit) {
+        int pageSize = limit == null
+                ? properties.getDefaultLimit()
+                : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+
+        List<RecentNotificationResponse> rows;
+        if (after == null || after.isBlank()) {
+            rows = firstPage(recipient);
+        } else {
+            InboxCursor cursor = InboxCursor.decode(after);
+            rows = notificationRepository.findInboxPageAfter(recipient, cursor.createdAt(), cursor.id(),
+                    PageRequest.of(0, pageSize + 1));
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<RecentNotificationResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        return InboxPageResponse.builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? InboxCursor.encode(items.get(items.size() - 1)) : null)
+                .build();
+    }
+
+    public void evict(String recipient) {
+        if (recipient == null) return;
+
+        afterCommit(() -> {
+            try {
+                stringRedisTemplate.execute(EVICT_SCRIPT, List.of(KEY_PREFIX + recipient), ttlMillis());
+            } catch (Exception e) {
+                log.error("InboxService evict Error: {}", e.getMessage());
+            }
+        });
+    }
+
+    public void evictAll(Collection<String> recipients) {
+        if (recipients == null || recipients.isEmpty()) return;
+
+        List<String> keys = recipients.stream().distinct().map(r -> KEY_PREFIX + r).toList();
+        afterCommit(() -> {
+            try {
+                stringRedisTemplate.execute(EVICT_SCRIPT, keys, ttlMillis());
+            } catch (Exception e) {
+                log.error("InboxService evictAll Error: {}", e.getMessage());
+            }
+        });
+    }
+
+    // an eviction before commit lets a concurrent getPage cache the old first page again for first-page-ttl
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    // the cached first page always holds maxLimit + 1 rows so any requested limit can be sliced from it
+    private List<RecentNotificationResponse> firstPage(String recipient) {
+        String key = KEY_PREFIX + recipient;
+        // null when Redis failed: the page is then served without a fill
+        String version = null;
+        try {
+            List<Object> cached = stringRedisTemplate.opsForHash().multiGet(key, FIELDS);
+            if (cached.get(1) != null) {
+                return objectMapper.readValue((String) cached.get(1), PAGE_TYPE);
+            }
+            version = cached.get(0) == null ? "" : (String) cached.get(0);
+        } catch (Exception e) {
+            log.error("InboxService read Error: {}", e.getMessage());
+        }
+
+        List<RecentNotificationResponse> rows = notificationRepository.findInboxFirstPage(recipient,
+                PageRequest.of(0, properties.getMaxLimit() + 1));
+        if (version != null) {
+            try {
+                stringRedisTemplate.execute(FILL_SCRIPT, List.of(key), version, objectMapper.writeValueAsString(rows), ttlMillis());
+            } catch (Exception e) {
+                log.error("InboxService write Error: {}", e.getMessage());
+            }
+        }
+        return rows;
+    }
+
+    private String ttlMillis() {
+        return String.valueOf(properties.getFirstPageTtl().toMillis());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PartitioningProperties;
+import com.example.demo.model.Notification;
+import com.example.demo.repository.MonthlyPartitions;
+import com.example.demo.repository.NotificationArchiveRepository;
+import com.example.demo.repository.NotificationArchiveRepository.CopiedBatch;
+import com.example.demo.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.demo.repository.NotificationArchiveRepository.ARCHIVE;
+import static com.example.demo.repository.NotificationArchiveRepository.NOTIFICATIONS;
+
+/**
+ * Keeps notifications to a few hot monthly partitions. Once a month leaves the hot window its partition is
+ * copied into the compressed notifications_archive and dropped, and archive months past retention are
+ * dropped in turn; dropping a partition frees the whole month without a row-by-row delete. Lookups that
+ * miss the hot table fall back to the archive. Each shard is maintained under a MySQL named lock so only
+ * one instance runs the DDL.
+ */
+@Slf4j
+@Service
+public class NotificationArchiveService {
+
+    private final NotificationArchiveRepository archiveRepository;
+    private final ShardRouter shardRouter;
+    private final PartitioningProperties properties;
+    private final Counter archivedRows;
+    private final Counter archiveHits;
+
+    public NotificationArchiveService(NotificationArchiveRepository archiveRepository, ShardRouter shardRouter,
+                                      PartitioningProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getHotMonths() < 1 || properties.getArchiveMonths() < 1) {
+            throw new IllegalArgumentException("notification.partitioning hot-months and archive-months must be at least 1");
+        }
+        this.archiveRepository = archiveRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.archivedRows = Counter.builder("notification.archive.rows")
+                .description("Notifications copied into notifications_archive")
+                .register(meterRegistry);
+        this.archiveHits = Counter.builder("notification.archive.hits")
+                .description("Lookups answered from notifications_archive")
+                .register(meterRegistry);
+    }
+
+    public Optional<Notification> findById(Long id) {
+        if (!properties.isEnabled()) return Optional.empty();
+
+        Optional<Notification> found = shardRouter.onShard(shardRouter.shardOf(id), () -> archiveRepository.findById(id));
+        found.ifPresent(notification -> archiveHits.increment());
+        return found;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${notification.partitioning.cron:0 30 3 * * *}", zone = "UTC")
+    public void maintain() {
+        if (!properties.isEnabled()) return;
+
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int target = shard;
+            try {
+                boolean ran = shardRouter.onShard(shard, () -> archiveRepository.withMaintenanceLock(() -> maintainShard(current)))
+                        .isPresent();
+                if (!ran) {
+                    log.info("Partition maintenance skipped, another instance holds the lock - Shard: {}", target);
+                }
+            } catch (Exception e) {
+                log.error("NotificationArchiveService maintain Error: {}", e.getMessage());
+            }
+        }
+    }
+
+    // runs on the shard the calling thread is routed to
+    Boolean maintainShard(YearMonth current) {
+        YearMonth premakeThrough = current.plusMonths(properties.getPremakeMonths());
+        addPartitions(NOTIFICATIONS, current, premakeThrough);
+        addPartitions(ARCHIVE, current, premakeThrough);
+
+        for (String partition : partitionsBefore(NOTIFICATIONS, current.minusMonths(properties.getHotMonths() - 1))) {
+            archive(partition);
+        }
+
+        List<String> expired = partitionsBefore(ARCHIVE, current.minusMonths(properties.getArchiveMonths() - 1));
+        if (!expired.isEmpty()) {
+            archiveRepository.dropPartitions(ARCHIVE, expired);
+            log.info("Archive partitions dropped - Partitions: {}", expired);
+        }
+
+        purgeIdempotencyKeys();
+        return true;
+    }
+
+    private void addPartitions(String table, YearMonth current, YearMonth through) {
+        List<String> partitions = archiveRepository.findPartitions(table);
+        if (!partitions.contains(MonthlyPartitions.FUTURE)) {
+            throw new IllegalStateException(table + " has no " + MonthlyPartitions.FUTURE + " partition; create it from init.sql");
+        }
+        YearMonth next = partitions.stream()
+                .map(MonthlyPartitions::monthOf)
+                .flatMap(Optional::stream)
+                .max(YearMonth::compareTo)
+                .map(latest -> latest.plusMonths(1))
+                .orElse(current);
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth month = next; !month.isAfter(through); month = month.plusMonths(1)) {
+            missing.add(month);
+        }
+        if (!missing.isEmpty()) {
+            archiveRepository.splitFuture(table, missing);
+            log.info("Partitions added - Table: {}, Months: {}", table, missing);
+        }
+    }
+
+    // month partitions older than oldestKept, oldest first
+    private List<String> partitionsBefore(String table, YearMonth oldestKept) {
+        return archiveRepository.findPartitions(table).stream()
+                .filter(partition -> MonthlyPartitions.monthOf(partition).filter(month -> month.isBefore(oldestKept)).isPresent())
+                .toList();
+    }
+
+    private void archive(String partition) {
+        long after = 0;
+        long rows = 0;
+        Optional<CopiedBatch> batch;
+        while ((batch = archiveRepository.copyToArchive(partition, after, properties.getBatchSize())).isPresent()) {
+            after = batch.get().lastId();
+            rows += batch.get().rows();
+        }
+        archivedRows.increment(rows);
+
+        long unarchived = archiveRepository.countUnarchived(partition);
+        if (unarchived > 0) {
+            log.error("Partition not dropped, rows missing from the archive - Partition: {}, Missing: {}", partition, unarchived);
+            return;
+        }
+        archiveRepository.dropPartitions(NOTIFICATIONS, List.of(partition));
+        log.info("Partition archived - Partition: {}, Rows: {}", partition, rows);
+    }
+
+    private void purgeIdempotencyKeys() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getIdempotencyKeyRetention());
+        int deleted;
+        do {
+            deleted = archiveRepository.deleteIdempotencyKeysBefore(before, properties.getBatchSize());
+        } while (deleted >= properties.getBatchSize());
+    }
+}
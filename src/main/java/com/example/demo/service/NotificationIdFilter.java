@@ -0,0 +1,225 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.LongBloomFilter;
+import com.example.demo.config.NegativeCacheProperties;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.sharding.ShardRouter;
+import com.example.demo.sharding.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "might this id exist?" in-process with a Bloom filter of existing ids, and remembers ids that
+ * missed in MySQL in a short-lived Redis key. The filter only vouches for ids up to a watermark taken at
+ * the last rebuild; newer ids, including ones created on other nodes, always pass through to the
+ * normal lookup, and so do ids below the oldest one scanned, which have been moved to the archive.
+ * Deleted ids stay in the filter and are answered by the negative entry instead. The filter is sized from
+ * the row count and capped at max-entries; each scheduled rebuild only scans the ids added since the last
+ * one, reaching back late-commit-window for rows that committed after newer ones, and a full rebuild runs
+ * once the filter is full or full-rebuild-interval has passed.
+ */
+@Slf4j
+@Service
+public class NotificationIdFilter {
+
+    private static final String MISSING_PREFIX = "notifications:missing:";
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+
+    private final NotificationRepository notificationRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final NegativeCacheProperties properties;
+    private final ShardRouter shardRouter;
+
+    // null until the first rebuild completes; until then every id passes
+    private volatile Snapshot snapshot;
+
+    public NotificationIdFilter(NotificationRepository notificationRepository, StringRedisTemplate stringRedisTemplate,
+                                NegativeCacheProperties properties, ShardRouter shardRouter) {
+        this.notificationRepository = notificationRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+    }
+
+    public boolean mightExist(Long id) {
+        Snapshot current = snapshot;
+        if (id == null || !properties.isEnabled() || current == null) {
+            return true;
+        }
+        return id > current.watermark() || id < current.floor() || current.filter().mightContain(id);
+    }
+
+    public boolean isKnownMissing(Long id) {
+        if (!properties.isEnabled()) return false;
+
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(MISSING_PREFIX + id));
+        } catch (Exception e) {
+            log.error("NotificationIdFilter isKnownMissing Error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // inside a transaction (a delete) only once it commits, so a rolled-back delete never answers 404
+    public void markMissing(Long id) {
+        if (!properties.isEnabled()) return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writeMissing(id);
+                }
+            });
+        } else {
+            writeMissing(id);
+        }
+    }
+
+    private void writeMissing(Long id) {
+        try {
+            stringRedisTemplate.opsForValue().set(MISSING_PREFIX + id, "1", properties.getTtl());
+        } catch (Exception e) {
+            log.error("NotificationIdFilter markMissing Error: {}", e.getMessage());
+        }
+    }
+
+    // an id probed before its row existed may carry a negative entry, so creates always clear it
+    public void onCreated(Collection<Long> ids) {
+        if (!properties.isEnabled() || ids == null || ids.isEmpty()) return;
+
+        Snapshot current = snapshot;
+        if (current != null) {
+            ids.forEach(current.filter()::put);
+            current.entries().addAndGet(ids.size());
+        }
+        try {
+            stringRedisTemplate.delete(ids.stream().map(id -> MISSING_PREFIX + id).toList());
+        } catch (Exception e) {
+            log.error("NotificationIdFilter onCreated Error: {}", e.getMessage());
+        }
+    }
+
+    // a full rebuild sizes a new filter; later ones only add the ids near and above the last watermark to it
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${notification.cache.negative.rebuild-interval-ms:600000}",
+            fixedDelayString = "${notification.cache.negative.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!properties.isEnabled()) return;
+
+        try {
+            // ids are time-ordered across shards, so the highest per-shard watermark covers them all
+            LocalDateTime before = LocalDateTime.now().minus(properties.getWatermarkGrace());
+            long watermark = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                List<Long> newest = shardRouter.onShard(shard, () -> notificationRepository.findIdsCreatedBefore(before, PageRequest.of(0, 1)));
+                watermark = Math.max(watermark, newest.isEmpty() ? 0 : newest.get(0));
+            }
+
+            Snapshot current = snapshot;
+            if (current != null && current.entries().get() < current.capacity()
+                    && System.nanoTime() - current.builtAtNanos() < properties.getFullRebuildInterval().toNanos()) {
+                snapshot = extend(current, watermark);
+            } else {
+                snapshot = rebuildFull(watermark);
+            }
+            Snapshot rebuilt = snapshot;
+            log.info("Notification id filter rebuilt - Watermark: {}, Floor: {}, Entries: {}, Capacity: {}",
+                    rebuilt.watermark(), rebuilt.floor(), rebuilt.entries().get(), rebuilt.capacity());
+        } catch (Exception e) {
+            log.error("NotificationIdFilter rebuild Error: {}", e.getMessage());
+        }
+    }
+
+    // the filter leaves a fifth of its capacity for later increments; past max-entries it only holds the
+    // newest ids and raises the floor, so older ids pass through like archived ones
+    private Snapshot rebuildFull(long watermark) {
+        long builtAt = System.nanoTime();
+        long count = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            count += shardRouter.onShard(shard, notificationRepository::count);
+        }
+        long capacity = Math.min(properties.getMaxEntries(), Math.max(REBUILD_BATCH_SIZE, count + count / 4));
+        LongBloomFilter filter = new LongBloomFilter(capacity, properties.getFalsePositiveRate());
+        long perShard = count + count / 4 <= capacity ? Long.MAX_VALUE : capacity * 4 / 5 / shardRouter.shardCount();
+
+        long entries = 0;
+        long lowest = Long.MAX_VALUE;
+        long truncatedFloor = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            long[] scan = scanShardNewestFirst(shard, filter, perShard);
+            entries += scan[0];
+            lowest = Math.min(lowest, scan[1]);
+            if (scan[0] == perShard) {
+                truncatedFloor = Math.max(truncatedFloor, scan[1]);
+            }
+        }
+        long floor = truncatedFloor > 0 ? truncatedFloor : lowest;
+        return new Snapshot(filter, watermark, floor, capacity, new AtomicLong(entries), builtAt);
+    }
+
+    // rescans from late-commit-window before the last watermark: a row committed since with an older id
+    // would otherwise stay rejected until the next full rebuild. Re-adding ids already in the filter is
+    // harmless, and only the ones above the watermark count as new entries
+    private Snapshot extend(Snapshot current, long watermark) {
+        long from = SnowflakeIdGenerator.firstIdAt(
+                SnowflakeIdGenerator.epochMillisOf(current.watermark()) - properties.getLateCommitWindow().toMillis());
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            current.entries().addAndGet(scanShardAfter(shard, current.filter(), from - 1, current.watermark()));
+        }
+        return new Snapshot(current.filter(), Math.max(watermark, current.watermark()), current.floor(),
+                current.capacity(), current.entries(), current.builtAtNanos());
+    }
+
+    // returns {ids added, lowest id added}; stops after limit ids
+    private long[] scanShardNewestFirst(int shard, LongBloomFilter filter, long limit) {
+        long added = 0;
+        long before = Long.MAX_VALUE;
+        List<Long> ids;
+        do {
+            long from = before;
+            int size = (int) Math.min(REBUILD_BATCH_SIZE, limit - added);
+            ids = shardRouter.onShard(shard, () -> notificationRepository.findIdsBefore(from, PageRequest.of(0, size)));
+            ids.forEach(filter::put);
+            added += ids.size();
+            if (!ids.isEmpty()) {
+                before = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == REBUILD_BATCH_SIZE && added < limit);
+        return new long[]{added, before};
+    }
+
+    // returns the number of ids above newAbove
+    private long scanShardAfter(int shard, LongBloomFilter filter, long after, long newAbove) {
+        long added = 0;
+        long from = after;
+        List<Long> ids;
+        do {
+            long start = from;
+            ids = shardRouter.onShard(shard, () -> notificationRepository.findIdsAfter(start, PageRequest.of(0, REBUILD_BATCH_SIZE)));
+            ids.forEach(filter::put);
+            added += ids.stream().filter(id -> id > newAbove).count();
+            if (!ids.isEmpty()) {
+                from = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == REBUILD_BATCH_SIZE);
+        return added;
+    }
+
+    // ids in [floor, watermark] are vouched for by the filter; archived ids sit below floor
+    private record Snapshot(LongBloomFilter filter, long watermark, long floor, long capacity, AtomicLong entries,
+                            long builtAtNanos) {
+    }
+}
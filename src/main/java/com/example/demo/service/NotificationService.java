@@ -1,22 +1,43 @@
 package com.example.demo.service;
 
+import com.example.demo.constants.NotificationChange;
+import com.example.demo.datasource.ReadRouting;
+import com.example.demo.dto.BatchCreateNotificationResponse;
+import com.example.demo.dto.BatchItemResult;
 import com.example.demo.dto.CreateNotificationRequest;
+import com.example.demo.dto.InboxPageResponse;
 import com.example.demo.dto.NotificationResponse;
 import com.example.demo.dto.RecentNotificationResponse;
 import com.example.demo.dto.UpdateNotificationRequest;
+import com.example.demo.exception.InvalidBatchRequestException;
 import com.example.demo.exception.NotificationNotFoundException;
 import com.example.demo.model.Notification;
 import com.example.demo.mq.RocketMQService;
 import com.example.demo.repository.NotificationRepository;
+import com.example.demo.sharding.KWayMerge;
+import com.example.demo.sharding.ShardRouter;
+import com.example.demo.stream.NotificationEventPublisher;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,55 +45,280 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class NotificationService {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    // newest first, as each shard returns them; ids break createdAt ties
+    private static final Comparator<RecentNotificationResponse> RECENT_ORDER = Comparator
+            .comparing(RecentNotificationResponse::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(RecentNotificationResponse::getId, Comparator.reverseOrder());
+
     private final NotificationRepository notificationRepository;
     private final RedisService redisService;
     private final RocketMQService rocketMQService;
+    private final InboxService inboxService;
+    private final NotificationIdFilter notificationIdFilter;
+    private final ReadRouting readRouting;
+    private final ShardRouter shardRouter;
+    private final NotificationArchiveService archiveService;
+    private final WriteBehindLog writeBehindLog;
+    private final NotificationEventPublisher eventPublisher;
+    private final Validator validator;
 
 
-    @Transactional
     public NotificationResponse createNotification(CreateNotificationRequest request) {
+        return createNotification(request, null);
+    }
+
+    // not transactional itself: a write-behind append needs no connection, so a transaction (and a pooled
+    // connection) is only taken for the synchronous insert
+    public NotificationResponse createNotification(CreateNotificationRequest request, String idempotencyKey) {
+        int shard = shardRouter.shardOf(request.getRecipient());
         Notification notification = Notification.builder()
+                .id(shardRouter.nextId(shard))
                 .type(request.getType())
                 .recipient(request.getRecipient())
                 .subject(request.getSubject())
                 .content(request.getContent())
+                .idempotencyKey(idempotencyKey)
                 .build();
 
-        Notification saved = notificationRepository.save(notification);
+        if (writeBehindLog.isEnabled()) {
+            LocalDateTime now = LocalDateTime.now();
+            notification.setCreatedAt(now);
+            notification.setUpdatedAt(now);
+            if (writeBehindLog.append(notification)) {
+                // WriteBehindWriter inserts, publishes, streams and evicts the inbox once the row is written
+                redisService.add(mapToRecentResponse(notification));
+                notificationIdFilter.onCreated(List.of(notification.getId()));
+                return mapToResponse(notification);
+            }
+        }
+        return shardRouter.inTransaction(shard, () -> insert(notification));
+    }
+
+    private NotificationResponse insert(Notification notification) {
+        if (notification.getIdempotencyKey() != null) {
+            // claims the key right away, so a duplicate fails here rather than at commit
+            notificationRepository.insertIdempotencyKeys(List.of(notification));
+        }
+        // flushed here, so a constraint violation fails before any of the side effects below run
+        Notification saved = notificationRepository.saveAndFlush(notification);
         NotificationResponse response = mapToResponse(saved);
 
         RecentNotificationResponse recentResponse = mapToRecentResponse(saved);
         redisService.add(recentResponse);
+        inboxService.evict(saved.getRecipient());
+        notificationIdFilter.onCreated(List.of(saved.getId()));
         rocketMQService.send(response);
+        eventPublisher.publish(NotificationChange.CREATED, recentResponse);
         return response;
     }
 
-    @Cacheable(value = "notification", key = "#id")
+    public BatchCreateNotificationResponse createNotifications(List<CreateNotificationRequest> requests) {
+        return createNotifications(requests, null);
+    }
+
+    // each shard's items commit in their own transaction; with a single shard that is the whole batch
+    public BatchCreateNotificationResponse createNotifications(List<CreateNotificationRequest> requests, String idempotencyKey) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidBatchRequestException("Batch must contain at least one notification");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidBatchRequestException("Batch cannot exceed " + MAX_BATCH_SIZE + " notifications");
+        }
+
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Map<Integer, List<Integer>> indexesByShard = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateNotificationRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                results[i] = BatchItemResult.builder().index(i).success(false).error(error).build();
+                continue;
+            }
+            indexesByShard.computeIfAbsent(shardRouter.shardOf(request.getRecipient()), shard -> new ArrayList<>()).add(i);
+        }
+
+        int succeeded = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : indexesByShard.entrySet()) {
+            int shard = entry.getKey();
+            List<Integer> indexes = entry.getValue();
+            List<NotificationResponse> responses = insertOrReplayShard(shard, indexes, requests, idempotencyKey);
+            for (int i = 0; i < responses.size(); i++) {
+                int index = indexes.get(i);
+                results[index] = BatchItemResult.builder().index(index).success(true).notification(responses.get(i)).build();
+            }
+            succeeded += responses.size();
+        }
+
+        return BatchCreateNotificationResponse.builder()
+                .total(requests.size())
+                .succeeded(succeeded)
+                .failed(requests.size() - succeeded)
+                .results(List.of(results))
+                .build();
+    }
+
+    // each shard commits all of its items or none, so after a partial failure the retry's keys collide only on
+    // the shards that committed: their stored rows are returned and the missing shards are inserted
+    private List<NotificationResponse> insertOrReplayShard(int shard, List<Integer> indexes, List<CreateNotificationRequest> requests,
+                                                           String idempotencyKey) {
+        try {
+            return shardRouter.inTransaction(shard, () -> insertShard(shard, indexes, requests, idempotencyKey));
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            List<String> keys = indexes.stream().map(index -> batchItemKey(idempotencyKey, index)).toList();
+            Map<String, Notification> stored = shardRouter.onShard(shard, () -> notificationRepository.findByIdempotencyKeyIn(keys))
+                    .stream()
+                    .collect(Collectors.toMap(Notification::getIdempotencyKey, notification -> notification));
+            if (stored.size() != keys.size()) {
+                throw e;
+            }
+            return keys.stream().map(stored::get).map(NotificationService::mapToResponse).toList();
+        }
+    }
+
+    private List<NotificationResponse> insertShard(int shard, List<Integer> indexes, List<CreateNotificationRequest> requests,
+                                                   String idempotencyKey) {
+        List<Notification> toInsert = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            CreateNotificationRequest request = requests.get(index);
+            toInsert.add(Notification.builder()
+                    .id(shardRouter.nextId(shard))
+                    .type(request.getType())
+                    .recipient(request.getRecipient())
+                    .subject(request.getSubject())
+                    .content(request.getContent())
+                    .idempotencyKey(batchItemKey(idempotencyKey, index))
+                    .build());
+        }
+
+        List<Notification> saved = notificationRepository.insertAll(toInsert);
+        List<NotificationResponse> responses = new ArrayList<>(saved.size());
+        List<RecentNotificationResponse> recentResponses = new ArrayList<>(saved.size());
+        for (Notification notification : saved) {
+            responses.add(mapToResponse(notification));
+            recentResponses.add(mapToRecentResponse(notification));
+        }
+
+        redisService.addAll(recentResponses);
+        inboxService.evictAll(saved.stream().map(Notification::getRecipient).toList());
+        notificationIdFilter.onCreated(saved.stream().map(Notification::getId).toList());
+        rocketMQService.sendBatch(responses);
+        eventPublisher.publish(NotificationChange.CREATED, recentResponses);
+        return responses;
+    }
+
+    // the key alone does not reveal the shard, but this only runs after the unique column rejected a retry
+    public Optional<NotificationResponse> findByIdempotencyKey(String idempotencyKey) {
+        return shardRouter.onEachShard(shard -> notificationRepository.findByIdempotencyKey(idempotencyKey)).stream()
+                .flatMap(Optional::stream)
+                .findFirst()
+                .map(NotificationService::mapToResponse);
+    }
+
+    // rebuilds the original batch response: stored items come from their rows, rejected ones are validated again
+    public Optional<BatchCreateNotificationResponse> findBatchByIdempotencyKey(List<CreateNotificationRequest> requests,
+                                                                               String idempotencyKey) {
+        if (requests == null || requests.isEmpty()) {
+            return Optional.empty();
+        }
+        List<String> keys = new ArrayList<>(requests.size());
+        Map<Integer, List<String>> keysByShard = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            keys.add(batchItemKey(idempotencyKey, i));
+            CreateNotificationRequest request = requests.get(i);
+            if (request != null && request.getRecipient() != null) {
+                keysByShard.computeIfAbsent(shardRouter.shardOf(request.getRecipient()), shard -> new ArrayList<>()).add(keys.get(i));
+            }
+        }
+        Map<String, Notification> stored = new HashMap<>();
+        keysByShard.forEach((shard, shardKeys) -> shardRouter
+                .onShard(shard, () -> notificationRepository.findByIdempotencyKeyIn(shardKeys))
+                .forEach(notification -> stored.put(notification.getIdempotencyKey(), notification)));
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Notification notification = stored.get(keys.get(i));
+            if (notification != null) {
+                results.add(BatchItemResult.builder().index(i).success(true).notification(mapToResponse(notification)).build());
+            } else {
+                String error = validate(requests.get(i));
+                results.add(BatchItemResult.builder().index(i).success(false)
+                        .error(error != null ? error : "Notification was not created").build());
+            }
+        }
+        return Optional.of(BatchCreateNotificationResponse.builder()
+                .total(requests.size())
+                .succeeded(stored.size())
+                .failed(requests.size() - stored.size())
+                .results(results)
+                .build());
+    }
+
+    // ids the filter rules out skip the cache entirely and are rejected below without touching Redis or MySQL
+    @Cacheable(value = "notification", key = "#id", sync = true, condition = "@notificationIdFilter.mightExist(#id)")
     public NotificationResponse getNotificationById(Long id) {
-        Notification notification = notificationRepository.findById(id)
-                .orElseThrow(() -> new NotificationNotFoundException(id));
+        if (!notificationIdFilter.mightExist(id) || notificationIdFilter.isKnownMissing(id)) {
+            throw new NotificationNotFoundException(id);
+        }
+        // pending first: the writer removes the entry only after the insert commits, so one of the two has it
+        Optional<Notification> found = writeBehindLog.find(id);
+        if (found.isEmpty()) {
+            found = shardRouter.onShard(shardRouter.shardOf(id), () -> notificationRepository.findById(id));
+        }
+        // a replica miss may be replication lag; confirm on the primary before caching the id as missing
+        if (found.isEmpty() && readRouting.isReplicaRead()) {
+            found = readRouting.onPrimary(() -> notificationRepository.findById(id));
+        }
+        if (found.isEmpty()) {
+            found = archiveService.findById(id);
+        }
+        Notification notification = found.orElseThrow(() -> {
+            notificationIdFilter.markMissing(id);
+            return new NotificationNotFoundException(id);
+        });
 
         return mapToResponse(notification);
     }
 
-    public List<RecentNotificationResponse> getRecentNotifications() {
-        List<RecentNotificationResponse> cached = redisService.get();
-        if (!cached.isEmpty()) {
+    // served as rendered; an empty feed is reloaded from the database, as it may just have expired
+    public RecentSnapshot getRecentNotifications() {
+        RecentSnapshot cached = redisService.getSnapshot();
+        if (cached != null) {
             return cached;
         }
 
-        List<RecentNotificationResponse> dbRecent = notificationRepository.findTop10ByOrderByCreatedAtDesc().stream()
-                .map(this::mapToRecentResponse)
-                .collect(Collectors.toList());
+        // each shard returns its own newest rows; merging the sorted heads yields the global window
+        int limit = redisService.getMaxSize();
+        List<RecentNotificationResponse> dbRecent = KWayMerge.merge(shardRouter.onEachShard(shard -> notificationRepository
+                        .findAllByOrderByCreatedAtDesc(PageRequest.of(0, limit)).stream()
+                        .map(NotificationService::mapToRecentResponse)
+                        .toList()),
+                RECENT_ORDER, limit);
 
-        dbRecent.forEach(redisService::add);
+        redisService.addAll(dbRecent);
+
+        // the refill rendered the window in Redis; without Redis, or with nothing to refill, render it here
+        RecentSnapshot refilled = dbRecent.isEmpty() ? null : redisService.getSnapshot();
+        return refilled != null ? refilled : redisService.render(dbRecent);
+    }
 
-        return dbRecent;
+    @Transactional(readOnly = true)
+    public InboxPageResponse getInbox(String recipient, String after, Integer limit) {
+        shardRouter.bind(shardRouter.shardOf(recipient));
+        return inboxService.getPage(recipient, after, limit);
     }
 
     @Transactional
     @CachePut(value = "notification", key = "#id")
     public NotificationResponse updateNotification(Long id, UpdateNotificationRequest request) {
+        shardRouter.bind(shardRouter.shardOf(id));
 
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new NotificationNotFoundException(id));
@@ -89,6 +335,8 @@ public class NotificationService {
 
         RecentNotificationResponse recentResponse = mapToRecentResponse(updated);
         redisService.update(recentResponse);
+        inboxService.evict(updated.getRecipient());
+        eventPublisher.publish(NotificationChange.UPDATED, recentResponse);
 
         return response;
     }
@@ -96,16 +344,37 @@ public class NotificationService {
     @Transactional
     @CacheEvict(value = "notification", key = "#id")
     public void deleteNotification(Long id) {
+        shardRouter.bind(shardRouter.shardOf(id));
 
-        if (!notificationRepository.existsById(id)) {
-            throw new NotificationNotFoundException(id);
-        }
+        Notification notification = notificationRepository.findById(id)
+                .orElseThrow(() -> new NotificationNotFoundException(id));
 
         notificationRepository.deleteById(id);
         redisService.remove(id);
+        inboxService.evict(notification.getRecipient());
+        notificationIdFilter.markMissing(id);
+        eventPublisher.publish(NotificationChange.DELETED, mapToRecentResponse(notification));
+    }
+
+    private static String batchItemKey(String idempotencyKey, int index) {
+        return idempotencyKey == null ? null : idempotencyKey + ":" + index;
+    }
+
+    private String validate(CreateNotificationRequest request) {
+        if (request == null) {
+            return "Notification is required";
+        }
+        Set<ConstraintViolation<CreateNotificationRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
     }
 
-    private NotificationResponse mapToResponse(Notification notification) {
+    public static NotificationResponse mapToResponse(Notification notification) {
         return NotificationResponse.builder()
                 .id(notification.getId())
                 .type(notification.getType())
@@ -117,7 +386,7 @@ public class NotificationService {
                 .build();
     }
 
-    private RecentNotificationResponse mapToRecentResponse(Notification notification) {
+    public static RecentNotificationResponse mapToRecentResponse(Notification notification) {
         return RecentNotificationResponse.builder()
                 .id(notification.getId())
                 .type(notification.getType())
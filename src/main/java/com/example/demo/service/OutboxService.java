@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.model.NotificationOutbox;
+import com.example.demo.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    // MANDATORY: an outbox row is only meaningful when it commits together with the notification row
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(NotificationResponse notification) {
+        outboxRepository.save(toOutbox(notification, LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<NotificationResponse> notifications) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.insertAll(notifications.stream()
+                .map(n -> toOutbox(n, now))
+                .toList());
+    }
+
+    public NotificationResponse readPayload(NotificationOutbox event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), NotificationResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload, id: " + event.getId(), e);
+        }
+    }
+
+    private NotificationOutbox toOutbox(NotificationResponse notification, LocalDateTime now) {
+        try {
+            return NotificationOutbox.builder()
+                    .notificationId(notification.getId())
+                    .payload(objectMapper.writeValueAsString(notification))
+                    .createdAt(now)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize notification, id: " + notification.getId(), e);
+        }
+    }
+}
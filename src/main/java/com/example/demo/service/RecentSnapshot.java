@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+/**
+ * The recent feed as the JSON array GET /notifications/recent returns, rendered once per change. The epoch
+ * and version come from Redis's feed counter, shared by every node, so together they double as the ETag;
+ * the epoch changes whenever the counter restarts. A feed rendered locally while Redis is unavailable is
+ * {@link #UNVERSIONED} and has none.
+ */
+public record RecentSnapshot(long epoch, long version, byte[] json) {
+
+    public static final long UNVERSIONED = -1;
+
+    public String etag() {
+        return version == UNVERSIONED ? null : "\"" + epoch + "-" + version + "\"";
+    }
+}
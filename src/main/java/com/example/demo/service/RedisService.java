@@ -1,95 +1,232 @@
 package com.example.demo.service;
 
+import com.example.demo.config.RecentFeedProperties;
 import com.example.demo.dto.RecentNotificationResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.ListOperations;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Recent feed stored as a ZSET index (score = createdAt millis) plus a HASH of summaries, both maintained
+ * by Lua scripts so every operation is a single atomic round trip regardless of the window size. Every
+ * change also re-renders the whole window as one JSON array under a new version, which each node keeps
+ * in memory: a poll asks Redis for the version only and gets the bytes back when they changed.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RedisService {
-    
+
+    // hash tag keeps both keys in the same cluster slot so the scripts can touch them together
+    public static final String INDEX_KEY = "{notifications:recent}:index";
+    public static final String ITEMS_KEY = "{notifications:recent}:items";
+    public static final String SNAPSHOT_KEY = "{notifications:recent}:snapshot";
+    // never expires, so a version is not reused once the rendered feed expires; losing it anyway (a flush, a
+    // failover) starts a new epoch, so an old ETag still cannot match
+    public static final String VERSION_KEY = "{notifications:recent}:feed-version";
+    public static final List<String> KEYS = List.of(INDEX_KEY, ITEMS_KEY, SNAPSHOT_KEY, VERSION_KEY);
+
+    // the write scripts end by re-rendering the feed; that step lives once, in recent-render.lua
+    public static final RedisScript<Long> ADD_SCRIPT = withRender("redis/recent-add.lua");
+    public static final RedisScript<Long> UPDATE_SCRIPT = withRender("redis/recent-update.lua");
+    public static final RedisScript<Long> REMOVE_SCRIPT = withRender("redis/recent-remove.lua");
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GET_SCRIPT = RedisScript.of(new ClassPathResource("redis/recent-get.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SNAPSHOT_SCRIPT = RedisScript.of(new ClassPathResource("redis/recent-snapshot.lua"), List.class);
+
+    private static final String RENDER_SNIPPET = "redis/recent-render.lua";
+
     private final RedisTemplate<String, Object> redis;
     private final ObjectMapper objectMapper;
-    private static final String KEY = "notifications:recent";
-    private static final int MAX_SIZE = 10;
-    private static final int TTL_MINUTES = 10;
-    
+    private final RecentFeedProperties properties;
+    private final Timer getHits;
+    private final Timer getMisses;
+    private final Timer getErrors;
+    private final Timer getUnchanged;
+    private final AtomicReference<RecentSnapshot> snapshot = new AtomicReference<>();
+
+    public RedisService(RedisTemplate<String, Object> redis, ObjectMapper objectMapper, RecentFeedProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.getHits = getTimer(meterRegistry, "hit");
+        this.getMisses = getTimer(meterRegistry, "miss");
+        this.getErrors = getTimer(meterRegistry, "error");
+        this.getUnchanged = getTimer(meterRegistry, "unchanged");
+    }
+
+    public int getMaxSize() {
+        return properties.getMaxSize();
+    }
+
     public void add(RecentNotificationResponse n) {
         if (n == null || n.getId() == null) return;
-        
+
+        addAll(List.of(n));
+    }
+
+    public void addAll(List<RecentNotificationResponse> items) {
+        if (items == null || items.isEmpty()) return;
+
         try {
-            ListOperations<String, Object> ops = redis.opsForList();
-            ops.leftPush(KEY, n);
-            ops.trim(KEY, 0, MAX_SIZE - 1);
-            redis.expire(KEY, TTL_MINUTES, TimeUnit.MINUTES);
+            List<String> args = new ArrayList<>(2 + items.size() * 3);
+            args.add(String.valueOf(properties.getMaxSize()));
+            args.add(String.valueOf(properties.getTtl().toSeconds()));
+            for (RecentNotificationResponse n : items) {
+                if (n == null || n.getId() == null) continue;
+                args.add(String.valueOf(score(n)));
+                args.add(member(n.getId()));
+                args.add(objectMapper.writeValueAsString(n));
+            }
+            execute(ADD_SCRIPT, args);
         } catch (Exception e) {
-            log.error("RedisService add Error: {}", e.getMessage());
+            log.error("RedisService addAll Error: {}", e.getMessage());
         }
     }
-    
+
     public void update(RecentNotificationResponse n) {
         if (n == null || n.getId() == null) return;
-        
+
         try {
-            remove(n.getId());
-            add(n);
+            execute(UPDATE_SCRIPT, List.of(member(n.getId()), objectMapper.writeValueAsString(n)));
         } catch (Exception e) {
             log.error("RedisService update Error: {}", e.getMessage());
         }
     }
-    
+
     public List<RecentNotificationResponse> get() {
+        long start = System.nanoTime();
         try {
-            List<Object> items = redis.opsForList().range(KEY, 0, MAX_SIZE - 1);
-            if (items == null || items.isEmpty()) return new ArrayList<>();
-            
-            List<RecentNotificationResponse> result = new ArrayList<>();
+            List<?> items = execute(GET_SCRIPT, List.of(String.valueOf(properties.getMaxSize())));
+            if (items == null || items.isEmpty()) {
+                getMisses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return new ArrayList<>();
+            }
+
+            List<RecentNotificationResponse> result = new ArrayList<>(items.size());
             for (Object item : items) {
+                if (item == null) continue;
                 try {
-                    RecentNotificationResponse response = objectMapper.convertValue(item, RecentNotificationResponse.class);
-                    result.add(response);
-                } catch (Exception e) {
+                    result.add(objectMapper.readValue((String) item, RecentNotificationResponse.class));
+                } catch (JsonProcessingException e) {
                     log.error("Failed to convert item: {}, error: {}", item, e.getMessage());
                 }
             }
+            getHits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             return result;
         } catch (Exception e) {
+            getErrors.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             log.error("RedisService get Error: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
-    
+
+    // null when Redis holds no rendered feed or cannot be reached; the caller loads the window from the database
+    public RecentSnapshot getSnapshot() {
+        long start = System.nanoTime();
+        RecentSnapshot current = snapshot.get();
+        try {
+            List<?> reply = redis.execute(SNAPSHOT_SCRIPT, RedisSerializer.string(), bytesResultSerializer(), KEYS,
+                    current == null ? "" : String.valueOf(current.epoch()), current == null ? "" : String.valueOf(current.version()));
+            if (reply == null || reply.isEmpty()) {
+                getMisses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return null;
+            }
+
+            long epoch = Long.parseLong(new String((byte[]) reply.get(0), StandardCharsets.US_ASCII));
+            long version = Long.parseLong(new String((byte[]) reply.get(1), StandardCharsets.US_ASCII));
+            if (reply.size() == 2 && current != null && current.epoch() == epoch && current.version() == version) {
+                getUnchanged.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return current;
+            }
+            RecentSnapshot fresh = new RecentSnapshot(epoch, version, (byte[]) reply.get(2));
+            // the held copy is only served once Redis confirms its epoch and version, so whichever poll lands
+            // last may keep it: a new epoch or a lower version after a failover replaces it like a newer one
+            snapshot.set(fresh);
+            getHits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return fresh;
+        } catch (Exception e) {
+            getErrors.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("RedisService getSnapshot Error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // the same rendering the scripts produce, for a window Redis could not store
+    public RecentSnapshot render(List<RecentNotificationResponse> items) {
+        try {
+            return new RecentSnapshot(RecentSnapshot.UNVERSIONED, RecentSnapshot.UNVERSIONED, objectMapper.writeValueAsBytes(items));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Recent feed could not be rendered", e);
+        }
+    }
+
     public void remove(Long id) {
         if (id == null) return;
-        
+
         try {
-            List<Object> items = redis.opsForList().range(KEY, 0, -1);
-            if (items == null || items.isEmpty()) return;
-            
-            for (Object item : items) {
-                try {
-                    RecentNotificationResponse n = objectMapper.convertValue(item, RecentNotificationResponse.class);
-                    if (n.getId().equals(id)) {
-                        redis.opsForList().remove(KEY, 1, item);
-                        return;
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to process item during remove: {}, error: {}", item, e.getMessage());
-                }
-            }
+            execute(REMOVE_SCRIPT, List.of(member(id)));
         } catch (Exception e) {
             log.error("RedisService remove Error: {}", e.getMessage());
         }
     }
 
-}
\ No newline at end of file
+    private <T> T execute(RedisScript<T> script, List<String> args) {
+        return redis.execute(script, RedisSerializer.string(), resultSerializer(), KEYS, args.toArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RedisSerializer<T> resultSerializer() {
+        return (RedisSerializer<T>) RedisSerializer.string();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RedisSerializer<T> bytesResultSerializer() {
+        return (RedisSerializer<T>) RedisSerializer.byteArray();
+    }
+
+    public static long score(RecentNotificationResponse n) {
+        return n.getCreatedAt() == null ? 0 : n.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // zero-padded so members that share a createdAt millisecond still sort by id
+    public static String member(Long id) {
+        return String.format("%019d", id);
+    }
+
+    private static Timer getTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("notification.recent.get")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // prepends the render_feed() definition, so the script still runs as one EVALSHA
+    static RedisScript<Long> withRender(String location) {
+        return RedisScript.of(read(RENDER_SNIPPET) + "\n" + read(location), Long.class);
+    }
+
+    private static String read(String location) {
+        try {
+            return new ClassPathResource(location).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.demo.service;
+
+import com.example.demo.config.WriteBehindProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.model.Notification;
+import com.example.demo.sharding.WorkerIdLease;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Durable queue of created-but-not-yet-inserted notifications: a Redis stream read by the WriteBehindWriter
+ * consumer group, plus a hash of the same entries by id so reads can see them before the insert. Entries
+ * stay in the consumer's pending list until {@link #ack} runs after the commit, so a writer that crashes
+ * replays them on restart, and entries of a writer that never comes back are claimed by another one.
+ */
+@Slf4j
+@Service
+public class WriteBehindLog {
+
+    // hash tag keeps both keys in the same cluster slot so the scripts can touch them together
+    static final String STREAM_KEY = "{notifications:write-behind}:stream";
+    static final String PENDING_KEY = "{notifications:write-behind}:pending";
+    static final String DEAD_LETTER_KEY = "{notifications:write-behind}:dead-letter";
+    static final String GROUP = "notification-writer";
+    private static final List<String> KEYS = List.of(STREAM_KEY, PENDING_KEY);
+
+    private static final RedisScript<String> APPEND_SCRIPT = RedisScript.of(new ClassPathResource("redis/write-behind-append.lua"), String.class);
+    private static final RedisScript<Long> ACK_SCRIPT = RedisScript.of(new ClassPathResource("redis/write-behind-ack.lua"), Long.class);
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final WriteBehindProperties properties;
+    private final Consumer consumer;
+
+    public WriteBehindLog(StringRedisTemplate redis, ObjectMapper objectMapper, WriteBehindProperties properties,
+                          WorkerIdLease workerIdLease) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        // one consumer per instance: a restart on the same host finds its own pending entries again, and the
+        // entries of an instance that never comes back are left for claimStale on the others
+        this.consumer = Consumer.from(GROUP, "writer-" + workerIdLease.workerId() + "@" + hostName());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    // false when disabled or Redis failed; the caller then inserts synchronously
+    public boolean append(Notification notification) {
+        if (!properties.isEnabled()) return false;
+
+        try {
+            String json = objectMapper.writeValueAsString(Payload.of(notification));
+            redis.execute(APPEND_SCRIPT, KEYS, String.valueOf(notification.getId()), json);
+            return true;
+        } catch (Exception e) {
+            log.error("WriteBehindLog append Error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public Optional<Notification> find(Long id) {
+        if (!properties.isEnabled()) return Optional.empty();
+
+        try {
+            Object json = redis.opsForHash().get(PENDING_KEY, String.valueOf(id));
+            return json == null ? Optional.empty() : Optional.of(objectMapper.readValue((String) json, Payload.class).toNotification());
+        } catch (Exception e) {
+            log.error("WriteBehindLog find Error: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void createGroup() {
+        try {
+            redis.opsForStream().createGroup(STREAM_KEY, ReadOffset.from("0"), GROUP);
+        } catch (Exception e) {
+            // BUSYGROUP: created by an earlier start or another instance
+            log.debug("WriteBehindLog createGroup: {}", e.getMessage());
+        }
+    }
+
+    // entries delivered to this writer before but never acknowledged: a crash, a failed flush or a claim
+    public List<Entry> readUnacknowledged(int count) {
+        return read(count, ReadOffset.from("0"));
+    }
+
+    public List<Entry> readNew(int count) {
+        return read(count, ReadOffset.lastConsumed());
+    }
+
+    public void ack(List<Entry> entries) {
+        if (entries.isEmpty()) return;
+
+        List<String> args = new ArrayList<>(2 + entries.size() * 2);
+        args.add(GROUP);
+        args.add(String.valueOf(entries.size()));
+        entries.forEach(entry -> args.add(entry.recordId()));
+        entries.stream().map(Entry::notification).filter(Objects::nonNull).forEach(n -> args.add(String.valueOf(n.getId())));
+        redis.execute(ACK_SCRIPT, KEYS, args.toArray());
+    }
+
+    // keeps an entry that could not be inserted, with the reason, for an operator to resolve; throws when
+    // Redis fails, so the entry stays unacknowledged and the flush is retried
+    public void deadLetter(Notification notification, String reason) {
+        try {
+            redis.opsForStream().add(DEAD_LETTER_KEY, Map.of(
+                    "payload", objectMapper.writeValueAsString(Payload.of(notification)),
+                    "reason", String.valueOf(reason)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // moves entries other writers left unacknowledged past claimIdle to this writer; returns how many
+    public int claimStale(int count) {
+        List<RecordId> stale = new ArrayList<>();
+        for (PendingMessage message : redis.opsForStream().pending(STREAM_KEY, GROUP, Range.unbounded(), count)) {
+            if (!message.getConsumerName().equals(consumer.getName())
+                    && message.getElapsedTimeSinceLastDelivery().compareTo(properties.getClaimIdle()) >= 0) {
+                stale.add(message.getId());
+            }
+        }
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        return redis.opsForStream().claim(STREAM_KEY, GROUP, consumer.getName(), properties.getClaimIdle(),
+                stale.toArray(RecordId[]::new)).size();
+    }
+
+    // read(Consumer, StreamReadOptions, StreamOffset<K>...) is generic varargs; the single offset is safe
+    @SuppressWarnings("unchecked")
+    private List<Entry> read(int count, ReadOffset offset) {
+        List<MapRecord<String, Object, Object>> records = redis.opsForStream().read(consumer,
+                StreamReadOptions.empty().count(count), StreamOffset.create(STREAM_KEY, offset));
+        if (records == null) {
+            return List.of();
+        }
+        List<Entry> entries = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            entries.add(new Entry(record.getId().getValue(), parse(record.getId(), record.getValue().get("payload"))));
+        }
+        return entries;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    private Notification parse(RecordId id, Object json) {
+        try {
+            return objectMapper.readValue((String) json, Payload.class).toNotification();
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("WriteBehindLog parse Error: {}, entry: {}", e.getMessage(), id);
+            return null;
+        }
+    }
+
+    // notification is null for an entry that could not be read; it is acknowledged and dropped
+    public record Entry(String recordId, Notification notification) {
+    }
+
+    record Payload(Long id, NotificationType type, String recipient, String subject, String content,
+                   String idempotencyKey, LocalDateTime createdAt) {
+
+        static Payload of(Notification n) {
+            return new Payload(n.getId(), n.getType(), n.getRecipient(), n.getSubject(), n.getContent(),
+                    n.getIdempotencyKey(), n.getCreatedAt());
+        }
+
+        Notification toNotification() {
+            return Notification.builder()
+                    .id(id)
+                    .type(type)
+                    .recipient(recipient)
+                    .subject(subject)
+                    .content(content)
+                    .idempotencyKey(idempotencyKey)
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .build();
+        }
+    }
+}
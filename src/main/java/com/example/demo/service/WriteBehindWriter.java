@@ -0,0 +1,201 @@
+package com.example.demo.service;
+
+import com.example.demo.config.WriteBehindProperties;
+import com.example.demo.constants.NotificationChange;
+import com.example.demo.model.Notification;
+import com.example.demo.mq.RocketMQService;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.service.WriteBehindLog.Entry;
+import com.example.demo.sharding.ShardRouter;
+import com.example.demo.stream.NotificationEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Drains the write-behind log into MySQL with multi-row inserts, one transaction per shard and batch, and
+ * publishes the notifications in that transaction, so OUTBOX mode keeps its guarantee. Entries are only
+ * acknowledged after the commit: a failed flush stays pending and is retried on the next poll, and rows
+ * that already exist with the same content (a crash between commit and acknowledge) are skipped on replay.
+ * A row that collides with a different notification is a conflict: it is counted and dead-lettered, never
+ * dropped silently.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindWriter {
+
+    private final WriteBehindLog writeBehindLog;
+    private final NotificationRepository notificationRepository;
+    private final RocketMQService rocketMQService;
+    private final InboxService inboxService;
+    private final NotificationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final WriteBehindProperties properties;
+    private final Counter flushed;
+    private final Counter dropped;
+    private final Counter conflicts;
+    private final Counter failures;
+    private final Timer batchLatency;
+
+    public WriteBehindWriter(WriteBehindLog writeBehindLog, NotificationRepository notificationRepository,
+                             RocketMQService rocketMQService, InboxService inboxService, NotificationEventPublisher eventPublisher,
+                             ShardRouter shardRouter, WriteBehindProperties properties, MeterRegistry meterRegistry) {
+        this.writeBehindLog = writeBehindLog;
+        this.notificationRepository = notificationRepository;
+        this.rocketMQService = rocketMQService;
+        this.inboxService = inboxService;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.flushed = Counter.builder("notification.write-behind.flushed").register(meterRegistry);
+        this.dropped = Counter.builder("notification.write-behind.dropped").register(meterRegistry);
+        this.conflicts = Counter.builder("notification.write-behind.conflicts").register(meterRegistry);
+        this.failures = Counter.builder("notification.write-behind.failures").register(meterRegistry);
+        this.batchLatency = Timer.builder("notification.write-behind.batch.latency").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writeBehindLog.createGroup();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.write-behind.poll-interval-ms:100}")
+    public void poll() {
+        try {
+            // replays what a previous run of this instance left unacknowledged before taking new entries
+            List<Entry> unacknowledged = writeBehindLog.readUnacknowledged(properties.getBatchSize());
+            if (!unacknowledged.isEmpty()) {
+                flush(unacknowledged);
+                return;
+            }
+            for (int i = 0; i < properties.getMaxBatchesPerPoll(); i++) {
+                List<Entry> batch = writeBehindLog.readNew(properties.getBatchSize());
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                if (batch.size() < properties.getBatchSize()) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            failures.increment();
+            log.error("Write-behind flush Error: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.write-behind.claim-interval-ms:30000}")
+    public void claimStale() {
+        try {
+            int claimed = writeBehindLog.claimStale(properties.getBatchSize());
+            if (claimed > 0) {
+                log.warn("Write-behind entries claimed from an unresponsive writer - Count: {}", claimed);
+            }
+        } catch (Exception e) {
+            log.error("Write-behind claim Error: {}", e.getMessage());
+        }
+    }
+
+    void flush(List<Entry> entries) {
+        batchLatency.record(() -> {
+            Map<Integer, List<Notification>> byShard = new TreeMap<>();
+            for (Entry entry : entries) {
+                if (entry.notification() == null) {
+                    dropped.increment();
+                    continue;
+                }
+                byShard.computeIfAbsent(shardRouter.shardOf(entry.notification().getId()), shard -> new ArrayList<>())
+                        .add(entry.notification());
+            }
+            byShard.forEach(this::persist);
+            writeBehindLog.ack(entries);
+        });
+    }
+
+    private void persist(int shard, List<Notification> notifications) {
+        List<Conflict> rejected = new ArrayList<>();
+        try {
+            flushed.increment(shardRouter.inTransaction(shard, () -> insert(notifications, rejected)));
+        } catch (DataIntegrityViolationException e) {
+            log.error("Write-behind batch rejected, retrying row by row - Shard: {}, Reason: {}", shard, e.getMessage());
+            rejected.clear();
+            for (Notification notification : notifications) {
+                try {
+                    flushed.increment(shardRouter.inTransaction(shard, () -> insert(List.of(notification), rejected)));
+                } catch (DataIntegrityViolationException violation) {
+                    if (isRetriedKey(shard, notification)) {
+                        // the same request under the same Idempotency-Key, raced past the Redis reservation
+                        dropped.increment();
+                        log.warn("Write-behind duplicate dropped - ID: {}, Key: {}", notification.getId(), notification.getIdempotencyKey());
+                    } else {
+                        rejected.add(new Conflict(notification, violation.getMessage()));
+                    }
+                }
+            }
+        }
+        // after the commit, so a rolled-back batch does not dead-letter rows it retries later
+        for (Conflict conflict : rejected) {
+            writeBehindLog.deadLetter(conflict.notification(), conflict.reason());
+            conflicts.increment();
+            log.error("Write-behind row dead-lettered - ID: {}, Reason: {}", conflict.notification().getId(), conflict.reason());
+        }
+    }
+
+    private int insert(List<Notification> notifications, List<Conflict> rejected) {
+        Map<Long, Notification> existing = new HashMap<>();
+        notificationRepository.findAllById(notifications.stream().map(Notification::getId).toList())
+                .forEach(stored -> existing.put(stored.getId(), stored));
+        List<Notification> toInsert = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            Notification stored = existing.get(notification.getId());
+            if (stored == null) {
+                toInsert.add(notification);
+            } else if (!sameContent(stored, notification)) {
+                // two writers on the same worker id generated the same id for different notifications
+                rejected.add(new Conflict(notification, "Id already holds notification for " + stored.getRecipient()));
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return 0;
+        }
+        notificationRepository.insertAll(toInsert);
+        rocketMQService.sendBatch(toInsert.stream().map(NotificationService::mapToResponse).toList());
+        inboxService.evictAll(toInsert.stream().map(Notification::getRecipient).filter(Objects::nonNull).toList());
+        eventPublisher.publish(NotificationChange.CREATED, toInsert.stream().map(NotificationService::mapToRecentResponse).toList());
+        return toInsert.size();
+    }
+
+    private boolean isRetriedKey(int shard, Notification notification) {
+        if (notification.getIdempotencyKey() == null) return false;
+
+        return shardRouter.onShard(shard, () -> notificationRepository.findByIdempotencyKey(notification.getIdempotencyKey()))
+                .filter(stored -> sameContent(stored, notification))
+                .isPresent();
+    }
+
+    // created_at is left out: the column may round what the entry carries
+    private static boolean sameContent(Notification stored, Notification pending) {
+        return stored.getType() == pending.getType()
+                && Objects.equals(stored.getRecipient(), pending.getRecipient())
+                && Objects.equals(stored.getSubject(), pending.getSubject())
+                && Objects.equals(stored.getContent(), pending.getContent())
+                && Objects.equals(stored.getIdempotencyKey(), pending.getIdempotencyKey());
+    }
+
+    private record Conflict(Notification notification, String reason) {
+    }
+}
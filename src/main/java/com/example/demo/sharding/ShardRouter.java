@@ -0,0 +1,138 @@
+package com.example.demo.sharding;
+
+import com.example.demo.config.ShardingProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard a notification lives on and points the current thread's connections at it.
+ * Recipients hash to a shard, so a recipient's inbox never spans shards; ids carry their shard, so
+ * lookups by id need no directory. A transaction is bound to one shard before its first statement and
+ * cannot switch afterwards. With sharding disabled everything runs on shard 0, i.e. spring.datasource.
+ */
+@Component
+public class ShardRouter {
+
+    private static final Object BOUND_SHARD = new Object();
+
+    private final int shardCount;
+    private final long shardedIdFloor;
+    private final SnowflakeIdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService fanOutExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("shard-fan-out-", 0).factory());
+
+    public ShardRouter(ShardingProperties properties, WorkerIdLease workerIdLease, PlatformTransactionManager transactionManager) {
+        if (properties.shardCount() > SnowflakeIdGenerator.MAX_SHARDS) {
+            throw new IllegalArgumentException("At most " + SnowflakeIdGenerator.MAX_SHARDS + " shards are supported");
+        }
+        if (properties.isEnabled() && properties.getShardedSince() == null) {
+            throw new IllegalStateException("notification.sharding.sharded-since must be set when sharding is enabled");
+        }
+        this.shardCount = properties.shardCount();
+        this.shardedIdFloor = properties.isEnabled()
+                ? SnowflakeIdGenerator.firstIdAt(properties.getShardedSince().toEpochMilli())
+                : Long.MAX_VALUE;
+        this.idGenerator = new SnowflakeIdGenerator(workerIdLease);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(String recipient) {
+        if (shardCount == 1) return 0;
+
+        // String.hashCode is stable across JVMs; the finalizer spreads similar addresses over all shards
+        int h = recipient.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, shardCount);
+    }
+
+    // ids from before the cut-over all live on shard 0, whatever their bits say
+    public int shardOf(long id) {
+        return id < shardedIdFloor ? 0 : SnowflakeIdGenerator.shardOf(id);
+    }
+
+    public long nextId(int shard) {
+        return idGenerator.nextId(shard);
+    }
+
+    // routes the surrounding transaction; call before its first statement
+    public void bind(int shard) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("bind requires an active transaction; use onShard outside one");
+        }
+        Integer bound = (Integer) TransactionSynchronizationManager.getResource(BOUND_SHARD);
+        if (bound != null) {
+            if (bound != shard) {
+                throw new IllegalStateException("Transaction is bound to shard " + bound + ", cannot switch to " + shard);
+            }
+            return;
+        }
+        Integer previous = ShardContext.set(shard);
+        TransactionSynchronizationManager.bindResource(BOUND_SHARD, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BOUND_SHARD);
+                ShardContext.restore(previous);
+            }
+        });
+    }
+
+    // for work that opens its own transactions, e.g. repository calls made outside a service transaction
+    public <T> T onShard(int shard, Supplier<T> action) {
+        Integer previous = ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    public <T> T inTransaction(int shard, Supplier<T> action) {
+        return onShard(shard, () -> transactionTemplate.execute(status -> action.get()));
+    }
+
+    // results in shard order; shards are queried concurrently, a single shard on the calling thread
+    public <T> List<T> onEachShard(IntFunction<T> action) {
+        if (shardCount == 1) {
+            return List.of(onShard(0, () -> action.apply(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(target, () -> action.apply(target)), fanOutExecutor));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.sharding;
+
+/**
+ * Time-ordered 63-bit ids: 41 bits of milliseconds since 2025-01-01, 6 bits of shard, 6 bits of worker and
+ * a 10-bit sequence. The shard bits let any id be routed without a lookup. Ids stay unique and increasing
+ * when the clock steps back or a millisecond's sequence runs out: generation then continues on a logical
+ * clock slightly ahead of the wall clock instead of blocking. Generation stops while the worker id's
+ * {@link WorkerIdLease} has lapsed.
+ */
+public class SnowflakeIdGenerator {
+
+    static final long EPOCH_MILLIS = 1_735_689_600_000L;
+
+    private static final int SEQUENCE_BITS = 10;
+    private static final int WORKER_BITS = 6;
+    private static final int SHARD_BITS = 6;
+    private static final int WORKER_SHIFT = SEQUENCE_BITS;
+    private static final int SHARD_SHIFT = WORKER_SHIFT + WORKER_BITS;
+    private static final int TIMESTAMP_SHIFT = SHARD_SHIFT + SHARD_BITS;
+
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    public static final int MAX_WORKERS = 1 << WORKER_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final WorkerIdLease lease;
+    private final long worker;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public SnowflakeIdGenerator(int workerId) {
+        this(WorkerIdLease.fixed(workerId));
+    }
+
+    public SnowflakeIdGenerator(WorkerIdLease lease) {
+        this.lease = lease;
+        this.worker = lease.workerId();
+    }
+
+    public long nextId(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard must be between 0 and " + (MAX_SHARDS - 1) + ": " + shard);
+        }
+        lease.checkHeld();
+        long millis;
+        long seq;
+        synchronized (this) {
+            long now = currentMillis() - EPOCH_MILLIS;
+            if (now > lastMillis) {
+                lastMillis = now;
+                sequence = 0;
+            } else if (++sequence > SEQUENCE_MASK) {
+                lastMillis++;
+                sequence = 0;
+            }
+            millis = lastMillis;
+            seq = sequence;
+        }
+        return millis << TIMESTAMP_SHIFT | (long) shard << SHARD_SHIFT | worker << WORKER_SHIFT | seq;
+    }
+
+    // the shard bits of a generated id; ids below 2^22 carry no timestamp and map to shard 0. Routing goes
+    // through ShardRouter, which also sends larger AUTO_INCREMENT ids from before the cut-over to shard 0
+    public static int shardOf(long id) {
+        return id >>> TIMESTAMP_SHIFT == 0 ? 0 : (int) (id >>> SHARD_SHIFT & (MAX_SHARDS - 1));
+    }
+
+    public static long epochMillisOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+
+    // the smallest id any shard can generate at epochMillis; ids below it were all generated earlier
+    public static long firstIdAt(long epochMillis) {
+        return Math.max(0, epochMillis - EPOCH_MILLIS) << TIMESTAMP_SHIFT;
+    }
+
+    long currentMillis() {
+        return System.currentTimeMillis();
+    }
+}
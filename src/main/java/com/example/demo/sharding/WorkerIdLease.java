@@ -0,0 +1,122 @@
+package com.example.demo.sharding;
+
+import com.example.demo.config.ShardingProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The Snowflake worker id of this instance. Two instances on the same worker id generate the same ids, so
+ * unless notification.sharding.worker-id pins one, the first free id is leased from Redis at startup and
+ * renewed in the background. Should renewals fail until the lease runs out, another instance may take the
+ * id: {@link #checkHeld()} then throws and no more ids are generated until this instance holds it again.
+ */
+@Slf4j
+@Component
+public class WorkerIdLease {
+
+    static final String KEY_PREFIX = "notification:worker-id:";
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of(new ClassPathResource("redis/lease-renew.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(new ClassPathResource("redis/lock-release.lua"), Long.class);
+
+    private final StringRedisTemplate redis;
+    private final int workerId;
+    private final String token = UUID.randomUUID().toString();
+    private final Duration lease;
+    private volatile long validUntilNanos = Long.MAX_VALUE;
+
+    @Autowired
+    public WorkerIdLease(ShardingProperties properties, StringRedisTemplate redis) {
+        if (properties.getWorkerId() != null) {
+            this.redis = null;
+            this.workerId = checkRange(properties.getWorkerId());
+            this.lease = null;
+            return;
+        }
+        this.redis = redis;
+        this.lease = properties.getWorkerLease();
+        long start = System.nanoTime();
+        this.workerId = acquire();
+        this.validUntilNanos = start + lease.toNanos();
+        log.info("Leased worker id {}", workerId);
+    }
+
+    private WorkerIdLease(int workerId) {
+        this.redis = null;
+        this.workerId = checkRange(workerId);
+        this.lease = null;
+    }
+
+    // a configured worker id: never expires, nothing to renew
+    public static WorkerIdLease fixed(int workerId) {
+        return new WorkerIdLease(workerId);
+    }
+
+    public int workerId() {
+        return workerId;
+    }
+
+    public void checkHeld() {
+        if (System.nanoTime() - validUntilNanos > 0) {
+            throw new IllegalStateException("Lease on worker id " + workerId + " has lapsed");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.sharding.worker-lease-renew-interval-ms:10000}")
+    public void renew() {
+        if (redis == null) return;
+
+        long start = System.nanoTime();
+        try {
+            String key = KEY_PREFIX + workerId;
+            long ms = lease.toMillis();
+            boolean renewed = Long.valueOf(1).equals(redis.execute(RENEW_SCRIPT, List.of(key), token, String.valueOf(ms)))
+                    // the lease ran out while Redis was unreachable; take it back if no one else has
+                    || Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(key, token, lease));
+            if (renewed) {
+                validUntilNanos = start + lease.toNanos();
+            } else {
+                log.error("WorkerIdLease renew Error: worker id {} is held by another instance", workerId);
+            }
+        } catch (Exception e) {
+            log.error("WorkerIdLease renew Error: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        if (redis == null) return;
+
+        try {
+            redis.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + workerId), token);
+        } catch (Exception e) {
+            log.error("WorkerIdLease release Error: {}", e.getMessage());
+        }
+    }
+
+    private int acquire() {
+        for (int id = 0; id < SnowflakeIdGenerator.MAX_WORKERS; id++) {
+            if (Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(KEY_PREFIX + id, token, lease))) {
+                return id;
+            }
+        }
+        throw new IllegalStateException("All " + SnowflakeIdGenerator.MAX_WORKERS
+                + " worker ids are leased; set notification.sharding.worker-id or stop an instance");
+    }
+
+    private static int checkRange(int workerId) {
+        if (workerId < 0 || workerId >= SnowflakeIdGenerator.MAX_WORKERS) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + (SnowflakeIdGenerator.MAX_WORKERS - 1) + ": " + workerId);
+        }
+        return workerId;
+    }
+}
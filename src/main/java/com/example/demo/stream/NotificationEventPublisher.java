@@ -0,0 +1,73 @@
+package com.example.demo.stream;
+
+import com.example.demo.config.StreamProperties;
+import com.example.demo.constants.NotificationChange;
+import com.example.demo.dto.NotificationChangeEvent;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Publishes notification changes once to a Redis channel; every node's {@link NotificationStreamBroadcaster}
+ * fans them out to its own stream subscribers. One message per write carries all of its events, so a batch
+ * create is a single PUBLISH. Inside a transaction the message goes out after commit, so a subscriber that
+ * reacts with a GET finds the row. Failures are logged and counted; streams are best effort.
+ */
+@Slf4j
+@Component
+public class NotificationEventPublisher {
+
+    public static final String CHANNEL = "notifications:events";
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final StreamProperties properties;
+    private final Counter failures;
+
+    public NotificationEventPublisher(StringRedisTemplate redis, ObjectMapper objectMapper, StreamProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.failures = Counter.builder("notification.stream.publish.failures").register(meterRegistry);
+    }
+
+    public void publish(NotificationChange change, RecentNotificationResponse notification) {
+        publish(change, List.of(notification));
+    }
+
+    public void publish(NotificationChange change, List<RecentNotificationResponse> notifications) {
+        if (!properties.isEnabled() || notifications.isEmpty()) return;
+
+        List<NotificationChangeEvent> events = notifications.stream()
+                .map(n -> NotificationChangeEvent.builder().change(change).notification(n).build())
+                .toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(events);
+                }
+            });
+        } else {
+            send(events);
+        }
+    }
+
+    private void send(List<NotificationChangeEvent> events) {
+        try {
+            redis.convertAndSend(CHANNEL, objectMapper.writeValueAsString(events));
+        } catch (Exception e) {
+            failures.increment();
+            log.error("NotificationEventPublisher publish Error: {}", e.getMessage());
+        }
+    }
+}
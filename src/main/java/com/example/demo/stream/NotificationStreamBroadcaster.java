@@ -0,0 +1,183 @@
+package com.example.demo.stream;
+
+import com.example.demo.config.StreamProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationChangeEvent;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.exception.StreamCapacityException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans the change events of {@link NotificationEventPublisher#CHANNEL} out to this node's stream subscribers.
+ * Each event is parsed and rendered to an SSE frame once, and the same frame is queued for every subscriber
+ * whose filter matches. A subscriber drains its own bounded queue on a virtual thread, so the Redis listener
+ * never waits on a socket; a subscriber whose queue is full is disconnected rather than buffered without
+ * bound, and an EventSource client simply reconnects.
+ */
+@Slf4j
+@Component
+public class NotificationStreamBroadcaster implements MessageListener {
+
+    private static final TypeReference<List<NotificationChangeEvent>> EVENTS_TYPE = new TypeReference<>() {
+    };
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("keep-alive").build();
+
+    private final ObjectMapper objectMapper;
+    private final StreamProperties properties;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter dropped;
+
+    public NotificationStreamBroadcaster(ObjectMapper objectMapper, StreamProperties properties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.dropped = Counter.builder("notification.stream.dropped").register(meterRegistry);
+        Gauge.builder("notification.stream.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    // either filter may be null; both must match when given
+    public SseEmitter subscribe(NotificationType type, String recipient) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        subscribe(emitter, type, recipient);
+        return emitter;
+    }
+
+    void subscribe(SseEmitter emitter, NotificationType type, String recipient) {
+        if (!properties.isEnabled()) {
+            throw new StreamCapacityException("Notification stream is disabled");
+        }
+        // checked before adding, so concurrent subscribes may overshoot the limit by a few
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new StreamCapacityException("Notification stream has " + subscribers.size() + " subscribers");
+        }
+        Subscriber subscriber = new Subscriber(emitter, type, recipient, new ArrayBlockingQueue<>(properties.getBufferSize()));
+        // the writer exists before the subscriber is visible, so a removal always reaches it
+        subscriber.writer = Thread.ofVirtual().name("notification-stream").unstarted(() -> drain(subscriber));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscriber.writer.start();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (subscribers.isEmpty()) return;
+
+        List<NotificationChangeEvent> events;
+        try {
+            events = objectMapper.readValue(message.getBody(), EVENTS_TYPE);
+        } catch (Exception e) {
+            log.error("NotificationStreamBroadcaster parse Error: {}", e.getMessage());
+            return;
+        }
+        for (NotificationChangeEvent event : events) {
+            Set<DataWithMediaType> frame = null;
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.matches(event.getNotification())) {
+                    continue;
+                }
+                if (frame == null) {
+                    frame = render(event);
+                    if (frame == null) break;
+                }
+                offer(subscriber, frame);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, HEARTBEAT);
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void offer(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        if (!subscriber.queue.offer(frame)) {
+            dropped.increment();
+            log.warn("Stream subscriber too slow, disconnected - Buffered: {}", subscriber.queue.size());
+            remove(subscriber);
+        }
+    }
+
+    private Set<DataWithMediaType> render(NotificationChangeEvent event) {
+        RecentNotificationResponse notification = event.getNotification();
+        try {
+            return SseEmitter.event()
+                    .id(String.valueOf(notification.getId()))
+                    .name(event.getChange().name().toLowerCase(Locale.ROOT))
+                    .data(objectMapper.writeValueAsString(notification), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (Exception e) {
+            log.error("NotificationStreamBroadcaster render Error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // the writer completes the emitter itself: it may be inside a send that holds the emitter's lock
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.writer.interrupt();
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (subscribers.contains(subscriber)) {
+                subscriber.emitter.send(subscriber.queue.take());
+            }
+            subscriber.emitter.complete();
+        } catch (InterruptedException e) {
+            subscriber.emitter.complete();
+        } catch (Exception e) {
+            // the client went away; the container reports it through onError as well
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final NotificationType type;
+        private final String recipient;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private Thread writer;
+
+        private Subscriber(SseEmitter emitter, NotificationType type, String recipient, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.type = type;
+            this.recipient = recipient;
+            this.queue = queue;
+        }
+
+        private boolean matches(RecentNotificationResponse notification) {
+            return notification != null
+                    && (type == null || type == notification.getType())
+                    && (recipient == null || recipient.equals(notification.getRecipient()));
+        }
+    }
+}
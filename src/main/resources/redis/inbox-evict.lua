@@ -0,0 +1,8 @@
+-- KEYS = inbox first-page keys (HASH version, page), ARGV[1] = ttl ms; the version outlives the page so a
+-- fill that read the old version can no longer write
+for _, key in ipairs(KEYS) do
+    redis.call('HINCRBY', key, 'version', 1)
+    redis.call('HDEL', key, 'page')
+    redis.call('PEXPIRE', key, ARGV[1])
+end
+return #KEYS
@@ -0,0 +1,8 @@
+-- KEYS[1] = inbox first-page key (HASH version, page), ARGV[1] = version read before the query ('' for none),
+-- ARGV[2] = page json, ARGV[3] = ttl ms; a fill that raced an eviction finds a newer version and is dropped
+if (redis.call('HGET', KEYS[1], 'version') or '') ~= ARGV[1] then
+    return 0
+end
+redis.call('HSET', KEYS[1], 'page', ARGV[2])
+redis.call('PEXPIRE', KEYS[1], ARGV[3])
+return 1
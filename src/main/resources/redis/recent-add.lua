@@ -0,0 +1,18 @@
+-- KEYS[1] = recent index (ZSET member -> createdAt millis), KEYS[2] = recent items (HASH member -> JSON)
+-- KEYS[3] = rendered feed (HASH epoch, version, json), KEYS[4] = feed version (HASH epoch, counter)
+-- ARGV[1] = max size, ARGV[2] = ttl seconds, then (score, member, json) triplets
+local maxSize = tonumber(ARGV[1])
+for i = 3, #ARGV, 3 do
+    redis.call('ZADD', KEYS[1], ARGV[i], ARGV[i + 1])
+    redis.call('HSET', KEYS[2], ARGV[i + 1], ARGV[i + 2])
+end
+local excess = redis.call('ZCARD', KEYS[1]) - maxSize
+if excess > 0 then
+    local evicted = redis.call('ZRANGE', KEYS[1], 0, excess - 1)
+    redis.call('ZREMRANGEBYRANK', KEYS[1], 0, excess - 1)
+    redis.call('HDEL', KEYS[2], unpack(evicted))
+end
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+redis.call('EXPIRE', KEYS[2], ARGV[2])
+render_feed() -- recent-render.lua
+return redis.call('ZCARD', KEYS[1])
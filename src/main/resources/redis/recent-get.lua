@@ -0,0 +1,7 @@
+-- KEYS[1] = recent index, KEYS[2] = recent items, ARGV[1] = max size
+-- returns the item JSON newest first
+local members = redis.call('ZREVRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1)
+if #members == 0 then
+    return {}
+end
+return redis.call('HMGET', KEYS[2], unpack(members))
@@ -0,0 +1,8 @@
+-- KEYS[1] = recent index, KEYS[2] = recent items, KEYS[3] = rendered feed, KEYS[4] = feed version (HASH epoch, counter)
+-- ARGV[1] = member
+redis.call('HDEL', KEYS[2], ARGV[1])
+if redis.call('ZREM', KEYS[1], ARGV[1]) == 0 then
+    return 0
+end
+render_feed() -- recent-render.lua
+return 1
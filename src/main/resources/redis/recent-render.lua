@@ -0,0 +1,28 @@
+-- loaded in front of recent-add, recent-update and recent-remove (RedisService.withRender), which share
+-- their KEYS: KEYS[1] = recent index, KEYS[2] = recent items, KEYS[3] = rendered feed, KEYS[4] = feed version (HASH epoch, counter)
+-- re-renders KEYS[3] under the next KEYS[4] version; it expires with the index. The epoch is set whenever the
+-- counter (re)starts, e.g. after a flush or a failover to an empty replica, so an old epoch's version never matches
+local function render_feed()
+    local members = redis.call('ZREVRANGE', KEYS[1], 0, -1)
+    local items = {}
+    if #members > 0 then
+        for _, json in ipairs(redis.call('HMGET', KEYS[2], unpack(members))) do
+            if json then
+                items[#items + 1] = json
+            end
+        end
+    end
+    local ttl = redis.call('PTTL', KEYS[1])
+    if ttl > 0 then
+        local counter = redis.call('HINCRBY', KEYS[4], 'counter', 1)
+        if counter == 1 then
+            local now = redis.call('TIME')
+            redis.call('HSET', KEYS[4], 'epoch', now[1] .. string.format('%06d', now[2]))
+        end
+        redis.call('HSET', KEYS[3], 'epoch', redis.call('HGET', KEYS[4], 'epoch'), 'version', counter,
+            'json', '[' .. table.concat(items, ',') .. ']')
+        redis.call('PEXPIRE', KEYS[3], ttl)
+    else
+        redis.call('DEL', KEYS[3])
+    end
+end
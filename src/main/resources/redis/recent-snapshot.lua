@@ -0,0 +1,10 @@
+-- KEYS[3] = rendered feed (HASH epoch, version, json), ARGV[1], ARGV[2] = epoch and version the caller already holds
+-- returns {} when there is no rendered feed, {epoch, version} when the caller's copy is current, else {epoch, version, json}
+local feed = redis.call('HMGET', KEYS[3], 'epoch', 'version', 'json')
+if not feed[1] or not feed[2] then
+    return {}
+end
+if feed[1] == ARGV[1] and feed[2] == ARGV[2] then
+    return {feed[1], feed[2]}
+end
+return feed
@@ -0,0 +1,8 @@
+-- KEYS[1] = recent index, KEYS[2] = recent items, KEYS[3] = rendered feed, KEYS[4] = feed version (HASH epoch, counter)
+-- ARGV[1] = member, ARGV[2] = json; only entries still inside the window are rewritten
+if not redis.call('ZSCORE', KEYS[1], ARGV[1]) then
+    return 0
+end
+redis.call('HSET', KEYS[2], ARGV[1], ARGV[2])
+render_feed() -- recent-render.lua
+return 1
@@ -0,0 +1,17 @@
+-- KEYS[1] = write-behind stream, KEYS[2] = pending items, ARGV[1] = consumer group, ARGV[2] = entry count,
+-- then the entry ids followed by the notification ids; the rows are committed, so drop every trace at once
+local count = tonumber(ARGV[2])
+local entries = {}
+local ids = {}
+for i = 1, count do
+    entries[i] = ARGV[2 + i]
+end
+for i = 3 + count, #ARGV do
+    ids[#ids + 1] = ARGV[i]
+end
+redis.call('XACK', KEYS[1], ARGV[1], unpack(entries))
+redis.call('XDEL', KEYS[1], unpack(entries))
+if #ids > 0 then
+    redis.call('HDEL', KEYS[2], unpack(ids))
+end
+return count
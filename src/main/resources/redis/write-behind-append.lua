@@ -0,0 +1,4 @@
+-- KEYS[1] = write-behind stream, KEYS[2] = pending items (HASH id -> JSON), ARGV[1] = notification id, ARGV[2] = JSON
+-- the hash serves reads until the writer has inserted the row
+redis.call('HSET', KEYS[2], ARGV[1], ARGV[2])
+return redis.call('XADD', KEYS[1], '*', 'payload', ARGV[2])
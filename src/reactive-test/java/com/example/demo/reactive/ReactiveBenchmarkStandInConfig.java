@@ -0,0 +1,169 @@
+package com.example.demo.reactive;
+
+import com.example.demo.config.InboxProperties;
+import com.example.demo.config.RecentFeedProperties;
+import com.example.demo.config.RocketMQPublisherProperties;
+import com.example.demo.dto.InboxPageResponse;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-ins for Redis and RocketMQ, the reactive counterpart of the servlet benchmark's
+ * BenchmarkStandInConfig, so the load test compares the two stacks over the same fakes.
+ */
+@Configuration
+@Profile("benchmark")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBenchmarkStandInConfig {
+
+    @Bean
+    @Primary
+    public ReactiveRecentFeed benchmarkRecentFeed(RecentFeedProperties properties) {
+        return new InMemoryRecentFeed(properties);
+    }
+
+    @Bean
+    @Primary
+    public ReactiveNotificationCache benchmarkNotificationCache() {
+        return new InMemoryNotificationCache();
+    }
+
+    @Bean
+    @Primary
+    public ReactiveInboxService benchmarkInboxService(InboxProperties properties) {
+        return new NoopInboxService(properties);
+    }
+
+    @Bean
+    @Primary
+    public ReactiveRocketMQPublisher benchmarkPublisher(@Value("${benchmark.mq.latency-ms:0}") long latencyMillis) {
+        return new DelayedPublisher(latencyMillis);
+    }
+
+    static class InMemoryRecentFeed extends ReactiveRecentFeed {
+
+        private final ConcurrentSkipListMap<Long, RecentNotificationResponse> recent = new ConcurrentSkipListMap<>();
+        private final int maxSize;
+
+        InMemoryRecentFeed(RecentFeedProperties properties) {
+            super(null, null, properties);
+            this.maxSize = properties.getMaxSize();
+        }
+
+        @Override
+        public Mono<Void> addAll(List<RecentNotificationResponse> items) {
+            return Mono.fromRunnable(() -> {
+                items.forEach(n -> recent.put(n.getId(), n));
+                while (recent.size() > maxSize) {
+                    recent.pollFirstEntry();
+                }
+            });
+        }
+
+        @Override
+        public Mono<Void> update(RecentNotificationResponse n) {
+            return Mono.fromRunnable(() -> recent.computeIfPresent(n.getId(), (id, old) -> n));
+        }
+
+        @Override
+        public Mono<List<RecentNotificationResponse>> get() {
+            return Mono.fromSupplier(() -> new ArrayList<>(recent.descendingMap().values()));
+        }
+
+        @Override
+        public Mono<Void> remove(Long id) {
+            return Mono.fromRunnable(() -> recent.remove(id));
+        }
+    }
+
+    static class InMemoryNotificationCache extends ReactiveNotificationCache {
+
+        private final Map<Long, NotificationResponse> entries = new ConcurrentHashMap<>();
+
+        InMemoryNotificationCache() {
+            super(null, null);
+        }
+
+        @Override
+        public Mono<NotificationResponse> get(Long id) {
+            return Mono.justOrEmpty(entries.get(id));
+        }
+
+        @Override
+        public Mono<Void> put(NotificationResponse notification) {
+            return Mono.fromRunnable(() -> entries.put(notification.getId(), notification));
+        }
+
+        @Override
+        public Mono<Void> evict(Long id) {
+            return Mono.fromRunnable(() -> entries.remove(id));
+        }
+    }
+
+    static class NoopInboxService extends ReactiveInboxService {
+
+        NoopInboxService(InboxProperties properties) {
+            super(null, null, null, properties);
+        }
+
+        @Override
+        public Mono<InboxPageResponse> getPage(String recipient, String after, Integer limit) {
+            return Mono.just(InboxPageResponse.builder().items(List.of()).build());
+        }
+
+        @Override
+        public Mono<Void> evict(String recipient) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Void> evictAll(Collection<String> recipients) {
+            return Mono.empty();
+        }
+    }
+
+    // answers after a fixed latency to simulate a slow broker, without holding a thread; tracks sends in flight
+    static class DelayedPublisher extends ReactiveRocketMQPublisher {
+
+        private final Duration latency;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+
+        DelayedPublisher(long latencyMillis) {
+            super(null, new RocketMQPublisherProperties(), new SimpleMeterRegistry());
+            this.latency = Duration.ofMillis(latencyMillis);
+        }
+
+        @Override
+        public Mono<Void> send(List<NotificationResponse> notifications) {
+            if (latency.isZero()) {
+                return Mono.empty();
+            }
+            return Mono.delay(latency)
+                    .doOnSubscribe(s -> peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                    .doFinally(signal -> inFlight.decrementAndGet())
+                    .then();
+        }
+
+        int peakInFlight() {
+            return peakInFlight.get();
+        }
+    }
+}
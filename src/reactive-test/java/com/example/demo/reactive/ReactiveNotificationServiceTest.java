@@ -0,0 +1,236 @@
+package com.example.demo.reactive;
+
+import com.example.demo.config.IdempotencyProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.CreateNotificationRequest;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.exception.IdempotencyKeyMismatchException;
+import com.example.demo.exception.NotificationNotFoundException;
+import com.example.demo.model.Notification;
+import com.example.demo.sharding.SnowflakeIdGenerator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveNotificationServiceTest {
+
+    @Mock
+    private ReactiveNotificationRepository notificationRepository;
+
+    @Mock
+    private ReactiveRecentFeed recentFeed;
+
+    @Mock
+    private ReactiveInboxService inboxService;
+
+    @Mock
+    private ReactiveNotificationCache notificationCache;
+
+    @Mock
+    private ReactiveRocketMQPublisher publisher;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private Validator validator;
+
+    private ReactiveNotificationService notificationService;
+    private CreateNotificationRequest createRequest;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // no transaction in a unit test: the operator hands the pipeline back unchanged
+        lenient().when(transactionalOperator.transactional(any(Flux.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(recentFeed.addAll(anyList())).thenReturn(Mono.empty());
+        lenient().when(inboxService.evictAll(anyList())).thenReturn(Mono.empty());
+        lenient().when(publisher.send(anyList())).thenReturn(Mono.empty());
+
+        notificationService = new ReactiveNotificationService(notificationRepository, recentFeed, inboxService, notificationCache,
+                publisher, new SnowflakeIdGenerator(0), transactionalOperator, new IdempotencyProperties(), validator);
+
+        createRequest = CreateNotificationRequest.builder()
+                .type(NotificationType.EMAIL)
+                .recipient("test@example.com")
+                .subject("Test Subject")
+                .content("Test Content")
+                .build();
+    }
+
+    @Test
+    void createNotification_InsertsThenUpdatesFeedAndPublishes() {
+        when(notificationRepository.insertIdempotencyKeys(anyList())).thenReturn(Mono.just(1L));
+        when(notificationRepository.insertAll(anyList())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(notificationService.createNotification(createRequest, "key-1"))
+                .assertNext(result -> {
+                    assertFalse(result.replayed());
+                    assertEquals("test@example.com", result.value().getRecipient());
+                    assertNotNull(result.value().getId());
+                })
+                .verifyComplete();
+
+        InOrder inOrder = inOrder(notificationRepository, publisher);
+        inOrder.verify(notificationRepository).insertIdempotencyKeys(anyList());
+        inOrder.verify(notificationRepository).insertAll(anyList());
+        inOrder.verify(publisher).send(anyList());
+        verify(recentFeed).addAll(anyList());
+        verify(inboxService).evictAll(List.of("test@example.com"));
+    }
+
+    @Test
+    void createNotification_DuplicateKeySameRequest_ReplaysStoredRow() {
+        when(notificationRepository.insertIdempotencyKeys(anyList())).thenReturn(Mono.error(new DuplicateKeyException("duplicate")));
+        when(notificationRepository.insertAll(anyList())).thenReturn(Mono.just(1L));
+        when(notificationRepository.findByIdempotencyKeys(List.of("key-1"))).thenReturn(Flux.just(stored(7L, "Test Content")));
+
+        StepVerifier.create(notificationService.createNotification(createRequest, "key-1"))
+                .assertNext(result -> {
+                    assertTrue(result.replayed());
+                    assertEquals(7L, result.value().getId());
+                })
+                .verifyComplete();
+
+        verify(publisher, never()).send(anyList());
+    }
+
+    @Test
+    void createNotification_DuplicateKeyDifferentRequest_Rejected() {
+        when(notificationRepository.insertIdempotencyKeys(anyList())).thenReturn(Mono.error(new DuplicateKeyException("duplicate")));
+        when(notificationRepository.insertAll(anyList())).thenReturn(Mono.just(1L));
+        when(notificationRepository.findByIdempotencyKeys(List.of("key-1"))).thenReturn(Flux.just(stored(7L, "Other Content")));
+
+        StepVerifier.create(notificationService.createNotification(createRequest, "key-1"))
+                .expectError(IdempotencyKeyMismatchException.class)
+                .verify();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createNotifications_InvalidItemReportedValidItemsInserted() {
+        CreateNotificationRequest invalid = CreateNotificationRequest.builder().type(NotificationType.SMS).build();
+        ConstraintViolation<CreateNotificationRequest> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Recipient is required");
+        when(validator.validate(any(CreateNotificationRequest.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0) == invalid ? Set.of(violation) : Set.of());
+        when(notificationRepository.insertIdempotencyKeys(anyList())).thenReturn(Mono.just(0L));
+        when(notificationRepository.insertAll(anyList())).thenReturn(Mono.just(2L));
+
+        StepVerifier.create(notificationService.createNotifications(List.of(createRequest, invalid, createRequest), null))
+                .assertNext(result -> {
+                    assertEquals(3, result.value().getTotal());
+                    assertEquals(2, result.value().getSucceeded());
+                    assertEquals(1, result.value().getFailed());
+                    assertEquals("Recipient is required", result.value().getResults().get(1).getError());
+                    assertTrue(result.value().getResults().get(2).isSuccess());
+                })
+                .verifyComplete();
+
+        verify(notificationRepository).insertAll(argThatSize(2));
+        verify(publisher).send(argThatSize(2));
+    }
+
+    @Test
+    void getNotificationById_CacheHit_SkipsDatabase() {
+        NotificationResponse cached = NotificationResponse.builder().id(1L).build();
+        when(notificationCache.get(1L)).thenReturn(Mono.just(cached));
+
+        StepVerifier.create(notificationService.getNotificationById(1L))
+                .expectNext(cached)
+                .verifyComplete();
+
+        verify(notificationRepository, never()).findById(any());
+        verify(notificationCache, never()).put(any());
+    }
+
+    @Test
+    void getNotificationById_CacheMiss_LoadsAndCaches() {
+        when(notificationCache.get(7L)).thenReturn(Mono.empty());
+        when(notificationRepository.findById(7L)).thenReturn(Mono.just(stored(7L, "Test Content")));
+        when(notificationCache.put(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(notificationService.getNotificationById(7L))
+                .assertNext(response -> assertEquals(7L, response.getId()))
+                .verifyComplete();
+
+        verify(notificationCache).put(any(NotificationResponse.class));
+    }
+
+    @Test
+    void getNotificationById_NotFound() {
+        when(notificationCache.get(9L)).thenReturn(Mono.empty());
+        when(notificationRepository.findById(9L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(notificationService.getNotificationById(9L))
+                .expectError(NotificationNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void getRecentNotifications_EmptyFeed_LoadsFromDatabaseAndRefills() {
+        RecentNotificationResponse row = RecentNotificationResponse.builder().id(1L).build();
+        when(recentFeed.get()).thenReturn(Mono.just(List.of()));
+        when(recentFeed.getMaxSize()).thenReturn(100);
+        when(notificationRepository.findRecent(anyInt())).thenReturn(Flux.just(row));
+
+        StepVerifier.create(notificationService.getRecentNotifications())
+                .expectNext(List.of(row))
+                .verifyComplete();
+
+        verify(recentFeed).addAll(List.of(row));
+    }
+
+    @Test
+    void deleteNotification_NotFound() {
+        when(notificationRepository.findById(9L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(notificationService.deleteNotification(9L))
+                .expectError(NotificationNotFoundException.class)
+                .verify();
+
+        verify(notificationRepository, never()).deleteById(any());
+    }
+
+    private static Notification stored(Long id, String content) {
+        LocalDateTime now = LocalDateTime.now();
+        return Notification.builder()
+                .id(id)
+                .type(NotificationType.EMAIL)
+                .recipient("test@example.com")
+                .subject("Test Subject")
+                .content(content)
+                .idempotencyKey("key-1")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private static <T> List<T> argThatSize(int size) {
+        return argThat(list -> list != null && list.size() == size);
+    }
+}
@@ -0,0 +1,19 @@
+-- the tables the reactive variant touches, for the in-memory H2 database of the benchmark profile
+CREATE TABLE IF NOT EXISTS notifications (
+    id              BIGINT       NOT NULL PRIMARY KEY,
+    type            VARCHAR(255) NOT NULL,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255),
+    content         TEXT,
+    idempotency_key VARCHAR(80),
+    created_at      DATETIME(6)  NOT NULL,
+    updated_at      DATETIME(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_created ON notifications (recipient, created_at, id);
+
+CREATE TABLE IF NOT EXISTS notification_idempotency_keys (
+    idempotency_key VARCHAR(80) NOT NULL PRIMARY KEY,
+    notification_id BIGINT      NOT NULL,
+    created_at      DATETIME(6) NOT NULL
+);
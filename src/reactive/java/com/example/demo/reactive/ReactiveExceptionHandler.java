@@ -0,0 +1,58 @@
+package com.example.demo.reactive;
+
+import com.example.demo.exception.ErrorResponse;
+import com.example.demo.handler.GlobalExceptionHandler;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.MissingRequestValueException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link GlobalExceptionHandler} plus the WebFlux forms of its request errors, with the same messages.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler extends GlobalExceptionHandler {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleWebExchangeBindException(WebExchangeBindException ex) {
+        StringBuilder message = new StringBuilder("Validation failed: ");
+        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+            message.append(error.getDefaultMessage()).append("; ");
+        }
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(400)
+                .message(message.toString().trim())
+                .build();
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInputException(ServerWebInputException ex) {
+        String message = "Invalid input";
+        if (ex instanceof MissingRequestValueException missing) {
+            message = String.format("Missing required parameter '%s'", missing.getName());
+        } else if (ex.getCause() instanceof TypeMismatchException mismatch && ex.getMethodParameter() != null) {
+            message = String.format("Invalid value '%s' for parameter '%s'. Expected type: %s",
+                    mismatch.getValue(), ex.getMethodParameter().getParameterName(),
+                    ex.getMethodParameter().getParameterType().getSimpleName());
+        } else if (String.valueOf(ex.getMostSpecificCause().getMessage()).contains("NotificationType")) {
+            message = "Invalid notification type. Valid types are: EMAIL, SMS";
+        }
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(400)
+                .message(message)
+                .build();
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.reactive;
+
+import com.example.demo.config.InboxProperties;
+import com.example.demo.dto.InboxPageResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.service.InboxCursor;
+import com.example.demo.service.InboxService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link InboxService}, sharing its first-page cache keys and cursor format.
+ */
+@Slf4j
+public class ReactiveInboxService {
+
+    private static final TypeReference<List<RecentNotificationResponse>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    private final ReactiveNotificationRepository notificationRepository;
+    private final ReactiveStringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final InboxProperties properties;
+
+    public ReactiveInboxService(ReactiveNotificationRepository notificationRepository, ReactiveStringRedisTemplate redis,
+                                ObjectMapper objectMapper, InboxProperties properties) {
+        this.notificationRepository = notificationRepository;
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public Mono<InboxPageResponse> getPage(String recipient, String after, Integer limit) {
+        int pageSize = limit == null
+                ? properties.getDefaultLimit()
+                : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+
+        Mono<List<RecentNotificationResponse>> rows;
+        if (after == null || after.isBlank()) {
+            rows = firstPage(recipient);
+        } else {
+            rows = Mono.fromCallable(() -> InboxCursor.decode(after))
+                    .flatMap(cursor -> notificationRepository
+                            .findInboxPageAfter(recipient, cursor.createdAt(), cursor.id(), pageSize + 1)
+                            .collectList());
+        }
+
+        return rows.map(page -> {
+            boolean hasMore = page.size() > pageSize;
+            List<RecentNotificationResponse> items = hasMore ? page.subList(0, pageSize) : page;
+            return InboxPageResponse.builder()
+                    .items(items)
+                    .hasMore(hasMore)
+                    .nextCursor(hasMore ? InboxCursor.encode(items.get(items.size() - 1)) : null)
+                    .build();
+        });
+    }
+
+    public Mono<Void> evict(String recipient) {
+        if (recipient == null) return Mono.empty();
+
+        return redis.execute(InboxService.EVICT_SCRIPT, List.of(InboxService.KEY_PREFIX + recipient), List.of(ttlMillis()))
+                .then()
+                .onErrorResume(e -> {
+                    log.error("ReactiveInboxService evict Error: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> evictAll(Collection<String> recipients) {
+        if (recipients == null || recipients.isEmpty()) return Mono.empty();
+
+        List<String> keys = recipients.stream().distinct().map(r -> InboxService.KEY_PREFIX + r).toList();
+        return redis.execute(InboxService.EVICT_SCRIPT, keys, List.of(ttlMillis()))
+                .then()
+                .onErrorResume(e -> {
+                    log.error("ReactiveInboxService evictAll Error: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // the cached first page always holds maxLimit + 1 rows so any requested limit can be sliced from it; the fill
+    // carries the version read with the miss, like InboxService's
+    private Mono<List<RecentNotificationResponse>> firstPage(String recipient) {
+        String key = InboxService.KEY_PREFIX + recipient;
+        return redis.<Object, Object>opsForHash().multiGet(key, InboxService.FIELDS)
+                .map(cached -> cached.get(1) != null
+                        ? new Lookup(readPage((String) cached.get(1)), null)
+                        : new Lookup(null, cached.get(0) == null ? "" : (String) cached.get(0)))
+                .onErrorResume(e -> {
+                    log.error("ReactiveInboxService read Error: {}", e.getMessage());
+                    return Mono.just(new Lookup(null, null));
+                })
+                .flatMap(lookup -> lookup.page() != null ? Mono.just(lookup.page()) : load(recipient, key, lookup.version()));
+    }
+
+    // version null: Redis failed, so the page is served without a fill
+    private Mono<List<RecentNotificationResponse>> load(String recipient, String key, String version) {
+        Mono<List<RecentNotificationResponse>> rows = notificationRepository
+                .findInboxFirstPage(recipient, properties.getMaxLimit() + 1)
+                .collectList();
+        if (version == null) {
+            return rows;
+        }
+        return rows.flatMap(page -> Mono.fromCallable(() -> objectMapper.writeValueAsString(page))
+                .flatMap(json -> redis.execute(InboxService.FILL_SCRIPT, List.of(key), List.of(version, json, ttlMillis())).then())
+                .onErrorResume(e -> {
+                    log.error("ReactiveInboxService write Error: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(page));
+    }
+
+    private List<RecentNotificationResponse> readPage(String json) {
+        try {
+            return objectMapper.readValue(json, PAGE_TYPE);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String ttlMillis() {
+        return String.valueOf(properties.getFirstPageTtl().toMillis());
+    }
+
+    private record Lookup(List<RecentNotificationResponse> page, String version) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.reactive;
+
+import com.example.demo.cache.JitteredTtl;
+import com.example.demo.config.CacheExpiryProperties;
+import com.example.demo.config.CacheSerializationProperties;
+import com.example.demo.config.IdempotencyProperties;
+import com.example.demo.config.InboxProperties;
+import com.example.demo.config.RecentFeedProperties;
+import com.example.demo.config.RedisConfig;
+import com.example.demo.config.RocketMQPublisherProperties;
+import com.example.demo.config.ShardingProperties;
+import com.example.demo.sharding.SnowflakeIdGenerator;
+import com.example.demo.sharding.WorkerIdLease;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Entry point of the WebFlux variant (built with -Preactive): the /notifications API of DemoApplication
+ * over R2DBC, the reactive Redis client and async RocketMQ sends, for a single database. Only this package
+ * is scanned; the servlet application scans it too but skips it, as it is not a reactive web application.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableScheduling
+@EnableConfigurationProperties({RecentFeedProperties.class, InboxProperties.class, CacheExpiryProperties.class,
+        CacheSerializationProperties.class, RocketMQPublisherProperties.class, ShardingProperties.class,
+        IdempotencyProperties.class})
+public class ReactiveNotificationApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveNotificationApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+
+    // Tomcat is on the classpath for the servlet application and would otherwise be picked as the reactive server
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    // the servlet variant's mapper, so both write the same JSON to clients and to Redis
+    @Bean
+    public ObjectMapper objectMapper() {
+        return new RedisConfig().objectMapper();
+    }
+
+    // renewed by the lease's own @Scheduled method, hence @EnableScheduling
+    @Bean
+    public WorkerIdLease workerIdLease(ShardingProperties properties, StringRedisTemplate redis) {
+        return new WorkerIdLease(properties, redis);
+    }
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(ShardingProperties properties, WorkerIdLease workerIdLease) {
+        if (properties.isEnabled()) {
+            throw new IllegalStateException("The reactive variant runs on a single database; disable notification.sharding");
+        }
+        return new SnowflakeIdGenerator(workerIdLease);
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, Object> notificationCacheRedisTemplate(ReactiveRedisConnectionFactory connectionFactory,
+                                                                                ObjectMapper objectMapper,
+                                                                                CacheSerializationProperties properties) {
+        RedisSerializer<Object> valueSerializer = new RedisConfig().redisValueSerializer(objectMapper, properties);
+        return new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext.<String, Object>newSerializationContext(RedisSerializer.string())
+                .value(valueSerializer)
+                .build());
+    }
+
+    @Bean
+    public ReactiveNotificationRepository reactiveNotificationRepository(DatabaseClient databaseClient) {
+        return new ReactiveNotificationRepository(databaseClient);
+    }
+
+    @Bean
+    public ReactiveRecentFeed reactiveRecentFeed(ReactiveStringRedisTemplate redis, ObjectMapper objectMapper,
+                                                 RecentFeedProperties properties) {
+        return new ReactiveRecentFeed(redis, objectMapper, properties);
+    }
+
+    @Bean
+    public ReactiveNotificationCache reactiveNotificationCache(ReactiveRedisTemplate<String, Object> notificationCacheRedisTemplate,
+                                                               CacheExpiryProperties properties) {
+        return new ReactiveNotificationCache(notificationCacheRedisTemplate, new JitteredTtl(properties.getTtl(), properties.getJitter()));
+    }
+
+    @Bean
+    public ReactiveInboxService reactiveInboxService(ReactiveNotificationRepository repository, ReactiveStringRedisTemplate redis,
+                                                     ObjectMapper objectMapper, InboxProperties properties) {
+        return new ReactiveInboxService(repository, redis, objectMapper, properties);
+    }
+
+    @Bean
+    public ReactiveRocketMQPublisher reactiveRocketMQPublisher(RocketMQTemplate rocketMQTemplate, RocketMQPublisherProperties properties,
+                                                               MeterRegistry meterRegistry) {
+        return new ReactiveRocketMQPublisher(rocketMQTemplate, properties, meterRegistry);
+    }
+
+    @Bean
+    public ReactiveNotificationService reactiveNotificationService(ReactiveNotificationRepository repository, ReactiveRecentFeed recentFeed,
+                                                                   ReactiveInboxService inboxService, ReactiveNotificationCache cache,
+                                                                   ReactiveRocketMQPublisher publisher, SnowflakeIdGenerator idGenerator,
+                                                                   TransactionalOperator transactionalOperator,
+                                                                   IdempotencyProperties idempotencyProperties, Validator validator) {
+        return new ReactiveNotificationService(repository, recentFeed, inboxService, cache, publisher, idGenerator,
+                transactionalOperator, idempotencyProperties, validator);
+    }
+}
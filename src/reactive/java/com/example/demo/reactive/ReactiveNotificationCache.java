@@ -0,0 +1,64 @@
+package com.example.demo.reactive;
+
+import com.example.demo.cache.JitteredTtl;
+import com.example.demo.cache.TwoLevelCacheManager;
+import com.example.demo.dto.NotificationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * The "notification" id cache over the reactive Redis client. Entries share the servlet variant's keys,
+ * serializer and jittered TTL, so both variants read and fill one cache; writes also publish the
+ * invalidation the servlet nodes' local tier listens for. Redis failures are logged and read as a miss.
+ */
+@Slf4j
+public class ReactiveNotificationCache {
+
+    static final String KEY_PREFIX = "notification::";
+    private static final String SEPARATOR = "|";
+
+    private final ReactiveRedisTemplate<String, Object> redis;
+    private final JitteredTtl ttl;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public ReactiveNotificationCache(ReactiveRedisTemplate<String, Object> redis, JitteredTtl ttl) {
+        this.redis = redis;
+        this.ttl = ttl;
+    }
+
+    public Mono<NotificationResponse> get(Long id) {
+        return redis.opsForValue().get(KEY_PREFIX + id)
+                .ofType(NotificationResponse.class)
+                .onErrorResume(e -> {
+                    log.error("ReactiveNotificationCache get Error: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> put(NotificationResponse notification) {
+        return redis.opsForValue().set(KEY_PREFIX + notification.getId(), notification, ttl.getTimeToLive(notification.getId(), notification))
+                .then(invalidate(notification.getId()))
+                .onErrorResume(e -> {
+                    log.error("ReactiveNotificationCache put Error: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> evict(Long id) {
+        return redis.delete(KEY_PREFIX + id)
+                .then(invalidate(id))
+                .onErrorResume(e -> {
+                    log.error("ReactiveNotificationCache evict Error: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // same message format as TwoLevelCacheManager; this node has no local tier, so it never listens
+    private Mono<Void> invalidate(Long id) {
+        return redis.convertAndSend(TwoLevelCacheManager.INVALIDATION_CHANNEL, nodeId + SEPARATOR + "notification" + SEPARATOR + id)
+                .then();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.reactive;
+
+import com.example.demo.controller.NotificationController;
+import com.example.demo.dto.BatchCreateNotificationResponse;
+import com.example.demo.dto.CreateNotificationRequest;
+import com.example.demo.dto.InboxPageResponse;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.dto.UpdateNotificationRequest;
+import com.example.demo.service.IdempotencyService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The {@link NotificationController} contract on WebFlux: same paths, headers, status codes and bodies.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/notifications")
+public class ReactiveNotificationController {
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final ReactiveNotificationService notificationService;
+
+    public ReactiveNotificationController(ReactiveNotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<NotificationResponse>> create(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                             @Valid @RequestBody CreateNotificationRequest request) {
+        return notificationService.createNotification(request, idempotencyKey)
+                .map(result -> withReplayed(ResponseEntity.status(201), idempotencyKey, result).body(result.value()));
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchCreateNotificationResponse>> createBatch(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                                             @RequestBody List<CreateNotificationRequest> requests) {
+        return notificationService.createNotifications(requests, idempotencyKey)
+                .map(result -> withReplayed(ResponseEntity.status(batchStatus(result.value())), idempotencyKey, result)
+                        .body(result.value()));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<NotificationResponse>> get(@PathVariable Long id) {
+        return notificationService.getNotificationById(id).map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<InboxPageResponse>> getInbox(@RequestParam String recipient,
+                                                            @RequestParam(required = false) String after,
+                                                            @RequestParam(required = false) Integer limit) {
+        return notificationService.getInbox(recipient, after, limit).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/recent")
+    public Mono<ResponseEntity<List<RecentNotificationResponse>>> getRecent() {
+        return notificationService.getRecentNotifications().map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<NotificationResponse>> update(@PathVariable Long id, @Valid @RequestBody UpdateNotificationRequest request) {
+        return notificationService.updateNotification(id, request).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
+        return notificationService.deleteNotification(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    // the servlet controller only sets the header when a key was sent
+    private static ResponseEntity.BodyBuilder withReplayed(ResponseEntity.BodyBuilder builder, String idempotencyKey,
+                                                          IdempotencyService.Result<?> result) {
+        return idempotencyKey == null ? builder : builder.header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()));
+    }
+
+    private static HttpStatus batchStatus(BatchCreateNotificationResponse response) {
+        return response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.reactive;
+
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.model.Notification;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The notifications table over R2DBC, with the same statements the JPA repositories issue. Named parameters
+ * are rewritten to the driver's bind markers, so the SQL runs on MySQL and on H2 in MySQL mode alike.
+ */
+public class ReactiveNotificationRepository {
+
+    // one multi-row INSERT per chunk keeps the statement, and the parameters bound to it, bounded
+    static final int INSERT_CHUNK_SIZE = 500;
+
+    private static final String COLUMNS = "id, type, recipient, subject, content, idempotency_key, created_at, updated_at";
+    private static final String SUMMARY_COLUMNS = "id, type, recipient, subject, created_at";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveNotificationRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // callers pass at most INSERT_CHUNK_SIZE rows
+    public Mono<Long> insertAll(List<Notification> notifications) {
+        StringBuilder sql = new StringBuilder("INSERT INTO notifications (" + COLUMNS + ") VALUES ");
+        for (int i = 0; i < notifications.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(String.format(
+                    "(:id%1$d, :type%1$d, :recipient%1$d, :subject%1$d, :content%1$d, :key%1$d, :createdAt%1$d, :updatedAt%1$d)", i));
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification n = notifications.get(i);
+            spec = spec.bind("id" + i, n.getId())
+                    .bind("type" + i, n.getType().name())
+                    .bind("recipient" + i, n.getRecipient())
+                    .bind("content" + i, n.getContent())
+                    .bind("createdAt" + i, n.getCreatedAt())
+                    .bind("updatedAt" + i, n.getUpdatedAt());
+            spec = n.getSubject() == null ? spec.bindNull("subject" + i, String.class) : spec.bind("subject" + i, n.getSubject());
+            spec = n.getIdempotencyKey() == null ? spec.bindNull("key" + i, String.class) : spec.bind("key" + i, n.getIdempotencyKey());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    // claims the keys of the keyed rows; a key that is already taken fails the statement with a duplicate key
+    public Mono<Long> insertIdempotencyKeys(List<Notification> notifications) {
+        List<Notification> keyed = notifications.stream().filter(n -> n.getIdempotencyKey() != null).toList();
+        if (keyed.isEmpty()) {
+            return Mono.just(0L);
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO notification_idempotency_keys (idempotency_key, notification_id, created_at) VALUES ");
+        for (int i = 0; i < keyed.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(String.format("(:key%1$d, :id%1$d, :createdAt%1$d)", i));
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < keyed.size(); i++) {
+            spec = spec.bind("key" + i, keyed.get(i).getIdempotencyKey())
+                    .bind("id" + i, keyed.get(i).getId())
+                    .bind("createdAt" + i, keyed.get(i).getCreatedAt());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Notification> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM notifications WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveNotificationRepository::toNotification)
+                .one();
+    }
+
+    public Flux<Notification> findByIdempotencyKeys(Collection<String> keys) {
+        return databaseClient.sql("SELECT n.id, n.type, n.recipient, n.subject, n.content, k.idempotency_key, n.created_at, n.updated_at "
+                        + "FROM notification_idempotency_keys k JOIN notifications n ON n.id = k.notification_id "
+                        + "WHERE k.idempotency_key IN (:keys)")
+                .bind("keys", keys)
+                .map(ReactiveNotificationRepository::toNotification)
+                .all();
+    }
+
+    public Flux<RecentNotificationResponse> findRecent(int limit) {
+        return databaseClient.sql("SELECT " + SUMMARY_COLUMNS + " FROM notifications ORDER BY created_at DESC, id DESC LIMIT :limit")
+                .bind("limit", limit)
+                .map(ReactiveNotificationRepository::toSummary)
+                .all();
+    }
+
+    // inbox queries select summary columns only (no content TEXT) and seek on (recipient, created_at, id)
+    public Flux<RecentNotificationResponse> findInboxFirstPage(String recipient, int limit) {
+        return databaseClient.sql("SELECT " + SUMMARY_COLUMNS + " FROM notifications WHERE recipient = :recipient "
+                        + "ORDER BY created_at DESC, id DESC LIMIT :limit")
+                .bind("recipient", recipient)
+                .bind("limit", limit)
+                .map(ReactiveNotificationRepository::toSummary)
+                .all();
+    }
+
+    public Flux<RecentNotificationResponse> findInboxPageAfter(String recipient, LocalDateTime createdAt, Long id, int limit) {
+        return databaseClient.sql("SELECT " + SUMMARY_COLUMNS + " FROM notifications WHERE recipient = :recipient "
+                        + "AND (created_at < :createdAt OR (created_at = :createdAt AND id < :id)) "
+                        + "ORDER BY created_at DESC, id DESC LIMIT :limit")
+                .bind("recipient", recipient)
+                .bind("createdAt", createdAt)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveNotificationRepository::toSummary)
+                .all();
+    }
+
+    public Mono<Long> update(Notification notification) {
+        return databaseClient.sql("UPDATE notifications SET subject = :subject, content = :content, updated_at = :updatedAt WHERE id = :id")
+                .bind("subject", notification.getSubject())
+                .bind("content", notification.getContent())
+                .bind("updatedAt", notification.getUpdatedAt())
+                .bind("id", notification.getId())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM notifications WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Notification toNotification(Readable row) {
+        return Notification.builder()
+                .id(row.get("id", Long.class))
+                .type(NotificationType.valueOf(row.get("type", String.class)))
+                .recipient(row.get("recipient", String.class))
+                .subject(row.get("subject", String.class))
+                .content(row.get("content", String.class))
+                .idempotencyKey(row.get("idempotency_key", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+
+    private static RecentNotificationResponse toSummary(Readable row) {
+        return new RecentNotificationResponse(row.get("id", Long.class), NotificationType.valueOf(row.get("type", String.class)),
+                row.get("recipient", String.class), row.get("subject", String.class), row.get("created_at", LocalDateTime.class));
+    }
+}
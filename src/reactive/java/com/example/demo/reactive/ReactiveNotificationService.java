@@ -0,0 +1,281 @@
+package com.example.demo.reactive;
+
+import com.example.demo.config.IdempotencyProperties;
+import com.example.demo.dto.BatchCreateNotificationResponse;
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.CreateNotificationRequest;
+import com.example.demo.dto.InboxPageResponse;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.dto.UpdateNotificationRequest;
+import com.example.demo.exception.IdempotencyKeyMismatchException;
+import com.example.demo.exception.InvalidBatchRequestException;
+import com.example.demo.exception.NotificationNotFoundException;
+import com.example.demo.model.Notification;
+import com.example.demo.service.IdempotencyService;
+import com.example.demo.service.NotificationService;
+import com.example.demo.sharding.SnowflakeIdGenerator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking counterpart of {@link NotificationService} for a single (unsharded) database. Rows commit
+ * first; the recent feed, inbox and id cache are then updated and the event published, as the servlet
+ * variant does, without holding a connection while Redis and the broker answer. A repeated Idempotency-Key
+ * is detected by the key table alone: the duplicate insert fails and the stored rows are replayed.
+ */
+public class ReactiveNotificationService {
+
+    private final ReactiveNotificationRepository notificationRepository;
+    private final ReactiveRecentFeed recentFeed;
+    private final ReactiveInboxService inboxService;
+    private final ReactiveNotificationCache notificationCache;
+    private final ReactiveRocketMQPublisher publisher;
+    private final SnowflakeIdGenerator idGenerator;
+    private final TransactionalOperator transactionalOperator;
+    private final IdempotencyProperties idempotencyProperties;
+    private final Validator validator;
+
+    public ReactiveNotificationService(ReactiveNotificationRepository notificationRepository, ReactiveRecentFeed recentFeed,
+                                       ReactiveInboxService inboxService, ReactiveNotificationCache notificationCache,
+                                       ReactiveRocketMQPublisher publisher, SnowflakeIdGenerator idGenerator,
+                                       TransactionalOperator transactionalOperator, IdempotencyProperties idempotencyProperties,
+                                       Validator validator) {
+        this.notificationRepository = notificationRepository;
+        this.recentFeed = recentFeed;
+        this.inboxService = inboxService;
+        this.notificationCache = notificationCache;
+        this.publisher = publisher;
+        this.idGenerator = idGenerator;
+        this.transactionalOperator = transactionalOperator;
+        this.idempotencyProperties = idempotencyProperties;
+        this.validator = validator;
+    }
+
+    public Mono<IdempotencyService.Result<NotificationResponse>> createNotification(CreateNotificationRequest request, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            IdempotencyService.validateKey(idempotencyKey, idempotencyProperties.getMaxKeyLength());
+        }
+        Notification notification = newNotification(request, idempotencyKey);
+
+        return insert(List.of(notification))
+                .then(Mono.defer(() -> created(List.of(notification))))
+                .thenReturn(new IdempotencyService.Result<>(NotificationService.mapToResponse(notification), false))
+                .onErrorResume(DataIntegrityViolationException.class, e -> idempotencyKey == null
+                        ? Mono.error(e)
+                        : notificationRepository.findByIdempotencyKeys(List.of(idempotencyKey))
+                                .next()
+                                .switchIfEmpty(Mono.error(e))
+                                .map(existing -> replay(existing, request, idempotencyKey)));
+    }
+
+    // the whole batch commits in one transaction, one multi-row INSERT per chunk
+    public Mono<IdempotencyService.Result<BatchCreateNotificationResponse>> createNotifications(List<CreateNotificationRequest> requests,
+                                                                                                String idempotencyKey) {
+        if (requests == null || requests.isEmpty()) {
+            return Mono.error(new InvalidBatchRequestException("Batch must contain at least one notification"));
+        }
+        if (requests.size() > NotificationService.MAX_BATCH_SIZE) {
+            return Mono.error(new InvalidBatchRequestException("Batch cannot exceed " + NotificationService.MAX_BATCH_SIZE + " notifications"));
+        }
+        if (idempotencyKey != null) {
+            IdempotencyService.validateKey(idempotencyKey, idempotencyProperties.getMaxKeyLength());
+        }
+
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Integer> indexes = new ArrayList<>(requests.size());
+        List<Notification> toInsert = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i));
+            if (error != null) {
+                results[i] = BatchItemResult.builder().index(i).success(false).error(error).build();
+                continue;
+            }
+            indexes.add(i);
+            toInsert.add(newNotification(requests.get(i), batchItemKey(idempotencyKey, i)));
+        }
+
+        return insert(toInsert)
+                .then(Mono.defer(() -> created(toInsert)))
+                .then(Mono.fromSupplier(() -> {
+                    for (int i = 0; i < toInsert.size(); i++) {
+                        int index = indexes.get(i);
+                        results[index] = BatchItemResult.builder().index(index).success(true)
+                                .notification(NotificationService.mapToResponse(toInsert.get(i))).build();
+                    }
+                    return new IdempotencyService.Result<>(batchResponse(results, toInsert.size()), false);
+                }))
+                .onErrorResume(DataIntegrityViolationException.class, e -> idempotencyKey == null
+                        ? Mono.error(e)
+                        : findBatch(requests, idempotencyKey).switchIfEmpty(Mono.error(e)));
+    }
+
+    public Mono<NotificationResponse> getNotificationById(Long id) {
+        return notificationCache.get(id)
+                .switchIfEmpty(Mono.defer(() -> notificationRepository.findById(id)
+                        .map(NotificationService::mapToResponse)
+                        .flatMap(response -> notificationCache.put(response).thenReturn(response))))
+                .switchIfEmpty(Mono.error(() -> new NotificationNotFoundException(id)));
+    }
+
+    public Mono<List<RecentNotificationResponse>> getRecentNotifications() {
+        return recentFeed.get().flatMap(cached -> !cached.isEmpty()
+                ? Mono.just(cached)
+                : notificationRepository.findRecent(recentFeed.getMaxSize())
+                        .collectList()
+                        .flatMap(dbRecent -> recentFeed.addAll(dbRecent).thenReturn(dbRecent)));
+    }
+
+    public Mono<InboxPageResponse> getInbox(String recipient, String after, Integer limit) {
+        return inboxService.getPage(recipient, after, limit);
+    }
+
+    public Mono<NotificationResponse> updateNotification(Long id, UpdateNotificationRequest request) {
+        Mono<Notification> update = notificationRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotificationNotFoundException(id)))
+                .flatMap(notification -> {
+                    if (request.getSubject() != null && !request.getSubject().trim().isEmpty()) {
+                        notification.setSubject(request.getSubject());
+                    }
+                    if (request.getContent() != null && !request.getContent().trim().isEmpty()) {
+                        notification.setContent(request.getContent());
+                    }
+                    notification.setUpdatedAt(LocalDateTime.now());
+                    return notificationRepository.update(notification).thenReturn(notification);
+                });
+
+        return transactionalOperator.transactional(update)
+                .flatMap(updated -> {
+                    NotificationResponse response = NotificationService.mapToResponse(updated);
+                    return Mono.when(notificationCache.put(response),
+                                    recentFeed.update(NotificationService.mapToRecentResponse(updated)),
+                                    inboxService.evict(updated.getRecipient()))
+                            .thenReturn(response);
+                });
+    }
+
+    public Mono<Void> deleteNotification(Long id) {
+        Mono<Notification> delete = notificationRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotificationNotFoundException(id)))
+                .flatMap(notification -> notificationRepository.deleteById(id).thenReturn(notification));
+
+        return transactionalOperator.transactional(delete)
+                .flatMap(deleted -> Mono.when(notificationCache.evict(id), recentFeed.remove(id),
+                        inboxService.evict(deleted.getRecipient())));
+    }
+
+    // keys are claimed in the same transaction, so a duplicate key rolls the rows back with it
+    private Mono<Void> insert(List<Notification> notifications) {
+        if (notifications.isEmpty()) return Mono.empty();
+
+        List<List<Notification>> chunks = new ArrayList<>();
+        for (int from = 0; from < notifications.size(); from += ReactiveNotificationRepository.INSERT_CHUNK_SIZE) {
+            chunks.add(notifications.subList(from, Math.min(from + ReactiveNotificationRepository.INSERT_CHUNK_SIZE, notifications.size())));
+        }
+        return transactionalOperator.transactional(Flux.fromIterable(chunks)
+                        .concatMap(chunk -> notificationRepository.insertIdempotencyKeys(chunk)
+                                .then(notificationRepository.insertAll(chunk))))
+                .then();
+    }
+
+    // Redis and the broker answer independently, so the follow-ups run side by side; none of them fails the write
+    private Mono<Void> created(List<Notification> notifications) {
+        if (notifications.isEmpty()) return Mono.empty();
+
+        List<NotificationResponse> responses = notifications.stream().map(NotificationService::mapToResponse).toList();
+        List<RecentNotificationResponse> recentResponses = notifications.stream().map(NotificationService::mapToRecentResponse).toList();
+        return Mono.when(recentFeed.addAll(recentResponses),
+                inboxService.evictAll(notifications.stream().map(Notification::getRecipient).toList()),
+                publisher.send(responses));
+    }
+
+    private IdempotencyService.Result<NotificationResponse> replay(Notification existing, CreateNotificationRequest request,
+                                                                   String idempotencyKey) {
+        if (existing.getType() != request.getType()
+                || !Objects.equals(existing.getRecipient(), request.getRecipient())
+                || !Objects.equals(existing.getSubject(), request.getSubject())
+                || !Objects.equals(existing.getContent(), request.getContent())) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key " + idempotencyKey + " was already used with a different request");
+        }
+        return new IdempotencyService.Result<>(NotificationService.mapToResponse(existing), true);
+    }
+
+    // rebuilds the original batch response: stored items come from their rows, rejected ones are validated again
+    private Mono<IdempotencyService.Result<BatchCreateNotificationResponse>> findBatch(List<CreateNotificationRequest> requests,
+                                                                                        String idempotencyKey) {
+        List<String> keys = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            keys.add(batchItemKey(idempotencyKey, i));
+        }
+        return notificationRepository.findByIdempotencyKeys(keys)
+                .collectMap(Notification::getIdempotencyKey)
+                .filter(stored -> !stored.isEmpty())
+                .map(stored -> {
+                    BatchItemResult[] results = new BatchItemResult[requests.size()];
+                    for (int i = 0; i < requests.size(); i++) {
+                        Notification notification = stored.get(keys.get(i));
+                        if (notification != null) {
+                            results[i] = BatchItemResult.builder().index(i).success(true)
+                                    .notification(NotificationService.mapToResponse(notification)).build();
+                        } else {
+                            String error = validate(requests.get(i));
+                            results[i] = BatchItemResult.builder().index(i).success(false)
+                                    .error(error != null ? error : "Notification was not created").build();
+                        }
+                    }
+                    return new IdempotencyService.Result<>(batchResponse(results, stored.size()), true);
+                });
+    }
+
+    private Notification newNotification(CreateNotificationRequest request, String idempotencyKey) {
+        LocalDateTime now = LocalDateTime.now();
+        return Notification.builder()
+                .id(idGenerator.nextId(0))
+                .type(request.getType())
+                .recipient(request.getRecipient())
+                .subject(request.getSubject())
+                .content(request.getContent())
+                .idempotencyKey(idempotencyKey)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private static BatchCreateNotificationResponse batchResponse(BatchItemResult[] results, int succeeded) {
+        return BatchCreateNotificationResponse.builder()
+                .total(results.length)
+                .succeeded(succeeded)
+                .failed(results.length - succeeded)
+                .results(List.of(results))
+                .build();
+    }
+
+    private static String batchItemKey(String idempotencyKey, int index) {
+        return idempotencyKey == null ? null : idempotencyKey + ":" + index;
+    }
+
+    private String validate(CreateNotificationRequest request) {
+        if (request == null) {
+            return "Notification is required";
+        }
+        Set<ConstraintViolation<CreateNotificationRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.reactive;
+
+import com.example.demo.config.RecentFeedProperties;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.service.RedisService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link RedisService}: the same keys and Lua scripts, so both variants can
+ * share one recent feed. Redis failures are logged and read as an empty feed, as in the servlet variant.
+ */
+@Slf4j
+public class ReactiveRecentFeed {
+
+    private static final List<String> KEYS = RedisService.KEYS;
+
+    private static final RedisScript<Long> ADD_SCRIPT = RedisService.ADD_SCRIPT;
+    private static final RedisScript<Long> UPDATE_SCRIPT = RedisService.UPDATE_SCRIPT;
+    private static final RedisScript<Long> REMOVE_SCRIPT = RedisService.REMOVE_SCRIPT;
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GET_SCRIPT = RedisScript.of(new ClassPathResource("redis/recent-get.lua"), List.class);
+
+    private final ReactiveStringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final RecentFeedProperties properties;
+
+    public ReactiveRecentFeed(ReactiveStringRedisTemplate redis, ObjectMapper objectMapper, RecentFeedProperties properties) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public int getMaxSize() {
+        return properties.getMaxSize();
+    }
+
+    public Mono<Void> addAll(List<RecentNotificationResponse> items) {
+        if (items.isEmpty()) return Mono.empty();
+
+        return Mono.fromCallable(() -> {
+                    List<String> args = new ArrayList<>(2 + items.size() * 3);
+                    args.add(String.valueOf(properties.getMaxSize()));
+                    args.add(String.valueOf(properties.getTtl().toSeconds()));
+                    for (RecentNotificationResponse n : items) {
+                        args.add(String.valueOf(RedisService.score(n)));
+                        args.add(RedisService.member(n.getId()));
+                        args.add(objectMapper.writeValueAsString(n));
+                    }
+                    return args;
+                })
+                .flatMap(args -> redis.execute(ADD_SCRIPT, KEYS, args).then())
+                .onErrorResume(e -> {
+                    log.error("ReactiveRecentFeed addAll Error: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> update(RecentNotificationResponse n) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(n))
+                .flatMap(json -> redis.execute(UPDATE_SCRIPT, KEYS, List.of(RedisService.member(n.getId()), json)).then())
+                .onErrorResume(e -> {
+                    log.error("ReactiveRecentFeed update Error: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<List<RecentNotificationResponse>> get() {
+        return redis.execute(GET_SCRIPT, KEYS, List.of(String.valueOf(properties.getMaxSize())))
+                // a multi-bulk reply may arrive as one list or element by element, depending on the driver
+                .flatMapIterable(reply -> reply instanceof List<?> list ? list : List.of(reply))
+                .concatMap(item -> Mono.justOrEmpty(parse(item)))
+                .collectList()
+                .onErrorResume(e -> {
+                    log.error("ReactiveRecentFeed get Error: {}", e.getMessage());
+                    return Mono.just(List.of());
+                });
+    }
+
+    public Mono<Void> remove(Long id) {
+        return redis.execute(REMOVE_SCRIPT, KEYS, List.of(RedisService.member(id)))
+                .then()
+                .onErrorResume(e -> {
+                    log.error("ReactiveRecentFeed remove Error: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private RecentNotificationResponse parse(Object item) {
+        if (item == null) return null;
+
+        try {
+            return objectMapper.readValue(item.toString(), RecentNotificationResponse.class);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to convert item: {}, error: {}", item, e.getMessage());
+            return null;
+        }
+    }
+}
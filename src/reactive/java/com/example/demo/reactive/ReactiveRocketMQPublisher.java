@@ -0,0 +1,105 @@
+package com.example.demo.reactive;
+
+import com.example.demo.config.RocketMQPublisherProperties;
+import com.example.demo.config.RocketMQTopicConfig;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.mq.MessageOrdering;
+import com.example.demo.mq.NotificationMessages;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes notification events with the producer's async sends, so no thread waits on the broker. The
+ * returned Mono completes once the broker answered; a failed send is logged and counted and completes
+ * normally, as a failed publish in the servlet variant does not fail the request either. Ordered sends
+ * of one recipient go out one after another, so the next is only sent once the previous was stored.
+ */
+@Slf4j
+public class ReactiveRocketMQPublisher {
+
+    // keeps each batch comfortably below the broker's 4MB message size limit
+    static final int MAX_BATCH_SIZE = 256;
+
+    private final RocketMQTemplate rocketMQTemplate;
+    private final RocketMQPublisherProperties properties;
+    private final Counter sendErrors;
+
+    public ReactiveRocketMQPublisher(RocketMQTemplate rocketMQTemplate, RocketMQPublisherProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.properties = properties;
+        this.sendErrors = Counter.builder("notification.mq.send.failures")
+                .tag("status", "EXCEPTION")
+                .register(meterRegistry);
+    }
+
+    public Mono<Void> send(NotificationResponse notification) {
+        return send(List.of(notification));
+    }
+
+    public Mono<Void> send(List<NotificationResponse> notifications) {
+        if (notifications.isEmpty()) return Mono.empty();
+
+        if (properties.getOrdering() != MessageOrdering.ORDERLY) {
+            return Flux.fromIterable(chunks(notifications))
+                    .concatMap(chunk -> Mono.<SendResult>create(sink -> rocketMQTemplate.asyncSend(RocketMQTopicConfig.NOTIFICATION_TOPIC,
+                                    NotificationMessages.toMessages(chunk), callback(sink), properties.getSendTimeout().toMillis()))
+                            .doOnNext(result -> log.info("success to send batch - Size: {}, MessageId: {}, Status: {}",
+                                    chunk.size(), result.getMsgId(), result.getSendStatus()))
+                            .onErrorResume(e -> failed(chunk.size(), e)))
+                    .then();
+        }
+        // recipients are independent of each other, so only each recipient's own events are serialized
+        return Flux.fromIterable(NotificationMessages.byRecipient(notifications))
+                .flatMap(group -> Flux.fromIterable(group).concatMap(this::sendOrderly))
+                .then();
+    }
+
+    private Mono<Void> sendOrderly(NotificationResponse notification) {
+        return Mono.<SendResult>create(sink -> rocketMQTemplate.asyncSendOrderly(RocketMQTopicConfig.NOTIFICATION_TOPIC,
+                        NotificationMessages.toMessage(notification), NotificationMessages.hashKey(notification), callback(sink),
+                        properties.getSendTimeout().toMillis()))
+                .doOnNext(result -> log.info("success to send message - ID: {}, MessageId: {}, Status: {}",
+                        notification.getId(), result.getMsgId(), result.getSendStatus()))
+                .then()
+                .onErrorResume(e -> failed(1, e));
+    }
+
+    private <T> Mono<T> failed(int size, Throwable e) {
+        sendErrors.increment(size);
+        log.error("Fail to send message - Size: {}, 錯誤: {}", size, e.getMessage());
+        return Mono.empty();
+    }
+
+    private static SendCallback callback(MonoSink<SendResult> sink) {
+        return new SendCallback() {
+            @Override
+            public void onSuccess(SendResult sendResult) {
+                sink.success(sendResult);
+            }
+
+            @Override
+            public void onException(Throwable e) {
+                sink.error(e);
+            }
+        };
+    }
+
+    private static List<List<NotificationResponse>> chunks(List<NotificationResponse> notifications) {
+        List<List<NotificationResponse>> chunks = new ArrayList<>();
+        for (int from = 0; from < notifications.size(); from += MAX_BATCH_SIZE) {
+            chunks.add(notifications.subList(from, Math.min(from + MAX_BATCH_SIZE, notifications.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveTtlTest {
+
+    private final HotKeyTracker tracker = new HotKeyTracker("notification", 1000, 4, 16);
+    private final AdaptiveTtl ttl = new AdaptiveTtl(tracker, new JitteredTtl(Duration.ofMinutes(1), 0),
+            new JitteredTtl(Duration.ofMinutes(10), 0), new JitteredTtl(Duration.ofHours(1), 0));
+
+    @Test
+    void getTimeToLive_ReadOnce_IsCold() {
+        tracker.record(1L);
+
+        assertEquals(Duration.ofMinutes(1), ttl.getTimeToLive(1L, "value"));
+        assertEquals(Duration.ofMinutes(1), ttl.getTimeToLive(2L, "value"));
+    }
+
+    @Test
+    void getTimeToLive_ReadAgain_IsBase() {
+        tracker.record(1L);
+        tracker.record(1L);
+
+        assertEquals(Duration.ofMinutes(10), ttl.getTimeToLive(1L, "value"));
+    }
+
+    @Test
+    void getTimeToLive_Hot_IsLong() {
+        for (int i = 0; i < 4; i++) {
+            tracker.record(1L);
+        }
+
+        assertEquals(Duration.ofHours(1), ttl.getTimeToLive(1L, "value"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.cache;
+
+import com.example.demo.config.RedisConfig;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRedisSerializerTest {
+
+    private GenericJackson2JsonRedisSerializer json;
+    private CompactRedisSerializer compact;
+
+    @BeforeEach
+    void setUp() {
+        json = GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(new RedisConfig().objectMapper())
+                .defaultTyping(true)
+                .build();
+        compact = new CompactRedisSerializer(json, CacheValueFormat.COMPACT);
+    }
+
+    @Test
+    void notificationResponse_RoundTripsAndIsSmallerThanJson() {
+        LocalDateTime now = LocalDateTime.of(2025, 7, 15, 12, 1, 2, 345_000_000);
+        NotificationResponse notification = NotificationResponse.builder()
+                .id(123456789L)
+                .type(NotificationType.SMS)
+                .recipient("+1234567890")
+                .subject("通知主題")
+                .content("Your verification code: 123456")
+                .createdAt(now)
+                .updatedAt(now.plusSeconds(5))
+                .build();
+
+        byte[] bytes = compact.serialize(notification);
+
+        assertEquals(notification, compact.deserialize(bytes));
+        assertTrue(bytes.length * 2 < json.serialize(notification).length);
+    }
+
+    @Test
+    void recentResponse_WithNullFields_RoundTrips() {
+        RecentNotificationResponse recent = RecentNotificationResponse.builder()
+                .id(1L)
+                .type(NotificationType.EMAIL)
+                .recipient("test@example.com")
+                .build();
+
+        assertEquals(recent, compact.deserialize(compact.serialize(recent)));
+    }
+
+    @Test
+    void deserialize_ReadsValuesWrittenInJsonFormat() {
+        NotificationResponse notification = NotificationResponse.builder().id(1L).type(NotificationType.EMAIL).build();
+
+        assertEquals(notification, compact.deserialize(json.serialize(notification)));
+    }
+
+    @Test
+    void jsonWriteFormat_StillReadsCompactValues() {
+        CompactRedisSerializer jsonWriter = new CompactRedisSerializer(json, CacheValueFormat.JSON);
+        NotificationResponse notification = NotificationResponse.builder().id(1L).subject("s").build();
+
+        assertEquals('{', jsonWriter.serialize(notification)[0]);
+        assertEquals(notification, jsonWriter.deserialize(compact.serialize(notification)));
+    }
+
+    @Test
+    void otherValues_FallBackToJson() {
+        assertEquals("node|notification|1", compact.deserialize(compact.serialize("node|notification|1")));
+    }
+
+    @Test
+    void deserialize_UnknownVersion_ThrowsException() {
+        assertThrows(SerializationException.class, () -> compact.deserialize(new byte[]{0x05, 0x01, 0x00}));
+    }
+}
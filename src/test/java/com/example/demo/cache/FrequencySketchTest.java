@@ -0,0 +1,49 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+
+    @Test
+    void increment_ReturnsFrequencyAfterAccessAndSaturates() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+
+        assertEquals(0, sketch.frequency(42L));
+        for (int i = 1; i <= FrequencySketch.MAX_FREQUENCY; i++) {
+            assertEquals(i, sketch.increment(42L));
+        }
+        assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.increment(42L));
+        assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency(42L));
+    }
+
+    @Test
+    void frequency_SequentialIdsDoNotInflateEachOther() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (long id = 0; id < 1000; id++) {
+            sketch.increment(id);
+        }
+
+        int overestimated = 0;
+        for (long id = 0; id < 1000; id++) {
+            if (sketch.frequency(id) > 1) overestimated++;
+        }
+        assertTrue(overestimated < 50, "overestimated " + overestimated);
+    }
+
+    @Test
+    void increment_AgesAllCountersAfterSampleSize() {
+        // 16 expected entries -> ages every 160 increments
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(7L);
+        }
+        for (long id = 1000; sketch.resets() == 0; id++) {
+            sketch.increment(id);
+        }
+
+        assertEquals(1, sketch.resets());
+        assertEquals(4, sketch.frequency(7L));
+    }
+}
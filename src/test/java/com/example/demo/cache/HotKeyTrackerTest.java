@@ -0,0 +1,66 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTrackerTest {
+
+    @Test
+    void record_KeysReachingThresholdAreRankedByHits() {
+        HotKeyTracker tracker = new HotKeyTracker("notification", 1000, 3, 16);
+        read(tracker, 1L, 10);
+        read(tracker, 2L, 5);
+        read(tracker, 3L, 2);
+
+        List<HotKeyTracker.HotKey> top = tracker.top(10);
+
+        assertEquals(List.of(1L, 2L), top.stream().map(HotKeyTracker.HotKey::id).toList());
+        // counted from the read that made the key hot
+        assertEquals(8, top.get(0).hits());
+        assertEquals(3, top.get(1).hits());
+        assertTrue(tracker.isHot(1L));
+        assertFalse(tracker.isHot(3L));
+        assertEquals(1, tracker.top(1).size());
+    }
+
+    @Test
+    void record_IgnoresNonLongKeys() {
+        HotKeyTracker tracker = new HotKeyTracker("notification", 1000, 1, 16);
+        tracker.record("recent");
+
+        assertEquals(0, tracker.frequency("recent"));
+        assertTrue(tracker.top(10).isEmpty());
+    }
+
+    @Test
+    void record_OverCapacity_KeepsBusiestHalf() {
+        HotKeyTracker tracker = new HotKeyTracker("notification", 1000, 1, 4);
+        for (long id = 1; id <= 4; id++) {
+            read(tracker, id, (int) id + 1);
+        }
+        read(tracker, 5L, 1);
+
+        assertEquals(List.of(4L, 3L), tracker.top(10).stream().map(HotKeyTracker.HotKey::id).toList());
+    }
+
+    @Test
+    void record_SketchAges_HalvesHits() {
+        // 16 expected entries -> the sketch ages every 160 unsaturated increments; id 1 saturates after 15
+        HotKeyTracker tracker = new HotKeyTracker("notification", 16, 1, 16);
+        read(tracker, 1L, 100);
+        for (long id = 1000; id < 1200; id++) {
+            tracker.record(id);
+        }
+
+        assertEquals(50, tracker.top(1).get(0).hits(), 1);
+    }
+
+    private static void read(HotKeyTracker tracker, long id, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(id);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedCacheManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new InstrumentedCacheManager(new ConcurrentMapCacheManager("notification"), meterRegistry)
+                .getCache("notification");
+    }
+
+    @Test
+    void get_RecordsHitAndMiss() {
+        assertNull(cache.get(1L));
+        cache.put(1L, "value");
+        assertEquals("value", cache.get(1L).get());
+
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void getWithLoader_CountsLoadAsMissAndCachedValueAsHit() {
+        assertEquals("loaded", cache.get(1L, () -> "loaded"));
+        assertEquals("loaded", cache.get(1L, () -> "reloaded"));
+
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("miss"));
+    }
+
+    @Test
+    void get_WithTracker_RecordsEveryReadOfTrackedCacheOnly() {
+        HotKeyTracker tracker = new HotKeyTracker("notification", 1000, 2, 16);
+        InstrumentedCacheManager manager = new InstrumentedCacheManager(
+                new ConcurrentMapCacheManager("notification", "other"), meterRegistry, tracker);
+        Cache tracked = manager.getCache("notification");
+
+        tracked.get(1L);
+        tracked.get(1L, () -> "loaded");
+        tracked.get(1L, String.class);
+        manager.getCache("other").get(1L);
+
+        assertEquals(3, tracker.frequency(1L));
+        assertEquals(List.of(1L), tracker.top(10).stream().map(HotKeyTracker.HotKey::id).toList());
+    }
+
+    private long count(String result) {
+        return meterRegistry.get("notification.cache.get")
+                .tag("cache", "notification")
+                .tag("result", result)
+                .timer()
+                .count();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JitteredTtlTest {
+
+    @Test
+    void getTimeToLive_StaysWithinJitterBandAndSpreads() {
+        JitteredTtl ttl = new JitteredTtl(Duration.ofMinutes(10), 0.1);
+        Set<Duration> seen = new HashSet<>();
+
+        for (int i = 0; i < 1000; i++) {
+            Duration d = ttl.getTimeToLive(i, "value");
+            assertTrue(d.compareTo(Duration.ofMinutes(9)) >= 0 && d.compareTo(Duration.ofMinutes(11)) <= 0, d.toString());
+            seen.add(d);
+        }
+        assertTrue(seen.size() > 100);
+    }
+
+    @Test
+    void getTimeToLive_ZeroJitter_IsFixed() {
+        assertEquals(Duration.ofMinutes(10), new JitteredTtl(Duration.ofMinutes(10), 0).getTimeToLive(1L, "value"));
+    }
+
+    @Test
+    void constructor_RejectsJitterOfOneOrMore() {
+        assertThrows(IllegalArgumentException.class, () -> new JitteredTtl(Duration.ofMinutes(10), 1.0));
+    }
+}
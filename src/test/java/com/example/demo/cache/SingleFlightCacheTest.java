@@ -0,0 +1,156 @@
+package com.example.demo.cache;
+
+import com.example.demo.config.CacheLockProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SingleFlightCacheTest {
+
+    @Mock
+    private StringRedisTemplate redis;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ConcurrentMapCache storage;
+    private CacheLockProperties lockProperties;
+
+    @BeforeEach
+    void setUp() {
+        storage = new ConcurrentMapCache("notification");
+        lockProperties = new CacheLockProperties();
+    }
+
+    @Test
+    void get_ConcurrentMisses_LoadOnce() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(storage, redis, lockProperties);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 32;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "value";
+                })));
+            }
+            waitUntil(() -> cache.inFlightCount() == 1 && loads.get() == 1);
+            TimeUnit.MILLISECONDS.sleep(50);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(0, cache.inFlightCount());
+        assertEquals("value", storage.get(1L).get());
+    }
+
+    @Test
+    void get_LoaderFails_PropagatesAndDoesNotCache() {
+        SingleFlightCache cache = new SingleFlightCache(storage, redis, lockProperties);
+
+        Cache.ValueRetrievalException ex = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(1L, () -> {
+                    throw new IllegalStateException("db down");
+                }));
+
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertNull(storage.get(1L));
+        assertEquals(0, cache.inFlightCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void get_LeaseAcquired_LoadsAndReleases() {
+        lockProperties.setEnabled(true);
+        when(redis.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("cache:lock:notification:1"), anyString(), any(Duration.class))).thenReturn(true);
+        SingleFlightCache cache = new SingleFlightCache(storage, redis, lockProperties);
+
+        assertEquals("value", cache.get(1L, () -> "value"));
+
+        verify(redis).execute(any(RedisScript.class), eq(List.of("cache:lock:notification:1")), anyString());
+    }
+
+    @Test
+    void get_LeaseHeldElsewhere_WaitsForOtherNodesValue() {
+        lockProperties.setEnabled(true);
+        when(redis.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+            // simulate the holder storing its result shortly after we lose the election
+            new Thread(() -> {
+                sleepQuietly(60);
+                storage.put(1L, "from-other-node");
+            }).start();
+            return false;
+        });
+        SingleFlightCache cache = new SingleFlightCache(storage, redis, lockProperties);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("from-other-node", cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return "local";
+        }));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void get_LeaseHeldAndWaitExpires_LoadsItself() {
+        lockProperties.setEnabled(true);
+        lockProperties.setWait(Duration.ofMillis(50));
+        when(redis.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        SingleFlightCache cache = new SingleFlightCache(storage, redis, lockProperties);
+
+        assertEquals("local", cache.get(1L, () -> "local"));
+        assertEquals("local", storage.get(1L).get());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
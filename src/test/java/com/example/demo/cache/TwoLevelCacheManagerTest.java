@@ -0,0 +1,78 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheManagerTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private ConcurrentMapCacheManager remote;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCacheManager("notification");
+        cacheManager = new TwoLevelCacheManager(remote, redisTemplate, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_RemoteHit_IsServedLocallyAfterwards() {
+        remote.getCache("notification").put(1L, "value");
+        Cache cache = cacheManager.getCache("notification");
+
+        assertEquals("value", cache.get(1L).get());
+        remote.getCache("notification").evict(1L);
+
+        assertEquals("value", cache.get(1L).get());
+    }
+
+    @Test
+    void put_WritesBothTiersAndBroadcasts() {
+        Cache cache = cacheManager.getCache("notification");
+
+        cache.put(1L, "value");
+
+        assertEquals("value", remote.getCache("notification").get(1L).get());
+        verify(redisTemplate, times(1)).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), anyString());
+    }
+
+    @Test
+    void getWithLoader_DoesNotBroadcast() {
+        Cache cache = cacheManager.getCache("notification");
+
+        assertEquals("loaded", cache.get(1L, () -> "loaded"));
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    void onMessage_FromOtherNode_EvictsLocalCopy() {
+        doReturn(RedisSerializer.string()).when(redisTemplate).getValueSerializer();
+        Cache cache = cacheManager.getCache("notification");
+        cache.get(1L, () -> "stale");
+        remote.getCache("notification").put(1L, "fresh");
+
+        cacheManager.onMessage(new DefaultMessage(
+                TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(),
+                "other-node|notification|1".getBytes()), null);
+
+        assertEquals("fresh", cache.get(1L).get());
+    }
+}
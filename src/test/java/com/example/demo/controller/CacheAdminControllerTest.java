@@ -0,0 +1,51 @@
+package com.example.demo.controller;
+
+import com.example.demo.cache.HotKeyTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheAdminController.class)
+class CacheAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private HotKeyTracker hotKeyTracker;
+
+    @Test
+    void getHotKeys_ReturnsTopKeys() throws Exception {
+        when(hotKeyTracker.top(2)).thenReturn(List.of(new HotKeyTracker.HotKey(7L, 120, 15),
+                new HotKeyTracker.HotKey(3L, 40, 11)));
+
+        mockMvc.perform(get("/admin/cache/hot-keys").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].hits").value(120))
+                .andExpect(jsonPath("$[0].frequency").value(15))
+                .andExpect(jsonPath("$[1].id").value(3));
+    }
+
+    @Test
+    void getHotKeys_DefaultsAndClampsLimit() throws Exception {
+        when(hotKeyTracker.top(anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get("/admin/cache/hot-keys")).andExpect(status().isOk());
+        mockMvc.perform(get("/admin/cache/hot-keys").param("limit", "100000")).andExpect(status().isOk());
+        mockMvc.perform(get("/admin/cache/hot-keys").param("limit", "0")).andExpect(status().isOk());
+
+        verify(hotKeyTracker).top(20);
+        verify(hotKeyTracker).top(CacheAdminController.MAX_LIMIT);
+        verify(hotKeyTracker).top(1);
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.demo.controller;
 
 import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.BatchCreateNotificationResponse;
+import com.example.demo.dto.BatchItemResult;
 import com.example.demo.dto.CreateNotificationRequest;
+import com.example.demo.dto.InboxPageResponse;
 import com.example.demo.dto.NotificationResponse;
 import com.example.demo.dto.RecentNotificationResponse;
 import com.example.demo.dto.UpdateNotificationRequest;
+import com.example.demo.exception.IdempotencyKeyConflictException;
 import com.example.demo.exception.NotificationNotFoundException;
+import com.example.demo.exception.StreamCapacityException;
+import com.example.demo.service.IdempotencyService;
 import com.example.demo.service.NotificationService;
+import com.example.demo.service.RecentSnapshot;
+import com.example.demo.stream.NotificationStreamBroadcaster;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,12 +23,15 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,6 +49,12 @@ class NotificationControllerTest {
     @MockitoBean
     private NotificationService notificationService;
 
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @MockitoBean
+    private NotificationStreamBroadcaster streamBroadcaster;
+
     private NotificationResponse mockResponse;
     private CreateNotificationRequest createRequest;
     private UpdateNotificationRequest updateRequest;
@@ -194,10 +211,12 @@ class NotificationControllerTest {
                         .build()
         );
 
-        when(notificationService.getRecentNotifications()).thenReturn(recentList);
+        when(notificationService.getRecentNotifications())
+                .thenReturn(new RecentSnapshot(42L, 3L, objectMapper.writeValueAsBytes(recentList)));
 
         mockMvc.perform(get("/notifications/recent"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"42-3\""))
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].id").value(1))
@@ -208,6 +227,26 @@ class NotificationControllerTest {
         verify(notificationService, times(1)).getRecentNotifications();
     }
 
+    @Test
+    void getRecentNotifications_MatchingETag_ReturnsNotModified() throws Exception {
+        when(notificationService.getRecentNotifications()).thenReturn(new RecentSnapshot(42L, 3L, "[]".getBytes()));
+
+        mockMvc.perform(get("/notifications/recent").header("If-None-Match", "\"42-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getRecentNotifications_Unversioned_SendsNoETag() throws Exception {
+        when(notificationService.getRecentNotifications())
+                .thenReturn(new RecentSnapshot(RecentSnapshot.UNVERSIONED, RecentSnapshot.UNVERSIONED, "[]".getBytes()));
+
+        mockMvc.perform(get("/notifications/recent").header("If-None-Match", "\"42-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(content().json("[]"));
+    }
+
     @Test
     void updateNotification_Success() throws Exception {
         NotificationResponse updatedResponse = NotificationResponse.builder()
@@ -280,6 +319,29 @@ class NotificationControllerTest {
         verify(notificationService, never()).updateNotification(any(), any());
     }
 
+    @Test
+    void stream_WithFilters_Subscribes() throws Exception {
+        when(streamBroadcaster.subscribe(NotificationType.SMS, "test@example.com")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/notifications/stream")
+                        .param("type", "SMS")
+                        .param("recipient", "test@example.com")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(streamBroadcaster, times(1)).subscribe(NotificationType.SMS, "test@example.com");
+    }
+
+    @Test
+    void stream_AtCapacity_ReturnsServiceUnavailable() throws Exception {
+        when(streamBroadcaster.subscribe(null, null)).thenThrow(new StreamCapacityException("Notification stream has 1 subscribers"));
+
+        mockMvc.perform(get("/notifications/stream"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
     @Test
     void deleteNotification_Success() throws Exception {
         doNothing().when(notificationService).deleteNotification(1L);
@@ -302,5 +364,111 @@ class NotificationControllerTest {
         verify(notificationService, times(1)).deleteNotification(999L);
     }
 
+    @Test
+    void createNotifications_AllSucceeded_ReturnsCreated() throws Exception {
+        BatchCreateNotificationResponse batchResponse = BatchCreateNotificationResponse.builder()
+                .total(1)
+                .succeeded(1)
+                .failed(0)
+                .results(List.of(BatchItemResult.builder().index(0).success(true).notification(mockResponse).build()))
+                .build();
+
+        when(notificationService.createNotifications(anyList())).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/notifications/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createRequest))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[0].success").value(true))
+                .andExpect(jsonPath("$.results[0].notification.id").value(1));
+
+        verify(notificationService, times(1)).createNotifications(anyList());
+    }
+
+    @Test
+    void createNotifications_PartialFailure_ReturnsMultiStatus() throws Exception {
+        BatchCreateNotificationResponse batchResponse = BatchCreateNotificationResponse.builder()
+                .total(2)
+                .succeeded(1)
+                .failed(1)
+                .results(List.of(
+                        BatchItemResult.builder().index(0).success(true).notification(mockResponse).build(),
+                        BatchItemResult.builder().index(1).success(false).error("Recipient is required").build()))
+                .build();
 
-}
\ No newline at end of file
+        when(notificationService.createNotifications(anyList())).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/notifications/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createRequest, createRequest))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[1].error").value("Recipient is required"));
+    }
+
+    @Test
+    void getInbox_Success() throws Exception {
+        InboxPageResponse page = InboxPageResponse.builder()
+                .items(List.of(RecentNotificationResponse.builder()
+                        .id(1L)
+                        .type(NotificationType.EMAIL)
+                        .recipient("test@example.com")
+                        .subject("Subject 1")
+                        .createdAt(LocalDateTime.now())
+                        .build()))
+                .hasMore(true)
+                .nextCursor("abc")
+                .build();
+
+        when(notificationService.getInbox("test@example.com", null, 20)).thenReturn(page);
+
+        mockMvc.perform(get("/notifications")
+                        .param("recipient", "test@example.com")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+    }
+
+    @Test
+    void getInbox_MissingRecipient_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/notifications"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        verify(notificationService, never()).getInbox(any(), any(), any());
+    }
+
+
+    @Test
+    void createNotification_WithIdempotencyKey_ReplaysOriginal() throws Exception {
+        when(idempotencyService.execute(eq("create"), eq("key-1"), any(), eq(NotificationResponse.class), any(), any()))
+                .thenReturn(new IdempotencyService.Result<>(mockResponse, true));
+
+        mockMvc.perform(post("/notifications")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(notificationService, never()).createNotification(any(CreateNotificationRequest.class));
+        verify(notificationService, never()).createNotification(any(CreateNotificationRequest.class), anyString());
+    }
+
+    @Test
+    void createNotification_IdempotencyKeyInProgress_ReturnsConflict() throws Exception {
+        when(idempotencyService.execute(eq("create"), eq("key-1"), any(), eq(NotificationResponse.class), any(), any()))
+                .thenThrow(new IdempotencyKeyConflictException("A request with Idempotency-Key key-1 is still in progress"));
+
+        mockMvc.perform(post("/notifications")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+}
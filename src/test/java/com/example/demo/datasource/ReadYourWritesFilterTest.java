@@ -0,0 +1,61 @@
+package com.example.demo.datasource;
+
+import com.example.demo.config.ReadReplicaProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(new ReadReplicaProperties());
+
+    @Test
+    void write_StampsWindowAndPinsPrimary() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/notifications"), response, recordPinned(pinned));
+
+        assertTrue(pinned.get());
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertTrue(Long.parseLong(cookie.getValue()) > System.currentTimeMillis());
+        assertFalse(ReadRouting.isPrimaryRequired());
+    }
+
+    @Test
+    void read_InsideWindow_PinsPrimary() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/notifications/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() + 5_000)));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        filter.doFilter(request, new MockHttpServletResponse(), recordPinned(pinned));
+
+        assertTrue(pinned.get());
+    }
+
+    @Test
+    void read_WindowExpiredOrAbsent_UsesReplicas() throws Exception {
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/notifications/1");
+        expired.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1)));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        filter.doFilter(expired, new MockHttpServletResponse(), recordPinned(pinned));
+        assertFalse(pinned.get());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/notifications/recent"), response, recordPinned(pinned));
+        assertFalse(pinned.get());
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE_NAME));
+    }
+
+    private static FilterChain recordPinned(AtomicBoolean pinned) {
+        return (request, response) -> pinned.set(ReadRouting.isPrimaryRequired());
+    }
+}
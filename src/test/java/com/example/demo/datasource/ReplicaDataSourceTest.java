@@ -0,0 +1,139 @@
+package com.example.demo.datasource;
+
+import com.example.demo.config.ReadReplicaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplicaDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica1;
+
+    @Mock
+    private DataSource replica2;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replica1Connection;
+
+    @Mock
+    private Connection replica2Connection;
+
+    private ReadReplicaProperties properties;
+    private ReplicaDataSource replicas;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        properties = new ReadReplicaProperties();
+        properties.setEnabled(true);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+        when(replica1Connection.isValid(anyInt())).thenReturn(true);
+        when(replica2Connection.isValid(anyInt())).thenReturn(true);
+        replicas = new ReplicaDataSource(primary, List.of(replica1, replica2), properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getConnection_RoundRobin_AlternatesReplicas() throws SQLException {
+        assertSame(replica1Connection, replicas.getConnection());
+        assertSame(replica2Connection, replicas.getConnection());
+        assertSame(replica1Connection, replicas.getConnection());
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_ReplicaFails_SkipsItUntilHealthCheckPasses() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("refused"));
+
+        assertSame(replica2Connection, replicas.getConnection());
+        assertSame(replica2Connection, replicas.getConnection());
+        assertEquals(1, replicas.healthyCount());
+        verify(replica1, times(1)).getConnection();
+
+        doReturn(replica1Connection).when(replica1).getConnection();
+        replicas.checkHealth();
+
+        assertEquals(2, replicas.healthyCount());
+    }
+
+    @Test
+    void getConnection_NoHealthyReplica_FailsBackToPrimary() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("refused"));
+        when(replica2.getConnection()).thenThrow(new SQLException("refused"));
+
+        assertSame(primaryConnection, replicas.getConnection());
+        assertSame(primaryConnection, replicas.getConnection());
+        assertEquals(0, replicas.healthyCount());
+    }
+
+    @Test
+    void getConnection_PinnedToPrimary_SkipsReplicas() throws SQLException {
+        ReadRouting readRouting = new ReadRouting(properties);
+
+        Connection connection = readRouting.onPrimary(() -> {
+            try {
+                return replicas.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertSame(primaryConnection, connection);
+        assertFalse(ReadRouting.isPrimaryRequired());
+        verify(replica1, never()).getConnection();
+    }
+
+    @Test
+    void routingProxy_ReadOnlyTransaction_UsesReplica() throws SQLException {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicas);
+        routing.setDefaultAutoCommit(true);
+        routing.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(routing));
+
+        transactions.setReadOnly(true);
+        transactions.executeWithoutResult(status -> touch(routing));
+        verify(replica1, times(1)).getConnection();
+        verify(primary, never()).getConnection();
+
+        transactions.setReadOnly(false);
+        transactions.executeWithoutResult(status -> touch(routing));
+        verify(primary, times(1)).getConnection();
+    }
+
+    // the lazy proxy only fetches its target connection once a statement is prepared
+    private static void touch(DataSource dataSource) {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
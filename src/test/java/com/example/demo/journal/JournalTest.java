@@ -0,0 +1,126 @@
+package com.example.demo.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    private static final int SEGMENT_BYTES = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_ReadsBackInOrder() {
+        try (Journal journal = open(FsyncPolicy.EVERY_RECORD)) {
+            journal.append(bytes("one"));
+            journal.append(bytes("two"));
+
+            List<JournalRecord> records = journal.read(journal.readPosition(), 10);
+
+            assertEquals(List.of("one", "two"), strings(records));
+            assertEquals(records.get(0).next(), records.get(1).position());
+            assertEquals(journal.writePosition(), records.get(1).next());
+            assertTrue(journal.hasBacklog());
+        }
+    }
+
+    @Test
+    void append_RecordDoesNotFit_RollsToNewSegment() throws IOException {
+        try (Journal journal = open(FsyncPolicy.INTERVAL)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(bytes("record-" + i + "-padding-padding"));
+            }
+
+            assertEquals(5, journal.read(journal.readPosition(), 10).size());
+        }
+        assertTrue(segmentFiles().size() > 1);
+    }
+
+    @Test
+    void append_LargerThanSegment_Rejected() {
+        try (Journal journal = open(FsyncPolicy.INTERVAL)) {
+            assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[SEGMENT_BYTES]));
+        }
+    }
+
+    @Test
+    void commit_SurvivesReopenAndDeletesConsumedSegments() throws IOException {
+        long committed;
+        try (Journal journal = open(FsyncPolicy.EVERY_RECORD)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(bytes("record-" + i + "-padding-padding"));
+            }
+            List<JournalRecord> records = journal.read(journal.readPosition(), 10);
+            committed = records.get(2).next();
+            journal.commit(committed);
+        }
+        assertEquals(2, segmentFiles().size());
+
+        try (Journal journal = open(FsyncPolicy.EVERY_RECORD)) {
+            assertEquals(committed, journal.readPosition());
+            assertEquals(List.of("record-3-padding-padding", "record-4-padding-padding"), strings(journal.read(journal.readPosition(), 10)));
+        }
+    }
+
+    @Test
+    void commit_Everything_LeavesNoBacklog() {
+        try (Journal journal = open(FsyncPolicy.EVERY_RECORD)) {
+            journal.append(bytes("one"));
+            journal.commit(journal.writePosition());
+
+            assertFalse(journal.hasBacklog());
+            assertTrue(journal.read(journal.readPosition(), 10).isEmpty());
+        }
+    }
+
+    @Test
+    void open_TornTail_CutAtLastValidRecord() throws IOException {
+        long end;
+        try (Journal journal = open(FsyncPolicy.EVERY_RECORD)) {
+            journal.append(bytes("kept"));
+            end = journal.append(bytes("torn"));
+        }
+        // a crash halfway through the second record: its payload never reached the disk
+        try (RandomAccessFile file = new RandomAccessFile(segmentFiles().get(0).toFile(), "rw")) {
+            file.seek(end - 2);
+            file.write(new byte[]{0, 0});
+        }
+
+        try (Journal journal = open(FsyncPolicy.EVERY_RECORD)) {
+            assertEquals(List.of("kept"), strings(journal.read(journal.readPosition(), 10)));
+
+            journal.append(bytes("after"));
+            assertEquals(List.of("kept", "after"), strings(journal.read(journal.readPosition(), 10)));
+        }
+    }
+
+    private Journal open(FsyncPolicy policy) {
+        return new Journal(directory, SEGMENT_BYTES, policy, Duration.ofMillis(5));
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(List<JournalRecord> records) {
+        return records.stream().map(r -> new String(r.payload(), StandardCharsets.UTF_8)).toList();
+    }
+}
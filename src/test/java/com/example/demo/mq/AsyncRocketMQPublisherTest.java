@@ -0,0 +1,122 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.RocketMQPublisherProperties;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.exception.PublishRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncRocketMQPublisherTest {
+
+    @Mock
+    private RocketMQTemplate rocketMQTemplate;
+
+    private RocketMQPublisherProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RocketMQPublisherProperties();
+        properties.setQueueCapacity(2);
+        properties.setBlockTimeout(Duration.ofMillis(10));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void publish_FailFast_RejectsWhenFull() {
+        properties.setBackpressure(BackpressurePolicy.FAIL_FAST);
+        AsyncRocketMQPublisher publisher = new AsyncRocketMQPublisher(rocketMQTemplate, properties, meterRegistry);
+
+        publisher.publish(notification(1L));
+        publisher.publish(notification(2L));
+
+        assertThrows(PublishRejectedException.class, () -> publisher.publish(notification(3L)));
+        assertEquals(2, publisher.queueDepth());
+        assertEquals(1.0, meterRegistry.get("notification.mq.publisher.failures").tag("reason", "rejected").counter().count());
+    }
+
+    @Test
+    void publish_Block_RejectsAfterTimeout() {
+        properties.setBackpressure(BackpressurePolicy.BLOCK);
+        AsyncRocketMQPublisher publisher = new AsyncRocketMQPublisher(rocketMQTemplate, properties, meterRegistry);
+
+        publisher.publish(notification(1L));
+        publisher.publish(notification(2L));
+
+        assertThrows(PublishRejectedException.class, () -> publisher.publish(notification(3L)));
+    }
+
+    @Test
+    void publish_DropOldest_KeepsNewestEvents() {
+        properties.setBackpressure(BackpressurePolicy.DROP_OLDEST);
+        AsyncRocketMQPublisher publisher = new AsyncRocketMQPublisher(rocketMQTemplate, properties, meterRegistry);
+
+        publisher.publish(notification(1L));
+        publisher.publish(notification(2L));
+        publisher.publish(notification(3L));
+
+        assertEquals(2, publisher.queueDepth());
+        assertEquals(2.0, meterRegistry.get("notification.mq.publisher.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("notification.mq.publisher.failures").tag("reason", "dropped").counter().count());
+    }
+
+    @Test
+    void drain_Orderly_SendsRecipientsNextEventOnlyAfterAck() {
+        properties.setMode(PublishMode.ASYNC);
+        properties.setQueueCapacity(10);
+        AsyncRocketMQPublisher publisher = new AsyncRocketMQPublisher(rocketMQTemplate, properties, meterRegistry);
+        publisher.publish(notification(1L, "a@example.com"));
+        publisher.publish(notification(2L, "a@example.com"));
+        publisher.publish(notification(3L, "b@example.com"));
+
+        publisher.start();
+        try {
+            ArgumentCaptor<SendCallback> callbacks = ArgumentCaptor.forClass(SendCallback.class);
+            verify(rocketMQTemplate, timeout(1_000).times(2))
+                    .asyncSendOrderly(anyString(), any(Message.class), anyString(), callbacks.capture(), anyLong());
+            verify(rocketMQTemplate, never()).asyncSendOrderly(anyString(), argThat(message -> hasId(message, 2L)),
+                    anyString(), any(SendCallback.class), anyLong());
+
+            // a failed send is retried before the recipient's next event goes out
+            callbacks.getAllValues().get(0).onException(new IllegalStateException("broker down"));
+            verify(rocketMQTemplate, timeout(2_000).times(2)).asyncSendOrderly(anyString(), argThat(message -> hasId(message, 1L)),
+                    anyString(), callbacks.capture(), anyLong());
+            verify(rocketMQTemplate, never()).asyncSendOrderly(anyString(), argThat(message -> hasId(message, 2L)),
+                    anyString(), any(SendCallback.class), anyLong());
+
+            callbacks.getValue().onSuccess(new SendResult());
+            verify(rocketMQTemplate, timeout(1_000)).asyncSendOrderly(anyString(), argThat(message -> hasId(message, 2L)),
+                    eq("a@example.com"), any(SendCallback.class), anyLong());
+        } finally {
+            publisher.stop();
+        }
+    }
+
+    private static boolean hasId(Message<?> message, long id) {
+        return message != null && Long.valueOf(id).equals(((NotificationResponse) message.getPayload()).getId());
+    }
+
+    private NotificationResponse notification(Long id) {
+        return NotificationResponse.builder().id(id).build();
+    }
+
+    private NotificationResponse notification(Long id, String recipient) {
+        return NotificationResponse.builder().id(id).recipient(recipient).build();
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.DeliveryProperties;
+import com.example.demo.config.RocketMQTopicConfig;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    @Mock
+    private RocketMQTemplate rocketMQTemplate;
+
+    private DeliveryProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DeliveryProperties();
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(4));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void dispatch_RoutesByChannel() throws Exception {
+        StubSender email = new StubSender(NotificationType.EMAIL, 0);
+        StubSender sms = new StubSender(NotificationType.SMS, 0);
+        NotificationDispatcher dispatcher = dispatcher(email, sms);
+
+        dispatcher.dispatch(notification(1L, NotificationType.EMAIL));
+        dispatcher.dispatch(notification(2L, NotificationType.SMS));
+        dispatcher.dispatch(notification(3L, NotificationType.SMS));
+
+        assertEquals(1, email.sent.get());
+        assertEquals(2, sms.sent.get());
+        verifyNoInteractions(rocketMQTemplate);
+    }
+
+    @Test
+    void consumer_ChannelWithoutSender_RefusesToStart() {
+        NotificationDeliveryConsumer partial = new NotificationDeliveryConsumer(
+                dispatcher(new StubSender(NotificationType.EMAIL, 0)), properties);
+        NotificationDeliveryConsumer complete = new NotificationDeliveryConsumer(
+                dispatcher(new StubSender(NotificationType.EMAIL, 0), new StubSender(NotificationType.SMS, 0)), properties);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, partial::requireSenders);
+        assertTrue(e.getMessage().contains("[SMS]"));
+        assertDoesNotThrow(complete::requireSenders);
+    }
+
+    @Test
+    void dispatch_TransientFailure_RetriesThenSucceeds() throws Exception {
+        StubSender email = new StubSender(NotificationType.EMAIL, 2);
+        NotificationDispatcher dispatcher = dispatcher(email);
+
+        dispatcher.dispatch(notification(1L, NotificationType.EMAIL));
+
+        assertEquals(3, email.attempts.get());
+        assertEquals(1, email.sent.get());
+        assertEquals(2.0, meterRegistry.get("notification.delivery.failures").tag("channel", "EMAIL").counter().count());
+        verifyNoInteractions(rocketMQTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatch_AttemptsExhausted_DeadLetters() throws Exception {
+        StubSender email = new StubSender(NotificationType.EMAIL, Integer.MAX_VALUE);
+        NotificationDispatcher dispatcher = dispatcher(email);
+
+        dispatcher.dispatch(notification(1L, NotificationType.EMAIL));
+
+        assertEquals(3, email.attempts.get());
+        ArgumentCaptor<Message<NotificationResponse>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(rocketMQTemplate).syncSend(eq(RocketMQTopicConfig.NOTIFICATION_DEAD_LETTER_TOPIC), captor.capture());
+        assertEquals(1L, captor.getValue().getPayload().getId());
+        assertEquals("provider down", captor.getValue().getHeaders().get(NotificationDispatcher.ERROR_HEADER));
+    }
+
+    @Test
+    void dispatch_NonRetryableFailure_DeadLettersWithoutRetry() throws Exception {
+        NotificationSender rejecting = new NotificationSender() {
+            @Override
+            public NotificationType channel() {
+                return NotificationType.SMS;
+            }
+
+            @Override
+            public void send(NotificationResponse notification) {
+                throw new NonRetryableDeliveryException("invalid number");
+            }
+        };
+        NotificationDispatcher dispatcher = dispatcher(rejecting);
+
+        dispatcher.dispatch(notification(1L, NotificationType.SMS));
+
+        verify(rocketMQTemplate, times(1)).syncSend(eq(RocketMQTopicConfig.NOTIFICATION_DEAD_LETTER_TOPIC), any(Message.class));
+        assertEquals(0.0, meterRegistry.get("notification.delivery.failures").tag("channel", "SMS").counter().count());
+    }
+
+    @Test
+    void dispatch_NoSenderForChannel_DeadLetters() throws Exception {
+        NotificationDispatcher dispatcher = dispatcher(new StubSender(NotificationType.EMAIL, 0));
+
+        dispatcher.dispatch(notification(1L, NotificationType.SMS));
+
+        verify(rocketMQTemplate).syncSend(eq(RocketMQTopicConfig.NOTIFICATION_DEAD_LETTER_TOPIC), any(Message.class));
+    }
+
+    @Test
+    void dispatch_DeadLetterPublishFails_Throws() {
+        when(rocketMQTemplate.syncSend(anyString(), any(Message.class))).thenThrow(new IllegalStateException("broker down"));
+        NotificationDispatcher dispatcher = dispatcher(new StubSender(NotificationType.EMAIL, Integer.MAX_VALUE));
+
+        assertThrows(IllegalStateException.class, () -> dispatcher.dispatch(notification(1L, NotificationType.EMAIL)));
+    }
+
+    @Test
+    void dispatch_ConcurrentCallers_RespectChannelConcurrency() throws Exception {
+        DeliveryProperties.Channel channel = new DeliveryProperties.Channel();
+        channel.setMaxConcurrency(3);
+        properties.getChannels().put(NotificationType.EMAIL, channel);
+        StubSender email = new StubSender(NotificationType.EMAIL, 0);
+        email.latencyMillis = 10;
+        NotificationDispatcher dispatcher = dispatcher(email);
+
+        ExecutorService executor = Executors.newFixedThreadPool(12);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long id = 0; id < 36; id++) {
+                long notificationId = id;
+                futures.add(executor.submit(() -> {
+                    dispatcher.dispatch(notification(notificationId, NotificationType.EMAIL));
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(36, email.sent.get());
+        assertEquals(3, email.peakInFlight.get());
+    }
+
+    @Test
+    void dispatch_RateLimited_SpacesSends() throws Exception {
+        DeliveryProperties.Channel channel = new DeliveryProperties.Channel();
+        channel.setRatePerSecond(100);
+        properties.getChannels().put(NotificationType.SMS, channel);
+        NotificationDispatcher dispatcher = dispatcher(new StubSender(NotificationType.SMS, 0));
+
+        long start = System.nanoTime();
+        for (long id = 0; id < 11; id++) {
+            dispatcher.dispatch(notification(id, NotificationType.SMS));
+        }
+
+        // the first permit is immediate, the next ten are 10ms apart
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(95));
+    }
+
+    @Test
+    void backoffMillis_DoublesUpToMax() {
+        properties.setInitialBackoff(Duration.ofMillis(200));
+        properties.setMaxBackoff(Duration.ofSeconds(1));
+        NotificationDispatcher dispatcher = dispatcher();
+
+        assertEquals(200, dispatcher.backoffMillis(1));
+        assertEquals(400, dispatcher.backoffMillis(2));
+        assertEquals(800, dispatcher.backoffMillis(3));
+        assertEquals(1000, dispatcher.backoffMillis(4));
+    }
+
+    @Test
+    void constructor_DuplicateChannel_Throws() {
+        assertThrows(IllegalStateException.class,
+                () -> dispatcher(new StubSender(NotificationType.EMAIL, 0), new StubSender(NotificationType.EMAIL, 0)));
+    }
+
+    private NotificationDispatcher dispatcher(NotificationSender... senders) {
+        return new NotificationDispatcher(List.of(senders), rocketMQTemplate, properties, meterRegistry);
+    }
+
+    private static NotificationResponse notification(Long id, NotificationType type) {
+        return NotificationResponse.builder()
+                .id(id)
+                .type(type)
+                .recipient("test@example.com")
+                .subject("Subject")
+                .content("Content")
+                .build();
+    }
+
+    private static class StubSender implements NotificationSender {
+
+        private final NotificationType channel;
+        private final int failuresBeforeSuccess;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+        private long latencyMillis;
+
+        StubSender(NotificationType channel, int failuresBeforeSuccess) {
+            this.channel = channel;
+            this.failuresBeforeSuccess = failuresBeforeSuccess;
+        }
+
+        @Override
+        public NotificationType channel() {
+            return channel;
+        }
+
+        @Override
+        public void send(NotificationResponse notification) throws Exception {
+            if (attempts.incrementAndGet() <= failuresBeforeSuccess) {
+                throw new IllegalStateException("provider down");
+            }
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+                sent.incrementAndGet();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
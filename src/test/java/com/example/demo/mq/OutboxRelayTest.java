@@ -0,0 +1,134 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.OutboxProperties;
+import com.example.demo.config.RocketMQPublisherProperties;
+import com.example.demo.config.ShardingProperties;
+import com.example.demo.dto.NotificationResponse;
+import com.example.demo.model.NotificationOutbox;
+import com.example.demo.repository.NotificationOutboxRepository;
+import com.example.demo.service.OutboxService;
+import com.example.demo.sharding.ShardRouter;
+import com.example.demo.sharding.WorkerIdLease;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private RocketMQTemplate rocketMQTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private NotificationTopicQueues topicQueues;
+
+    private RocketMQPublisherProperties publisherProperties;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        publisherProperties = new RocketMQPublisherProperties();
+        relay = new OutboxRelay(outboxRepository, outboxService, rocketMQTemplate,
+                new TransactionTemplate(transactionManager), properties, publisherProperties,
+                new ShardRouter(new ShardingProperties(), WorkerIdLease.fixed(0), transactionManager), topicQueues, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void relayBatch_PublishesOrderlyPerQueueAndMarksSent() {
+        List<NotificationOutbox> batch = List.of(
+                NotificationOutbox.builder().id(1L).notificationId(10L).payload("{}").build(),
+                NotificationOutbox.builder().id(2L).notificationId(11L).payload("{}").build());
+        when(topicQueues.count()).thenReturn(2);
+        when(outboxRepository.lockPendingBatch(2)).thenReturn(batch);
+        // with 2 queues a@ and c@ hash to queue 0
+        when(outboxService.readPayload(batch.get(0))).thenReturn(NotificationResponse.builder().id(10L).recipient("a@example.com").build());
+        when(outboxService.readPayload(batch.get(1))).thenReturn(NotificationResponse.builder().id(11L).recipient("c@example.com").build());
+
+        int relayed = relay.relayBatch();
+
+        assertEquals(2, relayed);
+        verify(rocketMQTemplate, times(1)).syncSendOrderly(anyString(), anyCollection(), eq("a@example.com"), anyLong());
+        verify(rocketMQTemplate, never()).syncSendOrderly(anyString(), anyCollection(), eq("c@example.com"), anyLong());
+        verify(outboxRepository, times(1)).markSent(eq(List.of(1L, 2L)), any());
+    }
+
+    @Test
+    void relayBatch_OrderlyQueueCountUnknown_PublishesPerRecipient() {
+        List<NotificationOutbox> batch = List.of(
+                NotificationOutbox.builder().id(1L).notificationId(10L).payload("{}").build(),
+                NotificationOutbox.builder().id(2L).notificationId(11L).payload("{}").build());
+        when(outboxRepository.lockPendingBatch(2)).thenReturn(batch);
+        when(outboxService.readPayload(batch.get(0))).thenReturn(NotificationResponse.builder().id(10L).recipient("a@example.com").build());
+        when(outboxService.readPayload(batch.get(1))).thenReturn(NotificationResponse.builder().id(11L).recipient("c@example.com").build());
+
+        relay.relayBatch();
+
+        verify(rocketMQTemplate, times(1)).syncSendOrderly(anyString(), anyCollection(), eq("a@example.com"), anyLong());
+        verify(rocketMQTemplate, times(1)).syncSendOrderly(anyString(), anyCollection(), eq("c@example.com"), anyLong());
+    }
+
+    @Test
+    void relayBatch_Unordered_PublishesOneBatch() {
+        publisherProperties.setOrdering(MessageOrdering.UNORDERED);
+        List<NotificationOutbox> batch = List.of(
+                NotificationOutbox.builder().id(1L).notificationId(10L).payload("{}").build(),
+                NotificationOutbox.builder().id(2L).notificationId(11L).payload("{}").build());
+        when(outboxRepository.lockPendingBatch(2)).thenReturn(batch);
+        when(outboxService.readPayload(any())).thenReturn(NotificationResponse.builder().id(10L).build());
+
+        assertEquals(2, relay.relayBatch());
+
+        verify(rocketMQTemplate, times(1)).syncSend(anyString(), anyCollection(), anyLong());
+        verify(rocketMQTemplate, never()).syncSendOrderly(anyString(), anyCollection(), anyString(), anyLong());
+    }
+
+    @Test
+    void relayBatch_NothingPending_DoesNotPublish() {
+        when(outboxRepository.lockPendingBatch(2)).thenReturn(Collections.emptyList());
+
+        assertEquals(0, relay.relayBatch());
+
+        verify(rocketMQTemplate, never()).syncSendOrderly(anyString(), anyCollection(), anyString(), anyLong());
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void relayBatch_SendFails_LeavesRowsPending() {
+        when(outboxRepository.lockPendingBatch(2)).thenReturn(List.of(
+                NotificationOutbox.builder().id(1L).notificationId(10L).payload("{}").build()));
+        when(outboxService.readPayload(any())).thenReturn(NotificationResponse.builder().id(10L).build());
+        when(rocketMQTemplate.syncSendOrderly(anyString(), anyCollection(), anyString(), anyLong()))
+                .thenThrow(new IllegalStateException("broker down"));
+
+        assertThrows(IllegalStateException.class, () -> relay.relayBatch());
+
+        verify(outboxRepository, never()).markSent(any(), any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.demo.mq;
+
+import com.example.demo.config.RocketMQPublisherProperties;
+import com.example.demo.config.RocketMQTopicConfig;
+import com.example.demo.dto.NotificationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.client.producer.selector.SelectMessageQueueByHash;
+import org.apache.rocketmq.common.message.MessageQueue;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.apache.rocketmq.spring.support.RocketMQHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RocketMQServiceTest {
+
+    @Mock
+    private RocketMQTemplate rocketMQTemplate;
+
+    @Mock
+    private PublishJournal publishJournal;
+
+    @Mock
+    private NotificationTopicQueues topicQueues;
+
+    private RocketMQPublisherProperties properties;
+    private RocketMQService rocketMQService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RocketMQPublisherProperties();
+        rocketMQService = new RocketMQService(rocketMQTemplate, properties, null, null, publishJournal, topicQueues, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void send_Orderly_HashesOnRecipientWithIdAsKey() {
+        when(rocketMQTemplate.syncSendOrderly(anyString(), any(Message.class), anyString())).thenReturn(ok());
+
+        rocketMQService.send(notification(7L, "a@example.com"));
+
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(rocketMQTemplate).syncSendOrderly(eq(RocketMQTopicConfig.NOTIFICATION_TOPIC), captor.capture(), eq("a@example.com"));
+        assertEquals("7", captor.getValue().getHeaders().get(RocketMQHeaders.KEYS));
+    }
+
+    @Test
+    void send_Unordered_UsesPlainSend() {
+        properties.setOrdering(MessageOrdering.UNORDERED);
+        when(rocketMQTemplate.syncSend(anyString(), any(Message.class))).thenReturn(ok());
+
+        rocketMQService.send(notification(7L, "a@example.com"));
+
+        verify(rocketMQTemplate).syncSend(eq(RocketMQTopicConfig.NOTIFICATION_TOPIC), any(Message.class));
+        verify(rocketMQTemplate, never()).syncSendOrderly(anyString(), any(Message.class), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendBatch_Orderly_SendsOneBatchPerQueueInOrder() {
+        // with 2 queues a@ and c@ hash to queue 0, b@ to queue 1
+        when(topicQueues.count()).thenReturn(2);
+        when(rocketMQTemplate.syncSendOrderly(anyString(), anyCollection(), anyString())).thenReturn(ok());
+
+        rocketMQService.sendBatch(List.of(
+                notification(1L, "a@example.com"),
+                notification(2L, "b@example.com"),
+                notification(3L, "c@example.com"),
+                notification(4L, "a@example.com")));
+
+        ArgumentCaptor<Collection<Message<NotificationResponse>>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(rocketMQTemplate).syncSendOrderly(anyString(), captor.capture(), eq("a@example.com"));
+        assertEquals(List.of(1L, 3L, 4L), captor.getValue().stream().map(m -> m.getPayload().getId()).toList());
+        verify(rocketMQTemplate).syncSendOrderly(anyString(), anyCollection(), eq("b@example.com"));
+        verifyNoMoreInteractions(rocketMQTemplate);
+    }
+
+    @Test
+    void byQueue_PicksTheQueueTheDefaultSelectorPicks() {
+        List<MessageQueue> queues = IntStream.range(0, 8)
+                .mapToObj(i -> new MessageQueue(RocketMQTopicConfig.NOTIFICATION_TOPIC, "broker-a", i))
+                .toList();
+        SelectMessageQueueByHash selector = new SelectMessageQueueByHash();
+
+        for (int i = 0; i < 1000; i++) {
+            String recipient = "user" + i + "@example.com";
+            assertEquals(selector.select(queues, null, recipient).getQueueId(), NotificationMessages.queueOf(recipient, queues.size()));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendBatch_OrderlyQueueCountUnknown_SendsOneBatchPerRecipientInOrder() {
+        when(rocketMQTemplate.syncSendOrderly(anyString(), anyCollection(), anyString())).thenReturn(ok());
+
+        rocketMQService.sendBatch(List.of(
+                notification(1L, "a@example.com"),
+                notification(2L, "b@example.com"),
+                notification(3L, "a@example.com")));
+
+        ArgumentCaptor<Collection<Message<NotificationResponse>>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(rocketMQTemplate).syncSendOrderly(anyString(), captor.capture(), eq("a@example.com"));
+        assertEquals(List.of(1L, 3L), captor.getValue().stream().map(m -> m.getPayload().getId()).toList());
+        verify(rocketMQTemplate).syncSendOrderly(anyString(), anyCollection(), eq("b@example.com"));
+    }
+
+    @Test
+    void send_BrokerDown_AppendsToJournal() {
+        NotificationResponse notification = notification(7L, "a@example.com");
+        when(rocketMQTemplate.syncSendOrderly(anyString(), any(Message.class), anyString()))
+                .thenThrow(new IllegalStateException("broker down"));
+
+        rocketMQService.send(notification);
+
+        verify(publishJournal).append(List.of(notification));
+    }
+
+    @Test
+    void sendBatch_ChunkFails_JournalsItAndEveryLaterChunk() {
+        properties.setOrdering(MessageOrdering.UNORDERED);
+        List<NotificationResponse> notifications = LongStream.rangeClosed(1, RocketMQService.MAX_BATCH_SIZE + 10)
+                .mapToObj(id -> notification(id, "a@example.com"))
+                .toList();
+        when(rocketMQTemplate.syncSend(anyString(), anyCollection())).thenThrow(new IllegalStateException("broker down"));
+
+        rocketMQService.sendBatch(notifications);
+
+        verify(rocketMQTemplate, times(1)).syncSend(anyString(), anyCollection());
+        verify(publishJournal).append(notifications);
+    }
+
+    @Test
+    void sendBatch_OrderlyGroupJournaled_LaterGroupsQueueBehindIt() {
+        when(topicQueues.count()).thenReturn(2);
+        when(rocketMQTemplate.syncSendOrderly(anyString(), anyCollection(), eq("a@example.com")))
+                .thenThrow(new IllegalStateException("broker down"));
+        when(publishJournal.hasBacklog()).thenReturn(false, false, true);
+        when(publishJournal.append(anyList())).thenReturn(true);
+        NotificationResponse first = notification(1L, "a@example.com");
+        NotificationResponse second = notification(2L, "b@example.com");
+
+        rocketMQService.sendBatch(List.of(first, second));
+
+        verify(publishJournal).append(List.of(first));
+        verify(publishJournal).append(List.of(second));
+        verify(rocketMQTemplate, never()).syncSendOrderly(anyString(), anyCollection(), eq("b@example.com"));
+    }
+
+    @Test
+    void send_JournalBacklog_QueuesBehindItWithoutSending() {
+        NotificationResponse notification = notification(7L, "a@example.com");
+        when(publishJournal.hasBacklog()).thenReturn(true);
+        when(publishJournal.append(anyList())).thenReturn(true);
+
+        rocketMQService.send(notification);
+
+        verify(publishJournal).append(List.of(notification));
+        verifyNoInteractions(rocketMQTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replayJournal_SendsOneBatchPerQueueThenCommitsTheRead() {
+        PublishJournal.Entry first = new PublishJournal.Entry(notification(1L, "a@example.com"), 10);
+        PublishJournal.Entry second = new PublishJournal.Entry(notification(2L, "b@example.com"), 20);
+        PublishJournal.Entry third = new PublishJournal.Entry(notification(3L, "a@example.com"), 30);
+        when(topicQueues.count()).thenReturn(2);
+        when(publishJournal.hasBacklog()).thenReturn(true, false);
+        when(publishJournal.read(RocketMQService.MAX_BATCH_SIZE)).thenReturn(List.of(first, second, third));
+        when(rocketMQTemplate.syncSendOrderly(anyString(), anyCollection(), anyString())).thenReturn(ok());
+
+        rocketMQService.replayJournal();
+
+        InOrder inOrder = inOrder(rocketMQTemplate, publishJournal);
+        inOrder.verify(rocketMQTemplate).syncSendOrderly(anyString(), anyCollection(), eq("a@example.com"));
+        inOrder.verify(rocketMQTemplate).syncSendOrderly(anyString(), anyCollection(), eq("b@example.com"));
+        inOrder.verify(publishJournal).commit(third, 3);
+        verify(rocketMQTemplate, times(2)).syncSendOrderly(anyString(), anyCollection(), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replayJournal_BrokerStillDown_CommitsNothingAndStops() {
+        when(publishJournal.hasBacklog()).thenReturn(true);
+        when(publishJournal.read(RocketMQService.MAX_BATCH_SIZE))
+                .thenReturn(List.of(new PublishJournal.Entry(notification(1L, "a@example.com"), 10)));
+        when(rocketMQTemplate.syncSendOrderly(anyString(), anyCollection(), anyString()))
+                .thenThrow(new IllegalStateException("broker down"));
+
+        rocketMQService.replayJournal();
+
+        verify(publishJournal, times(1)).read(anyInt());
+        verify(publishJournal, never()).commit(any(), anyInt());
+    }
+
+    private static SendResult ok() {
+        SendResult result = new SendResult();
+        result.setSendStatus(SendStatus.SEND_OK);
+        return result;
+    }
+
+    private static NotificationResponse notification(Long id, String recipient) {
+        return NotificationResponse.builder().id(id).recipient(recipient).build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import com.example.demo.config.CacheExpiryProperties;
+import com.example.demo.config.CacheSerializationProperties;
+import com.example.demo.config.CacheWarmUpProperties;
+import com.example.demo.config.RedisConfig;
+import com.example.demo.config.ShardingProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.model.Notification;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.sharding.ShardRouter;
+import com.example.demo.sharding.WorkerIdLease;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmerTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private StringRedisTemplate redis;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisStringCommands stringCommands;
+
+    private CacheWarmer cacheWarmer;
+
+    @BeforeEach
+    void setUp() {
+        CacheWarmUpProperties properties = new CacheWarmUpProperties();
+        properties.setPageSize(2);
+        properties.setMaxEntries(3);
+        properties.setPagesPerSecond(1000);
+        RedisConfig redisConfig = new RedisConfig();
+        cacheWarmer = new CacheWarmer(notificationRepository, notificationService,
+                new ShardRouter(new ShardingProperties(), WorkerIdLease.fixed(0), mock(PlatformTransactionManager.class)), redis,
+                redisConfig.redisValueSerializer(redisConfig.objectMapper(), new CacheSerializationProperties()),
+                new CacheExpiryProperties(), properties, new SimpleMeterRegistry());
+        when(redis.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void check_RedisEmpty_CachesNewestRowsPageByPageAndMarksWarm() {
+        when(valueOperations.setIfAbsent(eq(CacheWarmer.MARKER_KEY), eq(CacheWarmer.WARMING), any())).thenReturn(true);
+        when(notificationRepository.findIdsBefore(Long.MAX_VALUE, PageRequest.of(0, 2))).thenReturn(List.of(5L, 4L));
+        when(notificationRepository.findIdsBefore(4L, PageRequest.of(0, 1))).thenReturn(List.of(3L));
+        when(notificationRepository.findAllById(List.of(5L, 4L))).thenReturn(List.of(row(5L), row(4L)));
+        when(notificationRepository.findAllById(List.of(3L))).thenReturn(List.of(row(3L)));
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(redis.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, RedisCallback.class).doInRedis(connection);
+            return List.of();
+        });
+
+        cacheWarmer.check();
+
+        ArgumentCaptor<byte[]> keys = ArgumentCaptor.forClass(byte[].class);
+        verify(stringCommands, times(3)).set(keys.capture(), any(byte[].class), any(Expiration.class), eq(SetOption.ifAbsent()));
+        assertEquals(List.of("notification::5", "notification::4", "notification::3"),
+                keys.getAllValues().stream().map(key -> new String(key, StandardCharsets.UTF_8)).toList());
+        verify(notificationService, times(1)).getRecentNotifications();
+        verify(valueOperations, times(1)).set(CacheWarmer.MARKER_KEY, CacheWarmer.WARM);
+        assertEquals(CacheWarmer.Phase.WARM, cacheWarmer.getPhase());
+        assertEquals(3, cacheWarmer.getLoaded());
+        assertTrue(cacheWarmer.isReady());
+    }
+
+    @Test
+    void check_RedisAlreadyWarm_ReadsNothing() {
+        when(valueOperations.setIfAbsent(eq(CacheWarmer.MARKER_KEY), eq(CacheWarmer.WARMING), any())).thenReturn(false);
+        when(valueOperations.get(CacheWarmer.MARKER_KEY)).thenReturn(CacheWarmer.WARM);
+
+        cacheWarmer.check();
+
+        assertTrue(cacheWarmer.isReady());
+        verifyNoInteractions(notificationRepository, notificationService);
+    }
+
+    @Test
+    void check_OtherNodeWarming_NotReadyYet() {
+        when(valueOperations.setIfAbsent(eq(CacheWarmer.MARKER_KEY), eq(CacheWarmer.WARMING), any())).thenReturn(false);
+        when(valueOperations.get(CacheWarmer.MARKER_KEY)).thenReturn(CacheWarmer.WARMING);
+
+        cacheWarmer.check();
+
+        assertFalse(cacheWarmer.isReady());
+        assertEquals(CacheWarmer.Phase.PENDING, cacheWarmer.getPhase());
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void check_WarmUpFails_ReleasesClaimAndDoesNotHoldReadiness() {
+        when(valueOperations.setIfAbsent(eq(CacheWarmer.MARKER_KEY), eq(CacheWarmer.WARMING), any())).thenReturn(true);
+        when(notificationRepository.findIdsBefore(anyLong(), any())).thenThrow(new IllegalStateException("database down"));
+
+        cacheWarmer.check();
+
+        verify(redis, times(1)).delete(CacheWarmer.MARKER_KEY);
+        verify(valueOperations, never()).set(CacheWarmer.MARKER_KEY, CacheWarmer.WARM);
+        assertEquals(CacheWarmer.Phase.FAILED, cacheWarmer.getPhase());
+        assertTrue(cacheWarmer.isReady());
+    }
+
+    private static Notification row(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        return Notification.builder()
+                .id(id)
+                .type(NotificationType.EMAIL)
+                .recipient("warm@example.com")
+                .subject("Subject " + id)
+                .content("Content " + id)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
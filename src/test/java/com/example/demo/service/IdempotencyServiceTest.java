@@ -0,0 +1,206 @@
+package com.example.demo.service;
+
+import com.example.demo.config.IdempotencyProperties;
+import com.example.demo.exception.IdempotencyKeyConflictException;
+import com.example.demo.exception.IdempotencyKeyMismatchException;
+import com.example.demo.exception.InvalidIdempotencyKeyException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyServiceTest {
+
+    @Mock
+    private StringRedisTemplate redis;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    // backs the mocked Redis calls so reservations behave like SET NX / GET / compare-and-delete
+    private final Map<String, String> store = new ConcurrentHashMap<>();
+    private IdempotencyProperties properties;
+    private IdempotencyService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new IdempotencyProperties();
+        properties.setWait(Duration.ofSeconds(2));
+        properties.setPollInterval(Duration.ofMillis(5));
+        service = new IdempotencyService(redis, new ObjectMapper(), properties, new SimpleMeterRegistry());
+
+        when(redis.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenAnswer(invocation -> store.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> store.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> store.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        when(redis.execute(any(RedisScript.class), anyList(), any())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            return store.remove(keys.get(0), invocation.getArgument(2)) ? 1L : 0L;
+        });
+    }
+
+    @Test
+    void execute_Retry_ReplaysFirstResponse() {
+        AtomicInteger executions = new AtomicInteger();
+
+        IdempotencyService.Result<String> first = service.execute("create", "key-1", "request", String.class,
+                () -> "created-" + executions.incrementAndGet(), Optional::empty);
+        IdempotencyService.Result<String> retry = service.execute("create", "key-1", "request", String.class,
+                () -> "created-" + executions.incrementAndGet(), Optional::empty);
+
+        assertEquals(1, executions.get());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals("created-1", retry.value());
+        verify(valueOperations).set(eq("idempotency:create:key-1"), contains("DONE"), eq(properties.getTtl()));
+    }
+
+    @Test
+    void execute_ConcurrentDuplicates_ExecuteOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<IdempotencyService.Result<String>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> service.execute("create", "key-1", "request", String.class, () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "created";
+                }, Optional::empty)));
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+            release.countDown();
+
+            int replayed = 0;
+            for (Future<IdempotencyService.Result<String>> result : results) {
+                assertEquals("created", result.get(5, TimeUnit.SECONDS).value());
+                replayed += result.get().replayed() ? 1 : 0;
+            }
+            assertEquals(callers - 1, replayed);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_KeyReusedWithDifferentRequest_ThrowsMismatch() {
+        service.execute("create", "key-1", "request", String.class, () -> "created", Optional::empty);
+
+        assertThrows(IdempotencyKeyMismatchException.class, () ->
+                service.execute("create", "key-1", "other request", String.class, () -> "created", Optional::empty));
+    }
+
+    @Test
+    void execute_SameKeyOnOtherScope_ExecutesSeparately() {
+        AtomicInteger executions = new AtomicInteger();
+
+        service.execute("create", "key-1", "request", String.class, () -> "created-" + executions.incrementAndGet(), Optional::empty);
+        IdempotencyService.Result<String> batch = service.execute("batch", "key-1", "request", String.class,
+                () -> "created-" + executions.incrementAndGet(), Optional::empty);
+
+        assertEquals(2, executions.get());
+        assertFalse(batch.replayed());
+    }
+
+    @Test
+    void execute_ActionFails_ReleasesReservationForRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(IllegalStateException.class, () -> service.execute("create", "key-1", "request", String.class,
+                () -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("db down");
+                }, Optional::empty));
+
+        assertEquals(1, attempts.get());
+        assertTrue(store.isEmpty());
+        IdempotencyService.Result<String> retry = service.execute("create", "key-1", "request", String.class,
+                () -> "created", Optional::empty);
+        assertFalse(retry.replayed());
+        assertEquals("created", retry.value());
+    }
+
+    @Test
+    void execute_StillPendingAfterWait_ThrowsConflict() {
+        properties.setWait(Duration.ofMillis(50));
+        store.put("idempotency:create:key-1", "{\"state\":\"PENDING\",\"fingerprint\":\"" + fingerprintOf("request") + "\",\"token\":\"t\"}");
+
+        assertThrows(IdempotencyKeyConflictException.class, () ->
+                service.execute("create", "key-1", "request", String.class, () -> "created", Optional::empty));
+    }
+
+    @Test
+    void execute_RedisDown_FallsBackToUniqueColumn() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        IdempotencyService.Result<String> result = service.execute("create", "key-1", "request", String.class,
+                () -> {
+                    throw new DataIntegrityViolationException("Duplicate entry 'key-1' for key 'uk_idempotency_key'");
+                }, () -> Optional.of("original"));
+
+        assertTrue(result.replayed());
+        assertEquals("original", result.value());
+    }
+
+    @Test
+    void execute_InvalidKey_ThrowsWithoutReserving() {
+        assertThrows(InvalidIdempotencyKeyException.class, () ->
+                service.execute("create", "has space", "request", String.class, () -> "created", Optional::empty));
+        assertThrows(InvalidIdempotencyKeyException.class, () ->
+                service.execute("create", "k".repeat(65), "request", String.class, () -> "created", Optional::empty));
+
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    // the stored fingerprint of a reservation made for the same request body
+    private String fingerprintOf(String request) {
+        service.execute("probe", "probe", request, String.class, () -> "", Optional::empty);
+        String entry = store.get("idempotency:probe:probe");
+        int start = entry.indexOf("\"fingerprint\":\"") + 15;
+        return entry.substring(start, entry.indexOf('"', start));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
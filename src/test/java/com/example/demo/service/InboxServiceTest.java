@@ -0,0 +1,163 @@
+package com.example.demo.service;
+
+import com.example.demo.config.InboxProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.InboxPageResponse;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.exception.InvalidCursorException;
+import com.example.demo.repository.NotificationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InboxServiceTest {
+
+    private static final String KEY = "notifications:first-page:a@example.com";
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private ObjectMapper objectMapper;
+    private InboxService inboxService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        InboxProperties properties = new InboxProperties();
+        properties.setDefaultLimit(2);
+        properties.setMaxLimit(5);
+        inboxService = new InboxService(notificationRepository, stringRedisTemplate, objectMapper, properties);
+    }
+
+    @Test
+    void getPage_FirstPageMiss_LoadsFromDbAndCachesUnderReadVersion() {
+        when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet(KEY, InboxService.FIELDS)).thenReturn(Arrays.asList("3", null));
+        when(notificationRepository.findInboxFirstPage("a@example.com", PageRequest.of(0, 6)))
+                .thenReturn(rows(3));
+
+        InboxPageResponse page = inboxService.getPage("a@example.com", null, null);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+        // the script drops the fill if an eviction bumped the version past 3 meanwhile
+        verify(stringRedisTemplate, times(1)).execute(eq(InboxService.FILL_SCRIPT), eq(List.of(KEY)), eq("3"), anyString(), eq("300000"));
+    }
+
+    @Test
+    void getPage_RedisDown_ServesDbWithoutFill() {
+        when(stringRedisTemplate.opsForHash()).thenThrow(new IllegalStateException("connection refused"));
+        when(notificationRepository.findInboxFirstPage(anyString(), any())).thenReturn(rows(1));
+
+        assertEquals(1, inboxService.getPage("a@example.com", null, null).getItems().size());
+        verify(stringRedisTemplate, never()).execute(eq(InboxService.FILL_SCRIPT), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void getPage_FirstPageHit_SkipsDb() throws Exception {
+        when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet(KEY, InboxService.FIELDS))
+                .thenReturn(Arrays.asList("3", objectMapper.writeValueAsString(rows(1))));
+
+        InboxPageResponse page = inboxService.getPage("a@example.com", null, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verify(notificationRepository, never()).findInboxFirstPage(anyString(), any());
+    }
+
+    @Test
+    void getPage_WithCursor_SeeksPastLastItem() {
+        List<RecentNotificationResponse> first = rows(3);
+        when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet(KEY, InboxService.FIELDS)).thenReturn(Arrays.asList(null, null));
+        when(notificationRepository.findInboxFirstPage(anyString(), any())).thenReturn(first);
+        String cursor = inboxService.getPage("a@example.com", null, 2).getNextCursor();
+        RecentNotificationResponse last = first.get(1);
+        when(notificationRepository.findInboxPageAfter("a@example.com", last.getCreatedAt(), last.getId(), PageRequest.of(0, 3)))
+                .thenReturn(List.of(first.get(2)));
+
+        InboxPageResponse page = inboxService.getPage("a@example.com", cursor, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(first.get(2).getId(), page.getItems().get(0).getId());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void getPage_MalformedCursor_ThrowsException() {
+        assertThrows(InvalidCursorException.class, () -> inboxService.getPage("a@example.com", "not-a-cursor", 2));
+    }
+
+    @Test
+    void evict_InTransaction_WaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inboxService.evict("a@example.com");
+            inboxService.evictAll(List.of("b@example.com", "b@example.com"));
+            verifyNoInteractions(stringRedisTemplate);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(stringRedisTemplate, times(1)).execute(InboxService.EVICT_SCRIPT, List.of(KEY), "300000");
+        verify(stringRedisTemplate, times(1)).execute(InboxService.EVICT_SCRIPT, List.of("notifications:first-page:b@example.com"), "300000");
+    }
+
+    @Test
+    void evict_RolledBack_KeepsCachedPage() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inboxService.evict("a@example.com");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    private List<RecentNotificationResponse> rows(int count) {
+        List<RecentNotificationResponse> rows = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2025, 7, 15, 12, 0);
+        for (int i = 0; i < count; i++) {
+            rows.add(RecentNotificationResponse.builder()
+                    .id(100L - i)
+                    .type(NotificationType.EMAIL)
+                    .recipient("a@example.com")
+                    .subject("Subject " + i)
+                    .createdAt(base.minusMinutes(i))
+                    .build());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PartitioningProperties;
+import com.example.demo.config.ShardingProperties;
+import com.example.demo.repository.MonthlyPartitions;
+import com.example.demo.repository.NotificationArchiveRepository;
+import com.example.demo.repository.NotificationArchiveRepository.CopiedBatch;
+import com.example.demo.sharding.ShardRouter;
+import com.example.demo.sharding.WorkerIdLease;
+import com.example.demo.sharding.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.demo.repository.NotificationArchiveRepository.ARCHIVE;
+import static com.example.demo.repository.NotificationArchiveRepository.NOTIFICATIONS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class NotificationArchiveServiceTest {
+
+    private static final YearMonth OCTOBER = YearMonth.of(2026, 10);
+
+    @Mock
+    private NotificationArchiveRepository archiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationArchiveService service;
+
+    @BeforeEach
+    void setUp() {
+        PartitioningProperties properties = new PartitioningProperties();
+        properties.setHotMonths(3);
+        properties.setArchiveMonths(12);
+        properties.setPremakeMonths(2);
+        properties.setBatchSize(2);
+        service = new NotificationArchiveService(archiveRepository, new ShardRouter(new ShardingProperties(), WorkerIdLease.fixed(0), transactionManager),
+                properties, new SimpleMeterRegistry());
+        when(archiveRepository.copyToArchive(anyString(), anyLong(), anyInt())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void maintainShard_FreshTable_SplitsFutureFromCurrentMonth() {
+        when(archiveRepository.findPartitions(anyString())).thenReturn(List.of(MonthlyPartitions.FUTURE));
+
+        service.maintainShard(OCTOBER);
+
+        List<YearMonth> months = List.of(OCTOBER, OCTOBER.plusMonths(1), OCTOBER.plusMonths(2));
+        verify(archiveRepository).splitFuture(NOTIFICATIONS, months);
+        verify(archiveRepository).splitFuture(ARCHIVE, months);
+        verify(archiveRepository, never()).dropPartitions(anyString(), anyList());
+    }
+
+    @Test
+    void maintainShard_MonthsPastHotWindow_CopiedThenDropped() {
+        when(archiveRepository.findPartitions(NOTIFICATIONS)).thenReturn(List.of(
+                "p202606", "p202607", "p202608", "p202609", "p202610", "p202611", "p202612", MonthlyPartitions.FUTURE));
+        when(archiveRepository.findPartitions(ARCHIVE)).thenReturn(List.of("p202612", MonthlyPartitions.FUTURE));
+        when(archiveRepository.copyToArchive("p202606", 0, 2)).thenReturn(Optional.of(new CopiedBatch(7, 2)));
+        when(archiveRepository.copyToArchive("p202606", 7, 2)).thenReturn(Optional.of(new CopiedBatch(9, 1)));
+
+        service.maintainShard(OCTOBER);
+
+        verify(archiveRepository).copyToArchive("p202606", 9, 2);
+        verify(archiveRepository).dropPartitions(NOTIFICATIONS, List.of("p202606"));
+        verify(archiveRepository).dropPartitions(NOTIFICATIONS, List.of("p202607"));
+        verify(archiveRepository, never()).dropPartitions(NOTIFICATIONS, List.of("p202608"));
+        verify(archiveRepository, never()).splitFuture(eq(NOTIFICATIONS), anyList());
+    }
+
+    @Test
+    void maintainShard_IncompleteCopy_KeepsPartition() {
+        when(archiveRepository.findPartitions(NOTIFICATIONS)).thenReturn(List.of("p202606", "p202612", MonthlyPartitions.FUTURE));
+        when(archiveRepository.findPartitions(ARCHIVE)).thenReturn(List.of("p202612", MonthlyPartitions.FUTURE));
+        when(archiveRepository.countUnarchived("p202606")).thenReturn(3L);
+
+        service.maintainShard(OCTOBER);
+
+        verify(archiveRepository, never()).dropPartitions(eq(NOTIFICATIONS), anyList());
+    }
+
+    @Test
+    void maintainShard_ArchiveMonthsPastRetention_DroppedTogether() {
+        when(archiveRepository.findPartitions(NOTIFICATIONS)).thenReturn(List.of("p202612", MonthlyPartitions.FUTURE));
+        when(archiveRepository.findPartitions(ARCHIVE)).thenReturn(List.of(
+                "p202509", "p202510", "p202511", "p202612", MonthlyPartitions.FUTURE));
+
+        service.maintainShard(OCTOBER);
+
+        verify(archiveRepository).dropPartitions(ARCHIVE, List.of("p202509", "p202510"));
+    }
+
+    @Test
+    void maintainShard_PurgesIdempotencyKeysInBatches() {
+        when(archiveRepository.findPartitions(anyString())).thenReturn(List.of("p202612", MonthlyPartitions.FUTURE));
+        when(archiveRepository.deleteIdempotencyKeysBefore(any(LocalDateTime.class), eq(2))).thenReturn(2, 2, 1);
+
+        service.maintainShard(OCTOBER);
+
+        verify(archiveRepository, times(3)).deleteIdempotencyKeysBefore(any(LocalDateTime.class), eq(2));
+    }
+
+    @Test
+    void maintainShard_UnpartitionedTable_Throws() {
+        when(archiveRepository.findPartitions(anyString())).thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> service.maintainShard(OCTOBER));
+    }
+
+    @Test
+    void upperBound_IsFirstIdOfNextMonth() {
+        long firstNovemberMillis = YearMonth.of(2026, 11).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        long bound = MonthlyPartitions.upperBound(OCTOBER);
+
+        assertEquals(firstNovemberMillis, SnowflakeIdGenerator.epochMillisOf(bound));
+        assertEquals(bound, MonthlyPartitions.lowerBound(YearMonth.of(2026, 11)));
+        assertTrue(new SnowflakeIdGenerator(5).nextId(63) < MonthlyPartitions.upperBound(YearMonth.now(ZoneOffset.UTC)));
+        assertEquals(Optional.of(OCTOBER), MonthlyPartitions.monthOf(MonthlyPartitions.name(OCTOBER)));
+        assertEquals(Optional.empty(), MonthlyPartitions.monthOf(MonthlyPartitions.FUTURE));
+    }
+}
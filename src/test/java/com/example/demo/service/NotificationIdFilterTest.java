@@ -0,0 +1,206 @@
+package com.example.demo.service;
+
+import com.example.demo.config.NegativeCacheProperties;
+import com.example.demo.config.ShardingProperties;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.sharding.ShardRouter;
+import com.example.demo.sharding.SnowflakeIdGenerator;
+import com.example.demo.sharding.WorkerIdLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationIdFilterTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private NegativeCacheProperties properties;
+    private NotificationIdFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NegativeCacheProperties();
+        filter = new NotificationIdFilter(notificationRepository, stringRedisTemplate, properties,
+                new ShardRouter(new ShardingProperties(), WorkerIdLease.fixed(0), mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void mightExist_BeforeFirstRebuild_AllowsEverything() {
+        assertTrue(filter.mightExist(42L));
+    }
+
+    @Test
+    void mightExist_AfterRebuild_RejectsUnknownIdsBelowWatermarkOnly() {
+        rebuildWith(List.of(1L, 2L, 5L), 5L);
+
+        assertTrue(filter.mightExist(1L));
+        assertTrue(filter.mightExist(5L));
+        assertFalse(filter.mightExist(3L));
+        // newer than the watermark: may have been created on another node since the rebuild
+        assertTrue(filter.mightExist(6L));
+    }
+
+    @Test
+    void mightExist_IdsBelowOldestScanned_PassToArchiveLookup() {
+        rebuildWith(List.of(100L, 102L), 102L);
+
+        assertFalse(filter.mightExist(101L));
+        // archived partitions are always older than what is left in notifications
+        assertTrue(filter.mightExist(42L));
+    }
+
+    @Test
+    void onCreated_AddsIdsAndClearsNegativeEntries() {
+        rebuildWith(List.of(1L, 10L), 10L);
+
+        filter.onCreated(List.of(3L, 4L));
+
+        assertTrue(filter.mightExist(3L));
+        assertTrue(filter.mightExist(4L));
+        verify(stringRedisTemplate).delete(List.of("notifications:missing:3", "notifications:missing:4"));
+    }
+
+    @Test
+    void markMissing_WritesEntryWithTtl() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        filter.markMissing(7L);
+
+        verify(valueOperations).set("notifications:missing:7", "1", Duration.ofSeconds(60));
+    }
+
+    @Test
+    void markMissing_InTransaction_WritesOnlyAfterCommit() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            filter.markMissing(7L);
+            filter.markMissing(8L);
+            verifyNoInteractions(valueOperations);
+
+            // 7 commits; 8's transaction rolls back and never runs afterCommit
+            TransactionSynchronizationManager.getSynchronizations().get(0).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(valueOperations).set("notifications:missing:7", "1", Duration.ofSeconds(60));
+        verifyNoMoreInteractions(valueOperations);
+    }
+
+    @Test
+    void isKnownMissing_RedisFailure_ReturnsFalse() {
+        when(stringRedisTemplate.hasKey(anyString())).thenThrow(new IllegalStateException("connection refused"));
+
+        assertFalse(filter.isKnownMissing(7L));
+    }
+
+    @Test
+    void disabled_AllowsEverythingWithoutRedis() {
+        properties.setEnabled(false);
+        rebuildWith(List.of(1L), 10L);
+
+        assertTrue(filter.mightExist(3L));
+        assertFalse(filter.isKnownMissing(3L));
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void rebuild_AfterFullRebuild_OnlyScansIdsNearAndAboveWatermark() {
+        long watermark = idAt(Instant.parse("2026-06-01T12:00:00Z"));
+        rebuildWith(List.of(idAt(Instant.parse("2026-05-01T00:00:00Z")), watermark), watermark);
+        when(notificationRepository.findIdsCreatedBefore(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(watermark + 2));
+        when(notificationRepository.findIdsAfter(eq(idAt(Instant.parse("2026-06-01T11:45:00Z")) - 1), any(Pageable.class)))
+                .thenReturn(List.of(watermark, watermark + 1, watermark + 2));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightExist(watermark + 1));
+        assertFalse(filter.mightExist(watermark - 1));
+        verify(notificationRepository, times(1)).count();
+        verify(notificationRepository, times(1)).findIdsBefore(eq(Long.MAX_VALUE), any(Pageable.class));
+    }
+
+    @Test
+    void rebuild_RowCommittedAfterNewerOnes_IsPickedUpByNextIncrement() {
+        long watermark = idAt(Instant.parse("2026-06-01T12:00:00Z"));
+        // generated five minutes before the watermark, committed (a write-behind flush) after the full rebuild
+        long late = idAt(Instant.parse("2026-06-01T11:55:00Z"));
+        rebuildWith(List.of(idAt(Instant.parse("2026-05-01T00:00:00Z")), watermark), watermark);
+        assertFalse(filter.mightExist(late));
+        when(notificationRepository.findIdsCreatedBefore(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(watermark));
+        when(notificationRepository.findIdsAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(late, watermark));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightExist(late));
+    }
+
+    @Test
+    void rebuild_AfterFullRebuildInterval_RebuildsFully() {
+        properties.setFullRebuildInterval(Duration.ZERO);
+        rebuildWith(List.of(1L, 2L, 5L), 5L);
+
+        filter.rebuild();
+
+        verify(notificationRepository, times(2)).count();
+        verify(notificationRepository, never()).findIdsAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void rebuild_MoreRowsThanMaxEntries_HoldsNewestIdsAndRaisesFloor() {
+        properties.setMaxEntries(10_000);
+        List<Long> newest = LongStream.iterate(100_000, id -> id - 1).limit(8_000).boxed().toList();
+        when(notificationRepository.findIdsCreatedBefore(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(100_000L));
+        when(notificationRepository.count()).thenReturn(50_000L);
+        when(notificationRepository.findIdsBefore(eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(newest);
+
+        filter.rebuild();
+
+        // four fifths of the capacity, leaving room for the increments
+        verify(notificationRepository).findIdsBefore(Long.MAX_VALUE, PageRequest.of(0, 8_000));
+        assertTrue(filter.mightExist(92_001L));
+        // below the newest 8000: not held, so passed to the database
+        assertTrue(filter.mightExist(50_000L));
+    }
+
+    private static long idAt(Instant instant) {
+        return SnowflakeIdGenerator.firstIdAt(instant.toEpochMilli());
+    }
+
+    private void rebuildWith(List<Long> ids, long watermark) {
+        lenient().when(notificationRepository.findIdsCreatedBefore(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(watermark));
+        lenient().when(notificationRepository.count()).thenReturn((long) ids.size());
+        lenient().when(notificationRepository.findIdsBefore(eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(ids.stream().sorted(Comparator.reverseOrder()).toList());
+        filter.rebuild();
+    }
+}
@@ -1,29 +1,53 @@
 package com.example.demo.service;
 
+import com.example.demo.config.ShardingProperties;
+import com.example.demo.constants.NotificationChange;
 import com.example.demo.constants.NotificationType;
+import com.example.demo.datasource.ReadRouting;
+import com.example.demo.dto.BatchCreateNotificationResponse;
 import com.example.demo.dto.CreateNotificationRequest;
 import com.example.demo.dto.NotificationResponse;
 import com.example.demo.dto.RecentNotificationResponse;
 import com.example.demo.dto.UpdateNotificationRequest;
+import com.example.demo.exception.InvalidBatchRequestException;
 import com.example.demo.exception.NotificationNotFoundException;
 import com.example.demo.model.Notification;
 import com.example.demo.mq.RocketMQService;
 import com.example.demo.repository.NotificationRepository;
+import com.example.demo.sharding.ShardRouter;
+import com.example.demo.sharding.WorkerIdLease;
+import com.example.demo.stream.NotificationEventPublisher;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +62,31 @@ class NotificationServiceTest {
     @Mock
     private RocketMQService rocketMQService;
 
+    @Mock
+    private InboxService inboxService;
+
+    @Mock
+    private NotificationIdFilter notificationIdFilter;
+
+    @Mock
+    private ReadRouting readRouting;
+
+    @Mock
+    private NotificationArchiveService archiveService;
+
+    @Mock
+    private WriteBehindLog writeBehindLog;
+
+    @Mock
+    private NotificationEventPublisher eventPublisher;
+
+    @Mock
+    private Validator validator;
+
+    // a real single-shard router; only bind is stubbed since it needs Spring's transaction synchronization
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties(), WorkerIdLease.fixed(0), mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -48,7 +97,8 @@ class NotificationServiceTest {
     @BeforeEach
     void setUp() {
         LocalDateTime now = LocalDateTime.now();
-        
+        lenient().doNothing().when(shardRouter).bind(anyInt());
+
         mockNotification = Notification.builder()
                 .id(1L)
                 .type(NotificationType.EMAIL)
@@ -74,7 +124,7 @@ class NotificationServiceTest {
 
     @Test
     void createNotification_Success() {
-        when(notificationRepository.save(any(Notification.class))).thenReturn(mockNotification);
+        when(notificationRepository.saveAndFlush(any(Notification.class))).thenReturn(mockNotification);
         doNothing().when(redisService).add(any(RecentNotificationResponse.class));
         doNothing().when(rocketMQService).send(any(NotificationResponse.class));
 
@@ -87,13 +137,26 @@ class NotificationServiceTest {
         assertEquals("Test Subject", response.getSubject());
         assertEquals("Test Content", response.getContent());
 
-        verify(notificationRepository, times(1)).save(any(Notification.class));
+        verify(notificationRepository, times(1)).saveAndFlush(any(Notification.class));
         verify(redisService, times(1)).add(any(RecentNotificationResponse.class));
+        verify(inboxService, times(1)).evict("test@example.com");
+        verify(notificationIdFilter, times(1)).onCreated(List.of(1L));
         verify(rocketMQService, times(1)).send(any(NotificationResponse.class));
     }
 
+    @Test
+    void createNotification_InsertFails_RunsNoSideEffects() {
+        when(notificationRepository.saveAndFlush(any(Notification.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> notificationService.createNotification(createRequest));
+
+        verifyNoInteractions(redisService, inboxService, notificationIdFilter, rocketMQService, eventPublisher);
+    }
+
     @Test
     void getNotificationById_ExistingId_ReturnsNotification() {
+        when(notificationIdFilter.mightExist(1L)).thenReturn(true);
         when(notificationRepository.findById(1L)).thenReturn(Optional.of(mockNotification));
 
         NotificationResponse response = notificationService.getNotificationById(1L);
@@ -107,6 +170,7 @@ class NotificationServiceTest {
 
     @Test
     void getNotificationById_NonExistingId_ThrowsException() {
+        when(notificationIdFilter.mightExist(999L)).thenReturn(true);
         when(notificationRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(NotificationNotFoundException.class, () -> {
@@ -114,34 +178,113 @@ class NotificationServiceTest {
         });
 
         verify(notificationRepository, times(1)).findById(999L);
+        verify(notificationIdFilter, times(1)).markMissing(999L);
     }
 
     @Test
-    void getRecentNotifications_WithCachedData_ReturnsCachedList() {
-        List<RecentNotificationResponse> cachedList = Arrays.asList(
-                RecentNotificationResponse.builder()
-                        .id(1L)
-                        .type(NotificationType.EMAIL)
-                        .recipient("cached@example.com")
-                        .subject("Cached Subject")
-                        .createdAt(LocalDateTime.now())
-                        .build()
-        );
+    void createNotification_WriteBehind_AppendsWithoutInsert() {
+        when(writeBehindLog.isEnabled()).thenReturn(true);
+        when(writeBehindLog.append(any(Notification.class))).thenReturn(true);
+
+        NotificationResponse response = notificationService.createNotification(createRequest, "key-1");
+
+        assertNotNull(response.getId());
+        assertNotNull(response.getCreatedAt());
+        verify(redisService).add(any(RecentNotificationResponse.class));
+        verify(notificationRepository, never()).saveAndFlush(any(Notification.class));
+        verify(notificationRepository, never()).insertIdempotencyKeys(anyList());
+        verify(rocketMQService, never()).send(any(NotificationResponse.class));
+        // no transaction, so no pooled connection, while the append goes to Redis
+        verify(shardRouter, never()).inTransaction(anyInt(), any());
+    }
+
+    @Test
+    void createNotification_WriteBehindAppendFails_InsertsSynchronously() {
+        when(writeBehindLog.isEnabled()).thenReturn(true);
+        when(writeBehindLog.append(any(Notification.class))).thenReturn(false);
+        when(notificationRepository.saveAndFlush(any(Notification.class))).thenReturn(mockNotification);
+
+        notificationService.createNotification(createRequest);
+
+        verify(notificationRepository).saveAndFlush(any(Notification.class));
+        verify(rocketMQService).send(any(NotificationResponse.class));
+    }
+
+    @Test
+    void getNotificationById_PendingWrite_ServedFromLog() {
+        when(notificationIdFilter.mightExist(1L)).thenReturn(true);
+        when(writeBehindLog.find(1L)).thenReturn(Optional.of(mockNotification));
+
+        NotificationResponse result = notificationService.getNotificationById(1L);
+
+        assertEquals(1L, result.getId());
+        verify(notificationRepository, never()).findById(any());
+    }
+
+    @Test
+    void getNotificationById_ArchivedId_FallsBackToArchive() {
+        when(notificationIdFilter.mightExist(1L)).thenReturn(true);
+        when(notificationRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archiveService.findById(1L)).thenReturn(Optional.of(mockNotification));
+
+        NotificationResponse result = notificationService.getNotificationById(1L);
 
-        when(redisService.get()).thenReturn(cachedList);
+        assertEquals(1L, result.getId());
+        verify(notificationIdFilter, never()).markMissing(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getNotificationById_ReplicaMiss_RechecksOnPrimary() {
+        when(notificationIdFilter.mightExist(1L)).thenReturn(true);
+        when(notificationRepository.findById(1L)).thenReturn(Optional.empty(), Optional.of(mockNotification));
+        when(readRouting.isReplicaRead()).thenReturn(true);
+        when(readRouting.onPrimary(any())).thenAnswer(invocation ->
+                invocation.<Supplier<Optional<Notification>>>getArgument(0).get());
+
+        NotificationResponse result = notificationService.getNotificationById(1L);
+
+        assertEquals(1L, result.getId());
+        verify(notificationRepository, times(2)).findById(1L);
+        verify(notificationIdFilter, never()).markMissing(any());
+    }
+
+    @Test
+    void getNotificationById_FilteredId_ThrowsWithoutLookup() {
+        when(notificationIdFilter.mightExist(999L)).thenReturn(false);
+
+        assertThrows(NotificationNotFoundException.class, () -> notificationService.getNotificationById(999L));
 
-        List<RecentNotificationResponse> result = notificationService.getRecentNotifications();
+        verifyNoInteractions(notificationRepository);
+        verify(notificationIdFilter, never()).isKnownMissing(any());
+    }
+
+    @Test
+    void getNotificationById_KnownMissingId_ThrowsWithoutLookup() {
+        when(notificationIdFilter.mightExist(999L)).thenReturn(true);
+        when(notificationIdFilter.isKnownMissing(999L)).thenReturn(true);
 
-        assertEquals(1, result.size());
-        assertEquals("cached@example.com", result.get(0).getRecipient());
+        assertThrows(NotificationNotFoundException.class, () -> notificationService.getNotificationById(999L));
 
-        verify(redisService, times(1)).get();
-        verify(notificationRepository, never()).findTop10ByOrderByCreatedAtDesc();
+        verifyNoInteractions(notificationRepository);
     }
 
     @Test
-    void getRecentNotifications_NoCachedData_FetchesFromDatabase() {
-        when(redisService.get()).thenReturn(Collections.emptyList());
+    void getRecentNotifications_WithCachedData_ReturnsCachedSnapshot() {
+        RecentSnapshot cached = new RecentSnapshot(42L, 7L, "[]".getBytes());
+        when(redisService.getSnapshot()).thenReturn(cached);
+
+        RecentSnapshot result = notificationService.getRecentNotifications();
+
+        assertSame(cached, result);
+        verify(redisService, times(1)).getSnapshot();
+        verify(notificationRepository, never()).findAllByOrderByCreatedAtDesc(any(Pageable.class));
+    }
+
+    @Test
+    void getRecentNotifications_NoCachedData_RefillsFromDatabase() {
+        RecentSnapshot refilled = new RecentSnapshot(42L, 8L, "[]".getBytes());
+        when(redisService.getSnapshot()).thenReturn(null, refilled);
         
         List<Notification> dbNotifications = Arrays.asList(
                 mockNotification,
@@ -156,18 +299,33 @@ class NotificationServiceTest {
                         .build()
         );
         
-        when(notificationRepository.findTop10ByOrderByCreatedAtDesc()).thenReturn(dbNotifications);
-        doNothing().when(redisService).add(any(RecentNotificationResponse.class));
-
-        List<RecentNotificationResponse> result = notificationService.getRecentNotifications();
-
-        assertEquals(2, result.size());
-        assertEquals("test@example.com", result.get(0).getRecipient());
-        assertEquals("+1234567890", result.get(1).getRecipient());
+        when(redisService.getMaxSize()).thenReturn(10);
+        when(notificationRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, 10))).thenReturn(dbNotifications);
+
+        RecentSnapshot result = notificationService.getRecentNotifications();
+
+        assertSame(refilled, result);
+        verify(redisService, times(2)).getSnapshot();
+        verify(notificationRepository, times(1)).findAllByOrderByCreatedAtDesc(PageRequest.of(0, 10));
+        verify(redisService, times(1)).addAll(argThat(items -> items.size() == 2
+                && items.get(0).getRecipient().equals("test@example.com")
+                && items.get(1).getRecipient().equals("+1234567890")));
+        verify(redisService, never()).render(anyList());
+    }
 
-        verify(redisService, times(1)).get();
-        verify(notificationRepository, times(1)).findTop10ByOrderByCreatedAtDesc();
-        verify(redisService, times(2)).add(any(RecentNotificationResponse.class));
+    @Test
+    void getRecentNotifications_RedisUnavailable_RendersDatabaseWindowLocally() {
+        RecentSnapshot rendered = new RecentSnapshot(RecentSnapshot.UNVERSIONED, RecentSnapshot.UNVERSIONED, "[]".getBytes());
+        when(redisService.getSnapshot()).thenReturn(null);
+        when(redisService.getMaxSize()).thenReturn(10);
+        when(notificationRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, 10))).thenReturn(List.of(mockNotification));
+        when(redisService.render(anyList())).thenReturn(rendered);
+
+        RecentSnapshot result = notificationService.getRecentNotifications();
+
+        assertSame(rendered, result);
+        assertNull(result.etag());
+        verify(redisService, times(1)).render(argThat(items -> items.size() == 1 && items.get(0).getId().equals(1L)));
     }
 
     @Test
@@ -227,7 +385,7 @@ class NotificationServiceTest {
 
     @Test
     void deleteNotification_ExistingId_DeletesSuccessfully() {
-        when(notificationRepository.existsById(1L)).thenReturn(true);
+        when(notificationRepository.findById(1L)).thenReturn(Optional.of(mockNotification));
         doNothing().when(notificationRepository).deleteById(1L);
         doNothing().when(redisService).remove(1L);
 
@@ -235,22 +393,187 @@ class NotificationServiceTest {
             notificationService.deleteNotification(1L);
         });
 
-        verify(notificationRepository, times(1)).existsById(1L);
+        verify(notificationRepository, times(1)).findById(1L);
         verify(notificationRepository, times(1)).deleteById(1L);
         verify(redisService, times(1)).remove(1L);
+        verify(inboxService, times(1)).evict("test@example.com");
+        verify(notificationIdFilter, times(1)).markMissing(1L);
+        verify(eventPublisher, times(1)).publish(eq(NotificationChange.DELETED),
+                argThat((RecentNotificationResponse r) -> r.getId().equals(1L) && r.getRecipient().equals("test@example.com")));
     }
 
     @Test
     void deleteNotification_NonExistingId_ThrowsException() {
-        when(notificationRepository.existsById(999L)).thenReturn(false);
+        when(notificationRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(NotificationNotFoundException.class, () -> {
             notificationService.deleteNotification(999L);
         });
 
-        verify(notificationRepository, times(1)).existsById(999L);
+        verify(notificationRepository, times(1)).findById(999L);
         verify(notificationRepository, never()).deleteById(any());
         verify(redisService, never()).remove(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    @SuppressWarnings("unchecked")
+    void createNotifications_MixedBatch_ReportsPerItemResults() {
+        CreateNotificationRequest invalidRequest = CreateNotificationRequest.builder()
+                .type(NotificationType.SMS)
+                .recipient("")
+                .subject("Bad")
+                .content("Bad")
+                .build();
+        ConstraintViolation<CreateNotificationRequest> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Recipient is required");
+        when(validator.validate(createRequest)).thenReturn(Collections.emptySet());
+        when(validator.validate(invalidRequest)).thenReturn(Set.of(violation));
+        when(notificationRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Notification> toInsert = invocation.getArgument(0);
+            toInsert.forEach(n -> n.setId(10L));
+            return toInsert;
+        });
+
+        BatchCreateNotificationResponse response = notificationService.createNotifications(
+                Arrays.asList(createRequest, invalidRequest));
+
+        assertEquals(2, response.getTotal());
+        assertEquals(1, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertEquals(10L, response.getResults().get(0).getNotification().getId());
+        assertFalse(response.getResults().get(1).isSuccess());
+        assertEquals("Recipient is required", response.getResults().get(1).getError());
+
+        verify(notificationRepository, times(1)).insertAll(anyList());
+        verify(notificationRepository, never()).save(any());
+        verify(redisService, times(1)).addAll(anyList());
+        verify(rocketMQService, times(1)).sendBatch(anyList());
+    }
+
+    @Test
+    void createNotifications_AllInvalid_SkipsWrites() {
+        BatchCreateNotificationResponse response = notificationService.createNotifications(
+                Arrays.asList(null, null));
+
+        assertEquals(0, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        verify(notificationRepository, never()).insertAll(anyList());
+        verify(redisService, never()).addAll(anyList());
+        verify(rocketMQService, never()).sendBatch(anyList());
+    }
+
+    @Test
+    void createNotifications_EmptyBatch_ThrowsException() {
+        assertThrows(InvalidBatchRequestException.class, () -> {
+            notificationService.createNotifications(Collections.emptyList());
+        });
+
+        verify(notificationRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void createNotification_WithIdempotencyKey_ClaimsKeyBeforeSave() {
+        when(notificationRepository.saveAndFlush(any(Notification.class))).thenReturn(mockNotification);
+
+        notificationService.createNotification(createRequest, "key-1");
+
+        InOrder inOrder = inOrder(notificationRepository);
+        inOrder.verify(notificationRepository).insertIdempotencyKeys(argThat(list -> list.size() == 1
+                && "key-1".equals(list.get(0).getIdempotencyKey())));
+        inOrder.verify(notificationRepository).saveAndFlush(any(Notification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createNotifications_WithIdempotencyKey_StoresIndexedKeys() {
+        when(validator.validate(createRequest)).thenReturn(Collections.emptySet());
+        when(notificationRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        notificationService.createNotifications(Arrays.asList(createRequest, createRequest), "key-1");
+
+        verify(notificationRepository).insertAll(argThat(list -> list.size() == 2
+                && "key-1:0".equals(list.get(0).getIdempotencyKey())
+                && "key-1:1".equals(list.get(1).getIdempotencyKey())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createNotifications_RetryAfterOneShardFailed_CreatesMissingShardAndReturnsCommittedOne() {
+        ShardingProperties sharding = new ShardingProperties();
+        sharding.setEnabled(true);
+        sharding.setShardedSince(Instant.parse("2025-06-01T00:00:00Z"));
+        sharding.getShards().add(new ShardingProperties.Shard());
+        ShardRouter twoShards = new ShardRouter(sharding, WorkerIdLease.fixed(0), mock(PlatformTransactionManager.class));
+        NotificationService service = new NotificationService(notificationRepository, redisService, rocketMQService,
+                inboxService, notificationIdFilter, readRouting, twoShards, archiveService, writeBehindLog, eventPublisher, validator);
+        List<CreateNotificationRequest> requests = List.of(requestFor(twoShards, 0), requestFor(twoShards, 1));
+        when(validator.validate(any(CreateNotificationRequest.class))).thenReturn(Collections.emptySet());
+        when(notificationRepository.insertAll(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new DataAccessResourceFailureException("shard 1 unreachable"))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'key-1:0'"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Notification committed = Notification.builder()
+                .id(7L)
+                .type(NotificationType.EMAIL)
+                .recipient(requests.get(0).getRecipient())
+                .idempotencyKey("key-1:0")
+                .build();
+        when(notificationRepository.findByIdempotencyKeyIn(List.of("key-1:0"))).thenReturn(List.of(committed));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> service.createNotifications(requests, "key-1"));
+        BatchCreateNotificationResponse retried = service.createNotifications(requests, "key-1");
+
+        assertEquals(2, retried.getSucceeded());
+        assertEquals(7L, retried.getResults().get(0).getNotification().getId());
+        assertEquals(requests.get(1).getRecipient(), retried.getResults().get(1).getNotification().getRecipient());
+        verify(notificationRepository, times(2)).insertAll(argThat(list -> list.size() == 1
+                && "key-1:1".equals(list.get(0).getIdempotencyKey())));
+    }
+
+    private CreateNotificationRequest requestFor(ShardRouter router, int shard) {
+        for (int i = 0; ; i++) {
+            String recipient = "user" + i + "@example.com";
+            if (router.shardOf(recipient) == shard) {
+                return CreateNotificationRequest.builder()
+                        .type(NotificationType.EMAIL)
+                        .recipient(recipient)
+                        .subject("Subject")
+                        .content("Content")
+                        .build();
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findBatchByIdempotencyKey_RebuildsOriginalResponse() {
+        CreateNotificationRequest invalidRequest = CreateNotificationRequest.builder()
+                .type(NotificationType.SMS)
+                .recipient("")
+                .build();
+        ConstraintViolation<CreateNotificationRequest> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Recipient is required");
+        when(validator.validate(invalidRequest)).thenReturn(Set.of(violation));
+        mockNotification.setIdempotencyKey("key-1:0");
+        when(notificationRepository.findByIdempotencyKeyIn(List.of("key-1:0", "key-1:1")))
+                .thenReturn(List.of(mockNotification));
+
+        Optional<BatchCreateNotificationResponse> response = notificationService.findBatchByIdempotencyKey(
+                Arrays.asList(createRequest, invalidRequest), "key-1");
+
+        assertTrue(response.isPresent());
+        assertEquals(1, response.get().getSucceeded());
+        assertEquals(1L, response.get().getResults().get(0).getNotification().getId());
+        assertEquals("Recipient is required", response.get().getResults().get(1).getError());
+    }
+
+    @Test
+    void findBatchByIdempotencyKey_NothingStored_ReturnsEmpty() {
+        when(notificationRepository.findByIdempotencyKeyIn(List.of("key-1:0"))).thenReturn(List.of());
+
+        assertTrue(notificationService.findBatchByIdempotencyKey(List.of(createRequest), "key-1").isEmpty());
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.example.demo.service;
+
+import com.example.demo.config.RecentFeedProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private RedisService redisService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        RecentFeedProperties properties = new RecentFeedProperties();
+        properties.setMaxSize(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        redisService = new RedisService(redisTemplate, objectMapper, properties, meterRegistry);
+    }
+
+    @Test
+    void writeScripts_RenderTheFeedFromTheSharedSnippet() throws Exception {
+        String render = new ClassPathResource("redis/recent-render.lua").getContentAsString(StandardCharsets.UTF_8);
+
+        for (RedisScript<Long> script : List.of(RedisService.ADD_SCRIPT, RedisService.UPDATE_SCRIPT, RedisService.REMOVE_SCRIPT)) {
+            String source = script.getScriptAsString();
+            assertTrue(source.startsWith(render));
+            assertTrue(source.substring(render.length()).contains("render_feed()"));
+            // the version bump only exists in the snippet, so no script carries its own copy of the render
+            assertEquals(1, source.split("'HINCRBY'", -1).length - 1);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void add_SendsScoreMemberAndJsonInOneScript() throws Exception {
+        RecentNotificationResponse n = recent(42L);
+
+        redisService.add(n);
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), any(), any(),
+                eq(RedisService.KEYS), args.capture());
+        Object[] captured = args.getValue();
+        assertEquals("1000", captured[0]);
+        assertEquals("0000000000000000042", captured[3]);
+        assertEquals(n, objectMapper.readValue((String) captured[4], RecentNotificationResponse.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void get_ParsesItemsAndSkipsMissingOnes() throws Exception {
+        String first = objectMapper.writeValueAsString(recent(2L));
+        String second = objectMapper.writeValueAsString(recent(1L));
+        when(redisTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class)))
+                .thenReturn(Arrays.asList(first, null, second));
+
+        List<RecentNotificationResponse> result = redisService.get();
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+        assertEquals(1, meterRegistry.get("notification.recent.get").tag("result", "hit").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void get_RedisFailure_ReturnsEmptyList() {
+        when(redisTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        assertTrue(redisService.get().isEmpty());
+        assertEquals(1, meterRegistry.get("notification.recent.get").tag("result", "error").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSnapshot_UnchangedVersion_ReturnsLocalCopyWithoutRefetch() {
+        byte[] json = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+        when(redisTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class)))
+                .thenReturn(List.of(bytes("42"), bytes("5"), json), List.of(bytes("42"), bytes("5")));
+
+        RecentSnapshot first = redisService.getSnapshot();
+        RecentSnapshot second = redisService.getSnapshot();
+
+        assertEquals(5L, first.version());
+        assertEquals("\"42-5\"", first.etag());
+        assertSame(first, second);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), any(), any(), eq(RedisService.KEYS), args.capture());
+        assertArrayEquals(new Object[]{"", ""}, args.getAllValues().get(0));
+        assertArrayEquals(new Object[]{"42", "5"}, args.getAllValues().get(1));
+        assertEquals(1, meterRegistry.get("notification.recent.get").tag("result", "unchanged").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSnapshot_NewVersion_ReplacesLocalCopy() {
+        when(redisTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class)))
+                .thenReturn(List.of(bytes("42"), bytes("5"), bytes("[]")), List.of(bytes("42"), bytes("6"), bytes("[{}]")));
+
+        redisService.getSnapshot();
+        RecentSnapshot changed = redisService.getSnapshot();
+
+        assertEquals(6L, changed.version());
+        assertEquals("[{}]", new String(changed.json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSnapshot_CounterRestartedUnderNewEpoch_ReplacesHigherVersionedCopy() {
+        when(redisTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class)))
+                .thenReturn(List.of(bytes("42"), bytes("9"), bytes("[]")), List.of(bytes("43"), bytes("1"), bytes("[{}]")),
+                        List.of(bytes("43"), bytes("1")));
+
+        RecentSnapshot before = redisService.getSnapshot();
+        RecentSnapshot restarted = redisService.getSnapshot();
+        RecentSnapshot polled = redisService.getSnapshot();
+
+        assertNotEquals(before.etag(), restarted.etag());
+        assertEquals("\"43-1\"", restarted.etag());
+        assertSame(restarted, polled);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSnapshot_NothingRendered_ReturnsNull() {
+        when(redisTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class)))
+                .thenReturn(List.of());
+
+        assertNull(redisService.getSnapshot());
+        assertEquals(1, meterRegistry.get("notification.recent.get").tag("result", "miss").timer().count());
+    }
+
+    @Test
+    void render_ProducesUnversionedJsonArray() throws Exception {
+        RecentSnapshot rendered = redisService.render(List.of(recent(1L)));
+
+        assertNull(rendered.etag());
+        assertEquals(1L, objectMapper.readTree(rendered.json()).get(0).get("id").asLong());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private RecentNotificationResponse recent(Long id) {
+        return RecentNotificationResponse.builder()
+                .id(id)
+                .type(NotificationType.EMAIL)
+                .recipient("test@example.com")
+                .subject("Subject " + id)
+                .createdAt(LocalDateTime.of(2025, 7, 15, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ShardingProperties;
+import com.example.demo.config.WriteBehindProperties;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.model.Notification;
+import com.example.demo.mq.RocketMQService;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.service.WriteBehindLog.Entry;
+import com.example.demo.sharding.ShardRouter;
+import com.example.demo.sharding.WorkerIdLease;
+import com.example.demo.stream.NotificationEventPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindWriterTest {
+
+    @Mock
+    private WriteBehindLog writeBehindLog;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private RocketMQService rocketMQService;
+
+    @Mock
+    private InboxService inboxService;
+
+    @Mock
+    private NotificationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WriteBehindProperties properties;
+    private WriteBehindWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WriteBehindProperties();
+        properties.setBatchSize(2);
+        writer = new WriteBehindWriter(writeBehindLog, notificationRepository, rocketMQService, inboxService, eventPublisher,
+                new ShardRouter(new ShardingProperties(), WorkerIdLease.fixed(0), transactionManager), properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void flush_InsertsPublishesThenAcknowledges() {
+        List<Entry> entries = List.of(entry(1L, "a@example.com"), entry(2L, "b@example.com"));
+
+        writer.flush(entries);
+
+        InOrder inOrder = inOrder(notificationRepository, rocketMQService, writeBehindLog);
+        inOrder.verify(notificationRepository).insertAll(argThat(list -> list.size() == 2));
+        inOrder.verify(rocketMQService).sendBatch(argThat(list -> list.size() == 2));
+        inOrder.verify(writeBehindLog).ack(entries);
+        verify(inboxService).evictAll(List.of("a@example.com", "b@example.com"));
+    }
+
+    @Test
+    void flush_ReplayedEntries_SkipsRowsAlreadyCommitted() {
+        when(notificationRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(entry(1L, "a@example.com").notification()));
+
+        writer.flush(List.of(entry(1L, "a@example.com"), entry(2L, "b@example.com")));
+
+        verify(notificationRepository).insertAll(argThat(list -> list.size() == 1 && list.get(0).getId() == 2L));
+        verify(writeBehindLog, never()).deadLetter(any(), any());
+    }
+
+    @Test
+    void flush_IdHeldByAnotherNotification_DeadLettersInsteadOfSkipping() {
+        Entry colliding = entry(1L, "a@example.com");
+        when(notificationRepository.findAllById(List.of(1L))).thenReturn(List.of(entry(1L, "other@example.com").notification()));
+
+        writer.flush(List.of(colliding));
+
+        verify(notificationRepository, never()).insertAll(anyList());
+        InOrder inOrder = inOrder(writeBehindLog);
+        inOrder.verify(writeBehindLog).deadLetter(eq(colliding.notification()), contains("other@example.com"));
+        inOrder.verify(writeBehindLog).ack(List.of(colliding));
+    }
+
+    @Test
+    void flush_DatabaseDown_LeavesEntriesUnacknowledged() {
+        when(notificationRepository.insertAll(anyList())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> writer.flush(List.of(entry(1L, "a@example.com"))));
+
+        verify(writeBehindLog, never()).ack(anyList());
+    }
+
+    @Test
+    void flush_RowRejected_DeadLettersOnlyThatRow() {
+        Entry original = entry(1L, "a@example.com");
+        Entry duplicate = entry(2L, "b@example.com");
+        when(notificationRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Notification> rows = invocation.getArgument(0);
+            if (rows.stream().anyMatch(n -> n.getId() == 2L)) {
+                throw new DataIntegrityViolationException("Duplicate entry for key 'PRIMARY'");
+            }
+            return rows;
+        });
+
+        writer.flush(List.of(original, duplicate));
+
+        verify(notificationRepository).insertAll(List.of(original.notification()));
+        verify(rocketMQService).sendBatch(argThat(list -> list.size() == 1 && list.get(0).getId() == 1L));
+        verify(writeBehindLog).deadLetter(eq(duplicate.notification()), contains("PRIMARY"));
+        verify(writeBehindLog).ack(List.of(original, duplicate));
+    }
+
+    @Test
+    void flush_RetriedIdempotencyKey_DropsTheDuplicate() {
+        Entry retry = entry(2L, "a@example.com");
+        retry.notification().setIdempotencyKey("key-1");
+        Notification original = entry(1L, "a@example.com").notification();
+        original.setIdempotencyKey("key-1");
+        when(notificationRepository.insertAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'key-1'"));
+        when(notificationRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(original));
+
+        writer.flush(List.of(retry));
+
+        verify(writeBehindLog, never()).deadLetter(any(), any());
+        verify(writeBehindLog).ack(List.of(retry));
+    }
+
+    @Test
+    void flush_UnreadableEntry_AcknowledgedWithoutInsert() {
+        Entry unreadable = new Entry("1-0", null);
+
+        writer.flush(List.of(unreadable));
+
+        verifyNoInteractions(notificationRepository);
+        verify(writeBehindLog).ack(List.of(unreadable));
+    }
+
+    @Test
+    void poll_ReplaysUnacknowledgedBeforeNewEntries() {
+        when(writeBehindLog.readUnacknowledged(2)).thenReturn(List.of(entry(1L, "a@example.com")));
+
+        writer.poll();
+
+        verify(notificationRepository).insertAll(anyList());
+        verify(writeBehindLog, never()).readNew(anyInt());
+    }
+
+    @Test
+    void poll_DrainsFullBatchesUntilShort() {
+        when(writeBehindLog.readNew(2))
+                .thenReturn(List.of(entry(1L, "a@example.com"), entry(2L, "b@example.com")))
+                .thenReturn(List.of(entry(3L, "c@example.com")));
+
+        writer.poll();
+
+        verify(writeBehindLog, times(2)).readNew(2);
+        verify(writeBehindLog, times(2)).ack(anyList());
+    }
+
+    private static Entry entry(long id, String recipient) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        return new Entry(id + "-0", Notification.builder()
+                .id(id)
+                .type(NotificationType.EMAIL)
+                .recipient(recipient)
+                .subject("Subject")
+                .content("Content")
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build());
+    }
+}
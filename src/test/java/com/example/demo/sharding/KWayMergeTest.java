@@ -0,0 +1,31 @@
+package com.example.demo.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KWayMergeTest {
+
+    @Test
+    void merge_InterleavesSortedShardsUpToLimit() {
+        List<List<Integer>> shards = List.of(List.of(9, 6, 3), List.of(8, 5, 2), List.of(7, 4, 1), List.of());
+
+        List<Integer> merged = KWayMerge.merge(shards, Comparator.reverseOrder(), 5);
+
+        assertEquals(List.of(9, 8, 7, 6, 5), merged);
+        assertEquals(IntStream.rangeClosed(1, 9).boxed().sorted(Comparator.reverseOrder()).toList(),
+                KWayMerge.merge(shards, Comparator.reverseOrder(), 100));
+    }
+
+    @Test
+    void merge_SingleList_TruncatesWithoutCopying() {
+        List<Integer> only = List.of(3, 2, 1);
+
+        assertEquals(List.of(3, 2), KWayMerge.merge(List.of(only), Comparator.reverseOrder(), 2));
+        assertSame(only, KWayMerge.merge(List.of(only), Comparator.reverseOrder(), 3));
+    }
+}
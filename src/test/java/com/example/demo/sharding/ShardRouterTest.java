@@ -0,0 +1,85 @@
+package com.example.demo.sharding;
+
+import com.example.demo.config.ShardingProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ShardRouterTest {
+
+    private static final Instant SHARDED_SINCE = Instant.parse("2025-06-01T00:00:00Z");
+
+    @Test
+    void shardOf_Recipient_IsStableAndSpreadsOverShards() {
+        ShardRouter router = router(4);
+
+        int[] perShard = new int[4];
+        for (int i = 0; i < 4_000; i++) {
+            String recipient = "user" + i + "@example.com";
+            int shard = router.shardOf(recipient);
+            assertEquals(shard, router.shardOf(recipient));
+            perShard[shard]++;
+        }
+        for (int count : perShard) {
+            assertTrue(count > 800, "uneven spread: " + count);
+        }
+    }
+
+    @Test
+    void shardOf_Id_RoundTripsThroughNextId() {
+        ShardRouter router = router(4);
+
+        for (int shard = 0; shard < 4; shard++) {
+            assertEquals(shard, router.shardOf(router.nextId(shard)));
+        }
+    }
+
+    @Test
+    void shardOf_LegacyIdAbove22Bits_RoutesToShardZero() {
+        ShardRouter router = router(4);
+
+        // an AUTO_INCREMENT id past 2^22 would otherwise decode as shard 12
+        assertEquals(12, SnowflakeIdGenerator.shardOf(5_000_000));
+        assertEquals(0, router.shardOf(5_000_000));
+        assertEquals(0, router.shardOf(SnowflakeIdGenerator.firstIdAt(SHARDED_SINCE.toEpochMilli()) - 1));
+    }
+
+    @Test
+    void new_ShardingWithoutShardedSince_Throws() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        properties.getShards().add(new ShardingProperties.Shard());
+
+        assertThrows(IllegalStateException.class, () -> new ShardRouter(properties, WorkerIdLease.fixed(1), mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void onEachShard_RunsEveryShardInOrderAndRestoresContext() {
+        ShardRouter router = router(3);
+
+        List<Integer> seen = router.onEachShard(shard -> ShardContext.current());
+
+        assertEquals(List.of(0, 1, 2), seen);
+        assertEquals(0, ShardContext.current());
+    }
+
+    @Test
+    void bind_OutsideTransaction_Throws() {
+        assertThrows(IllegalStateException.class, () -> router(2).bind(1));
+    }
+
+    private static ShardRouter router(int shards) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(shards > 1);
+        properties.setShardedSince(SHARDED_SINCE);
+        for (int i = 1; i < shards; i++) {
+            properties.getShards().add(new ShardingProperties.Shard());
+        }
+        return new ShardRouter(properties, WorkerIdLease.fixed(1), mock(PlatformTransactionManager.class));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void nextId_EncodesShardAndTime() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        long before = System.currentTimeMillis();
+
+        long id = generator.nextId(17);
+
+        assertEquals(17, SnowflakeIdGenerator.shardOf(id));
+        assertTrue(SnowflakeIdGenerator.epochMillisOf(id) >= before);
+        assertTrue(id > 0);
+    }
+
+    @Test
+    void nextId_SequenceOverflow_StaysUniqueAndIncreasing() {
+        SnowflakeIdGenerator generator = new FixedClockGenerator(SnowflakeIdGenerator.EPOCH_MILLIS + 1_000);
+
+        Set<Long> ids = new HashSet<>();
+        long previous = 0;
+        for (int i = 0; i < 5_000; i++) {
+            long id = generator.nextId(0);
+            assertTrue(id > previous);
+            assertTrue(ids.add(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void nextId_ClockStepsBack_KeepsIncreasing() {
+        FixedClockGenerator generator = new FixedClockGenerator(SnowflakeIdGenerator.EPOCH_MILLIS + 10_000);
+        long first = generator.nextId(1);
+
+        generator.millis -= 5_000;
+        long second = generator.nextId(1);
+
+        assertTrue(second > first);
+        assertEquals(1, SnowflakeIdGenerator.shardOf(second));
+    }
+
+    @Test
+    void shardOf_LegacyAutoIncrementIds_MapToShardZero() {
+        assertEquals(0, SnowflakeIdGenerator.shardOf(1));
+        assertEquals(0, SnowflakeIdGenerator.shardOf((1L << 22) - 1));
+    }
+
+    @Test
+    void constructor_RejectsWorkerOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKERS));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(0).nextId(SnowflakeIdGenerator.MAX_SHARDS));
+    }
+
+    private static final class FixedClockGenerator extends SnowflakeIdGenerator {
+
+        private long millis;
+
+        private FixedClockGenerator(long millis) {
+            super(0);
+            this.millis = millis;
+        }
+
+        @Override
+        long currentMillis() {
+            return millis;
+        }
+    }
+}
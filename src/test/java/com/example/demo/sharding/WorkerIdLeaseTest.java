@@ -0,0 +1,94 @@
+package com.example.demo.sharding;
+
+import com.example.demo.config.ShardingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkerIdLeaseTest {
+
+    @Mock
+    private StringRedisTemplate redis;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ShardingProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ShardingProperties();
+    }
+
+    @Test
+    void new_ConfiguredWorkerId_SkipsRedis() {
+        properties.setWorkerId(7);
+
+        WorkerIdLease lease = new WorkerIdLease(properties, redis);
+        lease.renew();
+        lease.release();
+
+        assertEquals(7, lease.workerId());
+        assertDoesNotThrow(lease::checkHeld);
+        verifyNoInteractions(redis);
+    }
+
+    @Test
+    void new_ConfiguredWorkerIdOutOfRange_Throws() {
+        properties.setWorkerId(SnowflakeIdGenerator.MAX_WORKERS);
+
+        assertThrows(IllegalArgumentException.class, () -> new WorkerIdLease(properties, redis));
+    }
+
+    @Test
+    void new_NoWorkerId_LeasesFirstFreeId() {
+        when(redis.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(startsWith(WorkerIdLease.KEY_PREFIX), anyString(), eq(properties.getWorkerLease())))
+                .thenReturn(false, false, true);
+
+        WorkerIdLease lease = new WorkerIdLease(properties, redis);
+
+        assertEquals(2, lease.workerId());
+        assertDoesNotThrow(lease::checkHeld);
+    }
+
+    @Test
+    void new_AllIdsLeased_Throws() {
+        when(redis.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(startsWith(WorkerIdLease.KEY_PREFIX), anyString(), any(Duration.class)))
+                .thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> new WorkerIdLease(properties, redis));
+        verify(valueOperations, times(SnowflakeIdGenerator.MAX_WORKERS)).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nextId_LeaseLapsedAndTakenByAnotherInstance_Throws() throws Exception {
+        properties.setWorkerLease(Duration.ofMillis(1));
+        when(redis.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true, false);
+        when(redis.execute(any(RedisScript.class), eq(List.of(WorkerIdLease.KEY_PREFIX + 0)), anyString(), eq("1")))
+                .thenReturn(0L);
+        WorkerIdLease lease = new WorkerIdLease(properties, redis);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(lease);
+
+        Thread.sleep(5);
+        lease.renew();
+
+        assertThrows(IllegalStateException.class, () -> generator.nextId(0));
+    }
+}
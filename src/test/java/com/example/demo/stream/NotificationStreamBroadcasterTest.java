@@ -0,0 +1,156 @@
+package com.example.demo.stream;
+
+import com.example.demo.config.RedisConfig;
+import com.example.demo.config.StreamProperties;
+import com.example.demo.constants.NotificationChange;
+import com.example.demo.constants.NotificationType;
+import com.example.demo.dto.NotificationChangeEvent;
+import com.example.demo.dto.RecentNotificationResponse;
+import com.example.demo.exception.StreamCapacityException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationStreamBroadcasterTest {
+
+    private final ObjectMapper objectMapper = new RedisConfig().objectMapper();
+    private StreamProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationStreamBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StreamProperties();
+        properties.setBufferSize(2);
+        properties.setMaxSubscribers(2);
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new NotificationStreamBroadcaster(objectMapper, properties, meterRegistry);
+    }
+
+    @Test
+    void onMessage_SendsEachSubscriberOnlyMatchingEvents() throws Exception {
+        CapturingEmitter sms = new CapturingEmitter();
+        CapturingEmitter alice = new CapturingEmitter();
+        broadcaster.subscribe(sms, NotificationType.SMS, null);
+        broadcaster.subscribe(alice, null, "alice@example.com");
+
+        broadcaster.onMessage(message(
+                event(NotificationChange.CREATED, 1L, NotificationType.EMAIL, "alice@example.com"),
+                event(NotificationChange.UPDATED, 2L, NotificationType.SMS, "bob@example.com")), null);
+
+        String aliceFrame = alice.frames.poll(5, TimeUnit.SECONDS);
+        assertNotNull(aliceFrame);
+        assertTrue(aliceFrame.contains("id:1\n"));
+        assertTrue(aliceFrame.contains("event:created\n"));
+        assertTrue(aliceFrame.contains("\"recipient\":\"alice@example.com\""));
+
+        String smsFrame = sms.frames.poll(5, TimeUnit.SECONDS);
+        assertNotNull(smsFrame);
+        assertTrue(smsFrame.contains("id:2\n"));
+        assertTrue(smsFrame.contains("event:updated\n"));
+
+        assertNull(alice.frames.poll(100, TimeUnit.MILLISECONDS));
+        assertNull(sms.frames.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void onMessage_SubscriberBehindByMoreThanBuffer_IsDisconnected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingEmitter slow = new BlockingEmitter(release);
+        CapturingEmitter fast = new CapturingEmitter();
+        broadcaster.subscribe(slow, null, null);
+        broadcaster.subscribe(fast, null, null);
+
+        // one frame may be in the blocked send and two fit the buffer, so the fourth overflows
+        for (long id = 1; id <= 4; id++) {
+            broadcaster.onMessage(message(event(NotificationChange.CREATED, id, NotificationType.EMAIL, "bob@example.com")), null);
+            assertNotNull(fast.frames.poll(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("notification.stream.dropped").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void subscribe_AtCapacity_ThrowsStreamCapacityException() {
+        broadcaster.subscribe(new CapturingEmitter(), null, null);
+        broadcaster.subscribe(new CapturingEmitter(), null, null);
+
+        assertThrows(StreamCapacityException.class, () -> broadcaster.subscribe(new CapturingEmitter(), null, null));
+        assertEquals(2, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void subscribe_StreamDisabled_ThrowsStreamCapacityException() {
+        properties.setEnabled(false);
+
+        assertThrows(StreamCapacityException.class, () -> broadcaster.subscribe(new CapturingEmitter(), null, null));
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    private DefaultMessage message(NotificationChangeEvent... events) throws IOException {
+        return new DefaultMessage(NotificationEventPublisher.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                objectMapper.writeValueAsBytes(List.of(events)));
+    }
+
+    private static NotificationChangeEvent event(NotificationChange change, Long id, NotificationType type, String recipient) {
+        return NotificationChangeEvent.builder()
+                .change(change)
+                .notification(RecentNotificationResponse.builder()
+                        .id(id)
+                        .type(type)
+                        .recipient(recipient)
+                        .subject("Subject " + id)
+                        .createdAt(LocalDateTime.now())
+                        .build())
+                .build();
+    }
+
+    // records each frame as the text a client would read
+    private static class CapturingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            frames.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+    }
+
+    // a client that stops reading: every send waits until released
+    private static class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+
+        private BlockingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+        }
+    }
+}